@@ -0,0 +1,161 @@
+package com.dreamplanner.benchmark;
+
+import com.dreamplanner.entity.Dream;
+import com.dreamplanner.entity.Follow;
+import com.dreamplanner.entity.Post;
+import com.dreamplanner.entity.Resource;
+import com.dreamplanner.entity.Tag;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试数据构造
+ * 使用固定随机种子，保证每次运行的数据形态一致
+ *
+ * @author DreamPlanner
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setNickname("梦想家" + id);
+        user.setAvatar("http://localhost:8080/api/files/avatar/20240101/" + id + ".jpg");
+        user.setStatus(1);
+        user.setCreateTime(LocalDateTime.now().minusDays(id % 365));
+        user.setFollowing(new HashSet<>());
+        user.setFollowers(new HashSet<>());
+        return user;
+    }
+
+    /**
+     * 构造一个关注了followingCount个用户的用户
+     */
+    static User userWithFollowing(long id, int followingCount) {
+        User user = user(id);
+        for (long i = 1; i <= followingCount; i++) {
+            Follow follow = new Follow();
+            follow.setId(i);
+            follow.setFollower(user);
+            follow.setFollowed(user(id + i));
+            user.getFollowing().add(follow);
+        }
+        return user;
+    }
+
+    static Dream dream(long id, User user, int tagCount, int resourceCount) {
+        Dream dream = new Dream();
+        dream.setId(id);
+        dream.setUser(user);
+        dream.setTitle("梦想标题" + id);
+        dream.setDescription("这是一个用于基准测试的梦想描述，长度接近真实数据。".repeat(4));
+        dream.setCategory("学习");
+        dream.setPriority(2);
+        dream.setStatus(1);
+        dream.setCompletionRate(BigDecimal.valueOf(35));
+        dream.setDeadline(LocalDate.now().plusMonths(6));
+        dream.setExpectedDays(180);
+        dream.setImageUrl("http://localhost:8080/api/files/dream/20240101/" + id + ".jpg");
+        dream.setIsPublic(1);
+        dream.setCreatedAt(LocalDateTime.now().minusDays(30));
+        dream.setUpdatedAt(LocalDateTime.now());
+
+        Set<Tag> tags = new HashSet<>();
+        for (long i = 1; i <= tagCount; i++) {
+            Tag tag = new Tag();
+            tag.setId(i);
+            tag.setName("标签" + i);
+            tags.add(tag);
+        }
+        dream.setTags(tags);
+
+        Set<Resource> resources = new HashSet<>();
+        for (long i = 1; i <= resourceCount; i++) {
+            Resource resource = new Resource();
+            resource.setId(i);
+            resource.setTitle("学习资源" + i);
+            resource.setDescription("资源描述" + i);
+            resource.setType("article");
+            resource.setCategory("学习");
+            resource.setUrl("https://example.com/resource/" + i);
+            resource.setStatus(1);
+            resources.add(resource);
+        }
+        dream.setResources(resources);
+        dream.setTasks(new HashSet<>());
+        return dream;
+    }
+
+    /**
+     * 构造任务列表，每个任务带childCount个子任务，状态随机分布
+     */
+    static List<Task> tasks(Dream dream, int count, int childCount, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        long nextId = 1;
+        for (int i = 0; i < count; i++) {
+            Task task = task(nextId++, dream, random);
+            for (int j = 0; j < childCount; j++) {
+                Task child = task(nextId++, dream, random);
+                child.setParentTask(task);
+                task.getSubtasks().add(child);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static Task task(long id, Dream dream, Random random) {
+        Task task = new Task();
+        task.setId(id);
+        task.setDream(dream);
+        task.setUser(dream.getUser());
+        task.setTitle("任务" + id);
+        task.setDescription("任务描述" + id);
+        task.setStatus(random.nextInt(4));
+        task.setPriority(1 + random.nextInt(3));
+        task.setStartDate(LocalDate.now().minusDays(random.nextInt(30)));
+        task.setDueDate(LocalDate.now().plusDays(random.nextInt(60) - 20));
+        task.setCreatedAt(LocalDateTime.now().minusDays(30));
+        task.setUpdatedAt(LocalDateTime.now());
+        task.setSubtasks(new HashSet<>());
+        return task;
+    }
+
+    static List<Post> posts(int count, Dream dream, long seed) {
+        Random random = new Random(seed);
+        List<Post> posts = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            Post post = new Post();
+            post.setId(i);
+            post.setUser(user(100 + random.nextInt(50)));
+            post.setDream(dream);
+            post.setTitle("动态标题" + i);
+            post.setContent("今天完成了计划中的任务，继续加油！".repeat(1 + random.nextInt(6)));
+            post.setImages(random.nextBoolean()
+                    ? "http://localhost:8080/api/files/post/20240101/a" + i + ".jpg,http://localhost:8080/api/files/post/20240101/b" + i + ".jpg"
+                    : null);
+            post.setStatus(1);
+            post.setViewCount(random.nextInt(1000));
+            post.setLikeCount(random.nextInt(100));
+            post.setCommentCount(random.nextInt(20));
+            post.setCreatedAt(LocalDateTime.now().minusHours(i));
+            post.setUpdatedAt(LocalDateTime.now().minusHours(i));
+            posts.add(post);
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,95 @@
+package com.dreamplanner.benchmark;
+
+import com.dreamplanner.common.ApiResponse;
+import com.dreamplanner.dto.ApiResponseDTO;
+import com.dreamplanner.dto.PageResponseDTO;
+import com.dreamplanner.dto.TaskDTO;
+import com.dreamplanner.entity.Dream;
+import com.dreamplanner.entity.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 接口响应JSON序列化基准测试
+ * ObjectMapper由Jackson2ObjectMapperBuilder创建，与Spring MVC使用的配置一致
+ *
+ * @author DreamPlanner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse apiResponse;
+    private ApiResponseDTO<PageResponseDTO<TaskDTO>> apiResponseDTO;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Dream dream = BenchmarkData.dream(1L, BenchmarkData.user(1L), 5, 3);
+        List<Task> tasks = BenchmarkData.tasks(dream, pageSize, 0, 42L);
+        List<TaskDTO> content = tasks.stream()
+                .map(task -> TaskDTO.builder()
+                        .id(task.getId())
+                        .dreamId(dream.getId())
+                        .dreamTitle(dream.getTitle())
+                        .userId(task.getUser().getId())
+                        .title(task.getTitle())
+                        .description(task.getDescription())
+                        .status(task.getStatus())
+                        .priority(task.getPriority())
+                        .startDate(task.getStartDate())
+                        .dueDate(task.getDueDate())
+                        .createdAt(task.getCreatedAt())
+                        .updatedAt(task.getUpdatedAt())
+                        .isTodayTask(false)
+                        .isOverdue(false)
+                        .build())
+                .collect(Collectors.toList());
+        PageResponseDTO<TaskDTO> page = PageResponseDTO.<TaskDTO>builder()
+                .content(content)
+                .totalElements(1000)
+                .totalPages(1000 / pageSize)
+                .size(pageSize)
+                .number(0)
+                .first(true)
+                .last(false)
+                .build();
+
+        apiResponse = ApiResponse.success(page);
+        apiResponseDTO = ApiResponseDTO.success(page);
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(apiResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponseDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(apiResponseDTO);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dreamplanner.benchmark;
+
+import com.dreamplanner.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT令牌生成与校验基准测试，每个需要认证的请求都会经过校验路径
+ *
+ * @author DreamPlanner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        // 与application.yml中的配置长度一致，保证走HS256固定密钥分支
+        ReflectionTestUtils.setField(jwtUtil, "secret", "8Zz5tw0Ionm3XPZZfN0NOml3z9FMfmpgXwovR9fp6ryDIoGRM8EPHAB6iHsc0fb");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        token = jwtUtil.generateToken(1L, "benchmark");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(1L, "benchmark");
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, "benchmark");
+    }
+}
@@ -0,0 +1,215 @@
+package com.dreamplanner.benchmark;
+
+import com.dreamplanner.dto.DreamDTO;
+import com.dreamplanner.entity.Comment;
+import com.dreamplanner.entity.Dream;
+import com.dreamplanner.entity.DreamResource;
+import com.dreamplanner.entity.DreamTag;
+import com.dreamplanner.entity.Follow;
+import com.dreamplanner.entity.Like;
+import com.dreamplanner.entity.Post;
+import com.dreamplanner.entity.Progress;
+import com.dreamplanner.entity.Resource;
+import com.dreamplanner.entity.Tag;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.User;
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.search.SearchBackend;
+import com.dreamplanner.search.SearchHighlighter;
+import com.dreamplanner.service.TaskHierarchyService;
+import com.dreamplanner.service.impl.DreamServiceImpl;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 二级缓存对梦想列表转换的影响
+ * 使用真实的Hibernate会话和H2内存库，梦想列表每次在新会话中加载，convertToDTO访问标签和资源时触发延迟加载；
+ * cold在每次调用前清空全部缓存区域，相当于关闭缓存时的两条关联查询，warm则全部命中缓存。
+ * 完成率计算依赖的任务仓库使用空结果的存根，以便只比较标签和资源的加载开销
+ *
+ * @author DreamPlanner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final String JDBC_URL =
+            "jdbc:h2:mem:l2bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    /**
+     * cold：每次调用前清空缓存；warm：缓存已预热
+     */
+    @Param({"cold", "warm"})
+    public String cache;
+
+    /**
+     * 列表中的梦想数量
+     */
+    @Param({"20"})
+    public int pageSize;
+
+    private SessionFactory sessionFactory;
+    private DreamServiceImpl dreamService;
+    private Session session;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, JDBC_URL)
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, true)
+                .applySetting(AvailableSettings.CACHE_REGION_FACTORY, "jcache")
+                .applySetting("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider")
+                .applySetting("hibernate.javax.cache.uri", "ehcache.xml")
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .build();
+        MetadataSources sources = new MetadataSources(registry);
+        for (Class<?> entity : List.of(User.class, Follow.class, Dream.class, Task.class, Post.class, Comment.class,
+                Like.class, Progress.class, Tag.class, Resource.class, DreamTag.class, DreamResource.class)) {
+            sources.addAnnotatedClass(entity);
+        }
+        sessionFactory = sources.buildMetadata().buildSessionFactory();
+        userId = seed();
+
+        DreamRepository dreamRepository = mock(DreamRepository.class, withSettings().stubOnly());
+        TaskRepository taskRepository = mock(TaskRepository.class, withSettings().stubOnly());
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(dreamRepository.findByUserId(anyLong())).thenAnswer(invocation -> session
+                .createQuery("from Dream d where d.user.id = :userId order by d.id", Dream.class)
+                .setParameter("userId", invocation.getArgument(0))
+                .getResultList());
+        when(taskRepository.findByDreamId(anyLong())).thenReturn(Collections.emptyList());
+        dreamService = new DreamServiceImpl(dreamRepository, userRepository, taskRepository, event -> { },
+                mock(TaskHierarchyService.class, withSettings().stubOnly()),
+                mock(SearchBackend.class, withSettings().stubOnly()), new SearchHighlighter(80, "<em>", "</em>"));
+
+        // 预热缓存，warm模式下后续调用全部命中
+        dreamListConversion();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareInvocation() {
+        if ("cold".equals(cache)) {
+            sessionFactory.getCache().evictAllRegions();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Statistics statistics = sessionFactory.getStatistics();
+        System.out.printf("%n[%s] 二级缓存命中: %d, 未命中: %d, 执行SQL: %d%n", cache,
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getPrepareStatementCount());
+        sessionFactory.close();
+    }
+
+    /**
+     * 在新会话中加载并转换一页梦想
+     */
+    @Benchmark
+    public List<DreamDTO> dreamListConversion() {
+        try (Session current = sessionFactory.openSession()) {
+            session = current;
+            return dreamService.getDreamsByUserId(userId);
+        } finally {
+            session = null;
+        }
+    }
+
+    /**
+     * 20个标签、10个资源组成的目录，每个梦想关联其中5个标签和3个资源
+     */
+    private Long seed() {
+        Random random = new Random(42);
+        try (Session seedSession = sessionFactory.openSession()) {
+            seedSession.beginTransaction();
+            User user = new User();
+            user.setUsername("bench");
+            user.setPassword("x");
+            user.setEmail("bench@example.com");
+            user.setStatus(1);
+            seedSession.persist(user);
+
+            List<Tag> tags = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Tag tag = new Tag();
+                tag.setName("标签" + i);
+                tag.setCategory("分类" + (i % 4));
+                seedSession.persist(tag);
+                tags.add(tag);
+            }
+            List<Resource> resources = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Resource resource = new Resource();
+                resource.setTitle("资源" + i);
+                resource.setDescription("学习资料" + i);
+                resource.setType("article");
+                resource.setUrl("https://example.com/resource/" + i);
+                resource.setStatus(1);
+                seedSession.persist(resource);
+                resources.add(resource);
+            }
+            for (int i = 0; i < pageSize; i++) {
+                Dream dream = new Dream();
+                dream.setUser(user);
+                dream.setTitle("梦想" + i);
+                dream.setStatus(1);
+                dream.setCompletionRate(BigDecimal.ZERO);
+                dream.setIsPublic(1);
+                dream.setTags(pick(tags, 5, random));
+                dream.setResources(pick(resources, 3, random));
+                seedSession.persist(dream);
+            }
+            seedSession.getTransaction().commit();
+            return user.getId();
+        }
+    }
+
+    private static <T> Set<T> pick(List<T> catalog, int count, Random random) {
+        List<T> shuffled = new ArrayList<>(catalog);
+        Collections.shuffle(shuffled, random);
+        return new HashSet<>(shuffled.subList(0, count));
+    }
+}
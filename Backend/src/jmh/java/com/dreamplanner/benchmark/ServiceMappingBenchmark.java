@@ -0,0 +1,146 @@
+package com.dreamplanner.benchmark;
+
+import com.dreamplanner.dto.DreamDTO;
+import com.dreamplanner.dto.TaskDTO;
+import com.dreamplanner.entity.Dream;
+import com.dreamplanner.entity.Post;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.User;
+import com.dreamplanner.repository.CommentRepository;
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.LikeRepository;
+import com.dreamplanner.repository.PostRepository;
+import com.dreamplanner.repository.TaskOccurrenceRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.search.SearchBackend;
+import com.dreamplanner.search.SearchHighlighter;
+import com.dreamplanner.search.post.PostSearchIndex;
+import com.dreamplanner.service.ActivityService;
+import com.dreamplanner.service.TaskHierarchyService;
+import com.dreamplanner.service.impl.DreamServiceImpl;
+import com.dreamplanner.service.impl.PostServiceImpl;
+import com.dreamplanner.service.impl.TaskServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 服务层实体到DTO/VO转换的基准测试
+ * 仓库使用只存根不记录调用的Mock，测量的是转换逻辑本身的CPU和内存分配开销
+ *
+ * @author DreamPlanner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceMappingBenchmark {
+
+    /**
+     * 每页数据量
+     */
+    @Param({"20"})
+    public int pageSize;
+
+    /**
+     * 每个任务的子任务数量
+     */
+    @Param({"0", "5"})
+    public int childTasks;
+
+    private PostServiceImpl postService;
+    private DreamServiceImpl dreamService;
+    private TaskServiceImpl taskService;
+
+    @Setup
+    public void setup() {
+        PostRepository postRepository = stub(PostRepository.class);
+        UserRepository userRepository = stub(UserRepository.class);
+        DreamRepository dreamRepository = stub(DreamRepository.class);
+        TaskRepository taskRepository = stub(TaskRepository.class);
+        LikeRepository likeRepository = stub(LikeRepository.class);
+        CommentRepository commentRepository = stub(CommentRepository.class);
+
+        User currentUser = BenchmarkData.userWithFollowing(1L, 50);
+        Dream dream = BenchmarkData.dream(1L, currentUser, 5, 3);
+        List<Post> posts = BenchmarkData.posts(pageSize, dream, 42L);
+        List<Task> tasks = BenchmarkData.tasks(dream, pageSize, childTasks, 42L);
+        List<Dream> dreams = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            dreams.add(BenchmarkData.dream(i, currentUser, 5, 3));
+        }
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
+        when(postRepository.findByStatus(eq(1), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(posts, PageRequest.of(0, pageSize), 1000));
+        when(likeRepository.findByPostAndUser(any(), any())).thenReturn(Optional.empty());
+        when(dreamRepository.findByUserId(1L)).thenReturn(dreams);
+        when(taskRepository.findByDreamId(anyLong())).thenReturn(tasks);
+
+        SearchHighlighter searchHighlighter = new SearchHighlighter(80, "<em>", "</em>");
+        postService = new PostServiceImpl(postRepository, userRepository, dreamRepository, commentRepository, likeRepository,
+                event -> { }, new PostSearchIndex(), searchHighlighter);
+        TaskHierarchyService taskHierarchyService = stub(TaskHierarchyService.class);
+        SearchBackend searchBackend = stub(SearchBackend.class);
+        dreamService = new DreamServiceImpl(dreamRepository, userRepository, taskRepository, event -> { },
+                taskHierarchyService, searchBackend, searchHighlighter);
+        taskService = new TaskServiceImpl(taskRepository, stub(TaskOccurrenceRepository.class), dreamRepository,
+                userRepository, event -> { }, taskHierarchyService, searchBackend, searchHighlighter,
+                stub(ActivityService.class));
+    }
+
+    /**
+     * 社区动态列表：Post到PostVO的转换，包括作者信息、关注状态和图片拆分
+     */
+    @Benchmark
+    public Map<String, Object> postFeedMapping() {
+        return postService.getPosts(0, pageSize, null, null, 1L);
+    }
+
+    /**
+     * 梦想列表：标签、资源转换以及实时完成率计算
+     */
+    @Benchmark
+    public List<DreamDTO> dreamConvertToDTO() {
+        return dreamService.getDreamsByUserId(1L);
+    }
+
+    /**
+     * 任务列表：包含子任务的TaskDTO转换
+     */
+    @Benchmark
+    public List<TaskDTO> taskConvertToDTO() {
+        return taskService.getTasksByDreamId(1L);
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,343 @@
+package com.dreamplanner.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 合成数据生成器
+ * 按doc/dream_db.sql的表结构向MySQL写入用户、关注、梦想、任务、动态、评论和点赞数据，
+ * 相同的种子和参数总是生成相同的数据集；关注、发帖和动态热度服从幂律分布，更接近真实社区的长尾特征。
+ * 任务闭包表、用户活跃度位图和任务ID分配表随任务一起维护，与应用写入的数据保持一致；生成期间不要通过应用创建任务
+ *
+ * <p>参数（--key=value）：
+ * <ul>
+ *     <li>jdbcUrl / dbUser / dbPassword：数据库连接，默认与application.yml一致</li>
+ *     <li>users：用户数，默认100000</li>
+ *     <li>seed：随机种子，默认42</li>
+ *     <li>dreamsPerUser / tasksPerDream：每个用户的梦想数和每个梦想的任务数，默认3和8</li>
+ *     <li>postsPerUser：平均每个用户的动态数，默认2</li>
+ *     <li>avgFollowing / avgComments / avgLikes：平均关注数、每条动态平均评论数和点赞数，默认20、3、10</li>
+ *     <li>zipfExponent：热度分布的幂指数，默认1.0</li>
+ *     <li>rowsPerStatement：每条INSERT语句包含的行数，默认1000</li>
+ *     <li>manifest：数据集描述文件，默认target/loadtest/dataset.properties</li>
+ * </ul>
+ *
+ * @author DreamPlanner
+ */
+public class DataGenerator {
+
+    private static final String DEFAULT_JDBC_URL = "jdbc:mysql://localhost:3306/dream_db?useUnicode=true"
+            + "&characterEncoding=utf-8&useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=Asia/Shanghai";
+
+    private static final String[] CATEGORIES = {"学习", "健康", "职业", "旅行", "兴趣", "财务"};
+    private static final String[] DREAM_TITLES = {"通过英语六级", "跑完一次全程马拉松", "学会弹吉他", "去西藏旅行",
+            "读完一百本书", "存下第一笔十万元", "转岗成为产品经理", "每天早起坚持一年"};
+    private static final String[] TASK_TITLES = {"制定计划", "每日打卡", "阶段复盘", "购买资料", "寻找同伴",
+            "完成第一周目标", "记录心得", "调整作息"};
+    private static final String[] SENTENCES = {"今天又向目标迈进了一步。", "坚持真的不容易，但看到进步很开心。",
+            "分享一下最近的学习方法。", "有没有一起打卡的小伙伴？", "最近遇到了瓶颈，需要调整节奏。",
+            "回头看看，已经坚持一个月了。", "感谢大家的鼓励！", "计划赶不上变化，但不放弃。"};
+
+    private final LoadTestOptions options;
+    private final Random random;
+    private final DatasetManifest manifest = new DatasetManifest();
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    private int[] popularity;
+    private ZipfDistribution popularityZipf;
+
+    public DataGenerator(LoadTestOptions options) {
+        this.options = options;
+        this.manifest.seed = options.getLong("seed", 42L);
+        this.random = new Random(manifest.seed);
+    }
+
+    public void generate() throws Exception {
+        manifest.userCount = options.getInt("users", 100_000);
+        manifest.dreamsPerUser = options.getInt("dreamsPerUser", 3);
+        manifest.tasksPerDream = options.getInt("tasksPerDream", 8);
+        manifest.postCount = Math.round(manifest.userCount * options.getDouble("postsPerUser", 2.0));
+        manifest.usernamePrefix = "lt" + manifest.seed + "_";
+        manifest.password = options.getString("password", "Loadtest@123");
+        int rowsPerStatement = options.getInt("rowsPerStatement", 1000);
+
+        String jdbcUrl = options.getString("jdbcUrl", DEFAULT_JDBC_URL);
+        try (Connection connection = DriverManager.getConnection(jdbcUrl,
+                options.getString("dbUser", "root"), options.getString("dbPassword", "123456"))) {
+            connection.setAutoCommit(true);
+            checkPrefixUnused(connection);
+            manifest.userIdBase = nextId(connection, "user");
+            manifest.dreamIdBase = nextId(connection, "dream");
+            // 任务ID由应用按块分配，task_seq可能已领先于表中的最大ID
+            manifest.taskIdBase = Math.max(nextId(connection, "task"), nextTaskSeq(connection));
+            manifest.postIdBase = nextId(connection, "post");
+
+            // 热度排名随机映射到用户，避免ID越小越热门
+            popularity = shuffledIndexes(manifest.userCount);
+            popularityZipf = new ZipfDistribution(manifest.userCount, options.getDouble("zipfExponent", 1.0));
+
+            timed("user", () -> generateUsers(connection, rowsPerStatement));
+            timed("follow", () -> generateFollows(connection, rowsPerStatement));
+            timed("dream/task", () -> generateDreamsAndTasks(connection, rowsPerStatement));
+            timed("task derived", () -> generateTaskDerivedRows(connection));
+            timed("post/comment/like", () -> generatePosts(connection, rowsPerStatement));
+        }
+
+        Path manifestFile = Paths.get(options.getString("manifest", "target/loadtest/dataset.properties"));
+        manifest.write(manifestFile);
+        System.out.printf("数据生成完成, 数据集描述文件: %s%n", manifestFile.toAbsolutePath());
+    }
+
+    private long generateUsers(Connection connection, int rowsPerStatement) throws SQLException {
+        // BCrypt刻意设计得很慢，所有用户共用一个哈希，登录时的校验开销与真实用户一致
+        String passwordHash = new BCryptPasswordEncoder().encode(manifest.password);
+        try (MultiRowInsert insert = new MultiRowInsert(connection, "user", new String[]{"id", "username",
+                "password", "nickname", "email", "gender", "signature", "status", "created_at", "updated_at"},
+                rowsPerStatement)) {
+            for (int i = 0; i < manifest.userCount; i++) {
+                LocalDateTime createdAt = randomPastTime(365);
+                insert.addRow(manifest.userId(i), manifest.username(i), passwordHash, "压测用户" + i,
+                        manifest.username(i) + "@loadtest.local", random.nextInt(3), pick(SENTENCES), 1,
+                        createdAt, createdAt);
+            }
+            insert.close();
+            return insert.getTotalRows();
+        }
+    }
+
+    private long generateFollows(Connection connection, int rowsPerStatement) throws SQLException {
+        double avgFollowing = options.getDouble("avgFollowing", 20);
+        int maxFollowing = Math.min(manifest.userCount - 1, options.getInt("maxFollowing", 2000));
+        Set<Integer> followed = new HashSet<>();
+        try (MultiRowInsert insert = new MultiRowInsert(connection, "follow",
+                new String[]{"follower_id", "following_id", "created_at"}, rowsPerStatement)) {
+            for (int follower = 0; follower < manifest.userCount; follower++) {
+                // 关注数服从帕累托分布，被关注者按热度的Zipf分布挑选，形成少数大V被大量关注的结构
+                int degree = Math.min(maxFollowing, pareto(avgFollowing));
+                followed.clear();
+                int attempts = degree * 3;
+                while (followed.size() < degree && attempts-- > 0) {
+                    int target = popularity[popularityZipf.sample(random)];
+                    if (target != follower && followed.add(target)) {
+                        insert.addRow(manifest.userId(follower), manifest.userId(target), randomPastTime(180));
+                    }
+                }
+            }
+            insert.close();
+            return insert.getTotalRows();
+        }
+    }
+
+    private long generateDreamsAndTasks(Connection connection, int rowsPerStatement) throws SQLException {
+        int[] taskStatus = new int[manifest.tasksPerDream];
+        try (MultiRowInsert dreams = new MultiRowInsert(connection, "dream", new String[]{"id", "user_id", "title",
+                "description", "category", "priority", "status", "completion_rate", "deadline", "expected_days",
+                "is_public", "created_at", "updated_at"}, rowsPerStatement);
+             MultiRowInsert tasks = new MultiRowInsert(connection, "task", new String[]{"id", "dream_id", "user_id",
+                     "title", "description", "status", "priority", "start_date", "due_date", "completed_at",
+                     "created_at", "updated_at"}, rowsPerStatement)) {
+            for (int user = 0; user < manifest.userCount; user++) {
+                for (int d = 0; d < manifest.dreamsPerUser; d++) {
+                    long dreamId = manifest.dreamId(user, d);
+                    LocalDateTime dreamCreatedAt = randomPastTime(180);
+                    int completed = 0;
+                    for (int t = 0; t < manifest.tasksPerDream; t++) {
+                        taskStatus[t] = random.nextInt(4);
+                        if (taskStatus[t] == 2) {
+                            completed++;
+                        }
+                    }
+                    BigDecimal completionRate = BigDecimal.valueOf(completed * 100.0 / manifest.tasksPerDream)
+                            .setScale(2, RoundingMode.HALF_UP);
+                    int dreamStatus = completed == manifest.tasksPerDream ? 2 : 1;
+                    dreams.addRow(dreamId, manifest.userId(user), pick(DREAM_TITLES), pick(SENTENCES),
+                            pick(CATEGORIES), 1 + random.nextInt(5), dreamStatus, completionRate,
+                            LocalDate.now().plusDays(30 + random.nextInt(365)), 30 + random.nextInt(300),
+                            random.nextInt(2), dreamCreatedAt, dreamCreatedAt);
+
+                    for (int t = 0; t < manifest.tasksPerDream; t++) {
+                        LocalDate startDate = dreamCreatedAt.toLocalDate().plusDays(t * 7L);
+                        LocalDateTime completedAt = taskStatus[t] == 2 ? randomPastTime(30) : null;
+                        tasks.addRow(manifest.taskId(user, d * manifest.tasksPerDream + t), dreamId,
+                                manifest.userId(user), pick(TASK_TITLES), pick(SENTENCES), taskStatus[t],
+                                1 + random.nextInt(5), startDate, startDate.plusDays(7), completedAt,
+                                dreamCreatedAt, dreamCreatedAt);
+                    }
+                }
+            }
+            dreams.close();
+            tasks.close();
+            return dreams.getTotalRows() + tasks.getTotalRows();
+        }
+    }
+
+    /**
+     * 按生成的任务补齐闭包表、完成任务的活跃度位图，并把task_seq推进到生成区间之后，
+     * 否则应用下一次分配的ID块会与生成的任务冲突
+     */
+    private long generateTaskDerivedRows(Connection connection) throws SQLException {
+        long firstTaskId = manifest.taskIdBase;
+        long lastTaskId = manifest.taskId(manifest.userCount - 1, manifest.tasksPerUser() - 1);
+        long rows;
+        // 生成的任务都是根任务，闭包表只有自身一行
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO task_closure (ancestor_id, descendant_id, depth) "
+                        + "SELECT id, id, 0 FROM task WHERE id BETWEEN ? AND ?")) {
+            statement.setLong(1, firstTaskId);
+            statement.setLong(2, lastTaskId);
+            rows = statement.executeUpdate();
+        }
+        // 与V11迁移的回填方式相同：每个完成日生成只有一位为1的掩码，按用户和年份BIT_OR合并
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO user_activity (user_id, type, activity_year, days, updated_at) "
+                        + "SELECT d.user_id, 2, YEAR(d.day), "
+                        + "BIT_OR(UNHEX(CONCAT(REPEAT('00', (DAYOFYEAR(d.day) - 1) DIV 8), "
+                        + "LPAD(HEX(1 << ((DAYOFYEAR(d.day) - 1) % 8)), 2, '0'), "
+                        + "REPEAT('00', 45 - (DAYOFYEAR(d.day) - 1) DIV 8)))), NOW() "
+                        + "FROM (SELECT DISTINCT user_id, DATE(completed_at) AS day FROM task "
+                        + "WHERE id BETWEEN ? AND ? AND status = 2 AND completed_at IS NOT NULL) d "
+                        + "GROUP BY d.user_id, YEAR(d.day)")) {
+            statement.setLong(1, firstTaskId);
+            statement.setLong(2, lastTaskId);
+            rows += statement.executeUpdate();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE task_seq SET next_val = GREATEST(next_val, ?)")) {
+            statement.setLong(1, lastTaskId + 1);
+            statement.executeUpdate();
+        }
+        return rows;
+    }
+
+    private long generatePosts(Connection connection, int rowsPerStatement) throws SQLException {
+        double avgComments = options.getDouble("avgComments", 3);
+        double avgLikes = options.getDouble("avgLikes", 10);
+        int maxInteractions = Math.min(manifest.userCount, options.getInt("maxInteractionsPerPost", 5000));
+        Set<Integer> likers = new HashSet<>();
+        try (MultiRowInsert posts = new MultiRowInsert(connection, "post", new String[]{"id", "user_id", "dream_id",
+                "title", "content", "status", "view_count", "like_count", "comment_count", "created_at",
+                "updated_at"}, rowsPerStatement);
+             MultiRowInsert comments = new MultiRowInsert(connection, "comment", new String[]{"post_id", "user_id",
+                     "content", "status", "created_at", "updated_at"}, rowsPerStatement);
+             MultiRowInsert likes = new MultiRowInsert(connection, "like",
+                     new String[]{"post_id", "user_id", "created_at"}, rowsPerStatement)) {
+            for (long p = 0; p < manifest.postCount; p++) {
+                long postId = manifest.postId(p);
+                // 热门用户发帖更多，动态的互动量同样是长尾分布，计数列与明细行保持一致
+                int author = popularity[popularityZipf.sample(random)];
+                int likeCount = Math.min(maxInteractions, pareto(avgLikes));
+                int commentCount = Math.min(maxInteractions, pareto(avgComments));
+                LocalDateTime createdAt = randomPastTime(90);
+
+                posts.addRow(postId, manifest.userId(author),
+                        manifest.dreamId(author, random.nextInt(manifest.dreamsPerUser)),
+                        pick(DREAM_TITLES) + "打卡", pick(SENTENCES) + pick(SENTENCES), 1,
+                        likeCount * 5 + random.nextInt(50), likeCount, commentCount, createdAt, createdAt);
+
+                for (int c = 0; c < commentCount; c++) {
+                    LocalDateTime commentedAt = createdAt.plusMinutes(random.nextInt(7 * 24 * 60));
+                    comments.addRow(postId, manifest.userId(random.nextInt(manifest.userCount)), pick(SENTENCES),
+                            1, commentedAt, commentedAt);
+                }
+
+                likers.clear();
+                while (likers.size() < likeCount) {
+                    int liker = random.nextInt(manifest.userCount);
+                    if (likers.add(liker)) {
+                        likes.addRow(postId, manifest.userId(liker),
+                                createdAt.plusMinutes(random.nextInt(7 * 24 * 60)));
+                    }
+                }
+            }
+            posts.close();
+            comments.close();
+            likes.close();
+            return posts.getTotalRows() + comments.getTotalRows() + likes.getTotalRows();
+        }
+    }
+
+    private void checkPrefixUnused(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM `user` WHERE username LIKE ?")) {
+            statement.setString(1, manifest.usernamePrefix + "%");
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    throw new IllegalStateException("种子" + manifest.seed + "的数据已存在，请更换--seed或先清理数据");
+                }
+            }
+        }
+    }
+
+    private static long nextTaskSeq(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(next_val), 0) FROM task_seq")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM `" + table + "`")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * 按给定均值采样Lomax分布（alpha=2的平移帕累托分布），大部分结果小于均值，少数结果远大于均值
+     */
+    private int pareto(double mean) {
+        return (int) (mean * (1 / Math.sqrt(1 - random.nextDouble()) - 1));
+    }
+
+    private int[] shuffledIndexes(int size) {
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
+        }
+        return indexes;
+    }
+
+    private LocalDateTime randomPastTime(int maxDays) {
+        return now.minusSeconds(random.nextInt(maxDays * 24 * 60 * 60));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void timed(String name, SqlTask task) throws SQLException {
+        long start = System.nanoTime();
+        long rows = task.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-18s 写入 %,d 行, 耗时 %.1f 秒, %,.0f 行/秒%n", name, rows, seconds, rows / seconds);
+    }
+
+    @FunctionalInterface
+    private interface SqlTask {
+        long run() throws SQLException;
+    }
+}
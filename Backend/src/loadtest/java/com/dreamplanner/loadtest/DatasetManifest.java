@@ -0,0 +1,96 @@
+package com.dreamplanner.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * 数据集描述
+ * 由生成器写出，记录各表的ID区间和生成参数，场景执行器据此构造请求而无需访问数据库；
+ * 每个用户的梦想和任务数量固定且ID连续，因此可以直接计算出某个用户拥有的任务
+ *
+ * @author DreamPlanner
+ */
+public class DatasetManifest {
+
+    long seed;
+    String usernamePrefix;
+    String password;
+    int userCount;
+    long userIdBase;
+    int dreamsPerUser;
+    long dreamIdBase;
+    int tasksPerDream;
+    long taskIdBase;
+    long postCount;
+    long postIdBase;
+
+    public long userId(int userIndex) {
+        return userIdBase + userIndex;
+    }
+
+    public String username(int userIndex) {
+        return usernamePrefix + userIndex;
+    }
+
+    public long dreamId(int userIndex, int dreamIndex) {
+        return dreamIdBase + (long) userIndex * dreamsPerUser + dreamIndex;
+    }
+
+    public long taskId(int userIndex, int taskIndex) {
+        return taskIdBase + (long) userIndex * tasksPerUser() + taskIndex;
+    }
+
+    public int tasksPerUser() {
+        return dreamsPerUser * tasksPerDream;
+    }
+
+    public long postId(long postIndex) {
+        return postIdBase + postIndex;
+    }
+
+    public void write(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("seed", Long.toString(seed));
+        properties.setProperty("usernamePrefix", usernamePrefix);
+        properties.setProperty("password", password);
+        properties.setProperty("userCount", Integer.toString(userCount));
+        properties.setProperty("userIdBase", Long.toString(userIdBase));
+        properties.setProperty("dreamsPerUser", Integer.toString(dreamsPerUser));
+        properties.setProperty("dreamIdBase", Long.toString(dreamIdBase));
+        properties.setProperty("tasksPerDream", Integer.toString(tasksPerDream));
+        properties.setProperty("taskIdBase", Long.toString(taskIdBase));
+        properties.setProperty("postCount", Long.toString(postCount));
+        properties.setProperty("postIdBase", Long.toString(postIdBase));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "dream-planner load test dataset");
+        }
+    }
+
+    public static DatasetManifest read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        DatasetManifest manifest = new DatasetManifest();
+        manifest.seed = Long.parseLong(properties.getProperty("seed"));
+        manifest.usernamePrefix = properties.getProperty("usernamePrefix");
+        manifest.password = properties.getProperty("password");
+        manifest.userCount = Integer.parseInt(properties.getProperty("userCount"));
+        manifest.userIdBase = Long.parseLong(properties.getProperty("userIdBase"));
+        manifest.dreamsPerUser = Integer.parseInt(properties.getProperty("dreamsPerUser"));
+        manifest.dreamIdBase = Long.parseLong(properties.getProperty("dreamIdBase"));
+        manifest.tasksPerDream = Integer.parseInt(properties.getProperty("tasksPerDream"));
+        manifest.taskIdBase = Long.parseLong(properties.getProperty("taskIdBase"));
+        manifest.postCount = Long.parseLong(properties.getProperty("postCount"));
+        manifest.postIdBase = Long.parseLong(properties.getProperty("postIdBase"));
+        return manifest;
+    }
+}
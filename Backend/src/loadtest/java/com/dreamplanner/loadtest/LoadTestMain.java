@@ -0,0 +1,31 @@
+package com.dreamplanner.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 压测入口
+ * 用法：LoadTestMain generate|run [--key=value ...]
+ *
+ * @author DreamPlanner
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            printUsage();
+            return;
+        }
+        LoadTestOptions options = LoadTestOptions.parse(Arrays.copyOfRange(args, 1, args.length));
+        switch (args[0]) {
+            case "generate" -> new DataGenerator(options).generate();
+            case "run" -> new ScenarioRunner(options).run();
+            default -> printUsage();
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("用法: LoadTestMain generate|run [--key=value ...]");
+        System.out.println("  generate  向MySQL批量写入合成数据，并生成数据集描述文件");
+        System.out.println("  run       读取数据集描述文件，按场景混合比例压测后端接口");
+    }
+}
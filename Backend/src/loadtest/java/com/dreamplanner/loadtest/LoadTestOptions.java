@@ -0,0 +1,60 @@
+package com.dreamplanner.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测参数
+ * 优先读取命令行的--key=value，其次读取系统属性loadtest.key，最后使用默认值
+ *
+ * @author DreamPlanner
+ */
+public class LoadTestOptions {
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("无法识别的参数: " + arg);
+            }
+            int index = arg.indexOf('=');
+            values.put(arg.substring(2, index), arg.substring(index + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            value = System.getProperty("loadtest." + key);
+        }
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Integer.parseInt(value.replace("_", "")) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Long.parseLong(value.replace("_", "")) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Duration.parse(value) : defaultValue;
+    }
+}
@@ -0,0 +1,102 @@
+package com.dreamplanner.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 多行INSERT写入器
+ * 将多行数据拼成一条INSERT ... VALUES (...),(...)语句执行，比逐行执行或普通JDBC批量快一个数量级；
+ * 满批次的语句只预编译一次，剩余不足一批的行在关闭时单独写入
+ *
+ * @author DreamPlanner
+ */
+public class MultiRowInsert implements AutoCloseable {
+
+    private final Connection connection;
+    private final String table;
+    private final String[] columns;
+    private final int rowsPerStatement;
+    private final Object[] buffer;
+    private PreparedStatement fullStatement;
+    private int bufferedRows;
+    private long totalRows;
+    private boolean closed;
+
+    public MultiRowInsert(Connection connection, String table, String[] columns, int rowsPerStatement) {
+        this.connection = connection;
+        this.table = table;
+        this.columns = columns;
+        this.rowsPerStatement = rowsPerStatement;
+        this.buffer = new Object[rowsPerStatement * columns.length];
+    }
+
+    public void addRow(Object... values) throws SQLException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException(table + " 需要 " + columns.length + " 列, 实际 " + values.length + " 列");
+        }
+        System.arraycopy(values, 0, buffer, bufferedRows * columns.length, values.length);
+        bufferedRows++;
+        if (bufferedRows == rowsPerStatement) {
+            if (fullStatement == null) {
+                fullStatement = connection.prepareStatement(buildSql(rowsPerStatement));
+            }
+            execute(fullStatement, rowsPerStatement);
+        }
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * 写入剩余的行并释放语句，可重复调用
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (bufferedRows > 0) {
+                try (PreparedStatement statement = connection.prepareStatement(buildSql(bufferedRows))) {
+                    execute(statement, bufferedRows);
+                }
+            }
+        } finally {
+            if (fullStatement != null) {
+                fullStatement.close();
+            }
+        }
+    }
+
+    private void execute(PreparedStatement statement, int rows) throws SQLException {
+        int parameters = rows * columns.length;
+        for (int i = 0; i < parameters; i++) {
+            statement.setObject(i + 1, buffer[i]);
+            buffer[i] = null;
+        }
+        statement.executeUpdate();
+        totalRows += rows;
+        bufferedRows = 0;
+    }
+
+    private String buildSql(int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columns.length; i++) {
+            row.append(i == 0 ? "?" : ",?");
+        }
+        row.append(')');
+
+        StringBuilder sql = new StringBuilder("INSERT INTO `").append(table).append("` (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ",").append('`').append(columns[i]).append('`');
+        }
+        sql.append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ",").append(row);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.dreamplanner.loadtest;
+
+/**
+ * 压测场景，默认权重大致对应移动端打开首页、刷社区、查看动态、点赞和打卡任务的比例
+ *
+ * @author DreamPlanner
+ */
+public enum Scenario {
+
+    /**
+     * 首页聚合数据 GET /home/{userId}
+     */
+    HOME("home", 30),
+
+    /**
+     * 社区动态列表 GET /posts?page&pageSize
+     */
+    FEED("feed", 30),
+
+    /**
+     * 动态详情 GET /posts/{id}
+     */
+    POST_DETAIL("post", 20),
+
+    /**
+     * 点赞动态 POST /posts/{id}/like
+     */
+    LIKE("like", 10),
+
+    /**
+     * 更新自己的任务状态 PUT /tasks/{id}/status/{status}
+     */
+    TASK_STATUS("task", 10),
+
+    /**
+     * 登录 POST /auth/login，只在建立会话阶段执行，不参与场景混合
+     */
+    LOGIN("login", 0);
+
+    private final String key;
+    private final int defaultWeight;
+
+    Scenario(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
@@ -0,0 +1,314 @@
+package com.dreamplanner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 场景执行器
+ * 读取生成器写出的数据集描述，先批量登录建立会话，再由多个工作线程按权重混合回放首页、社区列表、
+ * 动态详情、点赞和任务状态更新，按场景统计吞吐量和延迟分位数
+ *
+ * <p>默认是闭环模式（每个线程收到响应后立即发下一个请求）；指定rate后改为按固定速率发送，
+ * 延迟从计划发送时间开始计算，服务变慢时排队的时间也会计入，避免协调遗漏导致分位数偏低
+ *
+ * <p>参数（--key=value）：
+ * <ul>
+ *     <li>baseUrl：服务地址，默认http://localhost:8080/api</li>
+ *     <li>manifest：数据集描述文件，默认target/loadtest/dataset.properties</li>
+ *     <li>sessions：登录的用户数，默认200</li>
+ *     <li>threads：工作线程数，默认32</li>
+ *     <li>duration / warmup：压测时长和预热时长（ISO-8601），默认PT2M和PT20S，预热期间的请求不计入统计</li>
+ *     <li>rate：目标总请求速率（次/秒），默认0表示闭环模式</li>
+ *     <li>mix：场景权重，如home:30,feed:30,post:20,like:10,task:10</li>
+ *     <li>pageSize：社区列表每页条数，默认10</li>
+ *     <li>output：分位数分布文件目录，默认target/loadtest</li>
+ * </ul>
+ *
+ * @author DreamPlanner
+ */
+public class ScenarioRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final DatasetManifest manifest;
+    private final int pageSize;
+
+    public ScenarioRunner(LoadTestOptions options) throws IOException {
+        this.options = options;
+        this.baseUrl = options.getString("baseUrl", "http://localhost:8080/api");
+        this.manifest = DatasetManifest.read(Paths.get(options.getString("manifest", "target/loadtest/dataset.properties")));
+        this.pageSize = options.getInt("pageSize", 10);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    public void run() throws Exception {
+        int threads = options.getInt("threads", 32);
+        Duration duration = options.getDuration("duration", Duration.ofMinutes(2));
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(20));
+        double rate = options.getDouble("rate", 0);
+        Scenario[] mix = parseMix(options.getString("mix", null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Session> sessions = login(executor, Math.min(options.getInt("sessions", 200), manifest.userCount));
+            if (sessions.isEmpty()) {
+                throw new IllegalStateException("没有可用的登录会话，请检查服务地址和数据集");
+            }
+            System.out.printf("已建立 %d 个会话, 开始压测: 线程 %d, 预热 %s, 时长 %s, 模式 %s%n", sessions.size(),
+                    threads, warmup, duration, rate > 0 ? "固定速率 " + rate + "/s" : "闭环");
+
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long end = measureStart + duration.toNanos();
+            long intervalNanos = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+            // 热门动态集中在前面的ID，所有工作线程共享只读的分布
+            ZipfDistribution hotPosts = new ZipfDistribution((int) Math.min(manifest.postCount, 1_000_000), 1.0);
+
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Random random = new Random(manifest.seed * 31 + i);
+                workers.add(executor.submit(() -> work(random, sessions, mix, hotPosts, measureStart, end, intervalNanos)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            report(duration);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Session> login(ExecutorService executor, int count) throws Exception {
+        Random random = new Random(manifest.seed);
+        List<Future<Session>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int userIndex = random.nextInt(manifest.userCount);
+            futures.add(executor.submit(() -> login(userIndex)));
+        }
+        List<Session> sessions = new ArrayList<>();
+        for (Future<Session> future : futures) {
+            Session session = future.get();
+            if (session != null) {
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    private Session login(int userIndex) {
+        String body = objectMapper.createObjectNode()
+                .put("username", manifest.username(userIndex))
+                .put("password", manifest.password)
+                .toString();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            recorders.get(Scenario.LOGIN).recordValue(toMicros(System.nanoTime() - start));
+            JsonNode token = objectMapper.readTree(response.body()).path("data").path("token");
+            if (response.statusCode() >= 400 || !token.isTextual()) {
+                errors.get(Scenario.LOGIN).increment();
+                return null;
+            }
+            return new Session(userIndex, manifest.userId(userIndex), token.asText());
+        } catch (IOException e) {
+            errors.get(Scenario.LOGIN).increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void work(Random random, List<Session> sessions, Scenario[] mix, ZipfDistribution hotPosts,
+                      long measureStart, long end, long intervalNanos) {
+        long nextStart = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            long intendedStart;
+            if (intervalNanos > 0) {
+                intendedStart = nextStart;
+                nextStart += intervalNanos;
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intendedStart = System.nanoTime();
+            }
+            if (intendedStart >= end) {
+                return;
+            }
+
+            Session session = sessions.get(random.nextInt(sessions.size()));
+            Scenario scenario = mix[random.nextInt(mix.length)];
+            HttpRequest request = buildRequest(scenario, session, random, hotPosts);
+            boolean failed;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (intendedStart >= measureStart) {
+                recorders.get(scenario).recordValue(toMicros(System.nanoTime() - intendedStart));
+                if (failed) {
+                    errors.get(scenario).increment();
+                }
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(Scenario scenario, Session session, Random random, ZipfDistribution hotPosts) {
+        long postId = manifest.postId(hotPosts.sample(random));
+        HttpRequest.Builder builder = switch (scenario) {
+            case HOME -> HttpRequest.newBuilder(uri("/home/" + session.userId)).GET();
+            case FEED -> HttpRequest.newBuilder(uri("/posts?page=" + Math.min(random.nextInt(8), random.nextInt(8))
+                    + "&pageSize=" + pageSize + "&currentUserId=" + session.userId)).GET();
+            case POST_DETAIL -> HttpRequest.newBuilder(uri("/posts/" + postId)).GET();
+            case LIKE -> HttpRequest.newBuilder(uri("/posts/" + postId + "/like?userId=" + session.userId))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+            case TASK_STATUS -> HttpRequest.newBuilder(uri("/tasks/"
+                            + manifest.taskId(session.userIndex, random.nextInt(manifest.tasksPerUser()))
+                            + "/status/" + random.nextInt(4)))
+                    .PUT(HttpRequest.BodyPublishers.noBody());
+            case LOGIN -> throw new IllegalArgumentException("登录场景不参与混合");
+        };
+        return builder.timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + session.token)
+                .build();
+    }
+
+    private void report(Duration duration) throws IOException {
+        Path outputDir = Paths.get(options.getString("output", "target/loadtest"));
+        Files.createDirectories(outputDir);
+        double seconds = duration.toMillis() / 1000.0;
+
+        System.out.printf("%n%-8s %10s %10s %8s %9s %9s %9s %9s %9s %9s%n", "场景", "请求数", "吞吐(/s)", "错误",
+                "均值(ms)", "p50", "p90", "p99", "p99.9", "最大");
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Scenario scenario : Scenario.values()) {
+            Histogram histogram = recorders.get(scenario).getIntervalHistogram();
+            long errorCount = errors.get(scenario).sum();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            if (scenario != Scenario.LOGIN) {
+                total.add(histogram);
+                totalErrors += errorCount;
+            }
+            // 登录只在建立会话阶段执行，吞吐量没有意义
+            printRow(scenario.getKey(), histogram, errorCount, scenario == Scenario.LOGIN ? Double.NaN : seconds);
+            try (PrintStream out = new PrintStream(Files.newOutputStream(outputDir.resolve(scenario.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        printRow("total", total, totalErrors, seconds);
+        System.out.printf("%n分位数分布文件已写入 %s，可用HdrHistogram Plotter查看%n", outputDir.toAbsolutePath());
+    }
+
+    private static void printRow(String name, Histogram histogram, long errorCount, double seconds) {
+        String throughput = Double.isNaN(seconds) ? "-" : String.format("%.1f", histogram.getTotalCount() / seconds);
+        System.out.printf("%-8s %10d %10s %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+                histogram.getTotalCount(), throughput, errorCount,
+                histogram.getMean() / 1000.0,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * 按权重展开为场景数组，随机取下标即可按比例选择场景
+     */
+    private static Scenario[] parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        if (mix == null || mix.isBlank()) {
+            for (Scenario scenario : Scenario.values()) {
+                weights.put(scenario, scenario.getDefaultWeight());
+            }
+        } else {
+            for (String item : mix.split(",")) {
+                String[] parts = item.trim().split(":");
+                Scenario scenario = null;
+                for (Scenario candidate : Scenario.values()) {
+                    if (candidate.getKey().equals(parts[0]) && candidate != Scenario.LOGIN) {
+                        scenario = candidate;
+                    }
+                }
+                if (scenario == null || parts.length != 2) {
+                    throw new IllegalArgumentException("无法识别的场景权重: " + item);
+                }
+                weights.put(scenario, Integer.parseInt(parts[1]));
+            }
+        }
+        List<Scenario> expanded = new ArrayList<>();
+        weights.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                expanded.add(scenario);
+            }
+        });
+        if (expanded.isEmpty()) {
+            throw new IllegalArgumentException("场景权重之和必须大于0");
+        }
+        return expanded.toArray(new Scenario[0]);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /**
+     * 转换为微秒，超过可统计上限的值按上限记录
+     */
+    private static long toMicros(long nanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private record Session(int userIndex, long userId, String token) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.dreamplanner.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf分布采样器
+ * 排名为k的元素被选中的概率与1/k^s成正比，用于模拟少数热门用户、热门动态吸引大部分流量的幂律特征；
+ * 预先计算累积分布，采样时二分查找，百万级元素约占8MB内存
+ *
+ * @author DreamPlanner
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    /**
+     * @param size     元素个数
+     * @param exponent 幂指数，越大越集中，社交关系通常在0.8到1.2之间
+     */
+    public ZipfDistribution(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("元素个数必须大于0");
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * 采样一个排名
+     *
+     * @return 从0开始的排名，0为最热门
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
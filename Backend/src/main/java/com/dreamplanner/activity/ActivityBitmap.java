@@ -0,0 +1,205 @@
+package com.dreamplanner.activity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * 一个用户一年中每天是否有某类活动的位图
+ * 第i位（从0开始）对应该年的第i + 1天，按小端序存放：第i位在第i / 8个字节的第i % 8位，
+ * 与BitSet.toByteArray一致，固定46字节。连续天数用nextSetBit/nextClearBit按64位字逐段跳过，不逐天判断
+ *
+ * @author DreamPlanner
+ */
+public final class ActivityBitmap {
+
+    /**
+     * 一年最多的天数
+     */
+    public static final int DAYS = 366;
+
+    /**
+     * 位图的字节数
+     */
+    public static final int BYTES = (DAYS + 7) / 8;
+
+    private final int year;
+    private final BitSet bits;
+
+    private ActivityBitmap(int year, BitSet bits) {
+        this.year = year;
+        this.bits = bits;
+    }
+
+    /**
+     * @param year 年份
+     * @return 没有任何活动的位图
+     */
+    public static ActivityBitmap empty(int year) {
+        return new ActivityBitmap(year, new BitSet(DAYS));
+    }
+
+    /**
+     * @param year  年份
+     * @param bytes 持久化的位图，可为null
+     * @return 位图
+     */
+    public static ActivityBitmap of(int year, byte[] bytes) {
+        return new ActivityBitmap(year, bytes == null ? new BitSet(DAYS) : BitSet.valueOf(bytes));
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * 标记某天有活动
+     *
+     * @param date 日期，需在本年内
+     * @return 位图是否有变化
+     */
+    public boolean set(LocalDate date) {
+        int index = indexOf(date);
+        if (bits.get(index)) {
+            return false;
+        }
+        bits.set(index);
+        return true;
+    }
+
+    /**
+     * 清除某天的活动标记
+     *
+     * @param date 日期，需在本年内
+     * @return 位图是否有变化
+     */
+    public boolean clear(LocalDate date) {
+        int index = indexOf(date);
+        if (!bits.get(index)) {
+            return false;
+        }
+        bits.clear(index);
+        return true;
+    }
+
+    /**
+     * @param date 日期，需在本年内
+     * @return 当天是否有活动
+     */
+    public boolean get(LocalDate date) {
+        return bits.get(indexOf(date));
+    }
+
+    /**
+     * @return 有活动的天数
+     */
+    public int activeDays() {
+        return bits.cardinality();
+    }
+
+    /**
+     * @return 有活动的日期，按日期升序
+     */
+    public List<LocalDate> activeDates() {
+        List<LocalDate> dates = new ArrayList<>(bits.cardinality());
+        LocalDate first = LocalDate.of(year, 1, 1);
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            dates.add(first.plusDays(i));
+        }
+        return dates;
+    }
+
+    /**
+     * @return 年内最长的连续活动天数
+     */
+    public int longestRun() {
+        int longest = 0;
+        for (int start = bits.nextSetBit(0); start >= 0; ) {
+            int end = bits.nextClearBit(start);
+            longest = Math.max(longest, end - start);
+            start = bits.nextSetBit(end);
+        }
+        return longest;
+    }
+
+    /**
+     * @return 从1月1日开始的连续活动天数
+     */
+    public int leadingRun() {
+        return bits.nextClearBit(0);
+    }
+
+    /**
+     * @param date 日期，需在本年内
+     * @return 截至该日（含）的连续活动天数
+     */
+    public int runEndingAt(LocalDate date) {
+        int index = indexOf(date);
+        return index - bits.previousClearBit(index);
+    }
+
+    /**
+     * @return 持久化用的固定长度字节数组
+     */
+    public byte[] toBytes() {
+        return Arrays.copyOf(bits.toByteArray(), BYTES);
+    }
+
+    /**
+     * 跨年计算最长连续活动天数，相邻年份年末和年初的连续段合并计算
+     *
+     * @param bitmaps 按年份排序的位图，没有活动的年份可以缺失
+     * @return 最长连续活动天数
+     */
+    public static int longestStreak(SortedMap<Integer, ActivityBitmap> bitmaps) {
+        int longest = 0;
+        // 截至上一年12月31日的连续天数
+        int carry = 0;
+        int previousYear = Integer.MIN_VALUE;
+        for (ActivityBitmap bitmap : bitmaps.values()) {
+            LocalDate lastDay = LocalDate.of(bitmap.year, 12, 31);
+            int leading = bitmap.leadingRun();
+            int joined = (bitmap.year == previousYear + 1 ? carry : 0) + leading;
+            longest = Math.max(longest, Math.max(joined, bitmap.longestRun()));
+            carry = leading == lastDay.getDayOfYear() ? joined : bitmap.runEndingAt(lastDay);
+            previousYear = bitmap.year;
+        }
+        return longest;
+    }
+
+    /**
+     * 截至今天的连续活动天数，今天尚未有活动时截至昨天，跨年时向前一年延续
+     *
+     * @param bitmaps 按年份排序的位图，没有活动的年份可以缺失
+     * @param today   当天日期
+     * @return 连续活动天数
+     */
+    public static int currentStreak(SortedMap<Integer, ActivityBitmap> bitmaps, LocalDate today) {
+        ActivityBitmap current = bitmaps.get(today.getYear());
+        LocalDate day = current != null && current.get(today) ? today : today.minusDays(1);
+        int streak = 0;
+        while (true) {
+            ActivityBitmap bitmap = bitmaps.get(day.getYear());
+            if (bitmap == null) {
+                return streak;
+            }
+            int run = bitmap.runEndingAt(day);
+            streak += run;
+            if (run < day.getDayOfYear()) {
+                return streak;
+            }
+            // 连续到了1月1日，继续看上一年的12月31日
+            day = day.minusDays(run);
+        }
+    }
+
+    private int indexOf(LocalDate date) {
+        if (date.getYear() != year) {
+            throw new IllegalArgumentException("日期 " + date + " 不在 " + year + " 年内");
+        }
+        return date.getDayOfYear() - 1;
+    }
+}
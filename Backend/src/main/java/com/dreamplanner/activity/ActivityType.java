@@ -0,0 +1,48 @@
+package com.dreamplanner.activity;
+
+import com.dreamplanner.exception.BusinessException;
+
+/**
+ * 活跃度统计的活动类型
+ *
+ * @author DreamPlanner
+ */
+public enum ActivityType {
+
+    /**
+     * 打卡，即添加进度记录
+     */
+    CHECK_IN(1),
+
+    /**
+     * 完成任务，包括完成重复任务的一次实例
+     */
+    TASK_COMPLETED(2);
+
+    private final int code;
+
+    ActivityType(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return 存储在user_activity.type中的编码
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @param code 类型编码
+     * @return 活动类型
+     * @throws BusinessException 编码无效
+     */
+    public static ActivityType fromCode(int code) {
+        for (ActivityType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new BusinessException("无效的活动类型: " + code);
+    }
+}
@@ -0,0 +1,219 @@
+package com.dreamplanner.cache;
+
+import com.dreamplanner.storage.BlobStore;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点图片内存缓存
+ * 小图片（头像、梦想封面等）读入堆外直接内存，按字节总量限制容量并按LRU淘汰，
+ * 命中时直接从内存返回，不再访问文件系统；命中率等指标通过Micrometer暴露
+ *
+ * @author DreamPlanner
+ */
+@Component
+@Slf4j
+public class ImageCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final long maxBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final Cache<String, CachedImage> cache;
+
+    public ImageCache(@Value("${file.cache.enabled:true}") boolean enabled,
+                      @Value("${file.cache.max-size:64MB}") DataSize maxSize,
+                      @Value("${file.cache.max-entry-size:512KB}") DataSize maxEntrySize,
+                      @Value("${file.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), Integer.MAX_VALUE);
+        RemovalListener<String, CachedImage> onRemoval =
+                notification -> usedBytes.addAndGet(-notification.getValue().size());
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedImage image) -> image.size())
+                // 多节点部署时其他节点的删除无法通知到本节点，按写入时间过期以限制陈旧时间
+                .expireAfterWrite(expireAfterWrite)
+                .removalListener(onRemoval)
+                .recordStats()
+                .build();
+        log.info("图片缓存{}, 容量: {} bytes, 单个文件上限: {} bytes", enabled ? "已启用" : "已禁用", maxBytes, maxEntryBytes);
+    }
+
+    /**
+     * 文件大小是否允许进入缓存
+     *
+     * @param size 文件大小
+     * @return 是否可缓存
+     */
+    public boolean isCacheable(long size) {
+        return enabled && size <= maxEntryBytes;
+    }
+
+    /**
+     * 查询缓存，不触发加载
+     *
+     * @param key 缓存键（type/date/filename）
+     * @return 缓存的图片，未命中时返回null
+     */
+    public CachedImage getIfPresent(String key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    /**
+     * 从存储加载图片到缓存，同一个键并发加载时只读取一次
+     *
+     * @param key         缓存键，与存储键相同
+     * @param blobStore   文件存储
+     * @param size        文件大小
+     * @param contentType 媒体类型
+     * @return 缓存的图片
+     */
+    public CachedImage load(String key, BlobStore blobStore, long size, String contentType) throws IOException {
+        try {
+            return cache.get(key, () -> {
+                CachedImage image = new CachedImage(readDirect(blobStore, key, (int) size), contentType);
+                usedBytes.addAndGet(image.size());
+                return image;
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * 使缓存失效
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 命中率、容量等统计数据
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("entries", cache.size());
+        result.put("usedBytes", usedBytes.get());
+        result.put("maxBytes", maxBytes);
+        result.put("maxEntryBytes", maxEntryBytes);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * 注册命中、未命中、淘汰等Guava缓存指标（cache名为image）以及已占用的字节数
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, "image");
+        Gauge.builder("image.cache.used", usedBytes, AtomicLong::get)
+                .description("图片缓存已占用的直接内存")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private ByteBuffer readDirect(BlobStore blobStore, String key, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        try (ReadableByteChannel channel = Channels.newChannel(blobStore.open(key))) {
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // 循环读取直到填满缓冲区
+            }
+        }
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * 缓存的图片内容
+     */
+    public static final class CachedImage {
+        private final ByteBuffer data;
+        private final String contentType;
+
+        private CachedImage(ByteBuffer data, String contentType) {
+            this.data = data;
+            this.contentType = contentType;
+        }
+
+        public int size() {
+            return data.limit();
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 打开一个独立读取位置的输入流，多个请求可并发读取同一块内存
+         */
+        public InputStream openStream() {
+            return new ByteBufferInputStream(data.duplicate());
+        }
+    }
+
+    /**
+     * 基于ByteBuffer的输入流
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
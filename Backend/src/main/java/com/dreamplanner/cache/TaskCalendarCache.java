@@ -0,0 +1,169 @@
+package com.dreamplanner.cache;
+
+import com.dreamplanner.calendar.TaskCalendarCount;
+import com.dreamplanner.calendar.TaskCalendarItem;
+import com.dreamplanner.event.DreamDeletedEvent;
+import com.dreamplanner.event.TaskChangedEvent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 任务日历按用户、按月缓存
+ * 每个用户一个条目，内含已加载月份的分组统计和任务摘要；缺失的月份合并成一个连续区间一次查询后按月拆分。
+ * 已加载的月份是不可变快照，请求读取一次快照后只用它和自己加载的月份拼出结果，加载完成后整体替换快照，
+ * 并发请求之间不会看到被其他请求清空一半的月份。
+ * 本节点的任务写入在事务提交后整体失效该用户的条目；失效时正在加载的请求写入的是已被移出缓存的旧条目，
+ * 不会把提交前读到的数据放回缓存。多节点部署时其他节点的写入无法通知到本节点，按写入时间过期以限制陈旧时间
+ *
+ * @author DreamPlanner
+ */
+@Component
+public class TaskCalendarCache {
+
+    /**
+     * 每个用户最多缓存的月份数，超出时丢弃该用户已缓存的其他月份
+     */
+    static final int MAX_MONTHS_PER_USER = 24;
+
+    private final Cache<Long, UserMonths> cache;
+
+    public TaskCalendarCache(@Value("${task-calendar.cache.max-users:10000}") long maxUsers,
+                             @Value("${task-calendar.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 获取若干个连续月份的分组统计，未缓存的月份通过loader加载
+     *
+     * @param userId 用户ID
+     * @param first  第一个月
+     * @param last   最后一个月（含）
+     * @param loader 按日期区间（含两端）加载统计行
+     * @return 各月份的统计行
+     */
+    public List<TaskCalendarCount> getCounts(Long userId, YearMonth first, YearMonth last,
+                                             BiFunction<LocalDate, LocalDate, List<TaskCalendarCount>> loader) {
+        return get(userMonths(userId).counts, first, last, loader, TaskCalendarCount::date);
+    }
+
+    /**
+     * 获取若干个连续月份的任务摘要，未缓存的月份通过loader加载
+     *
+     * @param userId 用户ID
+     * @param first  第一个月
+     * @param last   最后一个月（含）
+     * @param loader 按日期区间（含两端）加载任务摘要，需按截止日期排序
+     * @return 各月份的任务摘要，按截止日期排序
+     */
+    public List<TaskCalendarItem> getItems(Long userId, YearMonth first, YearMonth last,
+                                           BiFunction<LocalDate, LocalDate, List<TaskCalendarItem>> loader) {
+        return get(userMonths(userId).items, first, last, loader, TaskCalendarItem::dueDate);
+    }
+
+    /**
+     * 使用户的全部月份失效
+     *
+     * @param userId 用户ID
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDreamDeleted(DreamDeletedEvent event) {
+        invalidate(event.userId());
+    }
+
+    private UserMonths userMonths(Long userId) {
+        try {
+            return cache.get(userId, UserMonths::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static <T> List<T> get(AtomicReference<Map<YearMonth, List<T>>> snapshot, YearMonth first, YearMonth last,
+                                   BiFunction<LocalDate, LocalDate, List<T>> loader, Function<T, LocalDate> dateOf) {
+        Map<YearMonth, List<T>> months = snapshot.get();
+        YearMonth firstMissing = null;
+        YearMonth lastMissing = null;
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (!months.containsKey(month)) {
+                firstMissing = firstMissing == null ? month : firstMissing;
+                lastMissing = month;
+            }
+        }
+
+        Map<YearMonth, List<T>> loaded = new HashMap<>();
+        if (firstMissing != null) {
+            Map<YearMonth, List<T>> rowsByMonth = new HashMap<>();
+            for (T row : loader.apply(firstMissing.atDay(1), lastMissing.atEndOfMonth())) {
+                rowsByMonth.computeIfAbsent(YearMonth.from(dateOf.apply(row)), key -> new ArrayList<>()).add(row);
+            }
+            for (YearMonth month = firstMissing; !month.isAfter(lastMissing); month = month.plusMonths(1)) {
+                loaded.put(month, List.copyOf(rowsByMonth.getOrDefault(month, List.of())));
+            }
+            snapshot.updateAndGet(current -> merge(current, loaded));
+        }
+
+        List<T> rows = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            List<T> cached = months.get(month);
+            rows.addAll(cached != null ? cached : loaded.getOrDefault(month, List.of()));
+        }
+        return rows;
+    }
+
+    /**
+     * 在最新快照上合并新加载的月份，月份数超出上限时只保留新加载的
+     */
+    private static <T> Map<YearMonth, List<T>> merge(Map<YearMonth, List<T>> current, Map<YearMonth, List<T>> loaded) {
+        Map<YearMonth, List<T>> next = current.size() + loaded.size() > MAX_MONTHS_PER_USER
+                ? new HashMap<>() : new HashMap<>(current);
+        next.putAll(loaded);
+        return Map.copyOf(next);
+    }
+
+    /**
+     * 一个用户已加载的月份
+     */
+    private static final class UserMonths {
+
+        private final AtomicReference<Map<YearMonth, List<TaskCalendarCount>>> counts =
+                new AtomicReference<>(Map.of());
+        private final AtomicReference<Map<YearMonth, List<TaskCalendarItem>>> items =
+                new AtomicReference<>(Map.of());
+    }
+}
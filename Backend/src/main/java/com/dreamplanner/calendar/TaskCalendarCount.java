@@ -0,0 +1,16 @@
+package com.dreamplanner.calendar;
+
+import java.time.LocalDate;
+
+/**
+ * 日历分组统计行：某天某状态、某优先级的任务数
+ * 仓库分组查询直接构造
+ *
+ * @param date     截止日期
+ * @param status   任务状态
+ * @param priority 优先级
+ * @param count    任务数
+ * @author DreamPlanner
+ */
+public record TaskCalendarCount(LocalDate date, Integer status, Integer priority, Long count) {
+}
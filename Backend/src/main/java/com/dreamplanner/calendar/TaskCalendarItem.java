@@ -0,0 +1,26 @@
+package com.dreamplanner.calendar;
+
+import java.time.LocalDate;
+
+/**
+ * 日历中的任务摘要，只包含绘制日历所需的字段
+ * 普通任务由仓库投影查询直接构造，不加载任务实体；重复任务的每次实例各一条，ID为系列ID
+ *
+ * @param id             任务ID
+ * @param dreamId        梦想ID
+ * @param parentTaskId   父任务ID
+ * @param title          任务标题
+ * @param status         任务状态
+ * @param priority       优先级
+ * @param dueDate        截止日期
+ * @param occurrenceDate 重复任务的实例日期，普通任务为null
+ * @author DreamPlanner
+ */
+public record TaskCalendarItem(Long id, Long dreamId, Long parentTaskId, String title, Integer status,
+                               Integer priority, LocalDate dueDate, LocalDate occurrenceDate) {
+
+    public TaskCalendarItem(Long id, Long dreamId, Long parentTaskId, String title, Integer status,
+                            Integer priority, LocalDate dueDate) {
+        this(id, dreamId, parentTaskId, title, status, priority, dueDate, null);
+    }
+}
@@ -0,0 +1,138 @@
+package com.dreamplanner.concurrent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 数据库准入限流
+ * 虚拟线程模式下并发请求数不再受Tomcat线程池限制，成百上千个线程会同时争抢只有十几个连接的Hikari连接池。
+ * 这里用与连接池同样大小的公平信号量在获取连接之前排队：等待者按先后顺序获得连接，
+ * 等待本身只挂起虚拟线程而不占用载体线程，排队长度和等待时间也可以通过指标直接观察
+ * 每个物理连接池单独包装一个限流器，许可数与该连接池大小一致，指标按pool标签区分
+ *
+ * @author DreamPlanner
+ */
+@Slf4j
+public class DbAdmissionLimiter extends DelegatingDataSource {
+
+    private final String poolName;
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long timeoutNanos;
+    private final Timer waitTimer;
+
+    public DbAdmissionLimiter(DataSource target, String poolName, int maxPermits, Duration timeout,
+                              MeterRegistry meterRegistry) {
+        super(target);
+        this.poolName = poolName;
+        this.maxPermits = maxPermits;
+        this.permits = new Semaphore(maxPermits, true);
+        this.timeoutNanos = timeout.toNanos();
+        if (meterRegistry != null) {
+            Tags tags = Tags.of("pool", poolName);
+            Gauge.builder("db.admission.available", permits, Semaphore::availablePermits)
+                    .description("数据库准入剩余许可数")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("db.admission.waiting", permits, Semaphore::getQueueLength)
+                    .description("等待数据库连接的线程数")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("db.admission.wait")
+                    .description("获取数据库准入许可的等待时间")
+                    .tags(tags)
+                    .register(meterRegistry);
+        } else {
+            this.waitTimer = null;
+        }
+        log.info("数据库准入限流已启用, 连接池: {}, 许可数: {}, 等待超时: {}", poolName, maxPermits, timeout);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接时被中断", e);
+        }
+        if (waitTimer != null) {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException(String.format("等待数据库连接超时(%s, %dms)，当前排队: %d",
+                    poolName, TimeUnit.NANOSECONDS.toMillis(timeoutNanos), permits.getQueueLength()));
+        }
+    }
+
+    /**
+     * 连接关闭时归还许可；close可能被调用多次，只归还一次
+     */
+    private Connection releaseOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,96 @@
+package com.dreamplanner.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 虚拟线程固定（pinning）诊断
+ * 虚拟线程在synchronized块内或本地方法中阻塞时无法卸载，会一直占用载体线程；
+ * MySQL驱动的部分路径仍使用synchronized，固定时间过长会让少量载体线程被耗尽，表现为整体吞吐骤降。
+ * 通过JFR事件流订阅jdk.VirtualThreadPinned，超过阈值的固定记录日志和指标，日志中带上栈顶的业务帧便于定位
+ * 需要完整栈时也可以在启动参数中加入-Djdk.tracePinnedThreads=full
+ *
+ * @author DreamPlanner
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Timer pinnedTimer;
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedTimer = meterRegistry == null ? null : Timer.builder("jvm.threads.virtual.pinned")
+                .description("虚拟线程固定载体线程的时长")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("当前JDK版本{}不支持虚拟线程，跳过固定诊断", Runtime.version());
+            return;
+        }
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        stream = recordingStream;
+        log.info("虚拟线程固定诊断已启动, 阈值: {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recordingStream = stream;
+        stream = null;
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        if (pinnedTimer != null) {
+            pinnedTimer.record(duration);
+        }
+        log.warn("虚拟线程固定载体线程 {}ms, 线程: {}{}", duration.toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "-", formatStack(event.getStackTrace()));
+    }
+
+    private static String formatStack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            builder.append("\n    at ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        if (frames.size() > LOGGED_FRAMES) {
+            builder.append("\n    ... ").append(frames.size() - LOGGED_FRAMES).append(" more");
+        }
+        return builder.toString();
+    }
+}
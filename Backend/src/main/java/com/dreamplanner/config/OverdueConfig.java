@@ -0,0 +1,25 @@
+package com.dreamplanner.config;
+
+import com.dreamplanner.overdue.LoggingOverdueDigestNotifier;
+import com.dreamplanner.overdue.OverdueDigestNotifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 逾期检测配置
+ * 未声明OverdueDigestNotifier时使用只记录日志的默认实现
+ *
+ * @author DreamPlanner
+ */
+@Configuration
+@ConditionalOnProperty(name = "overdue.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OverdueDigestNotifier overdueDigestNotifier() {
+        return new LoggingOverdueDigestNotifier();
+    }
+}
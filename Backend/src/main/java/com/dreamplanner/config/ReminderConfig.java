@@ -0,0 +1,25 @@
+package com.dreamplanner.config;
+
+import com.dreamplanner.reminder.LoggingReminderNotifier;
+import com.dreamplanner.reminder.ReminderNotifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任务提醒配置
+ * 未声明ReminderNotifier时使用只记录日志的默认实现
+ *
+ * @author DreamPlanner
+ */
+@Configuration
+@ConditionalOnProperty(name = "reminder.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReminderNotifier reminderNotifier() {
+        return new LoggingReminderNotifier();
+    }
+}
@@ -0,0 +1,101 @@
+package com.dreamplanner.config;
+
+import com.dreamplanner.datasource.ReadYourWritesTracker;
+import com.dreamplanner.datasource.ReplicaHealthMonitor;
+import com.dreamplanner.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 读写分离数据源配置
+ * 开启后应用数据源由主库连接池和从库连接池组成：@Transactional(readOnly = true)的事务读从库，
+ * 写事务、事务外访问（如Flyway迁移、OSIV下的延迟加载）使用主库
+ * 两个连接池不参与按类型注入，只通过路由数据源访问，但仍会作为独立的Hikari连接池发布监控指标
+ * 虚拟线程模式下两个连接池各自按连接池大小做准入限流，路由代理本身不限流，未真正取连接的请求不占许可
+ *
+ * @author DreamPlanner
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@Slf4j
+public class RoutingDataSourceConfig {
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(environment.getRequiredProperty("datasource.replica.url"));
+        dataSource.setUsername(environment.getProperty("datasource.replica.username", properties.determineUsername()));
+        dataSource.setPassword(environment.getProperty("datasource.replica.password", properties.determinePassword()));
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.routing.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesTracker(window);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(DataSourceProperties properties, Environment environment,
+                                                     @Value("${datasource.routing.max-replica-lag:2s}") Duration maxLag,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaHealthMonitor(replicaDataSource(properties, environment), maxLag,
+                meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 ReplicaHealthMonitor replicaHealthMonitor,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+                VirtualThreadConfig.limitAdmission(primaryDataSource(properties), "primary", environment, registry),
+                VirtualThreadConfig.limitAdmission(replicaDataSource(properties, environment), "replica", environment,
+                        registry),
+                readYourWritesTracker, replicaHealthMonitor, registry);
+        routingDataSource.afterPropertiesSet();
+        log.info("读写分离已启用, 读己之写窗口: {}", readYourWritesTracker.getWindow());
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Hibernate默认在会话关闭前一直持有连接，OSIV下同一请求里先读后写会沿用只读事务拿到的从库连接；
+     * 改为事务结束即释放，每个事务重新经过路由
+     */
+    @Bean
+    public HibernatePropertiesCustomizer routingConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
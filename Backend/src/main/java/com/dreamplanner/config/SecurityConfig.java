@@ -140,6 +140,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**", "/auth/**").permitAll()
                 .requestMatchers("/api/files/**", "/files/**").permitAll()
                 .requestMatchers("/api/posts/public/**", "/posts/public/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                // 指标、N+1统计、二级缓存统计会暴露内部SQL和数据规模，只对管理员开放
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -0,0 +1,83 @@
+package com.dreamplanner.config;
+
+import com.dreamplanner.concurrent.DbAdmissionLimiter;
+import com.dreamplanner.concurrent.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 虚拟线程执行模式
+ * 通过spring.threads.virtual.enabled=true开启，Spring Boot会让Tomcat请求处理、applicationTaskExecutor（@Async）
+ * 和@Scheduled定时任务都运行在虚拟线程上，这里补充两件虚拟线程模式下才需要的事：
+ * 按连接池大小限制同时访问数据库的线程数，以及诊断固定载体线程的代码路径
+ * 虚拟线程需要JDK 21及以上运行，低版本JDK下Spring Boot会忽略该开关继续使用平台线程
+ *
+ * @author DreamPlanner
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    public VirtualThreadConfig() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("已配置虚拟线程模式，但当前JDK版本为{}，请求仍将在平台线程上执行", Runtime.version());
+        } else {
+            log.info("虚拟线程模式已启用");
+        }
+    }
+
+    /**
+     * 未开启读写分离时包装应用的Hikari连接池；读写分离下应用数据源是路由代理，
+     * 由RoutingDataSourceConfig分别包装主库和从库连接池
+     */
+    @Bean
+    @ConditionalOnProperty(name = "concurrency.db-admission.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor dbAdmissionLimiterPostProcessor(Environment environment,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                String poolName = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+                return limitAdmission(pool, poolName, environment, meterRegistry.getIfAvailable());
+            }
+        };
+    }
+
+    /**
+     * 为单个物理连接池创建准入限流，许可数与该连接池最大连接数相同，等待超时默认与其获取连接超时相同；
+     * 未开启虚拟线程或关闭了准入限流时原样返回连接池
+     */
+    static DataSource limitAdmission(HikariDataSource pool, String poolName, Environment environment,
+                                     MeterRegistry meterRegistry) {
+        if (!environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                || !environment.getProperty("concurrency.db-admission.enabled", Boolean.class, true)) {
+            return pool;
+        }
+        Duration timeout = environment.getProperty("concurrency.db-admission.timeout", Duration.class,
+                Duration.ofMillis(pool.getConnectionTimeout()));
+        return new DbAdmissionLimiter(pool, poolName, pool.getMaximumPoolSize(), timeout, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "concurrency.pinning.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        Duration threshold = environment.getProperty("concurrency.pinning.threshold", Duration.class,
+                Duration.ofMillis(20));
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry.getIfAvailable());
+    }
+}
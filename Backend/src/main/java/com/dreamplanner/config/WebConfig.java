@@ -1,10 +1,13 @@
 package com.dreamplanner.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.nio.file.Paths;
+
 /**
  * Web配置类
  * 用于配置CORS跨域访问、静态资源映射等
@@ -12,6 +15,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Value("${file.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${file.storage.type:local}")
+    private String storageType;
+
     /**
      * 配置跨域访问
      */
@@ -27,27 +36,22 @@ public class WebConfig implements WebMvcConfigurer {
 
     /**
      * 配置静态资源映射
-     * 将请求路径/uploads/映射到文件系统的上传目录
+     * 使用本地存储时将请求路径/uploads/映射到file.upload.dir，与文件上传保存目录保持一致；
+     * 使用对象存储时文件统一通过/files/接口访问
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 获取操作系统名称
-        String os = System.getProperty("os.name");
-        
-        // 根据不同操作系统配置上传文件保存的路径
-        String uploadPath;
-        if (os.toLowerCase().startsWith("win")) {
-            // Windows系统
-            uploadPath = "file:D:/dreamplanner/uploads/";
-        } else {
-            // Linux或Mac系统
-            uploadPath = "file:/home/dreamplanner/uploads/";
+        if ("local".equals(storageType)) {
+            String uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize().toUri().toString();
+            if (!uploadPath.endsWith("/")) {
+                uploadPath += "/";
+            }
+            
+            // 添加资源处理器，将web请求映射到本地文件系统
+            registry.addResourceHandler("/uploads/**")
+                    .addResourceLocations(uploadPath);
         }
         
-        // 添加资源处理器，将web请求映射到本地文件系统
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(uploadPath);
-        
         // 默认静态资源处理器
         registry.addResourceHandler("/static/**")
                 .addResourceLocations("classpath:/static/");
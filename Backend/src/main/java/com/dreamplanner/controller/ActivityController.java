@@ -0,0 +1,53 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.activity.ActivityType;
+import com.dreamplanner.dto.ActivityHeatmapDTO;
+import com.dreamplanner.dto.ActivityStreakDTO;
+import com.dreamplanner.service.ActivityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * 用户活跃度控制器
+ *
+ * @author DreamPlanner
+ */
+@RestController
+@RequestMapping("/activity")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "活跃度统计", description = "打卡、完成任务的热力图和连续天数")
+public class ActivityController {
+
+    private final ActivityService activityService;
+
+    @GetMapping("/user/{userId}/heatmap")
+    @Operation(summary = "获取活跃度热力图", description = "返回用户一年中每天是否有打卡或完成任务，默认今年的打卡")
+    public ResponseEntity<ActivityHeatmapDTO> getHeatmap(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "CHECK_IN") ActivityType type,
+            @RequestParam(required = false) Integer year) {
+        int targetYear = year != null ? year : LocalDate.now().getYear();
+        log.info("获取活跃度热力图, userId: {}, type: {}, year: {}", userId, type, targetYear);
+        return ResponseEntity.ok(activityService.getHeatmap(userId, type, targetYear));
+    }
+
+    @GetMapping("/user/{userId}/streaks")
+    @Operation(summary = "获取连续活动天数", description = "返回用户打卡或完成任务的当前连续天数和历史最长连续天数")
+    public ResponseEntity<ActivityStreakDTO> getStreaks(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "CHECK_IN") ActivityType type) {
+        log.info("获取连续活动天数, userId: {}, type: {}", userId, type);
+        return ResponseEntity.ok(activityService.getStreaks(userId, type));
+    }
+}
@@ -1,6 +1,14 @@
 package com.dreamplanner.controller;
 
+import com.dreamplanner.cache.ImageCache;
 import com.dreamplanner.dto.ApiResponseDTO;
+import com.dreamplanner.dto.ChunkUploadDTO;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.exception.ResourceNotFoundException;
+import com.dreamplanner.service.ChunkedUploadService;
+import com.dreamplanner.service.UserService;
+import com.dreamplanner.storage.BlobMetadata;
+import com.dreamplanner.storage.BlobStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -8,26 +16,31 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.Enumeration;
 import java.util.regex.Matcher;
@@ -49,14 +62,18 @@ import org.springframework.util.StreamUtils;
 @Tag(name = "文件管理", description = "文件上传相关接口")
 public class FileController {
 
-    // 文件存储根目录，从配置文件中读取
-    @Value("${file.upload.dir:uploads}")
-    private String uploadDir;
-    
     // 文件访问的基础URL，从配置文件中读取
     @Value("${file.access.url:http://localhost:8080/api/files}")
     private String fileAccessUrl;
 
+    private final ChunkedUploadService chunkedUploadService;
+
+    private final UserService userService;
+
+    private final ImageCache imageCache;
+
+    private final BlobStore blobStore;
+
     /**
      * 上传图片接口 - 标准multipart/form-data格式
      *
@@ -102,15 +119,8 @@ public class FileController {
             String originalFilename = file.getOriginalFilename();
             log.info("原始文件名: {}", originalFilename);
             
-            // 创建保存目录（按类型分类）
+            // 按类型和日期分类
             String dateFolder = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-            String folderPath = uploadDir + File.separator + type + File.separator + dateFolder;
-            Path targetPath = Paths.get(folderPath);
-            
-            if (!Files.exists(targetPath)) {
-                Files.createDirectories(targetPath);
-                log.info("创建目录: {}", targetPath);
-            }
             
             // 生成新的文件名
             String fileExtension = "";
@@ -133,12 +143,12 @@ public class FileController {
             String newFilename = UUID.randomUUID().toString() + fileExtension;
             
             // 保存文件
-            Path filePath = targetPath.resolve(newFilename);
-            try {
-                log.info("开始保存文件到: {}", filePath);
-                // 使用缓冲写入文件，防止内存溢出
-            Files.copy(file.getInputStream(), filePath);
-                log.info("文件保存成功: {}", filePath);
+            String storageKey = type + "/" + dateFolder + "/" + newFilename;
+            try (InputStream in = file.getInputStream()) {
+                log.info("开始保存文件到: {}", storageKey);
+                // 流式写入存储，防止内存溢出
+                blobStore.put(storageKey, in, file.getSize(), contentType);
+                log.info("文件保存成功: {}", storageKey);
             } catch (IOException e) {
                 log.error("文件保存失败: {}", e.getMessage(), e);
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -155,18 +165,14 @@ public class FileController {
             result.put("filename", newFilename);
             
             return ResponseEntity.ok(ApiResponseDTO.success(result));
-            
-        } catch (IOException e) {
-            log.error("文件上传过程发生IO异常: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponseDTO.error("文件上传失败: " + e.getMessage()));
+
         } catch (Exception e) {
             log.error("文件上传过程发生未知异常: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponseDTO.error("文件上传失败，服务器内部错误"));
         }
     }
-    
+
     /**
      * 通用文件上传接口 - 支持多种格式，包括application/x-www-form-urlencoded和multipart/form-data
      * 以及鸿蒙OS特殊的JSON格式请求
@@ -295,15 +301,8 @@ public class FileController {
             }
             log.info("从URI提取的文件名: {}", filename);
             
-            // 创建保存目录（按类型分类）
+            // 按类型和日期分类
             String dateFolder = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-            String folderPath = uploadDir + File.separator + type + File.separator + dateFolder;
-            Path targetPath = Paths.get(folderPath);
-            
-            if (!Files.exists(targetPath)) {
-                Files.createDirectories(targetPath);
-                log.info("创建目录: {}", targetPath);
-            }
             
             // 确定文件扩展名
             String fileExtension = ".jpg"; // 默认jpg
@@ -324,7 +323,7 @@ public class FileController {
             
             // 生成新的文件名
             String newFilename = UUID.randomUUID().toString() + fileExtension;
-            Path filePath = targetPath.resolve(newFilename);
+            String storageKey = type + "/" + dateFolder + "/" + newFilename;
             
             // 处理上传文件
             boolean fileProcessed = false;
@@ -349,8 +348,8 @@ public class FileController {
                             
                             // 验证文件大小
                             if (fileBytes.length > 0) {
-                                Files.write(filePath, fileBytes);
-                                log.info("从Base64内容保存文件成功: {}, 大小: {} 字节", filePath, fileBytes.length);
+                                blobStore.put(storageKey, new ByteArrayInputStream(fileBytes), fileBytes.length, contentType);
+                                log.info("从Base64内容保存文件成功: {}, 大小: {} 字节", storageKey, fileBytes.length);
                                 fileProcessed = true;
                             } else {
                                 log.error("Base64解码后文件大小为0字节");
@@ -371,11 +370,12 @@ public class FileController {
                 // 对于鸿蒙OS设备，我们需要客户端提供文件内容，而不仅仅是URI
                 // 由于无法直接访问设备上的文件，这里创建一个1x1像素的图片作为占位符
                 try {
-                    log.info("创建占位图片文件: {}", filePath);
+                    log.info("创建占位图片文件: {}", storageKey);
                     // 创建1x1像素的PNG图片
                     byte[] placeholderImageBytes = generatePlaceholderImage(1, 1);
-                    Files.write(filePath, placeholderImageBytes);
-                    log.info("占位图片文件创建成功: {}", filePath);
+                    blobStore.put(storageKey, new ByteArrayInputStream(placeholderImageBytes),
+                            placeholderImageBytes.length, "image/png");
+                    log.info("占位图片文件创建成功: {}", storageKey);
                     fileProcessed = true;
                 } catch (IOException e) {
                     log.error("文件创建失败: {}", e.getMessage(), e);
@@ -389,8 +389,8 @@ public class FileController {
                 try {
                     URL url = new URL(fileUri);
                     try (InputStream in = url.openStream()) {
-                        Files.copy(in, filePath, StandardCopyOption.REPLACE_EXISTING);
-                        log.info("从URL下载文件成功: {}", filePath);
+                        blobStore.put(storageKey, in, -1, contentType);
+                        log.info("从URL下载文件成功: {}", storageKey);
                         fileProcessed = true;
                     }
                 } catch (IOException e) {
@@ -403,9 +403,9 @@ public class FileController {
             // 4. 如果文件还未处理，创建空文件作为占位符
             if (!fileProcessed) {
                 try {
-                    log.info("创建占位文件: {}", filePath);
-                    Files.createFile(filePath);
-                    log.info("占位文件创建成功: {}", filePath);
+                    log.info("创建占位文件: {}", storageKey);
+                    blobStore.put(storageKey, InputStream.nullInputStream(), 0, contentType);
+                    log.info("占位文件创建成功: {}", storageKey);
                 } catch (IOException e) {
                     log.error("文件创建失败: {}", e.getMessage(), e);
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -454,62 +454,186 @@ public class FileController {
         return baos.toByteArray();
     }
     
+    /**
+     * 初始化分片上传 - 用于大文件（视频、高清图片）的断点续传
+     *
+     * @param filename    原始文件名
+     * @param contentType 内容类型
+     * @param totalSize   文件总大小（字节）
+     * @param chunkSize   分片大小（字节），可选
+     * @param type        文件类型（dream、task、progress、avatar等）
+     * @return 上传会话
+     */
+    @PostMapping("/chunked")
+    @Operation(summary = "初始化分片上传", description = "创建分片上传会话，返回uploadId和分片大小")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponseDTO<ChunkUploadDTO>> initiateChunkedUpload(
+            @RequestParam("filename") String filename,
+            @RequestParam("contentType") String contentType,
+            @RequestParam("totalSize") long totalSize,
+            @RequestParam(value = "chunkSize", required = false) Integer chunkSize,
+            @RequestParam(value = "type", defaultValue = "common") String type) {
+        try {
+            return ResponseEntity.ok(ApiResponseDTO.success(
+                    chunkedUploadService.initiate(currentUserId(), type, filename, contentType, totalSize, chunkSize)));
+        } catch (BusinessException | ResourceNotFoundException e) {
+            return chunkedUploadError(e);
+        }
+    }
+
+    /**
+     * 上传一个分片，请求体为分片的原始字节
+     *
+     * @param uploadId 上传会话ID
+     * @param offset   分片起始偏移量
+     * @param checksum 分片CRC32C校验值（十六进制），可选
+     * @param request  HTTP请求
+     * @return 上传会话状态
+     */
+    @PutMapping("/chunked/{uploadId}")
+    @Operation(summary = "上传分片", description = "按偏移量写入一个分片，请求头X-Chunk-Checksum携带CRC32C校验值")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponseDTO<ChunkUploadDTO>> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam("offset") long offset,
+            @RequestHeader(value = "X-Chunk-Checksum", required = false) String checksum,
+            HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(ApiResponseDTO.success(
+                    chunkedUploadService.writeChunk(currentUserId(), uploadId, offset, in, request.getContentLengthLong(), checksum)));
+        } catch (BusinessException | ResourceNotFoundException e) {
+            return chunkedUploadError(e);
+        } catch (IOException e) {
+            log.error("读取分片请求体失败: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponseDTO.error("读取分片失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询分片上传进度，客户端断线重连后据此续传
+     *
+     * @param uploadId 上传会话ID
+     * @return 上传会话状态
+     */
+    @GetMapping("/chunked/{uploadId}")
+    @Operation(summary = "查询分片上传进度", description = "返回已接收的分片和下一个需要上传的偏移量")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponseDTO<ChunkUploadDTO>> getChunkedUploadStatus(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(ApiResponseDTO.success(chunkedUploadService.getStatus(currentUserId(), uploadId)));
+        } catch (BusinessException | ResourceNotFoundException e) {
+            return chunkedUploadError(e);
+        }
+    }
+
+    /**
+     * 完成分片上传
+     *
+     * @param uploadId 上传会话ID
+     * @return 文件URL
+     */
+    @PostMapping("/chunked/{uploadId}/complete")
+    @Operation(summary = "完成分片上传", description = "所有分片接收完毕后生成正式文件并返回访问URL")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponseDTO<Map<String, String>>> completeChunkedUpload(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(ApiResponseDTO.success(chunkedUploadService.complete(currentUserId(), uploadId)));
+        } catch (BusinessException | ResourceNotFoundException e) {
+            return chunkedUploadError(e);
+        }
+    }
+
+    /**
+     * 取消分片上传
+     *
+     * @param uploadId 上传会话ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/chunked/{uploadId}")
+    @Operation(summary = "取消分片上传", description = "取消上传并删除临时文件")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponseDTO<Void>> abortChunkedUpload(@PathVariable String uploadId) {
+        try {
+            chunkedUploadService.abort(currentUserId(), uploadId);
+            return ResponseEntity.ok(ApiResponseDTO.success(null));
+        } catch (BusinessException | ResourceNotFoundException e) {
+            return chunkedUploadError(e);
+        }
+    }
+
+    /**
+     * 当前登录用户的ID，分片上传会话据此校验归属
+     */
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userService.getUserIdByUsername(authentication.getName());
+    }
+
+    /**
+     * 将分片上传异常转换为统一响应
+     */
+    private <T> ResponseEntity<ApiResponseDTO<T>> chunkedUploadError(RuntimeException e) {
+        HttpStatus status = e instanceof BusinessException
+                ? ((BusinessException) e).getStatus() : HttpStatus.NOT_FOUND;
+        log.error("分片上传失败: {}", e.getMessage());
+        return ResponseEntity.status(status).body(ApiResponseDTO.error(status.value(), e.getMessage()));
+    }
+
     /**
      * 获取图片内容
+     * 小文件优先从内存缓存返回，未命中时只查询一次元数据后加载；
+     * 对象存储支持预签名时，大文件重定向到存储服务直接下载，否则流式返回并支持单个区间的Range请求
      * 
      * @param type 图片类型
      * @param date 日期目录
      * @param filename 文件名
+     * @param range Range请求头
      * @return 图片内容
      */
     @GetMapping("/{type}/{date}/{filename:.+}")
     @Operation(summary = "获取图片", description = "根据图片路径获取图片内容")
-    public ResponseEntity<byte[]> getImage(
+    public ResponseEntity<Resource> getImage(
             @PathVariable String type,
             @PathVariable String date,
-            @PathVariable String filename) {
+            @PathVariable String filename,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        
+        log.debug("获取图片, 类型: {}, 日期: {}, 文件名: {}", type, date, filename);
         
-        log.info("获取图片, 类型: {}, 日期: {}, 文件名: {}", type, date, filename);
+        String cacheKey = type + "/" + date + "/" + filename;
+        ImageCache.CachedImage cached = imageCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return imageResponse(cached);
+        }
         
         try {
-            // 构建文件路径
-            Path filePath = Paths.get(uploadDir, type, date, filename);
-            
-            // 检查文件是否存在
-            if (!Files.exists(filePath)) {
-                log.error("文件不存在: {}", filePath);
+            // 查询文件元数据
+            Optional<BlobMetadata> metadata = blobStore.stat(cacheKey);
+            if (metadata.isEmpty()) {
+                log.error("文件不存在: {}", cacheKey);
                 return ResponseEntity.notFound().build();
             }
+            long size = metadata.get().getSize();
             
-            // 读取文件内容
-            byte[] fileContent = Files.readAllBytes(filePath);
-            
-            // 根据文件扩展名确定媒体类型
-            String extension = filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
-            String mediaType;
+            String mediaType = resolveMediaType(filename);
             
-            switch (extension) {
-                case "jpg":
-                case "jpeg":
-                    mediaType = "image/jpeg";
-                    break;
-                case "png":
-                    mediaType = "image/png";
-                    break;
-                case "gif":
-                    mediaType = "image/gif";
-                    break;
-                case "webp":
-                    mediaType = "image/webp";
-                    break;
-                default:
-                    mediaType = "application/octet-stream";
+            // 小文件加载到缓存，大文件优先重定向到存储服务，否则流式返回
+            if (imageCache.isCacheable(size)) {
+                return imageResponse(imageCache.load(cacheKey, blobStore, size, mediaType));
+            }
+            Optional<URI> redirect = blobStore.presignedDownloadUrl(cacheKey);
+            if (redirect.isPresent()) {
+                return ResponseEntity.status(HttpStatus.FOUND).location(redirect.get()).build();
+            }
+            if (range != null) {
+                return rangeResponse(cacheKey, range, size, mediaType);
             }
-            
-            // 返回文件内容和媒体类型
             return ResponseEntity.ok()
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                     .contentType(MediaType.parseMediaType(mediaType))
-                    .body(fileContent);
+                    .contentLength(size)
+                    .body(new InputStreamResource(blobStore.open(cacheKey)));
             
         } catch (IOException e) {
             log.error("获取图片失败: {}", e.getMessage(), e);
@@ -517,6 +641,80 @@ public class FileController {
         }
     }
     
+    /**
+     * 按Range请求头只读取对象中请求的一段；多个区间或区间不合法时返回416
+     */
+    private ResponseEntity<Resource> rangeResponse(String key, String range, long size, String mediaType)
+            throws IOException {
+        long start;
+        long end;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            if (ranges.size() != 1) {
+                throw new IllegalArgumentException("只支持单个区间: " + range);
+            }
+            start = ranges.get(0).getRangeStart(size);
+            end = ranges.get(0).getRangeEnd(size);
+            if (start >= size || end < start) {
+                throw new IllegalArgumentException("区间超出文件大小: " + range);
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Range请求不合法: {}, 原因: {}", range, e.getMessage());
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+        long length = end - start + 1;
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size)
+                .contentType(MediaType.parseMediaType(mediaType))
+                .contentLength(length)
+                .body(new InputStreamResource(blobStore.open(key, start, length)));
+    }
+
+    /**
+     * 获取图片缓存统计信息
+     *
+     * @return 命中率、占用内存等统计数据
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "图片缓存统计", description = "返回图片缓存的命中率、条目数和占用内存")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponseDTO<Map<String, Object>>> getImageCacheStats() {
+        return ResponseEntity.ok(ApiResponseDTO.success(imageCache.getStats()));
+    }
+    
+    /**
+     * 将缓存的图片构建为响应
+     */
+    private ResponseEntity<Resource> imageResponse(ImageCache.CachedImage image) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .contentLength(image.size())
+                .body(new InputStreamResource(image.openStream()));
+    }
+    
+    /**
+     * 根据文件扩展名确定媒体类型
+     */
+    private String resolveMediaType(String filename) {
+        String extension = filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+        switch (extension) {
+            case "jpg":
+            case "jpeg":
+                return "image/jpeg";
+            case "png":
+                return "image/png";
+            case "gif":
+                return "image/gif";
+            case "webp":
+                return "image/webp";
+            default:
+                return "application/octet-stream";
+        }
+    }
+    
     /**
      * 删除图片
      * 
@@ -536,18 +734,14 @@ public class FileController {
         log.info("删除图片, 类型: {}, 日期: {}, 文件名: {}", type, date, filename);
         
         try {
-            // 构建文件路径
-            Path filePath = Paths.get(uploadDir, type, date, filename);
-            
-            // 检查文件是否存在
-            if (!Files.exists(filePath)) {
-                log.error("文件不存在: {}", filePath);
+            // 删除文件并使缓存失效
+            String storageKey = type + "/" + date + "/" + filename;
+            if (!blobStore.delete(storageKey)) {
+                log.error("文件不存在: {}", storageKey);
                 return ResponseEntity.ok(ApiResponseDTO.error("文件不存在"));
             }
-            
-            // 删除文件
-            Files.delete(filePath);
-            log.info("文件已删除: {}", filePath);
+            imageCache.invalidate(storageKey);
+            log.info("文件已删除: {}", storageKey);
             
             return ResponseEntity.ok(ApiResponseDTO.success(null));
             
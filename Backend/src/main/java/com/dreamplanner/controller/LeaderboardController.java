@@ -0,0 +1,52 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.dto.LeaderboardDTO;
+import com.dreamplanner.leaderboard.LeaderboardType;
+import com.dreamplanner.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 排行榜控制器
+ *
+ * @author DreamPlanner
+ */
+@RestController
+@RequestMapping("/leaderboards")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "排行榜", description = "已完成梦想数、最长连续打卡、按分类的本周活跃度排行")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    @Operation(summary = "获取排行榜", description = "按名次返回一段，本周活跃榜需指定梦想分类，每次最多100名")
+    public ResponseEntity<LeaderboardDTO> getTop(
+            @RequestParam LeaderboardType type,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("获取排行榜, type: {}, category: {}, offset: {}, limit: {}", type, category, offset, limit);
+        return ResponseEntity.ok(leaderboardService.getTop(type, category, offset, limit));
+    }
+
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "获取用户排名", description = "返回用户的名次及前后各radius名，radius最多50")
+    public ResponseEntity<LeaderboardDTO> getAround(
+            @PathVariable Long userId,
+            @RequestParam LeaderboardType type,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "5") int radius) {
+        log.info("获取用户排名, type: {}, category: {}, userId: {}, radius: {}", type, category, userId, radius);
+        return ResponseEntity.ok(leaderboardService.getAround(type, category, userId, radius));
+    }
+}
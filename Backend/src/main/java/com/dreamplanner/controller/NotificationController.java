@@ -0,0 +1,62 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.dto.NotificationPageDTO;
+import com.dreamplanner.dto.NotificationUnreadDTO;
+import com.dreamplanner.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 通知控制器，只能查看和标记当前登录用户自己的通知
+ *
+ * @author DreamPlanner
+ */
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "通知", description = "点赞、评论、回复、关注通知的收件箱")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @GetMapping
+    @Operation(summary = "获取通知收件箱", description = "按最近聚合时间倒序分页，翻页时传入上一页的nextCursor")
+    public ResponseEntity<NotificationPageDTO> getInbox(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("获取通知收件箱, cursor: {}, size: {}", cursor, size);
+        return ResponseEntity.ok(notificationService.getInbox(cursor, size));
+    }
+
+    @GetMapping("/unread-count")
+    @Operation(summary = "获取未读通知数", description = "客户端轮询该接口，未读数变化时再拉取收件箱")
+    public ResponseEntity<NotificationUnreadDTO> getUnreadCount() {
+        return ResponseEntity.ok(notificationService.getUnreadCount());
+    }
+
+    @PostMapping("/{id}/read")
+    @Operation(summary = "标记通知已读", description = "已读的通知不再聚合新的行为，之后的同类行为另起一条")
+    public ResponseEntity<Void> markRead(@PathVariable Long id) {
+        log.info("标记通知已读, id: {}", id);
+        notificationService.markRead(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/read-all")
+    @Operation(summary = "标记全部通知已读")
+    public ResponseEntity<Void> markAllRead() {
+        log.info("标记全部通知已读");
+        notificationService.markAllRead();
+        return ResponseEntity.noContent().build();
+    }
+}
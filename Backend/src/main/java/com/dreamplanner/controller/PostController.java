@@ -137,6 +137,35 @@ public class PostController {
         }
     }
 
+    /**
+     * 搜索帖子，按标题和内容的相关度排序
+     *
+     * @param keyword  关键词
+     * @param category 梦想分类（可选）
+     * @param authorId 作者ID（可选）
+     * @param cursor   上一页返回的nextCursor（可选，首页不传）
+     * @param size     每页数量，最多50
+     * @param currentUserId 当前用户ID（可选，用于处理点赞和关注状态）
+     * @return 帖子列表、nextCursor和hasMore
+     */
+    @GetMapping("/search")
+    public ApiResponse searchPosts(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long currentUserId) {
+
+        try {
+            Map<String, Object> result = postService.searchPosts(keyword, category, authorId, cursor, size, currentUserId);
+            return ApiResponse.success(result);
+        } catch (Exception e) {
+            log.error("搜索帖子失败", e);
+            return ApiResponse.error("搜索帖子失败：" + e.getMessage());
+        }
+    }
+
     /**
      * 更新帖子
      *
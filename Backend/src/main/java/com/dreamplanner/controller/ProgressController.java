@@ -1,17 +1,21 @@
 package com.dreamplanner.controller;
 
+import com.dreamplanner.dto.ProgressActivityDTO;
 import com.dreamplanner.dto.ProgressDTO;
+import com.dreamplanner.dto.ProgressTimelineDTO;
 import com.dreamplanner.service.ProgressService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -42,6 +46,40 @@ public class ProgressController {
         return ResponseEntity.ok(progressService.getProgressByDreamId(dreamId));
     }
 
+    @GetMapping("/dream/{dreamId}/timeline")
+    @Operation(summary = "获取梦想进度时间线", description = "按创建时间倒序分页返回梦想的进度记录，翻页使用上一页返回的nextCursor")
+    public ResponseEntity<ProgressTimelineDTO> getProgressTimeline(
+            @PathVariable Long dreamId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("获取梦想进度时间线, dreamId: {}, cursor: {}, size: {}", dreamId, cursor, size);
+        return ResponseEntity.ok(progressService.getProgressTimeline(dreamId, cursor, size));
+    }
+
+    @GetMapping("/dream/{dreamId}/activity/daily")
+    @Operation(summary = "按天统计梦想打卡", description = "返回区间内每天的打卡次数及连续打卡天数，默认最近30天")
+    public ResponseEntity<ProgressActivityDTO> getDailyActivity(
+            @PathVariable Long dreamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        log.info("按天统计梦想打卡, dreamId: {}, from: {}, to: {}", dreamId, start, end);
+        return ResponseEntity.ok(progressService.getDailyActivity(dreamId, start, end));
+    }
+
+    @GetMapping("/dream/{dreamId}/activity/weekly")
+    @Operation(summary = "按周统计梦想打卡", description = "返回区间内每周的打卡次数、打卡天数及连续打卡天数，默认最近12周")
+    public ResponseEntity<ProgressActivityDTO> getWeeklyActivity(
+            @PathVariable Long dreamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusWeeks(11);
+        log.info("按周统计梦想打卡, dreamId: {}, from: {}, to: {}", dreamId, start, end);
+        return ResponseEntity.ok(progressService.getWeeklyActivity(dreamId, start, end));
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "获取用户进度记录", description = "获取指定用户的所有进度记录")
     @PreAuthorize("hasRole('USER') and authentication.principal.id == #userId")
@@ -1,6 +1,12 @@
 package com.dreamplanner.controller;
 
+import com.dreamplanner.dto.TaskBatchCreateDTO;
+import com.dreamplanner.dto.TaskBatchStatusDTO;
+import com.dreamplanner.dto.TaskCalendarDTO;
 import com.dreamplanner.dto.TaskDTO;
+import com.dreamplanner.dto.TaskTreeDTO;
+import com.dreamplanner.service.TaskCalendarService;
+import com.dreamplanner.service.TaskHierarchyService;
 import com.dreamplanner.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -31,6 +37,8 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final TaskCalendarService taskCalendarService;
 
     @GetMapping("/{id}")
     @Operation(summary = "获取任务详情", description = "根据任务ID获取任务详细信息")
@@ -119,6 +127,17 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getWeekTasks(userId, startDate, endDate, pageable));
     }
 
+    @GetMapping("/user/{userId}/calendar")
+    @Operation(summary = "获取用户任务日历", description = "按截止日期返回区间内每天按状态、优先级统计的任务数，可选返回任务摘要")
+    public ResponseEntity<TaskCalendarDTO> getCalendar(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean includeTasks) {
+        log.info("获取用户任务日历, userId: {}, from: {}, to: {}, includeTasks: {}", userId, from, to, includeTasks);
+        return ResponseEntity.ok(taskCalendarService.getCalendar(userId, from, to, includeTasks));
+    }
+
     @GetMapping("/parent/{parentTaskId}")
     @Operation(summary = "获取子任务列表", description = "获取指定父任务的所有子任务")
     public ResponseEntity<List<TaskDTO>> getChildTasks(@PathVariable Long parentTaskId) {
@@ -126,6 +145,20 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getChildTasks(parentTaskId));
     }
 
+    @GetMapping("/dream/{dreamId}/tree")
+    @Operation(summary = "获取梦想的任务树", description = "一次返回梦想下所有层级的任务，每个节点带有后代任务总数和已完成数")
+    public ResponseEntity<List<TaskTreeDTO>> getDreamTaskTree(@PathVariable Long dreamId) {
+        log.info("获取梦想任务树, dreamId: {}", dreamId);
+        return ResponseEntity.ok(taskHierarchyService.getDreamTaskTree(dreamId));
+    }
+
+    @GetMapping("/{id}/subtree")
+    @Operation(summary = "获取任务子树", description = "返回以指定任务为根的所有层级子任务")
+    public ResponseEntity<TaskTreeDTO> getSubtree(@PathVariable Long id) {
+        log.info("获取任务子树, id: {}", id);
+        return ResponseEntity.ok(taskHierarchyService.getSubtree(id));
+    }
+
     @PostMapping
     @Operation(summary = "创建任务", description = "创建新的任务")
     @PreAuthorize("hasRole('USER') and authentication.principal.id == #taskDTO.userId")
@@ -153,6 +186,24 @@ public class TaskController {
         return ResponseEntity.ok(taskService.updateTaskStatus(id, status));
     }
 
+    @PutMapping("/{id}/occurrences/{date}/completion")
+    @Operation(summary = "完成重复任务的一次实例", description = "把重复任务在指定日期的实例标记为已完成，系列本身的状态不变")
+    @PreAuthorize("hasRole('USER') and @taskService.isTaskOwner(authentication.principal.id, #id)")
+    public ResponseEntity<TaskDTO> completeOccurrence(
+            @PathVariable Long id, @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("完成重复任务实例, id: {}, date: {}", id, date);
+        return ResponseEntity.ok(taskService.setOccurrenceCompleted(id, date, true));
+    }
+
+    @DeleteMapping("/{id}/occurrences/{date}/completion")
+    @Operation(summary = "撤销重复任务实例的完成", description = "撤销重复任务在指定日期的实例的完成标记")
+    @PreAuthorize("hasRole('USER') and @taskService.isTaskOwner(authentication.principal.id, #id)")
+    public ResponseEntity<TaskDTO> uncompleteOccurrence(
+            @PathVariable Long id, @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("撤销重复任务实例完成, id: {}, date: {}", id, date);
+        return ResponseEntity.ok(taskService.setOccurrenceCompleted(id, date, false));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "删除任务", description = "删除指定的任务")
     @PreAuthorize("hasRole('USER') and @taskService.isTaskOwner(authentication.principal.id, #id)")
@@ -162,6 +213,31 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "批量创建任务", description = "为当前用户批量创建任务，如拆解梦想时一次提交全部任务")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<TaskDTO>> createTasks(@Valid @RequestBody TaskBatchCreateDTO batchDTO) {
+        log.info("批量创建任务, 数量: {}", batchDTO.getTasks().size());
+        return new ResponseEntity<>(taskService.createTasks(batchDTO.getTasks()), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/batch/status")
+    @Operation(summary = "批量更新任务状态", description = "批量更新当前用户任务的状态")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<TaskDTO>> updateTasksStatus(@Valid @RequestBody TaskBatchStatusDTO batchDTO) {
+        log.info("批量更新任务状态, 数量: {}, status: {}", batchDTO.getIds().size(), batchDTO.getStatus());
+        return ResponseEntity.ok(taskService.updateTasksStatus(batchDTO.getIds(), batchDTO.getStatus()));
+    }
+
+    @DeleteMapping("/batch")
+    @Operation(summary = "批量删除任务", description = "批量删除当前用户的任务")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> deleteTasks(@RequestParam List<Long> ids) {
+        log.info("批量删除任务, 数量: {}", ids.size());
+        taskService.deleteTasks(ids);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/search")
     @Operation(summary = "搜索任务", description = "根据关键词搜索用户的任务")
     @PreAuthorize("hasRole('USER') and authentication.principal.id == #userId")
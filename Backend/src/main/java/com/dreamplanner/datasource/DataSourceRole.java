@@ -0,0 +1,19 @@
+package com.dreamplanner.datasource;
+
+/**
+ * 数据源角色
+ *
+ * @author DreamPlanner
+ */
+public enum DataSourceRole {
+
+    /**
+     * 主库，处理写事务、事务外访问以及需要读到最新数据的只读事务
+     */
+    PRIMARY,
+
+    /**
+     * 从库，处理其余只读事务
+     */
+    REPLICA
+}
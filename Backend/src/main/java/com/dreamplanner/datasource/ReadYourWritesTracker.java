@@ -0,0 +1,84 @@
+package com.dreamplanner.datasource;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 读己之写窗口
+ * 用户提交写事务后的一小段时间内，其只读事务仍然走主库，避免刚保存的数据因从库延迟"消失"；
+ * 只对本人生效，其他用户照常读从库。窗口内的用户记录在本机内存中，多节点部署时需配合会话粘滞
+ *
+ * @author DreamPlanner
+ */
+public class ReadYourWritesTracker {
+
+    private static final int MAX_TRACKED_USERS = 100_000;
+
+    private final Duration window;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.window = window;
+        this.recentWriters = window.isZero() || window.isNegative() ? null : CacheBuilder.newBuilder()
+                .maximumSize(MAX_TRACKED_USERS)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * 当前写事务提交成功后，将当前用户加入窗口；同一事务只登记一次
+     */
+    public void recordWriteOnCommit() {
+        if (recentWriters == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, username);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadYourWritesTracker.this);
+            }
+        });
+    }
+
+    /**
+     * 当前用户是否处于写后窗口内
+     */
+    public boolean isCurrentUserInWindow() {
+        if (recentWriters == null) {
+            return false;
+        }
+        String username = currentUsername();
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,109 @@
+package com.dreamplanner.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * 从库健康检查
+ * 定期读取从库的复制延迟，延迟超过阈值、复制中断或从库不可达时标记为不健康，只读事务随即回退到主库，
+ * 恢复后自动切回从库
+ *
+ * @author DreamPlanner
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    /**
+     * 从库没有复制状态（例如开发环境直接指向主库）时的延迟值
+     */
+    private static final long NOT_A_REPLICA = 0;
+
+    /**
+     * 复制线程已停止，延迟未知
+     */
+    private static final long REPLICATION_STOPPED = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxLagSeconds;
+
+    private volatile boolean healthy = true;
+    private volatile long lagSeconds;
+    private volatile boolean legacyStatusCommand;
+
+    public ReplicaHealthMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.jdbcTemplate.setQueryTimeout(5);
+        this.maxLagSeconds = maxLag.toSeconds();
+        if (meterRegistry != null) {
+            Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                    .description("从库复制延迟（秒），-1表示复制已停止")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", this, monitor -> monitor.healthy ? 1 : 0)
+                    .description("从库是否可用于只读事务")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-interval-ms:5000}")
+    public void check() {
+        boolean nowHealthy;
+        try {
+            long lag = readLagSeconds();
+            lagSeconds = lag;
+            nowHealthy = lag != REPLICATION_STOPPED && lag <= maxLagSeconds;
+        } catch (DataAccessException e) {
+            log.warn("从库健康检查失败: {}", e.getMessage());
+            nowHealthy = false;
+        }
+        if (nowHealthy != healthy) {
+            if (nowHealthy) {
+                log.info("从库已恢复, 复制延迟: {}s, 只读事务切回从库", lagSeconds);
+            } else {
+                log.warn("从库不可用或延迟过高, 复制延迟: {}s, 阈值: {}s, 只读事务回退到主库", lagSeconds, maxLagSeconds);
+            }
+            healthy = nowHealthy;
+        }
+    }
+
+    private long readLagSeconds() {
+        if (!legacyStatusCommand) {
+            try {
+                return jdbcTemplate.query("SHOW REPLICA STATUS", lagExtractor("Seconds_Behind_Source"));
+            } catch (BadSqlGrammarException e) {
+                // MySQL 8.0.22之前只支持旧语法
+                legacyStatusCommand = true;
+            }
+        }
+        return jdbcTemplate.query("SHOW SLAVE STATUS", lagExtractor("Seconds_Behind_Master"));
+    }
+
+    private static ResultSetExtractor<Long> lagExtractor(String column) {
+        return (ResultSet rs) -> {
+            if (!rs.next()) {
+                return NOT_A_REPLICA;
+            }
+            try {
+                long lag = rs.getLong(column);
+                return rs.wasNull() ? REPLICATION_STOPPED : lag;
+            } catch (SQLException e) {
+                return REPLICATION_STOPPED;
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.dreamplanner.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 读写分离路由数据源
+ * 只读事务使用从库，其余一律使用主库。必须包在LazyConnectionDataSourceProxy中使用：
+ * 事务开始时只读标记尚未绑定到线程，延迟到第一条语句执行时再取物理连接，路由判断才能看到正确的事务属性
+ *
+ * @author DreamPlanner
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ReplicaHealthMonitor healthMonitor;
+    private final Counter replicaRoutes;
+    private final Counter lagFallbacks;
+    private final Counter readYourWritesRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReadYourWritesTracker readYourWritesTracker,
+                                    ReplicaHealthMonitor healthMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.healthMonitor = healthMonitor;
+        setTargetDataSources(Map.<Object, Object>of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaRoutes = counter(meterRegistry, "replica");
+        this.lagFallbacks = counter(meterRegistry, "replica_unhealthy");
+        this.readYourWritesRoutes = counter(meterRegistry, "read_your_writes");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.recordWriteOnCommit();
+            return DataSourceRole.PRIMARY;
+        }
+        if (!healthMonitor.isHealthy()) {
+            increment(lagFallbacks);
+            return DataSourceRole.PRIMARY;
+        }
+        if (readYourWritesTracker.isCurrentUserInWindow()) {
+            increment(readYourWritesRoutes);
+            return DataSourceRole.PRIMARY;
+        }
+        increment(replicaRoutes);
+        return DataSourceRole.REPLICA;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String reason) {
+        return meterRegistry == null ? null : Counter.builder("datasource.routing.read")
+                .description("只读事务的路由结果")
+                .tag("route", reason)
+                .register(meterRegistry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.dreamplanner.dto;
+
+import com.dreamplanner.activity.ActivityType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 用户一年的活跃度热力图
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "活跃度热力图")
+public class ActivityHeatmapDTO {
+
+    @Schema(description = "用户ID")
+    private Long userId;
+
+    @Schema(description = "活动类型")
+    private ActivityType type;
+
+    @Schema(description = "年份")
+    private Integer year;
+
+    @Schema(description = "有活动的天数")
+    private int activeDays;
+
+    @Schema(description = "有活动的日期，按日期升序")
+    private List<LocalDate> activeDates;
+
+    @Schema(description = "Base64编码的46字节位图，第i位（小端序）表示该年第i + 1天是否有活动")
+    private String bitmap;
+}
@@ -0,0 +1,36 @@
+package com.dreamplanner.dto;
+
+import com.dreamplanner.activity.ActivityType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户某类活动的连续天数
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "连续活动天数")
+public class ActivityStreakDTO {
+
+    @Schema(description = "用户ID")
+    private Long userId;
+
+    @Schema(description = "活动类型")
+    private ActivityType type;
+
+    @Schema(description = "今天是否已有活动")
+    private boolean activeToday;
+
+    @Schema(description = "截至今天的连续天数，今天尚未有活动时截至昨天")
+    private int currentStreak;
+
+    @Schema(description = "历史最长连续天数")
+    private int longestStreak;
+}
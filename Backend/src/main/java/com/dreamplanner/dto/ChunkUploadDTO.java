@@ -0,0 +1,59 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传会话数据传输对象
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "分片上传会话")
+public class ChunkUploadDTO {
+
+    @Schema(description = "上传会话ID")
+    private String uploadId;
+
+    @Schema(description = "文件类型目录（dream、task、progress、avatar等）")
+    private String type;
+
+    @Schema(description = "原始文件名")
+    private String filename;
+
+    @Schema(description = "内容类型")
+    private String contentType;
+
+    @Schema(description = "文件总大小（字节）")
+    private Long totalSize;
+
+    @Schema(description = "分片大小（字节），除最后一片外每片大小必须一致")
+    private Integer chunkSize;
+
+    @Schema(description = "分片总数")
+    private Integer totalChunks;
+
+    @Schema(description = "已接收的分片序号")
+    private List<Integer> receivedChunks;
+
+    @Schema(description = "已接收字节数")
+    private Long receivedBytes;
+
+    @Schema(description = "下一个需要上传的分片偏移量，等于totalSize表示全部接收")
+    private Long nextOffset;
+
+    @Schema(description = "是否已接收全部分片")
+    private Boolean completed;
+
+    @Schema(description = "会话过期时间")
+    private LocalDateTime expiresAt;
+}
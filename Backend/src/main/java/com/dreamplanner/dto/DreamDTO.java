@@ -14,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 梦想数据传输对象
@@ -82,4 +83,7 @@ public class DreamDTO {
 
     @Schema(description = "标签列表")
     private List<String> tags;
-} 
\ No newline at end of file
+
+    @Schema(description = "搜索结果的高亮片段，键为字段名（title、description），仅搜索接口返回")
+    private Map<String, String> highlights;
+}
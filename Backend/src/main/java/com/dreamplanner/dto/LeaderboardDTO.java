@@ -0,0 +1,42 @@
+package com.dreamplanner.dto;
+
+import com.dreamplanner.leaderboard.LeaderboardType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 排行榜的一段
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "排行榜")
+public class LeaderboardDTO {
+
+    @Schema(description = "排行榜类型")
+    private LeaderboardType type;
+
+    @Schema(description = "梦想分类，只有按分类分榜时有值")
+    private String category;
+
+    @Schema(description = "本周活跃榜统计的起始周一，其他榜为null")
+    private LocalDate weekStart;
+
+    @Schema(description = "榜上的用户数")
+    private int total;
+
+    @Schema(description = "本段用户，按排名升序")
+    private List<LeaderboardEntryDTO> entries;
+
+    @Schema(description = "查询的用户自己的排名，查看前几名时为null，不在榜上时也为null")
+    private LeaderboardEntryDTO me;
+}
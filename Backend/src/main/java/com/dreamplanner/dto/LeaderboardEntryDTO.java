@@ -0,0 +1,35 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 排行榜上的一名用户
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "排行榜条目")
+public class LeaderboardEntryDTO {
+
+    @Schema(description = "排名，从1开始")
+    private int rank;
+
+    @Schema(description = "用户ID")
+    private Long userId;
+
+    @Schema(description = "用户昵称")
+    private String nickname;
+
+    @Schema(description = "用户头像")
+    private String avatar;
+
+    @Schema(description = "分数")
+    private long score;
+}
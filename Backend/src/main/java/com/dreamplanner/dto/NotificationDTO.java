@@ -0,0 +1,56 @@
+package com.dreamplanner.dto;
+
+import com.dreamplanner.notification.NotificationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知数据传输对象，一条可能聚合了多个用户的同类行为
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "通知")
+public class NotificationDTO {
+
+    @Schema(description = "通知ID")
+    private Long id;
+
+    @Schema(description = "通知类型")
+    private NotificationType type;
+
+    @Schema(description = "相关动态ID，关注通知为null")
+    private Long postId;
+
+    @Schema(description = "聚合的用户数")
+    private int actorCount;
+
+    @Schema(description = "最近一个用户的ID")
+    private Long lastActorId;
+
+    @Schema(description = "最近一个用户的昵称")
+    private String lastActorNickname;
+
+    @Schema(description = "最近一个用户的头像")
+    private String lastActorAvatar;
+
+    @Schema(description = "通知文案，如：鲍勃等12人赞了你的动态")
+    private String message;
+
+    @Schema(description = "最近一条评论内容摘要")
+    private String content;
+
+    @Schema(description = "是否已读")
+    private boolean read;
+
+    @Schema(description = "最近一次聚合时间")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 收件箱的一页，按最近聚合时间倒序
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "通知收件箱")
+public class NotificationPageDTO {
+
+    @Schema(description = "本页通知，按最近聚合时间倒序")
+    private List<NotificationDTO> items;
+
+    @Schema(description = "是否还有更早的通知")
+    private boolean hasMore;
+
+    @Schema(description = "下一页游标，没有更多通知时为null")
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 未读通知数，客户端轮询该接口判断是否需要刷新收件箱
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "未读通知数")
+public class NotificationUnreadDTO {
+
+    @Schema(description = "未读通知数，聚合的通知算一条")
+    private long unreadCount;
+}
@@ -0,0 +1,34 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 打卡统计中的一天或一周
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "打卡统计中的一天或一周")
+public class ProgressActivityBucketDTO {
+
+    @Schema(description = "开始日期")
+    private LocalDate start;
+
+    @Schema(description = "结束日期（含），按天统计时与开始日期相同")
+    private LocalDate end;
+
+    @Schema(description = "打卡次数，即进度记录数")
+    private long checkIns;
+
+    @Schema(description = "有打卡的天数")
+    private int activeDays;
+}
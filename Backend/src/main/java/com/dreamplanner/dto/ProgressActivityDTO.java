@@ -0,0 +1,50 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 梦想在日期区间内的打卡统计
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "打卡统计")
+public class ProgressActivityDTO {
+
+    @Schema(description = "梦想ID")
+    private Long dreamId;
+
+    @Schema(description = "统计粒度：day-按天，week-按周（周一开始）")
+    private String granularity;
+
+    @Schema(description = "开始日期，按周统计时对齐到周一")
+    private LocalDate from;
+
+    @Schema(description = "结束日期（含），按周统计时对齐到周日")
+    private LocalDate to;
+
+    @Schema(description = "统计区间，按天统计时只返回有打卡的日期，按周统计时返回区间内的每一周")
+    private List<ProgressActivityBucketDTO> buckets;
+
+    @Schema(description = "区间内的打卡次数")
+    private long totalCheckIns;
+
+    @Schema(description = "区间内有打卡的天数")
+    private int activeDays;
+
+    @Schema(description = "区间内最长的连续打卡天数")
+    private int longestStreak;
+
+    @Schema(description = "截至今天的连续打卡天数，今天尚未打卡时截至昨天")
+    private int currentStreak;
+}
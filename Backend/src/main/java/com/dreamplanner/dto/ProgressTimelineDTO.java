@@ -0,0 +1,34 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 进度时间线的一页，按创建时间倒序
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "进度时间线")
+public class ProgressTimelineDTO {
+
+    @Schema(description = "梦想ID")
+    private Long dreamId;
+
+    @Schema(description = "本页进度记录，按创建时间倒序")
+    private List<ProgressDTO> items;
+
+    @Schema(description = "是否还有更早的记录")
+    private boolean hasMore;
+
+    @Schema(description = "下一页游标，没有更多记录时为null")
+    private String nextCursor;
+}
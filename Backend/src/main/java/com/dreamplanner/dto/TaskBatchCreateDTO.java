@@ -0,0 +1,31 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量创建任务请求
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量创建任务请求")
+public class TaskBatchCreateDTO {
+
+    @Schema(description = "待创建的任务，用户ID必须是当前登录用户")
+    @NotEmpty(message = "任务列表不能为空")
+    @Size(max = 200, message = "单次最多创建200个任务")
+    @Valid
+    private List<TaskDTO> tasks;
+}
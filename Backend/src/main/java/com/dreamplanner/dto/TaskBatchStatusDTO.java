@@ -0,0 +1,38 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量更新任务状态请求
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量更新任务状态请求")
+public class TaskBatchStatusDTO {
+
+    @Schema(description = "任务ID列表")
+    @NotEmpty(message = "任务ID列表不能为空")
+    @Size(max = 500, message = "单次最多更新500个任务")
+    private List<Long> ids;
+
+    @Schema(description = "状态：0-待开始，1-进行中，2-已完成，3-已延期")
+    @NotNull(message = "状态不能为空")
+    @Min(value = 0, message = "状态无效")
+    @Max(value = 3, message = "状态无效")
+    private Integer status;
+}
@@ -0,0 +1,39 @@
+package com.dreamplanner.dto;
+
+import com.dreamplanner.calendar.TaskCalendarItem;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 任务日历，任务按截止日期归入日历中的某一天
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "任务日历")
+public class TaskCalendarDTO {
+
+    @Schema(description = "用户ID")
+    private Long userId;
+
+    @Schema(description = "开始日期")
+    private LocalDate from;
+
+    @Schema(description = "结束日期（含）")
+    private LocalDate to;
+
+    @Schema(description = "有任务截止的日期汇总，按日期升序，没有任务的日期不返回")
+    private List<TaskCalendarDayDTO> days;
+
+    @Schema(description = "区间内的任务摘要，按截止日期升序，未要求返回任务时为null")
+    private List<TaskCalendarItem> tasks;
+}
@@ -0,0 +1,35 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 任务日历中一天的汇总
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "任务日历中一天的汇总")
+public class TaskCalendarDayDTO {
+
+    @Schema(description = "日期")
+    private LocalDate date;
+
+    @Schema(description = "当天截止的任务总数")
+    private long total;
+
+    @Schema(description = "按状态统计的任务数，键为状态：0-待开始，1-进行中，2-已完成，3-已延期")
+    private Map<Integer, Long> byStatus;
+
+    @Schema(description = "按优先级统计的任务数，键为优先级：1-最高，5-最低")
+    private Map<Integer, Long> byPriority;
+}
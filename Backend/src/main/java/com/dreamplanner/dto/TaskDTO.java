@@ -13,6 +13,7 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 任务数据传输对象
@@ -65,6 +66,12 @@ public class TaskDTO {
     @Schema(description = "提醒时间")
     private LocalDateTime reminderTime;
 
+    @Schema(description = "重复规则（RRULE子集），如FREQ=WEEKLY;BYDAY=MO,WE,FR，以开始日期为系列起点；为空时是普通任务")
+    private String recurrenceRule;
+
+    @Schema(description = "重复任务实例的日期，仅今日、本周列表中展开的实例返回")
+    private LocalDate occurrenceDate;
+
     @Schema(description = "父任务ID")
     private Long parentTaskId;
 
@@ -88,4 +95,7 @@ public class TaskDTO {
     
     @Schema(description = "是否为即将到期的任务", hidden = true)
     private Boolean isUpcomingTask;
+
+    @Schema(description = "搜索结果的高亮片段，键为字段名（title、description），仅搜索接口返回")
+    private Map<String, String> highlights;
 } 
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.dreamplanner.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 任务树节点
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "任务树节点")
+public class TaskTreeDTO {
+
+    @Schema(description = "任务ID")
+    private Long id;
+
+    @Schema(description = "梦想ID")
+    private Long dreamId;
+
+    @Schema(description = "父任务ID")
+    private Long parentTaskId;
+
+    @Schema(description = "任务标题")
+    private String title;
+
+    @Schema(description = "状态：0-待开始，1-进行中，2-已完成，3-已延期")
+    private Integer status;
+
+    @Schema(description = "优先级：1-最高，5-最低")
+    private Integer priority;
+
+    @Schema(description = "开始日期")
+    private LocalDate startDate;
+
+    @Schema(description = "截止日期")
+    private LocalDate dueDate;
+
+    @Schema(description = "层级，根任务为0")
+    private Integer depth;
+
+    @Schema(description = "后代任务总数（不含自身）")
+    private long totalDescendants;
+
+    @Schema(description = "已完成的后代任务数")
+    private long completedDescendants;
+
+    @Schema(description = "子任务")
+    private List<TaskTreeDTO> children;
+}
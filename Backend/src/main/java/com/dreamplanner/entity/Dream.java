@@ -2,6 +2,9 @@ package com.dreamplanner.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,6 +22,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "dream")
+@BatchSize(size = 50)
 @Data
 @Builder
 @NoArgsConstructor
@@ -81,7 +85,13 @@ public class Dream implements Serializable {
     @OneToMany(mappedBy = "dream", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Post> posts = new HashSet<>();
 
+    /**
+     * 标签和资源几乎不变，集合缓存只保存关联ID，实体本身由tag/resource区域缓存；
+     * 关联关系只能通过本实体修改，DreamTag/DreamResource直接写中间表时不会使缓存失效
+     */
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dream.tags")
+    @BatchSize(size = 50)
     @JoinTable(
         name = "dream_tag",
         joinColumns = @JoinColumn(name = "dream_id"),
@@ -98,6 +108,8 @@ public class Dream implements Serializable {
     }
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dream.resources")
+    @BatchSize(size = 50)
     @JoinTable(
         name = "dream_resource",
         joinColumns = @JoinColumn(name = "dream_id"),
@@ -0,0 +1,80 @@
+package com.dreamplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 通知实体类
+ * 同一接收者未读的同类通知按目标聚合成一行，actorCount记录聚合的发起用户数；
+ * ID按块分配，投递线程的批量插入可以走JDBC批量。索引定义与db/migration下的迁移脚本保持一致
+ *
+ * @author DreamPlanner
+ */
+@Entity
+@Table(name = "notification", indexes = {
+        @Index(name = "idx_recipient_updated_at", columnList = "recipient_id, updated_at, id"),
+        @Index(name = "idx_recipient_read_type_target", columnList = "recipient_id, is_read, type, target_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class Notification implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "notification_id")
+    @GenericGenerator(name = "notification_id", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "notification_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
+    private Long id;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    /**
+     * 通知类型，见NotificationType
+     */
+    @Column(name = "type", nullable = false)
+    private Integer type;
+
+    /**
+     * 聚合目标：点赞、评论、回复为动态ID，关注为0
+     */
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "actor_count", nullable = false)
+    private Integer actorCount;
+
+    @Column(name = "last_actor_id", nullable = false)
+    private Long lastActorId;
+
+    /**
+     * 最近一条评论内容摘要
+     */
+    @Column(name = "content")
+    private String content;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 最近一次聚合时间，收件箱按此倒序
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
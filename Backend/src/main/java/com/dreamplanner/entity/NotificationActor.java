@@ -0,0 +1,59 @@
+package com.dreamplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * 通知发起用户实体类
+ * 聚合通知的每个不同发起用户一行，notification.actor_count由这里的行数得出，
+ * 同一用户取消后再次点赞不会重复计数。主键由调用方给定，实现Persistable使saveAll直接走批量插入
+ *
+ * @author DreamPlanner
+ */
+@Entity
+@Table(name = "notification_actor")
+@IdClass(NotificationActorId.class)
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = {"notificationId", "actorId"})
+@ToString
+public class NotificationActor implements Persistable<NotificationActorId>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Id
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    public NotificationActor(Long notificationId, Long actorId) {
+        this.notificationId = notificationId;
+        this.actorId = actorId;
+    }
+
+    @Override
+    public NotificationActorId getId() {
+        return new NotificationActorId(notificationId, actorId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.dreamplanner.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 通知发起用户表联合主键
+ *
+ * @author DreamPlanner
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationActorId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long notificationId;
+
+    private Long actorId;
+}
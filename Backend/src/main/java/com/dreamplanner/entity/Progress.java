@@ -9,11 +9,15 @@ import java.time.LocalDateTime;
 
 /**
  * 进度记录实体类
+ * 梦想下的进度时间线按(dream_id, created_at, id)键集分页，打卡统计在同一索引上按天分组
  *
  * @author DreamPlanner
  */
 @Entity
-@Table(name = "progress")
+@Table(name = "progress", indexes = {
+        @Index(name = "idx_dream_created_at", columnList = "dream_id, created_at, id"),
+        @Index(name = "idx_created_at", columnList = "created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -2,6 +2,8 @@ package com.dreamplanner.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,6 +19,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "resource")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "resource")
 @Data
 @Builder
 @NoArgsConstructor
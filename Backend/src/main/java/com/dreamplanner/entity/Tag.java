@@ -2,6 +2,8 @@ package com.dreamplanner.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.io.Serializable;
@@ -16,6 +18,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "tag")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
 @Data
 @Builder
 @NoArgsConstructor
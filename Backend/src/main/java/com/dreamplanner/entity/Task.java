@@ -2,8 +2,12 @@ package com.dreamplanner.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -13,11 +17,29 @@ import java.util.Set;
 
 /**
  * 任务实体类
+ * 索引定义与db/migration下的迁移脚本保持一致，关键词搜索使用的ngram全文索引无法用@Index表达，只在迁移脚本中定义
  *
  * @author DreamPlanner
  */
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = {
+        // 今日、本周、即将到期列表只读取未完成任务
+        @Index(name = "idx_user_status_due_date", columnList = "user_id, status, due_date"),
+        @Index(name = "idx_user_status_start_date", columnList = "user_id, status, start_date"),
+        // 日历按天分组统计的覆盖索引
+        @Index(name = "idx_user_due_date_status_priority", columnList = "user_id, due_date, status, priority"),
+        // 今日、本周列表找出用户仍在进行的重复系列
+        @Index(name = "idx_user_recurrence_end", columnList = "user_id, recurrence_end"),
+        // 逾期检测只扫描上次检测之后到期的任务
+        @Index(name = "idx_status_due_date", columnList = "status, due_date"),
+        // 活跃榜按完成时间统计
+        @Index(name = "idx_status_completed_at", columnList = "status, completed_at"),
+        // 提醒调度按提醒时间分段加载普通任务，按recurrence_end找出仍在进行的系列，按更新时间拾取变更
+        @Index(name = "idx_reminder_time", columnList = "reminder_time"),
+        @Index(name = "idx_recurrence_end", columnList = "recurrence_end"),
+        @Index(name = "idx_updated_at", columnList = "updated_at")
+})
+@NamedEntityGraph(name = Task.GRAPH_WITH_DREAM, attributeNodes = @NamedAttributeNode("dream"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,8 +50,22 @@ public class Task implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * 任务及其所属梦想，列表查询用它一并取出梦想（TaskDTO需要梦想标题）
+     */
+    public static final String GRAPH_WITH_DREAM = "Task.withDream";
+
+    /**
+     * ID按块分配（每次取50个），IDENTITY会让Hibernate逐条执行插入以取回自增值，无法使用JDBC批量插入。
+     * MySQL没有序列，task_seq为单行表模拟的序列，由V3迁移脚本按现有最大ID初始化
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "task_id")
+    @GenericGenerator(name = "task_id", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "task_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -64,11 +100,40 @@ public class Task implements Serializable {
     @Column(name = "reminder_time")
     private LocalDateTime reminderTime;
 
+    /**
+     * 是否已逾期：未完成且截止日期已过。任务写入时按当天日期计算，之后由每日的逾期检测补上随时间变为逾期的任务
+     */
+    @Column(name = "overdue", nullable = false)
+    private boolean overdue;
+
+    /**
+     * 重复规则（RRULE子集），以开始日期为系列起点；为null时是普通任务。
+     * 系列只保存这一行，各次实例在读取时按规则展开
+     */
+    @Column(name = "recurrence_rule", length = 255)
+    private String recurrenceRule;
+
+    /**
+     * 系列最后一次实例的日期，无限重复时为RecurrenceRule.UNBOUNDED；普通任务为null，不进入索引范围
+     */
+    @Column(name = "recurrence_end")
+    private LocalDate recurrenceEnd;
+
+    /**
+     * 按规则展开的实例日期，只存在于内存中的实例副本上
+     */
+    @Transient
+    private LocalDate occurrenceDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_task_id")
     private Task parentTask;
 
+    /**
+     * 子任务按批加载，一页任务的子任务只需一条查询
+     */
     @OneToMany(mappedBy = "parentTask", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private Set<Task> subtasks = new HashSet<>();
 
     /**
@@ -0,0 +1,64 @@
+package com.dreamplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * 任务层级闭包实体类
+ * 每个任务与它自身及所有祖先各有一行，depth为祖先到该任务的层数（自身为0）。
+ * 只保存ID，不与任务建立关联映射；行只会新增或删除，不会更新。
+ * 主键由调用方给定，实现Persistable使saveAll直接走批量插入，不必先按主键查询一次判断新旧
+ *
+ * @author DreamPlanner
+ */
+@Entity
+@Table(name = "task_closure", indexes = @Index(name = "idx_descendant_id", columnList = "descendant_id"))
+@IdClass(TaskClosureId.class)
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = {"ancestorId", "descendantId"})
+@ToString
+public class TaskClosure implements Persistable<TaskClosureId>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private Integer depth;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    public TaskClosure(Long ancestorId, Long descendantId, Integer depth) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+        this.depth = depth;
+    }
+
+    @Override
+    public TaskClosureId getId() {
+        return new TaskClosureId(ancestorId, descendantId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.dreamplanner.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 任务闭包表联合主键
+ *
+ * @author DreamPlanner
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskClosureId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long ancestorId;
+
+    private Long descendantId;
+}
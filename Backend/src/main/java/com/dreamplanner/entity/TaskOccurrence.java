@@ -0,0 +1,46 @@
+package com.dreamplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 重复任务实例的例外记录
+ * 重复任务的实例按规则在内存中展开，只有被标记完成的实例才写入一行；
+ * 存储量与"规则数 + 完成次数"成正比，而不是与实例数成正比。任务删除时由外键级联删除
+ *
+ * @author DreamPlanner
+ */
+@Entity
+@Table(name = "task_occurrence", uniqueConstraints = @UniqueConstraint(
+        name = "uk_task_occurrence_date", columnNames = {"task_id", "occurrence_date"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "task")
+public class TaskOccurrence implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task task;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDate occurrenceDate;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
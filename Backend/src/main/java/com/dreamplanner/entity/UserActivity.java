@@ -0,0 +1,50 @@
+package com.dreamplanner.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 用户活跃度位图
+ * 每个用户每类活动每年一行，days为366位的位图，格式见ActivityBitmap
+ *
+ * @author DreamPlanner
+ */
+@Entity
+@Table(name = "user_activity", uniqueConstraints = @UniqueConstraint(
+        name = "uk_user_activity_type_year", columnNames = {"user_id", "type", "activity_year"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class UserActivity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * 活动类型，见ActivityType
+     */
+    @Column(name = "type", nullable = false)
+    private Integer type;
+
+    @Column(name = "activity_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "days", nullable = false, length = 46)
+    private byte[] days;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,12 @@
+package com.dreamplanner.event;
+
+/**
+ * 梦想创建或更新事件
+ * 在事务提交后由监听方处理
+ *
+ * @param dreamId 梦想ID
+ * @param userId  梦想所属用户ID
+ * @author DreamPlanner
+ */
+public record DreamChangedEvent(Long dreamId, Long userId) {
+}
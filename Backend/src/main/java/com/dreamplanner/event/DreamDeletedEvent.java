@@ -0,0 +1,12 @@
+package com.dreamplanner.event;
+
+/**
+ * 梦想删除事件，梦想下的任务随之级联删除
+ * 在事务提交后由监听方处理
+ *
+ * @param dreamId 梦想ID
+ * @param userId  梦想所属用户ID
+ * @author DreamPlanner
+ */
+public record DreamDeletedEvent(Long dreamId, Long userId) {
+}
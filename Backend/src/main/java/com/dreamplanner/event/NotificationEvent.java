@@ -0,0 +1,42 @@
+package com.dreamplanner.event;
+
+import com.dreamplanner.notification.NotificationType;
+
+/**
+ * 产生通知的社交行为，事务提交后交给通知投递线程批量写入
+ * 回复的接收者（父评论作者）在投递时批量解析，行为发生时不额外查询
+ *
+ * @param type            通知类型，回复以COMMENT发布，投递时拆出REPLY
+ * @param actorId         行为发起用户ID
+ * @param recipientId     接收用户ID，点赞和评论为动态作者，关注为被关注者
+ * @param postId          相关动态ID，关注时为null
+ * @param parentCommentId 回复的父评论ID，不是回复时为null
+ * @param content         评论内容，其他类型为null
+ * @param retracted       是否撤回：取消点赞、取消关注时为true，从未读通知中移除该发起用户
+ * @author DreamPlanner
+ */
+public record NotificationEvent(NotificationType type, Long actorId, Long recipientId,
+                                Long postId, Long parentCommentId, String content, boolean retracted) {
+
+    public static NotificationEvent liked(Long actorId, Long postAuthorId, Long postId) {
+        return new NotificationEvent(NotificationType.LIKE, actorId, postAuthorId, postId, null, null, false);
+    }
+
+    public static NotificationEvent unliked(Long actorId, Long postAuthorId, Long postId) {
+        return new NotificationEvent(NotificationType.LIKE, actorId, postAuthorId, postId, null, null, true);
+    }
+
+    public static NotificationEvent commented(Long actorId, Long postAuthorId, Long postId,
+                                              Long parentCommentId, String content) {
+        return new NotificationEvent(NotificationType.COMMENT, actorId, postAuthorId, postId, parentCommentId, content,
+                false);
+    }
+
+    public static NotificationEvent followed(Long actorId, Long followedId) {
+        return new NotificationEvent(NotificationType.FOLLOW, actorId, followedId, null, null, null, false);
+    }
+
+    public static NotificationEvent unfollowed(Long actorId, Long followedId) {
+        return new NotificationEvent(NotificationType.FOLLOW, actorId, followedId, null, null, null, true);
+    }
+}
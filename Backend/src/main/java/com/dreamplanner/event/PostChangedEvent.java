@@ -0,0 +1,11 @@
+package com.dreamplanner.event;
+
+/**
+ * 动态创建、更新或删除事件
+ * 在事务提交后由监听方处理
+ *
+ * @param postId 动态ID
+ * @author DreamPlanner
+ */
+public record PostChangedEvent(Long postId) {
+}
@@ -0,0 +1,12 @@
+package com.dreamplanner.event;
+
+/**
+ * 进度记录（打卡）添加事件
+ * 在事务提交后由监听方处理
+ *
+ * @param progressId 进度记录ID
+ * @param userId     用户ID
+ * @author DreamPlanner
+ */
+public record ProgressAddedEvent(Long progressId, Long userId) {
+}
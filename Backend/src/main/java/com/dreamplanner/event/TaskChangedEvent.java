@@ -0,0 +1,19 @@
+package com.dreamplanner.event;
+
+import com.dreamplanner.reminder.TaskReminder;
+
+/**
+ * 任务创建、更新或删除事件
+ * 在事务提交后由监听方处理
+ *
+ * @param taskId   任务ID
+ * @param userId   任务所属用户ID
+ * @param reminder 变更后的提醒快照，任务被删除时为null
+ * @author DreamPlanner
+ */
+public record TaskChangedEvent(Long taskId, Long userId, TaskReminder reminder) {
+
+    public static TaskChangedEvent deleted(Long taskId, Long userId) {
+        return new TaskChangedEvent(taskId, userId, null);
+    }
+}
@@ -0,0 +1,230 @@
+package com.dreamplanner.job;
+
+import com.dreamplanner.cache.ImageCache;
+import com.dreamplanner.util.LongHashSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 孤立上传文件回收任务
+ * 定期扫描上传目录，将数据库中不再引用且超过宽限期的文件移入隔离区，
+ * 隔离区中的文件超过保留期后删除，期间如果重新被引用则恢复原位
+ * 只适用于本地存储，对象存储请使用存储服务自身的生命周期规则
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrphanedUploadCollector {
+
+    public static final String QUARANTINE_DIR = ".quarantine";
+
+    private static final DateTimeFormatter DATE_FOLDER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final UploadReferenceScanner referenceScanner;
+    private final ImageCache imageCache;
+
+    @Value("${file.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${file.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${file.gc.grace-period-hours:48}")
+    private long gracePeriodHours;
+
+    @Value("${file.gc.quarantine-retention-days:7}")
+    private long retentionDays;
+
+    /**
+     * 执行回收，默认每天凌晨3点30分
+     */
+    @Scheduled(cron = "${file.gc.cron:0 30 3 * * ?}")
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        LongHashSet referenced;
+        try {
+            referenced = referenceScanner.scanReferencedPaths();
+        } catch (RuntimeException e) {
+            // 引用扫描不完整时不能继续，否则会把正在使用的文件当作孤立文件
+            log.error("上传文件引用扫描失败，本次回收中止: {}", e.getMessage(), e);
+            return;
+        }
+
+        SweepStats stats = new SweepStats();
+        try {
+            sweepUploads(root, referenced, stats);
+            sweepQuarantine(root, referenced, stats);
+        } catch (IOException e) {
+            log.error("遍历上传目录失败: {}", e.getMessage(), e);
+        }
+        log.info("孤立上传文件回收完成, 扫描文件: {}, 隔离: {}, 恢复: {}, 删除: {}, 释放空间: {} bytes, 耗时: {} ms",
+                stats.scanned, stats.quarantined, stats.restored, stats.deleted, stats.reclaimedBytes,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 遍历上传目录，将未被引用且超过宽限期的文件移入隔离区
+     */
+    private void sweepUploads(Path root, LongHashSet referenced, SweepStats stats) throws IOException {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+        Path todayQuarantine = root.resolve(QUARANTINE_DIR).resolve(LocalDate.now().format(DATE_FOLDER));
+
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                // 跳过.chunks、.quarantine等内部目录
+                if (!dir.equals(root) && dir.getFileName().toString().startsWith(".")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                stats.scanned++;
+                String relativePath = toRelativePath(root, file);
+                if (referenced.contains(UploadReferenceScanner.hashPath(relativePath))
+                        || attrs.lastModifiedTime().toInstant().isAfter(cutoff)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                try {
+                    move(file, todayQuarantine.resolve(relativePath));
+                    imageCache.invalidate(relativePath);
+                    stats.quarantined++;
+                    log.debug("隔离孤立文件: {}", relativePath);
+                } catch (IOException e) {
+                    log.warn("隔离文件失败: {}, 原因: {}", file, e.getMessage());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                log.warn("无法访问文件: {}, 原因: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 遍历隔离区，恢复重新被引用的文件，删除超过保留期的文件
+     */
+    private void sweepQuarantine(Path root, LongHashSet referenced, SweepStats stats) throws IOException {
+        Path quarantineRoot = root.resolve(QUARANTINE_DIR);
+        if (!Files.isDirectory(quarantineRoot)) {
+            return;
+        }
+        LocalDate expireBefore = LocalDate.now().minusDays(retentionDays);
+
+        try (var dateDirs = Files.newDirectoryStream(quarantineRoot, Files::isDirectory)) {
+            for (Path dateDir : dateDirs) {
+                boolean expired;
+                try {
+                    expired = LocalDate.parse(dateDir.getFileName().toString(), DATE_FOLDER).isBefore(expireBefore);
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                Files.walkFileTree(dateDir, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        String relativePath = toRelativePath(dateDir, file);
+                        try {
+                            if (referenced.contains(UploadReferenceScanner.hashPath(relativePath))) {
+                                Path original = root.resolve(relativePath);
+                                if (!Files.exists(original)) {
+                                    move(file, original);
+                                    stats.restored++;
+                                    log.info("文件重新被引用，已从隔离区恢复: {}", relativePath);
+                                }
+                            } else if (expired) {
+                                Files.delete(file);
+                                stats.deleted++;
+                                stats.reclaimedBytes += attrs.size();
+                            }
+                        } catch (IOException e) {
+                            log.warn("处理隔离文件失败: {}, 原因: {}", file, e.getMessage());
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        log.warn("无法访问隔离文件: {}, 原因: {}", file, e.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                        // 隔离区只有本任务写入，清理空目录是安全的
+                        try {
+                            Files.deleteIfExists(dir);
+                        } catch (DirectoryNotEmptyException ignored) {
+                            // 目录中仍有文件，保留
+                        } catch (IOException ex) {
+                            log.warn("删除隔离目录失败: {}, 原因: {}", dir, ex.getMessage());
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        }
+    }
+
+    private static String toRelativePath(Path base, Path file) {
+        return base.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+
+    /**
+     * 单次回收的统计数据
+     */
+    private static class SweepStats {
+        long scanned;
+        long quarantined;
+        long restored;
+        long deleted;
+        long reclaimedBytes;
+    }
+}
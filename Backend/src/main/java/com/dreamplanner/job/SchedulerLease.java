@@ -0,0 +1,98 @@
+package com.dreamplanner.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 基于数据库的定时任务租约
+ * 多节点部署时同一名称的租约同一时刻只有一个节点持有，持有者需要在到期前续约，节点宕机后租约到期由其他节点接管。
+ * 租约行同时保存持有者的处理水位，接管的节点从水位处继续，不必重新扫描全部历史数据。
+ * 过期时间使用应用节点的时钟，租约时长应明显大于节点间的时钟偏差
+ *
+ * @author DreamPlanner
+ */
+@Slf4j
+public class SchedulerLease {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final String owner;
+    private final Duration duration;
+
+    public SchedulerLease(JdbcTemplate jdbcTemplate, String name, Duration duration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName();
+        this.duration = duration;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * 获取或续约租约
+     *
+     * @param now 当前时间
+     * @return 本节点是否持有租约
+     */
+    public boolean tryAcquire(LocalDateTime now) {
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(duration));
+        int updated = jdbcTemplate.update("UPDATE scheduler_lease SET owner = ?, expires_at = ? " +
+                        "WHERE name = ? AND (owner = ? OR owner IS NULL OR expires_at < ?)",
+                owner, expiresAt, name, owner, Timestamp.valueOf(now));
+        if (updated > 0) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO scheduler_lease (name, owner, expires_at) VALUES (?, ?, ?)",
+                    name, owner, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // 租约已被其他节点持有
+            return false;
+        }
+    }
+
+    /**
+     * 读取上一持有者保存的处理水位
+     *
+     * @return 水位，从未保存过时为null
+     */
+    public LocalDateTime getWatermark() {
+        List<Timestamp> watermarks = jdbcTemplate.queryForList(
+                "SELECT watermark FROM scheduler_lease WHERE name = ?", Timestamp.class, name);
+        return watermarks.isEmpty() || watermarks.get(0) == null ? null : watermarks.get(0).toLocalDateTime();
+    }
+
+    /**
+     * 保存处理水位，只有仍持有租约时才会写入
+     *
+     * @param watermark 水位
+     * @return 是否写入成功
+     */
+    public boolean saveWatermark(LocalDateTime watermark) {
+        return jdbcTemplate.update("UPDATE scheduler_lease SET watermark = ? WHERE name = ? AND owner = ?",
+                Timestamp.valueOf(watermark), name, owner) > 0;
+    }
+
+    /**
+     * 主动释放租约，便于其他节点立即接管
+     *
+     * @param now 当前时间
+     */
+    public void release(LocalDateTime now) {
+        int updated = jdbcTemplate.update("UPDATE scheduler_lease SET owner = NULL, expires_at = ? " +
+                "WHERE name = ? AND owner = ?", Timestamp.valueOf(now), name, owner);
+        if (updated > 0) {
+            log.info("已释放定时任务租约: {}", name);
+        }
+    }
+}
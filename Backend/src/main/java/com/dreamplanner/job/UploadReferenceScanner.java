@@ -0,0 +1,85 @@
+package com.dreamplanner.job;
+
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.PostRepository;
+import com.dreamplanner.repository.ProgressRepository;
+import com.dreamplanner.repository.ResourceRepository;
+import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.util.LongHashSet;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 上传文件引用扫描器
+ * 从数据库中流式读取头像、封面、动态和进度图片URL以及资源的链接和图片，
+ * 将引用的文件相对路径（type/date/filename）哈希后放入紧凑的long集合
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class UploadReferenceScanner {
+
+    /**
+     * 匹配URL中/files/或/uploads/之后的相对路径，兼容逗号分隔和JSON数组格式
+     */
+    private static final Pattern FILE_PATH_PATTERN = Pattern.compile("/(?:files|uploads)/([^,\\s\"'?#\\[\\]]+)");
+
+    private static final HashFunction PATH_HASH = Hashing.murmur3_128();
+
+    private final UserRepository userRepository;
+    private final DreamRepository dreamRepository;
+    private final PostRepository postRepository;
+    private final ProgressRepository progressRepository;
+    private final ResourceRepository resourceRepository;
+
+    /**
+     * 扫描所有被引用的上传文件
+     *
+     * @return 被引用文件相对路径的哈希集合
+     */
+    @Transactional(readOnly = true)
+    public LongHashSet scanReferencedPaths() {
+        LongHashSet referenced = new LongHashSet(1 << 16);
+        collect(userRepository.streamReferencedUrls(), referenced);
+        collect(dreamRepository.streamReferencedUrls(), referenced);
+        collect(postRepository.streamReferencedUrls(), referenced);
+        collect(progressRepository.streamReferencedUrls(), referenced);
+        collect(resourceRepository.streamReferencedUrls(), referenced);
+        log.info("上传文件引用扫描完成, 被引用文件数: {}", referenced.size());
+        return referenced;
+    }
+
+    /**
+     * 计算文件相对路径的哈希值，64位哈希冲突只会导致文件被保留，不会误删
+     *
+     * @param relativePath 相对上传目录的路径，使用/分隔
+     * @return 哈希值
+     */
+    public static long hashPath(String relativePath) {
+        return PATH_HASH.hashString(relativePath, StandardCharsets.UTF_8).asLong();
+    }
+
+    private void collect(Stream<String> urls, LongHashSet referenced) {
+        try (urls) {
+            urls.forEach(value -> {
+                Matcher matcher = FILE_PATH_PATTERN.matcher(value);
+                while (matcher.find()) {
+                    referenced.add(hashPath(matcher.group(1)));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.dreamplanner.leaderboard;
+
+/**
+ * 按用户和梦想分类分组的统计行
+ * 仓库分组查询直接构造
+ *
+ * @param userId   用户ID
+ * @param category 梦想分类
+ * @param score    分数
+ * @author DreamPlanner
+ */
+public record CategoryScore(Long userId, String category, Long score) {
+}
@@ -0,0 +1,102 @@
+package com.dreamplanner.leaderboard;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存中的排行榜
+ * 每个榜（按分类分榜的每个分类）一个RankedSet，由LeaderboardUpdater增量更新和定期整体替换；
+ * 未启用更新时各榜为空
+ *
+ * @author DreamPlanner
+ */
+@Component
+public class LeaderboardStore {
+
+    private final Map<String, RankedSet> boards = new ConcurrentHashMap<>();
+
+    /**
+     * 本周活跃榜统计的周一，整体替换时更新
+     */
+    private volatile LocalDate weekStart;
+
+    /**
+     * @param type     排行榜类型
+     * @param category 梦想分类，不按分类分榜时忽略
+     * @return 排行榜，还没有任何用户时为null
+     */
+    public RankedSet get(LeaderboardType type, String category) {
+        return boards.get(key(type, category));
+    }
+
+    /**
+     * 设置用户在某个榜上的分数，不大于0时移出该榜
+     *
+     * @param type     排行榜类型
+     * @param category 梦想分类，不按分类分榜时忽略
+     * @param userId   用户ID
+     * @param score    分数
+     */
+    public void put(LeaderboardType type, String category, long userId, long score) {
+        if (score > 0) {
+            boards.computeIfAbsent(key(type, category), key -> new RankedSet()).put(userId, score);
+        } else {
+            RankedSet board = get(type, category);
+            if (board != null) {
+                board.remove(userId);
+            }
+        }
+    }
+
+    /**
+     * 用重建的数据整体替换一类榜单，替换前已有而重建结果中没有的分类榜被移除
+     *
+     * @param type   排行榜类型
+     * @param scores 各分类下的用户分数，不按分类分榜时只有一个键，可为任意值
+     */
+    public void replace(LeaderboardType type, Map<String, List<UserScore>> scores) {
+        Set<String> keys = new TreeSet<>();
+        scores.forEach((category, users) -> {
+            RankedSet board = new RankedSet();
+            users.forEach(user -> board.put(user.userId(), user.score()));
+            String key = key(type, category);
+            boards.put(key, board);
+            keys.add(key);
+        });
+        String prefix = type.name() + ":";
+        boards.keySet().removeIf(key -> key.startsWith(prefix) && !keys.contains(key));
+    }
+
+    /**
+     * @param type 排行榜类型
+     * @return 已有榜单的分类，按名称排序
+     */
+    public Set<String> categories(LeaderboardType type) {
+        String prefix = type.name() + ":";
+        Set<String> categories = new TreeSet<>();
+        for (String key : boards.keySet()) {
+            if (key.startsWith(prefix)) {
+                categories.add(key.substring(prefix.length()));
+            }
+        }
+        return categories;
+    }
+
+    public LocalDate getWeekStart() {
+        return weekStart;
+    }
+
+    public void setWeekStart(LocalDate weekStart) {
+        this.weekStart = weekStart;
+    }
+
+    private static String key(LeaderboardType type, String category) {
+        return type.name() + ":" + (type.isPerCategory() && category != null ? category : "");
+    }
+}
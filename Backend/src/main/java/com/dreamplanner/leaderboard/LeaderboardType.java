@@ -0,0 +1,37 @@
+package com.dreamplanner.leaderboard;
+
+/**
+ * 排行榜类型
+ *
+ * @author DreamPlanner
+ */
+public enum LeaderboardType {
+
+    /**
+     * 已完成梦想数
+     */
+    COMPLETED_DREAMS(false),
+
+    /**
+     * 历史最长连续打卡天数
+     */
+    LONGEST_STREAK(false),
+
+    /**
+     * 本周活跃度，即本周打卡次数与完成任务数之和，按梦想分类分榜
+     */
+    WEEKLY_ACTIVE(true);
+
+    private final boolean perCategory;
+
+    LeaderboardType(boolean perCategory) {
+        this.perCategory = perCategory;
+    }
+
+    /**
+     * @return 是否按梦想分类分榜
+     */
+    public boolean isPerCategory() {
+        return perCategory;
+    }
+}
@@ -0,0 +1,270 @@
+package com.dreamplanner.leaderboard;
+
+import com.dreamplanner.activity.ActivityBitmap;
+import com.dreamplanner.activity.ActivityType;
+import com.dreamplanner.entity.UserActivity;
+import com.dreamplanner.event.DreamChangedEvent;
+import com.dreamplanner.event.DreamDeletedEvent;
+import com.dreamplanner.event.ProgressAddedEvent;
+import com.dreamplanner.event.TaskChangedEvent;
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.ProgressRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.repository.UserActivityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 排行榜更新
+ * 启动时和每隔rebuild-interval用分组查询整体重建各榜，其他节点的写入由重建带入。
+ * 本节点的梦想、任务、打卡写入在事务提交后把用户记为待刷新，同步线程合并同一用户的多次变更，
+ * 逐个用户重新统计三类分数并更新榜单，写请求本身不再多出查询。跨周后本周活跃榜整体重建。
+ * 榜单只在同步线程中修改
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "leaderboard.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardUpdater implements SmartLifecycle {
+
+    private final LeaderboardStore store;
+    private final DreamRepository dreamRepository;
+    private final TaskRepository taskRepository;
+    private final ProgressRepository progressRepository;
+    private final UserActivityRepository userActivityRepository;
+
+    @Value("${leaderboard.rebuild-interval:10m}")
+    private Duration rebuildInterval;
+
+    @Value("${leaderboard.batch-size:500}")
+    private int batchSize;
+
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService executor;
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(guarded("重建", this::rebuild), 0, rebuildInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        executor = scheduler;
+        log.info("排行榜更新已启动, 重建间隔: {}", rebuildInterval);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        markDirty(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDreamChanged(DreamChangedEvent event) {
+        markDirty(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDreamDeleted(DreamDeletedEvent event) {
+        markDirty(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgressAdded(ProgressAddedEvent event) {
+        markDirty(event.userId());
+    }
+
+    /**
+     * 记下待刷新的用户，同步线程上还没有排队的刷新任务时提交一个
+     */
+    private void markDirty(Long userId) {
+        ScheduledExecutorService scheduler = executor;
+        if (userId == null || scheduler == null) {
+            return;
+        }
+        dirtyUsers.add(userId);
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(guarded("刷新用户", this::drain));
+            } catch (RejectedExecutionException e) {
+                // 正在停止
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        // 先清标记再取用户，取出之后加入的用户会再提交一次刷新
+        drainScheduled.set(false);
+        List<Long> userIds = new ArrayList<>(dirtyUsers);
+        dirtyUsers.removeAll(userIds);
+        LocalDate weekStart = currentWeekStart();
+        if (!weekStart.equals(store.getWeekStart())) {
+            rebuildWeeklyActive(weekStart);
+        }
+        for (Long userId : userIds) {
+            refresh(userId, weekStart);
+        }
+    }
+
+    /**
+     * 重新统计一个用户的各项分数
+     */
+    private void refresh(long userId, LocalDate weekStart) {
+        store.put(LeaderboardType.COMPLETED_DREAMS, null, userId,
+                dreamRepository.countByUserIdAndStatus(userId, 2));
+
+        SortedMap<Integer, ActivityBitmap> bitmaps = new TreeMap<>();
+        for (UserActivity activity : userActivityRepository.findByUserIdAndType(userId, ActivityType.CHECK_IN.getCode())) {
+            bitmaps.put(activity.getYear(), ActivityBitmap.of(activity.getYear(), activity.getDays()));
+        }
+        store.put(LeaderboardType.LONGEST_STREAK, null, userId, ActivityBitmap.longestStreak(bitmaps));
+
+        LocalDateTime start = weekStart.atStartOfDay();
+        Map<String, Long> weekly = new HashMap<>();
+        for (CategoryScore row : progressRepository.countByCategorySince(userId, start)) {
+            weekly.merge(row.category(), row.score(), Long::sum);
+        }
+        for (CategoryScore row : taskRepository.countCompletedByCategorySince(userId, start)) {
+            weekly.merge(row.category(), row.score(), Long::sum);
+        }
+        // 梦想改了分类或被删除后，用户要从原分类的榜上移除
+        for (String category : store.categories(LeaderboardType.WEEKLY_ACTIVE)) {
+            if (!weekly.containsKey(category)) {
+                store.put(LeaderboardType.WEEKLY_ACTIVE, category, userId, 0);
+            }
+        }
+        weekly.forEach((category, score) -> store.put(LeaderboardType.WEEKLY_ACTIVE, category, userId, score));
+    }
+
+    private void rebuild() {
+        LocalDateTime started = LocalDateTime.now();
+        store.replace(LeaderboardType.COMPLETED_DREAMS, Map.of("", dreamRepository.countCompletedByUser()));
+        store.replace(LeaderboardType.LONGEST_STREAK, Map.of("", longestStreaks()));
+        rebuildWeeklyActive(currentWeekStart());
+        log.info("排行榜已重建, 耗时: {}ms", Duration.between(started, LocalDateTime.now()).toMillis());
+    }
+
+    /**
+     * 按(用户ID, 年份)分批读取全部打卡位图，同一用户的位图读完后计算最长连续天数
+     */
+    private List<UserScore> longestStreaks() {
+        List<UserScore> scores = new ArrayList<>();
+        SortedMap<Integer, ActivityBitmap> bitmaps = new TreeMap<>();
+        Long currentUserId = null;
+        long afterUserId = 0;
+        int afterYear = 0;
+        List<UserActivity> page;
+        do {
+            page = userActivityRepository.findByTypeAfter(ActivityType.CHECK_IN.getCode(), afterUserId, afterYear,
+                    PageRequest.of(0, batchSize));
+            for (UserActivity activity : page) {
+                if (!activity.getUserId().equals(currentUserId)) {
+                    addStreak(scores, currentUserId, bitmaps);
+                    currentUserId = activity.getUserId();
+                    bitmaps.clear();
+                }
+                bitmaps.put(activity.getYear(), ActivityBitmap.of(activity.getYear(), activity.getDays()));
+            }
+            if (!page.isEmpty()) {
+                UserActivity last = page.get(page.size() - 1);
+                afterUserId = last.getUserId();
+                afterYear = last.getYear();
+            }
+        } while (page.size() == batchSize);
+        addStreak(scores, currentUserId, bitmaps);
+        return scores;
+    }
+
+    private static void addStreak(List<UserScore> scores, Long userId, SortedMap<Integer, ActivityBitmap> bitmaps) {
+        if (userId != null) {
+            scores.add(new UserScore(userId, (long) ActivityBitmap.longestStreak(bitmaps)));
+        }
+    }
+
+    private void rebuildWeeklyActive(LocalDate weekStart) {
+        LocalDateTime start = weekStart.atStartOfDay();
+        Map<String, Map<Long, Long>> counts = new HashMap<>();
+        List<CategoryScore> rows = new ArrayList<>(progressRepository.countByUserAndCategorySince(start));
+        rows.addAll(taskRepository.countCompletedByUserAndCategorySince(start));
+        for (CategoryScore row : rows) {
+            counts.computeIfAbsent(row.category(), key -> new HashMap<>()).merge(row.userId(), row.score(), Long::sum);
+        }
+        Map<String, List<UserScore>> scores = new HashMap<>();
+        counts.forEach((category, users) -> {
+            List<UserScore> list = new ArrayList<>(users.size());
+            users.forEach((userId, score) -> list.add(new UserScore(userId, score)));
+            scores.put(category, list);
+        });
+        store.replace(LeaderboardType.WEEKLY_ACTIVE, scores);
+        store.setWeekStart(weekStart);
+    }
+
+    private static LocalDate currentWeekStart() {
+        return LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static Runnable guarded(String action, Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                // 异常会终止周期任务，这里吞掉等下一轮重试
+                log.error("排行榜{}失败: {}", action, e.getMessage(), e);
+            }
+        };
+    }
+}
@@ -0,0 +1,240 @@
+package com.dreamplanner.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 按分数排名的用户集合，带跨度的跳表
+ * 按分数降序、用户ID升序排列，每层指针记录跨过的节点数，更新分数、查排名、按排名定位都是期望O(log n)，
+ * 取一段连续排名再沿底层链表顺序读取。分数不大于0的用户不在榜上。读写锁保护，读操作可以并发
+ *
+ * @author DreamPlanner
+ */
+public class RankedSet {
+
+    private static final int MAX_LEVEL = 32;
+
+    /**
+     * 每个节点晋升到上一层的概率为1/4
+     */
+    private static final int LEVEL_FACTOR = 4;
+
+    private final Node head = new Node(0, 0, MAX_LEVEL);
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int level = 1;
+
+    /**
+     * 榜上的一名用户
+     *
+     * @param rank   排名，从1开始
+     * @param userId 用户ID
+     * @param score  分数
+     */
+    public record Entry(int rank, long userId, long score) {
+    }
+
+    /**
+     * 设置用户的分数，不大于0时移出榜单
+     *
+     * @param userId 用户ID
+     * @param score  分数
+     */
+    public void put(long userId, long score) {
+        lock.writeLock().lock();
+        try {
+            Node existing = nodes.get(userId);
+            if (existing != null) {
+                if (existing.score == score) {
+                    return;
+                }
+                delete(existing);
+            }
+            if (score > 0) {
+                nodes.put(userId, insert(userId, score));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param userId 用户ID
+     */
+    public void remove(long userId) {
+        put(userId, 0);
+    }
+
+    /**
+     * @return 榜上的用户数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param userId 用户ID
+     * @return 用户的排名和分数，不在榜上时为null
+     */
+    public Entry get(long userId) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(userId);
+            return node == null ? null : new Entry(rankOf(node), userId, node.score);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 取从某个排名开始的一段
+     *
+     * @param fromRank 开始排名，从1开始
+     * @param count    最多条数
+     * @return 按排名升序的用户
+     */
+    public List<Entry> range(int fromRank, int count) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(count, nodes.size() - fromRank + 1)));
+            Node node = fromRank >= 1 ? nodeAt(fromRank) : null;
+            for (int rank = fromRank; node != null && entries.size() < count; rank++, node = node.next[0]) {
+                entries.add(new Entry(rank, node.userId, node.score));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 节点a是否排在(score, userId)之前
+     */
+    private static boolean before(Node a, long score, long userId) {
+        return a.score > score || (a.score == score && a.userId < userId);
+    }
+
+    private Node insert(long userId, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], score, userId)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = nodes.size();
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(userId, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            // rank[0] - rank[i]为第i层前驱到新节点前一个节点之间的节点数
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        return node;
+    }
+
+    private void delete(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], node.score, node.userId)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        nodes.remove(node.userId);
+    }
+
+    private int rankOf(Node node) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == node || before(x.next[i], node.score, node.userId))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        throw new IllegalStateException("节点不在跳表中: " + node.userId);
+    }
+
+    private Node nodeAt(int rank) {
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextInt(LEVEL_FACTOR) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+
+        private final long userId;
+        private final long score;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(long userId, long score, int level) {
+            this.userId = userId;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.dreamplanner.leaderboard;
+
+/**
+ * 排行榜重建时按用户分组的统计行
+ * 仓库分组查询直接构造
+ *
+ * @param userId 用户ID
+ * @param score  分数
+ * @author DreamPlanner
+ */
+public record UserScore(Long userId, Long score) {
+}
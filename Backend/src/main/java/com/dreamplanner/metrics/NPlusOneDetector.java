@@ -0,0 +1,113 @@
+package com.dreamplanner.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * N+1查询检测器
+ * 请求结束时记录SQL数量分布，同一条SQL执行次数达到阈值时判定为疑似N+1并记录最近的样本
+ *
+ * @author DreamPlanner
+ */
+@Component
+@Slf4j
+public class NPlusOneDetector {
+
+    private static final int MAX_RECENT_DETECTIONS = 100;
+    private static final int MAX_SQL_LENGTH = 300;
+
+    private final MeterRegistry meterRegistry;
+    private final int threshold;
+    private final Deque<Map<String, Object>> recentDetections = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger recentSize = new AtomicInteger();
+    private final Map<String, LongAdder> detectionsByEndpoint = new ConcurrentHashMap<>();
+
+    public NPlusOneDetector(MeterRegistry meterRegistry,
+                            @Value("${metrics.n-plus-one.threshold:5}") int threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    /**
+     * 检查一个请求的SQL统计
+     *
+     * @param method  HTTP方法
+     * @param uri     请求映射的路径模板
+     * @param context 请求内的SQL统计
+     */
+    public void inspect(String method, String uri, RequestQueryContext context) {
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("单个HTTP请求执行的SQL数量")
+                .baseUnit("statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(context.getStatementCount());
+
+        for (Map.Entry<String, Integer> entry : context.getStatementCounts().entrySet()) {
+            if (entry.getValue() >= threshold) {
+                report(method, uri, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void report(String method, String uri, String sql, int executions) {
+        String endpoint = method + " " + uri;
+        String abbreviated = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+        log.warn("疑似N+1查询, 接口: {}, 同一SQL执行次数: {}, SQL: {}", endpoint, executions, abbreviated);
+
+        Counter.builder("hibernate.n_plus_one")
+                .description("疑似N+1查询的请求次数")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+        detectionsByEndpoint.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+
+        Map<String, Object> detection = new LinkedHashMap<>();
+        detection.put("time", LocalDateTime.now().toString());
+        detection.put("endpoint", endpoint);
+        detection.put("executions", executions);
+        detection.put("sql", abbreviated);
+        recentDetections.addFirst(detection);
+        if (recentSize.incrementAndGet() > MAX_RECENT_DETECTIONS && recentDetections.pollLast() != null) {
+            recentSize.decrementAndGet();
+        }
+    }
+
+    /**
+     * 最近的疑似N+1样本，按时间倒序
+     */
+    public List<Map<String, Object>> getRecentDetections() {
+        return new ArrayList<>(recentDetections);
+    }
+
+    /**
+     * 各接口累计的疑似N+1次数
+     */
+    public Map<String, Long> getDetectionsByEndpoint() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        detectionsByEndpoint.forEach((endpoint, count) -> result.put(endpoint, count.sum()));
+        return result;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+}
@@ -0,0 +1,31 @@
+package com.dreamplanner.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * N+1查询检测端点，访问路径为/actuator/nplusone
+ *
+ * @author DreamPlanner
+ */
+@Component
+@Endpoint(id = "nplusone")
+@RequiredArgsConstructor
+public class NPlusOneEndpoint {
+
+    private final NPlusOneDetector detector;
+
+    @ReadOperation
+    public Map<String, Object> detections() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threshold", detector.getThreshold());
+        result.put("byEndpoint", detector.getDetectionsByEndpoint());
+        result.put("recent", detector.getRecentDetections());
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.dreamplanner.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate SQL检查器
+ * 在语句准备时计数，不修改SQL；Hibernate生成的SQL使用占位符，
+ * 同一条SQL在一个请求内重复执行多次通常意味着N+1查询
+ *
+ * @author DreamPlanner
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryContext context = RequestQueryContext.current();
+        if (context != null) {
+            context.record(sql);
+        }
+        return sql;
+    }
+}
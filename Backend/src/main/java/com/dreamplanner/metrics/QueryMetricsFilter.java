@@ -0,0 +1,41 @@
+package com.dreamplanner.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 请求级SQL统计过滤器
+ * 放在安全过滤器之前，认证过程中加载用户的查询也会被计入
+ *
+ * @author DreamPlanner
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private final NPlusOneDetector detector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryContext context = RequestQueryContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryContext.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            detector.inspect(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN", context);
+        }
+    }
+}
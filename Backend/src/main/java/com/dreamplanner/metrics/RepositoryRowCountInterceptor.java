@@ -0,0 +1,81 @@
+package com.dreamplanner.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 仓库方法返回行数统计
+ * 耗时由Spring Boot自动配置的spring.data.repository.invocations指标记录，这里只补充返回的实体数量
+ *
+ * @author DreamPlanner
+ */
+public class RepositoryRowCountInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryRowCountInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() != Object.class) {
+            long rows = countRows(method, result);
+            if (rows >= 0) {
+                summaries.computeIfAbsent(method, this::createSummary).record(rows);
+            }
+        }
+        return result;
+    }
+
+    private DistributionSummary createSummary(Method method) {
+        return DistributionSummary.builder("spring.data.repository.rows")
+                .description("仓库方法返回的记录数")
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry.getObject());
+    }
+
+    /**
+     * 计算返回的记录数，计数、存在性判断等标量结果和流式结果返回-1表示不统计
+     */
+    private static long countRows(Method method, Object result) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class || returnType.isPrimitive()
+                || Number.class.isAssignableFrom(returnType) || Boolean.class == returnType
+                || Stream.class.isAssignableFrom(returnType)) {
+            return -1;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.dreamplanner.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单个HTTP请求内执行的SQL统计
+ * 通过ThreadLocal绑定到处理请求的线程，由QueryCountInspector写入，QueryMetricsFilter读取
+ *
+ * @author DreamPlanner
+ */
+public final class RequestQueryContext {
+
+    /**
+     * 单个请求最多跟踪的不同SQL数量，防止批量操作时占用过多内存
+     */
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    private static final ThreadLocal<RequestQueryContext> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statementCount;
+
+    private RequestQueryContext() {
+    }
+
+    static RequestQueryContext begin() {
+        RequestQueryContext context = new RequestQueryContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    static RequestQueryContext current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String sql) {
+        statementCount++;
+        if (statementCounts.size() < MAX_DISTINCT_STATEMENTS || statementCounts.containsKey(sql)) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public Map<String, Integer> getStatementCounts() {
+        return statementCounts;
+    }
+}
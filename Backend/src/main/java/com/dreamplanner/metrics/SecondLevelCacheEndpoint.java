@@ -0,0 +1,58 @@
+package com.dreamplanner.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 二级缓存统计端点，访问路径为/actuator/l2cache
+ * 按区域汇总命中、未命中、写入次数和当前条目数，命中率随时间的变化可在hibernate.second.level.cache.*指标中查看
+ *
+ * @author DreamPlanner
+ */
+@Component
+@Endpoint(id = "l2cache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : new TreeSet<>(Arrays.asList(statistics.getSecondLevelCacheRegionNames()))) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("hits", hits);
+            item.put("misses", misses);
+            item.put("puts", regionStatistics.getPutCount());
+            item.put("hitRatio", hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+            item.put("elementsInMemory", regionStatistics.getElementCountInMemory());
+            regions.put(region, item);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("hits", statistics.getSecondLevelCacheHitCount());
+        result.put("misses", statistics.getSecondLevelCacheMissCount());
+        result.put("puts", statistics.getSecondLevelCachePutCount());
+        result.put("regions", regions);
+        return result;
+    }
+}
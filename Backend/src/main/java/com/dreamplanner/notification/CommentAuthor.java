@@ -0,0 +1,12 @@
+package com.dreamplanner.notification;
+
+/**
+ * 评论ID与作者ID
+ * 仓库查询直接构造
+ *
+ * @param commentId 评论ID
+ * @param userId    作者ID
+ * @author DreamPlanner
+ */
+public record CommentAuthor(Long commentId, Long userId) {
+}
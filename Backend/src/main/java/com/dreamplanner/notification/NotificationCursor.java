@@ -0,0 +1,67 @@
+package com.dreamplanner.notification;
+
+import com.dreamplanner.entity.Notification;
+import com.dreamplanner.exception.BusinessException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 收件箱分页游标
+ * 编码上一页最后一条通知的聚合时间和ID。聚合会把旧通知移到最前面，
+ * 翻页期间被移动的通知可能在后续页中缺失，下次从首页刷新时会出现
+ *
+ * @param updatedAt 最近聚合时间
+ * @param id        通知ID
+ * @author DreamPlanner
+ */
+public record NotificationCursor(LocalDateTime updatedAt, long id) {
+
+    private static final int SIZE = 8 + 4 + 8;
+
+    /**
+     * @param notification 上一页最后一条通知
+     * @return 游标
+     */
+    public static NotificationCursor of(Notification notification) {
+        return new NotificationCursor(notification.getUpdatedAt(), notification.getId());
+    }
+
+    /**
+     * @return URL安全的游标，时间按UTC换算只用于编码，不代表时区
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE)
+                .putLong(updatedAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(updatedAt.getNano())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor 游标
+     * @return 游标对应的通知位置
+     * @throws BusinessException 游标无效
+     */
+    public static NotificationCursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+        if (bytes.length != SIZE) {
+            throw new BusinessException("无效的分页游标");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            LocalDateTime updatedAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new NotificationCursor(updatedAt, buffer.getLong());
+        } catch (DateTimeException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.dreamplanner.notification;
+
+import com.dreamplanner.event.NotificationEvent;
+import com.dreamplanner.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 通知批量投递
+ * 点赞、评论、关注在事务提交后把通知事件放入内存队列，写请求本身不再写通知表；
+ * 投递线程每隔flush-interval，或队列攒够batch-size条时立即，把一批事件交给NotificationService在一个事务中聚合写入。
+ * 队列超过max-pending条时丢弃新事件，通知只影响提醒不影响业务数据；停机时写完队列中剩余的事件。
+ * 进程异常退出时队列中尚未投递的通知会丢失
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "notification.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher implements SmartLifecycle {
+
+    private final NotificationService notificationService;
+
+    @Value("${notification.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${notification.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.max-pending:10000}")
+    private int maxPending;
+
+    private final ConcurrentLinkedQueue<NotificationEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService executor;
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(guarded(this::flush), flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        executor = scheduler;
+        log.info("通知投递已启动, 投递间隔: {}, 每批事件数: {}", flushInterval, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+                return;
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // 投递线程已结束，停机前写完剩余的事件
+        guarded(this::flush).run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotification(NotificationEvent event) {
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler == null) {
+            return;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            log.warn("通知队列已满, 丢弃通知: {}", event);
+            return;
+        }
+        queue.add(event);
+        if (pending.get() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(guarded(this::flush));
+            } catch (RejectedExecutionException e) {
+                // 正在停止，剩余事件由stop写入
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 按batch-size分批取出队列中的事件投递，直到队列为空
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        List<NotificationEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            NotificationEvent event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending.addAndGet(-batch.size());
+            try {
+                notificationService.deliver(batch);
+            } catch (RuntimeException e) {
+                // 一批失败不重试，避免同一批反复失败阻塞后续通知
+                log.error("投递通知失败, 丢弃事件数: {}, 原因: {}", batch.size(), e.getMessage(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private static Runnable guarded(Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                // 异常会终止周期任务，这里吞掉等下一轮重试
+                log.error("通知投递失败: {}", e.getMessage(), e);
+            }
+        };
+    }
+}
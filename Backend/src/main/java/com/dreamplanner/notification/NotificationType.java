@@ -0,0 +1,68 @@
+package com.dreamplanner.notification;
+
+import com.dreamplanner.exception.BusinessException;
+
+/**
+ * 通知类型
+ * 同一接收者未读的同类通知按目标聚合成一条，如"12人赞了你的动态"
+ *
+ * @author DreamPlanner
+ */
+public enum NotificationType {
+
+    /**
+     * 动态被点赞，按动态聚合
+     */
+    LIKE(1, "赞了你的动态"),
+
+    /**
+     * 动态被评论，按动态聚合
+     */
+    COMMENT(2, "评论了你的动态"),
+
+    /**
+     * 评论被回复，按回复所在的动态聚合
+     */
+    REPLY(3, "回复了你的评论"),
+
+    /**
+     * 被关注，所有新关注者聚合成一条
+     */
+    FOLLOW(4, "关注了你");
+
+    private final int code;
+    private final String action;
+
+    NotificationType(int code, String action) {
+        this.code = code;
+        this.action = action;
+    }
+
+    /**
+     * @return 存储在notification.type中的编码
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return 通知文案中的动作描述
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * @param code 类型编码
+     * @return 通知类型
+     * @throws BusinessException 编码无效
+     */
+    public static NotificationType fromCode(int code) {
+        for (NotificationType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new BusinessException("无效的通知类型: " + code);
+    }
+}
@@ -0,0 +1,23 @@
+package com.dreamplanner.overdue;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * 默认逾期摘要发送实现，只记录日志
+ * 接入实际的消息渠道时声明自己的OverdueDigestNotifier即可替换
+ *
+ * @author DreamPlanner
+ */
+@Slf4j
+public class LoggingOverdueDigestNotifier implements OverdueDigestNotifier {
+
+    @Override
+    public void notify(List<OverdueDigest> digests) {
+        for (OverdueDigest digest : digests) {
+            log.info("逾期任务摘要, userId: {}, date: {}, 新逾期任务数: {}",
+                    digest.userId(), digest.date(), digest.tasks().size());
+        }
+    }
+}
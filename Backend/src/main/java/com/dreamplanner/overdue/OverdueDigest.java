@@ -0,0 +1,15 @@
+package com.dreamplanner.overdue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 一个用户在一次逾期检测中新变为逾期的任务汇总
+ *
+ * @param userId 用户ID
+ * @param date   检测日期
+ * @param tasks  新逾期的任务，按截止日期升序
+ * @author DreamPlanner
+ */
+public record OverdueDigest(Long userId, LocalDate date, List<OverdueTask> tasks) {
+}
@@ -0,0 +1,19 @@
+package com.dreamplanner.overdue;
+
+import java.util.List;
+
+/**
+ * 逾期摘要发送接口
+ * 每次逾期检测结束后把按用户汇总的摘要交给实现类发送（站内消息、推送、邮件等）
+ *
+ * @author DreamPlanner
+ */
+public interface OverdueDigestNotifier {
+
+    /**
+     * 发送一次检测的全部摘要
+     *
+     * @param digests 每个有新逾期任务的用户一条摘要
+     */
+    void notify(List<OverdueDigest> digests);
+}
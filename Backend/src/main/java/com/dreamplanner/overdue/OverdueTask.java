@@ -0,0 +1,16 @@
+package com.dreamplanner.overdue;
+
+import java.time.LocalDate;
+
+/**
+ * 新变为逾期的任务
+ * 仓库查询直接构造，不加载任务实体
+ *
+ * @param taskId  任务ID
+ * @param userId  用户ID
+ * @param title   任务标题
+ * @param dueDate 截止日期
+ * @author DreamPlanner
+ */
+public record OverdueTask(Long taskId, Long userId, String title, LocalDate dueDate) {
+}
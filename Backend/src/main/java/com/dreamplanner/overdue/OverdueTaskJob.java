@@ -0,0 +1,155 @@
+package com.dreamplanner.overdue;
+
+import com.dreamplanner.job.SchedulerLease;
+import com.dreamplanner.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 每日逾期检测
+ * 任务写入时已按当天日期计算逾期标记，这里只补上随时间变为逾期的任务：
+ * 对每个未完成状态按(status, due_date)索引键集分页扫描截止日期在[水位, 今天)之间、尚未标记的任务，
+ * 再按batch-size分批UPDATE标记，扫描量与新逾期的任务数成正比，与任务表大小无关。
+ * 多节点部署时通过scheduler_lease租约只由一个节点执行，租约水位保存已检测到的日期，
+ * 停机几天后从水位补齐，首次运行最多回溯catch-up-days天（更早的由迁移脚本回填）。
+ * 扫描结束后先按用户汇总新逾期的任务交给OverdueDigestNotifier，发送成功后才标记并推进水位：
+ * 发送失败时任务保持未标记，下次执行重新汇总发送；标记失败时下次可能重复发送，但不会丢失摘要
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "overdue.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueTaskJob {
+
+    private static final String LEASE_NAME = "task-overdue";
+
+    /**
+     * 未完成的任务状态：待开始、进行中、已延期
+     */
+    private static final List<Integer> OPEN_STATUSES = List.of(0, 1, 3);
+
+    private final TaskRepository taskRepository;
+    private final OverdueDigestNotifier notifier;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${overdue.batch-size:500}")
+    private int batchSize;
+
+    @Value("${overdue.catch-up-days:7}")
+    private int catchUpDays;
+
+    @Value("${overdue.lease-duration:10m}")
+    private Duration leaseDuration;
+
+    /**
+     * 执行检测，默认每天0点5分
+     */
+    @Scheduled(cron = "${overdue.cron:0 5 0 * * ?}")
+    public void run() {
+        try {
+            detect(LocalDate.now());
+        } catch (RuntimeException e) {
+            // 水位未推进，下次执行时重新扫描
+            log.error("逾期检测失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 标记截止日期早于today的新逾期任务并发送摘要
+     *
+     * @param today 当天日期
+     */
+    public void detect(LocalDate today) {
+        SchedulerLease lease = new SchedulerLease(jdbcTemplate, LEASE_NAME, leaseDuration);
+        if (!lease.tryAcquire(LocalDateTime.now())) {
+            log.debug("逾期检测租约由其他节点持有，本节点跳过");
+            return;
+        }
+        try {
+            LocalDateTime saved = lease.getWatermark();
+            LocalDate from = saved != null ? saved.toLocalDate() : today.minusDays(catchUpDays);
+            if (!from.isBefore(today)) {
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            List<OverdueTask> found = new ArrayList<>();
+            for (Integer status : OPEN_STATUSES) {
+                scanStatus(status, from, today, found);
+            }
+            if (!found.isEmpty()) {
+                notifier.notify(digests(found, today));
+                markOverdue(found);
+            }
+            if (!lease.saveWatermark(today.atStartOfDay())) {
+                log.warn("逾期检测期间租约已被其他节点接管, 水位未保存");
+            }
+            log.info("逾期检测完成, 截止日期区间: [{}, {}), 新逾期任务数: {}, 耗时: {} ms",
+                    from, today, found.size(), System.currentTimeMillis() - start);
+        } finally {
+            lease.release(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * 扫描一个状态下截止日期在[from, today)之间、尚未标记的任务，只收集不标记
+     */
+    private void scanStatus(Integer status, LocalDate from, LocalDate today, List<OverdueTask> found) {
+        // 首页条件等价于due_date >= from
+        LocalDate afterDue = from;
+        long afterId = 0;
+        List<OverdueTask> page;
+        do {
+            page = taskRepository.findNewlyOverdue(status, today, afterDue, afterId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            found.addAll(page);
+            OverdueTask last = page.get(page.size() - 1);
+            afterDue = last.dueDate();
+            afterId = last.taskId();
+        } while (page.size() == batchSize);
+    }
+
+    /**
+     * 摘要发送后分批标记，每批一条UPDATE
+     */
+    private void markOverdue(List<OverdueTask> found) {
+        for (int i = 0; i < found.size(); i += batchSize) {
+            taskRepository.markOverdue(found.subList(i, Math.min(i + batchSize, found.size())).stream()
+                    .map(OverdueTask::taskId)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private static List<OverdueDigest> digests(List<OverdueTask> found, LocalDate today) {
+        Map<Long, List<OverdueTask>> byUser = new LinkedHashMap<>();
+        for (OverdueTask task : found) {
+            byUser.computeIfAbsent(task.userId(), userId -> new ArrayList<>()).add(task);
+        }
+        List<OverdueDigest> digests = new ArrayList<>(byUser.size());
+        byUser.forEach((userId, tasks) -> {
+            tasks.sort(Comparator.comparing(OverdueTask::dueDate).thenComparing(OverdueTask::taskId));
+            digests.add(new OverdueDigest(userId, today, tasks));
+        });
+        return digests;
+    }
+}
@@ -0,0 +1,127 @@
+package com.dreamplanner.progress;
+
+import com.dreamplanner.dto.ProgressActivityBucketDTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * 由按天分组的打卡统计行计算按天、按周汇总和连续打卡天数
+ * 统计行由数据库分组查询得到，行数不超过区间天数，与进度记录总数无关
+ *
+ * @author DreamPlanner
+ */
+public final class ProgressActivity {
+
+    private ProgressActivity() {
+    }
+
+    /**
+     * @param days 按日期升序的统计行
+     * @return 每个有打卡的日期一项
+     */
+    public static List<ProgressActivityBucketDTO> daily(List<ProgressDayCount> days) {
+        List<ProgressActivityBucketDTO> buckets = new ArrayList<>(days.size());
+        for (ProgressDayCount day : days) {
+            buckets.add(ProgressActivityBucketDTO.builder()
+                    .start(day.date())
+                    .end(day.date())
+                    .checkIns(day.count())
+                    .activeDays(1)
+                    .build());
+        }
+        return buckets;
+    }
+
+    /**
+     * @param days 按日期升序的统计行
+     * @param from 开始日期，需为周一
+     * @param to   结束日期（含），需为周日
+     * @return 区间内每周一项，没有打卡的周也返回
+     */
+    public static List<ProgressActivityBucketDTO> weekly(List<ProgressDayCount> days, LocalDate from, LocalDate to) {
+        List<ProgressActivityBucketDTO> buckets = new ArrayList<>();
+        int index = 0;
+        for (LocalDate week = from; !week.isAfter(to); week = week.plusWeeks(1)) {
+            LocalDate weekEnd = week.plusDays(6);
+            ProgressActivityBucketDTO bucket = ProgressActivityBucketDTO.builder()
+                    .start(week)
+                    .end(weekEnd)
+                    .build();
+            for (; index < days.size() && !days.get(index).date().isAfter(weekEnd); index++) {
+                ProgressDayCount day = days.get(index);
+                if (!day.date().isBefore(week)) {
+                    bucket.setCheckIns(bucket.getCheckIns() + day.count());
+                    bucket.setActiveDays(bucket.getActiveDays() + 1);
+                }
+            }
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    /**
+     * @param days 按日期升序的统计行
+     * @return 最长的连续打卡天数
+     */
+    public static int longestStreak(List<ProgressDayCount> days) {
+        int longest = 0;
+        int current = 0;
+        LocalDate previous = null;
+        for (ProgressDayCount day : days) {
+            current = previous != null && previous.plusDays(1).equals(day.date()) ? current + 1 : 1;
+            longest = Math.max(longest, current);
+            previous = day.date();
+        }
+        return longest;
+    }
+
+    /**
+     * 截至今天的连续打卡天数，今天尚未打卡时截至昨天
+     * 从今天往前每次加载windowDays天的统计行，遇到没有打卡的一天即停止，通常只需一次查询
+     *
+     * @param today      当天日期
+     * @param windowDays 每次加载的天数，至少为2
+     * @param loader     按日期区间（含两端）加载统计行
+     * @return 连续打卡天数
+     */
+    public static int currentStreak(LocalDate today, int windowDays,
+                                    BiFunction<LocalDate, LocalDate, List<ProgressDayCount>> loader) {
+        LocalDate windowEnd = today;
+        Set<LocalDate> active = load(loader, windowEnd.minusDays(windowDays - 1), windowEnd);
+        LocalDate day = active.contains(today) ? today : today.minusDays(1);
+        int streak = 0;
+        while (active.contains(day)) {
+            streak++;
+            day = day.minusDays(1);
+            if (day.isBefore(windowEnd.minusDays(windowDays - 1))) {
+                windowEnd = day;
+                active = load(loader, windowEnd.minusDays(windowDays - 1), windowEnd);
+            }
+        }
+        return streak;
+    }
+
+    /**
+     * @param date 日期
+     * @return 所在周的周一
+     */
+    public static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static Set<LocalDate> load(BiFunction<LocalDate, LocalDate, List<ProgressDayCount>> loader,
+                                       LocalDate from, LocalDate to) {
+        Set<LocalDate> active = new HashSet<>();
+        for (ProgressDayCount day : loader.apply(from, to)) {
+            active.add(day.date());
+        }
+        return active;
+    }
+}
@@ -0,0 +1,66 @@
+package com.dreamplanner.progress;
+
+import com.dreamplanner.entity.Progress;
+import com.dreamplanner.exception.BusinessException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 进度时间线分页游标
+ * 编码上一页最后一条记录的创建时间和ID，下一页从其后继续，翻页期间有新记录写入也不会重复或遗漏
+ *
+ * @param createdAt 创建时间
+ * @param id        进度记录ID
+ * @author DreamPlanner
+ */
+public record ProgressCursor(LocalDateTime createdAt, long id) {
+
+    private static final int SIZE = 8 + 4 + 8;
+
+    /**
+     * @param progress 上一页最后一条记录
+     * @return 游标
+     */
+    public static ProgressCursor of(Progress progress) {
+        return new ProgressCursor(progress.getCreatedAt(), progress.getId());
+    }
+
+    /**
+     * @return URL安全的游标，时间按UTC换算只用于编码，不代表时区
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE)
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor 游标
+     * @return 游标对应的记录位置
+     * @throws BusinessException 游标无效
+     */
+    public static ProgressCursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+        if (bytes.length != SIZE) {
+            throw new BusinessException("无效的分页游标");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new ProgressCursor(createdAt, buffer.getLong());
+        } catch (DateTimeException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.dreamplanner.progress;
+
+import java.time.LocalDate;
+
+/**
+ * 按天分组的打卡统计行：某天的进度记录数
+ * 仓库分组查询直接构造
+ *
+ * @param date  日期
+ * @param count 进度记录数
+ * @author DreamPlanner
+ */
+public record ProgressDayCount(LocalDate date, Long count) {
+}
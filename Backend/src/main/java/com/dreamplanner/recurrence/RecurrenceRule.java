@@ -0,0 +1,304 @@
+package com.dreamplanner.recurrence;
+
+import com.dreamplanner.exception.BusinessException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 任务重复规则，支持RFC 5545 RRULE的一个子集：
+ * FREQ=DAILY|WEEKLY|MONTHLY、INTERVAL、BYDAY（仅WEEKLY，不带序号）、COUNT、UNTIL（日期）。
+ * 规则以任务的开始日期为起点，每周从周一开始；与RFC不同，起点本身不满足BYDAY时不算一次实例，
+ * MONTHLY取起点的日，没有这一天的月份跳过。实例在需要时按日期窗口展开，不落库
+ *
+ * @author DreamPlanner
+ */
+public final class RecurrenceRule {
+
+    /**
+     * 没有COUNT和UNTIL的规则，系列结束日期记为该值
+     */
+    public static final LocalDate UNBOUNDED = LocalDate.of(9999, 12, 31);
+
+    static final int MAX_INTERVAL = 366;
+    static final int MAX_COUNT = 1000;
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final Map<String, DayOfWeek> DAYS = Map.of(
+            "MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY, "WE", DayOfWeek.WEDNESDAY,
+            "TH", DayOfWeek.THURSDAY, "FR", DayOfWeek.FRIDAY, "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    /**
+     * 重复频率
+     */
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * 解析重复规则，可带"RRULE:"前缀，各部分不区分大小写
+     *
+     * @param text 规则文本，如FREQ=WEEKLY;BYDAY=MO,WE,FR
+     * @return 重复规则
+     * @throws BusinessException 规则无效或使用了不支持的部分
+     */
+    public static RecurrenceRule parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw invalid(text, "规则为空");
+        }
+        String body = text.trim().toUpperCase(Locale.ROOT);
+        if (body.startsWith("RRULE:")) {
+            body = body.substring("RRULE:".length());
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        LocalDate until = null;
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw invalid(text, "无法识别的部分 " + part);
+            }
+            String name = part.substring(0, eq);
+            String value = part.substring(eq + 1);
+            switch (name) {
+                case "FREQ" -> {
+                    try {
+                        frequency = Frequency.valueOf(value);
+                    } catch (IllegalArgumentException e) {
+                        throw invalid(text, "不支持的频率 " + value);
+                    }
+                }
+                case "INTERVAL" -> interval = parseInt(text, name, value, MAX_INTERVAL);
+                case "COUNT" -> count = parseInt(text, name, value, MAX_COUNT);
+                case "UNTIL" -> {
+                    try {
+                        // 只取日期部分，带时间的UNTIL按当天处理
+                        until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, UNTIL_FORMAT);
+                    } catch (DateTimeParseException e) {
+                        throw invalid(text, "UNTIL应为yyyyMMdd格式");
+                    }
+                }
+                case "BYDAY" -> {
+                    for (String day : value.split(",")) {
+                        DayOfWeek dayOfWeek = DAYS.get(day);
+                        if (dayOfWeek == null) {
+                            throw invalid(text, "不支持的BYDAY取值 " + day);
+                        }
+                        byDay.add(dayOfWeek);
+                    }
+                }
+                case "WKST" -> {
+                    if (!"MO".equals(value)) {
+                        throw invalid(text, "每周只能从周一开始");
+                    }
+                }
+                default -> throw invalid(text, "不支持的部分 " + name);
+            }
+        }
+        if (frequency == null) {
+            throw invalid(text, "缺少FREQ");
+        }
+        if (count != null && until != null) {
+            throw invalid(text, "COUNT和UNTIL不能同时出现");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw invalid(text, "BYDAY只能用于WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count, until);
+    }
+
+    /**
+     * @return 规范化的规则文本，各部分顺序固定，不含默认值
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            builder.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            builder.append(";BYDAY=").append(byDay.stream()
+                    .map(day -> day.name().substring(0, 2))
+                    .collect(Collectors.joining(",")));
+        }
+        if (count != null) {
+            builder.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            builder.append(";UNTIL=").append(UNTIL_FORMAT.format(until));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 展开日期窗口内的实例
+     *
+     * @param start 系列起点，即任务的开始日期
+     * @param from  窗口开始（含）
+     * @param to    窗口结束（含）
+     * @param limit 最多返回的实例数
+     * @return 按日期升序的实例日期
+     */
+    public List<LocalDate> occurrences(LocalDate start, LocalDate from, LocalDate to, int limit) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate end = until != null && until.isBefore(to) ? until : to;
+        if (end.isBefore(start) || end.isBefore(from) || limit <= 0) {
+            return dates;
+        }
+        // 有COUNT时需要从第一次开始计数，次数有上限，逐个周期生成；否则直接跳到窗口所在的周期
+        long period = count != null || !from.isAfter(start) ? 0 : periodsBefore(start, from);
+        int seen = 0;
+        for (; ; period++) {
+            LocalDate periodStart = periodStart(start, period);
+            if (periodStart.isAfter(end)) {
+                return dates;
+            }
+            for (LocalDate date : datesInPeriod(start, periodStart)) {
+                if (date.isBefore(start)) {
+                    continue;
+                }
+                if (date.isAfter(end) || (count != null && ++seen > count)) {
+                    return dates;
+                }
+                if (!date.isBefore(from)) {
+                    dates.add(date);
+                    if (dates.size() >= limit) {
+                        return dates;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 判断日期是否是系列中的一次实例
+     *
+     * @param start 系列起点
+     * @param date  日期
+     * @return 是否是实例
+     */
+    public boolean isOccurrence(LocalDate start, LocalDate date) {
+        return occurrences(start, date, date, 1).size() == 1;
+    }
+
+    /**
+     * 系列的结束日期，用于按日期范围筛选仍在进行的系列
+     *
+     * @param start 系列起点
+     * @return 最后一次实例的日期（只有UNTIL时取UNTIL）；无限重复时为UNBOUNDED；没有任何实例时为null
+     */
+    public LocalDate seriesEnd(LocalDate start) {
+        if (count != null) {
+            List<LocalDate> dates = occurrences(start, start, UNBOUNDED, count);
+            return dates.isEmpty() ? null : dates.get(dates.size() - 1);
+        }
+        if (until != null) {
+            return until.isBefore(start) ? null : until;
+        }
+        return UNBOUNDED;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    /**
+     * 起点到指定日期之间完整经过的周期数
+     */
+    private long periodsBefore(LocalDate start, LocalDate date) {
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(start, date) / interval;
+            case WEEKLY -> ChronoUnit.WEEKS.between(weekStart(start), date) / interval;
+            case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(date)) / interval;
+        };
+    }
+
+    /**
+     * 第period个周期的第一天
+     */
+    private LocalDate periodStart(LocalDate start, long period) {
+        return switch (frequency) {
+            case DAILY -> start.plusDays(period * interval);
+            case WEEKLY -> weekStart(start).plusWeeks(period * interval);
+            case MONTHLY -> YearMonth.from(start).plusMonths(period * interval).atDay(1);
+        };
+    }
+
+    /**
+     * 一个周期内的实例，按日期升序，可能早于起点
+     */
+    private List<LocalDate> datesInPeriod(LocalDate start, LocalDate periodStart) {
+        return switch (frequency) {
+            case DAILY -> List.of(periodStart);
+            case WEEKLY -> byDay.isEmpty()
+                    ? List.of(periodStart.with(TemporalAdjusters.nextOrSame(start.getDayOfWeek())))
+                    : byDay.stream()
+                            .map(day -> periodStart.with(TemporalAdjusters.nextOrSame(day)))
+                            .collect(Collectors.toList());
+            case MONTHLY -> {
+                YearMonth month = YearMonth.from(periodStart);
+                yield month.isValidDay(start.getDayOfMonth())
+                        ? List.of(month.atDay(start.getDayOfMonth()))
+                        : List.of();
+            }
+        };
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static int parseInt(String text, String name, String value, int max) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 1 && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // 按无效取值处理
+        }
+        throw invalid(text, name + "应为1到" + max + "之间的整数");
+    }
+
+    private static BusinessException invalid(String text, String reason) {
+        return new BusinessException("无效的重复规则 " + text + ": " + reason);
+    }
+}
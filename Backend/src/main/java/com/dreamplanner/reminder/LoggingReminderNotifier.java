@@ -0,0 +1,23 @@
+package com.dreamplanner.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * 默认提醒发送实现，只记录日志
+ * 接入实际的消息渠道时声明自己的ReminderNotifier即可替换
+ *
+ * @author DreamPlanner
+ */
+@Slf4j
+public class LoggingReminderNotifier implements ReminderNotifier {
+
+    @Override
+    public void notify(List<TaskReminder> reminders) {
+        for (TaskReminder reminder : reminders) {
+            log.info("任务提醒, userId: {}, taskId: {}, title: {}, reminderTime: {}",
+                    reminder.userId(), reminder.taskId(), reminder.title(), reminder.reminderTime());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.dreamplanner.reminder;
+
+import java.util.List;
+
+/**
+ * 提醒发送接口
+ * 到期提醒按批交给实现类发送（站内消息、推送、邮件等）。调用发生在提醒调度线程中，
+ * 耗时的发送应转交给自己的线程池，避免拖慢后续提醒
+ *
+ * @author DreamPlanner
+ */
+public interface ReminderNotifier {
+
+    /**
+     * 发送一批到期提醒
+     *
+     * @param reminders 到期提醒，已确认任务仍存在、未完成且提醒时间未变
+     */
+    void notify(List<TaskReminder> reminders);
+}
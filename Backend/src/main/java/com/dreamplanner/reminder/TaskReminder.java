@@ -0,0 +1,95 @@
+package com.dreamplanner.reminder;
+
+import com.dreamplanner.recurrence.RecurrenceRule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 任务提醒快照
+ * 仓库投影查询直接构造，不加载任务实体。
+ * 重复任务的reminderTime是系列起点那次实例的提醒时间，各次实例在当天的同一时刻提醒
+ *
+ * @param taskId         任务ID
+ * @param userId         用户ID
+ * @param title          任务标题
+ * @param reminderTime   提醒时间
+ * @param status         任务状态
+ * @param recurrenceRule 重复规则，普通任务为null
+ * @param startDate      开始日期，重复任务的系列起点
+ * @author DreamPlanner
+ */
+public record TaskReminder(Long taskId, Long userId, String title, LocalDateTime reminderTime, Integer status,
+                           String recurrenceRule, LocalDate startDate) {
+
+    /**
+     * 是否仍需提醒：设置了提醒时间且任务未完成
+     */
+    public boolean isActive() {
+        return reminderTime != null && status != null && status != 2;
+    }
+
+    /**
+     * 是否是重复任务的系列
+     */
+    public boolean isRecurring() {
+        return recurrenceRule != null && startDate != null;
+    }
+
+    /**
+     * 区间内各次提醒：普通任务的提醒时间在区间内时为自身，重复任务展开为各次实例的提醒
+     *
+     * @param from  开始时间（含）
+     * @param to    结束时间（不含）
+     * @param limit 最多返回的提醒数
+     * @return 按提醒时间升序的提醒
+     */
+    public List<TaskReminder> occurrencesBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        List<TaskReminder> reminders = new ArrayList<>();
+        if (reminderTime == null || !from.isBefore(to)) {
+            return reminders;
+        }
+        if (!isRecurring()) {
+            if (!reminderTime.isBefore(from) && reminderTime.isBefore(to)) {
+                reminders.add(this);
+            }
+            return reminders;
+        }
+        // 只有from当天的实例可能早于from，多取一次
+        for (LocalDate date : RecurrenceRule.parse(recurrenceRule)
+                .occurrences(startDate, from.toLocalDate(), to.toLocalDate(), limit + 1)) {
+            LocalDateTime time = date.atTime(reminderTime.toLocalTime());
+            if (!time.isBefore(from) && time.isBefore(to) && reminders.size() < limit) {
+                reminders.add(withReminderTime(time));
+            }
+        }
+        return reminders;
+    }
+
+    /**
+     * @param time 提醒时间
+     * @return 同一任务在指定时间的提醒，用于重复任务的某次实例
+     */
+    public TaskReminder withReminderTime(LocalDateTime time) {
+        return new TaskReminder(taskId, userId, title, time, status, recurrenceRule, startDate);
+    }
+
+    /**
+     * 判断另一个快照中的提醒时间是否仍是本快照的一次提醒，用于发送前回查任务的最新状态
+     *
+     * @param time 已调度的提醒时间
+     * @return 普通任务为提醒时间未变；重复任务为该时间仍是某次实例的提醒时间
+     */
+    public boolean remindsAt(LocalDateTime time) {
+        if (reminderTime == null || time == null) {
+            return false;
+        }
+        if (!isRecurring()) {
+            return reminderTime.equals(time);
+        }
+        return reminderTime.toLocalTime().equals(time.toLocalTime())
+                && RecurrenceRule.parse(recurrenceRule).isOccurrence(startDate, time.toLocalDate());
+    }
+}
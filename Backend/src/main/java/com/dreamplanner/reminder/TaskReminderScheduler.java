@@ -0,0 +1,459 @@
+package com.dreamplanner.reminder;
+
+import com.dreamplanner.event.TaskChangedEvent;
+import com.dreamplanner.job.SchedulerLease;
+import com.dreamplanner.entity.TaskOccurrence;
+import com.dreamplanner.repository.TaskOccurrenceRepository;
+import com.dreamplanner.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 任务提醒调度
+ * 只把未来window内的提醒按bucket分段、键集分页加载进分层时间轮，每个tick只处理当格到期的提醒，
+ * 待提醒总量再大，内存和每次推进的开销也只与窗口内的数量有关。
+ * 任务变更有两条途径进入时间轮：本节点的创建、更新、删除在事务提交后通过TaskChangedEvent立即生效；
+ * 其他节点的修改由定期按更新时间增量拉取。
+ * 多节点部署时通过scheduler_lease租约保证只有一个节点发送提醒，持有者定期保存处理水位，
+ * 重启或接管时只从水位（最多回溯catch-up）扫描到未来一个窗口。
+ * 到期提醒按批回查数据库，确认任务仍存在、未完成且提醒时间未变后交给ReminderNotifier。
+ * 重复任务按实例当天的同一时刻提醒：加载分段时展开系列，每个系列在时间轮中只保留下一次实例，
+ * 触发后立即调度再下一次；已单独完成的实例不提醒。
+ * 租约切换时水位之后、尚未保存的一小段可能重复发送，发送语义为至少一次
+ * 时间轮及相关状态只在调度线程中访问，事件监听把变更转交给调度线程处理
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "reminder.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class TaskReminderScheduler implements SmartLifecycle {
+
+    private static final String LEASE_NAME = "task-reminder";
+
+    private final TaskRepository taskRepository;
+    private final TaskOccurrenceRepository taskOccurrenceRepository;
+    private final ReminderNotifier notifier;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${reminder.tick:1s}")
+    private Duration tick;
+
+    @Value("${reminder.wheel-size:64}")
+    private int wheelSize;
+
+    @Value("${reminder.window:1h}")
+    private Duration window;
+
+    @Value("${reminder.bucket:10m}")
+    private Duration bucket;
+
+    @Value("${reminder.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    @Value("${reminder.dispatch-batch-size:200}")
+    private int dispatchBatchSize;
+
+    @Value("${reminder.poll-interval:10s}")
+    private Duration pollInterval;
+
+    @Value("${reminder.change-overlap:1m}")
+    private Duration changeOverlap;
+
+    @Value("${reminder.catch-up:10m}")
+    private Duration catchUp;
+
+    @Value("${reminder.lease-duration:30s}")
+    private Duration leaseDuration;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private volatile ScheduledExecutorService executor;
+    private SchedulerLease lease;
+    private Counter sentCounter;
+    private Counter staleCounter;
+    private Counter failedCounter;
+
+    // 以下字段只在调度线程中访问
+    private final Map<Long, TimingWheel.Timeout<TaskReminder>> scheduled = new HashMap<>();
+    private final List<TaskReminder> overdue = new ArrayList<>();
+    private TimingWheel<TaskReminder> wheel;
+    private boolean leader;
+    private LocalDateTime watermark;
+    private LocalDateTime horizon;
+    private LocalDateTime lastChangePoll;
+    private volatile int pendingCount;
+
+    @Override
+    public void start() {
+        lease = new SchedulerLease(jdbcTemplate, LEASE_NAME, leaseDuration);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("reminder.pending", this, scheduler -> scheduler.pendingCount)
+                    .description("时间轮中等待触发的提醒数")
+                    .register(registry);
+        }
+        sentCounter = counter(registry, "sent");
+        staleCounter = counter(registry, "stale");
+        failedCounter = counter(registry, "failed");
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-reminder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(guarded("推进", this::tick),
+                tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(guarded("续约与加载", this::poll),
+                0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        executor = scheduler;
+        log.info("任务提醒调度已启动, 节点: {}, 预加载窗口: {}, tick: {}", lease.getOwner(), window, tick);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (leader) {
+            try {
+                lease.saveWatermark(persistableWatermark());
+                lease.release(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                log.warn("释放提醒调度租约失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * 任务变更提交后更新时间轮；未持有租约时忽略，由持有者的增量拉取处理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler == null) {
+            return;
+        }
+        try {
+            scheduler.execute(guarded("处理任务变更", () -> {
+                if (!leader) {
+                    return;
+                }
+                if (event.reminder() == null) {
+                    cancel(event.taskId());
+                } else {
+                    schedule(event.reminder());
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // 正在停止
+        }
+    }
+
+    /**
+     * 推进时间轮并发送到期提醒
+     */
+    private void tick() {
+        if (!leader) {
+            return;
+        }
+        List<TaskReminder> due = new ArrayList<>(overdue);
+        overdue.clear();
+        wheel.advance(System.currentTimeMillis(), reminder -> {
+            scheduled.remove(reminder.taskId());
+            due.add(reminder);
+        });
+        watermark = toDateTime(wheel.getCurrentTime());
+        // 重复任务接着调度已加载窗口内的下一次实例，窗口外的由后续分段加载
+        for (TaskReminder reminder : due) {
+            if (reminder.isRecurring()) {
+                reminder.occurrencesBetween(reminder.reminderTime().plusNanos(1), horizon, 1).forEach(this::add);
+            }
+        }
+        pendingCount = scheduled.size();
+        for (int from = 0; from < due.size(); from += dispatchBatchSize) {
+            dispatch(due.subList(from, Math.min(from + dispatchBatchSize, due.size())));
+        }
+    }
+
+    /**
+     * 续约租约、保存水位、拉取其他节点的变更并向前扩展加载窗口
+     */
+    private void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!lease.tryAcquire(now)) {
+            if (leader) {
+                log.warn("提醒调度租约已被其他节点接管, 停止发送提醒");
+                resign();
+            }
+            return;
+        }
+        if (!leader) {
+            takeOver(now);
+        } else {
+            lease.saveWatermark(persistableWatermark());
+            pollChanges(now);
+        }
+        extendHorizon(now);
+        pendingCount = scheduled.size();
+    }
+
+    /**
+     * 取得租约后从上一持有者的水位重建时间轮，超过catch-up的积压提醒不再补发
+     */
+    private void takeOver(LocalDateTime now) {
+        LocalDateTime saved = lease.getWatermark();
+        LocalDateTime earliest = now.minus(catchUp);
+        watermark = saved == null || saved.isBefore(earliest) ? earliest : saved;
+        wheel = new TimingWheel<>(tick.toMillis(), wheelSize, toMillis(watermark));
+        scheduled.clear();
+        overdue.clear();
+        horizon = watermark;
+        lastChangePoll = now;
+        leader = true;
+        log.info("取得提醒调度租约, 从 {} 开始加载提醒{}", watermark, saved == null ? "" : ", 上次水位: " + saved);
+    }
+
+    private void resign() {
+        leader = false;
+        wheel = null;
+        scheduled.clear();
+        overdue.clear();
+        pendingCount = 0;
+    }
+
+    /**
+     * 按bucket分段加载提醒，直到覆盖now + window
+     */
+    private void extendHorizon(LocalDateTime now) {
+        LocalDateTime target = now.plus(window);
+        while (horizon.isBefore(target)) {
+            LocalDateTime to = horizon.plus(bucket);
+            int loaded = loadRange(horizon, to);
+            horizon = to;
+            if (loaded > 0) {
+                log.debug("加载提醒 {} ~ {}, 数量: {}", horizon.minus(bucket), to, loaded);
+            }
+        }
+    }
+
+    private int loadRange(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime afterTime = from;
+        long afterId = 0;
+        int loaded = 0;
+        List<TaskReminder> page;
+        do {
+            page = taskRepository.findPendingReminders(from, to, afterTime, afterId, PageRequest.of(0, loadBatchSize));
+            for (TaskReminder reminder : page) {
+                if (add(reminder)) {
+                    loaded++;
+                }
+            }
+            if (!page.isEmpty()) {
+                TaskReminder last = page.get(page.size() - 1);
+                afterTime = last.reminderTime();
+                afterId = last.taskId();
+            }
+        } while (page.size() == loadBatchSize);
+
+        // 每个系列只调度分段内的第一次实例
+        for (TaskReminder series : taskRepository.findRecurringReminders(from.toLocalDate(), to.toLocalDate())) {
+            for (TaskReminder reminder : series.occurrencesBetween(from, to, 1)) {
+                if (add(reminder)) {
+                    loaded++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 拉取上次拉取以来更新过的任务，重叠一段时间以覆盖提交较晚的事务
+     */
+    private void pollChanges(LocalDateTime now) {
+        LocalDateTime since = lastChangePoll.minus(changeOverlap);
+        lastChangePoll = now;
+        for (TaskReminder reminder : taskRepository.findRemindersUpdatedSince(since)) {
+            schedule(reminder);
+        }
+    }
+
+    /**
+     * 按最新快照放入或移出时间轮，只处理已加载窗口内的提醒，窗口外的由后续分段加载；
+     * 重复任务取水位之后的下一次实例
+     */
+    private void schedule(TaskReminder snapshot) {
+        TaskReminder reminder = snapshot;
+        if (snapshot.isRecurring() && snapshot.isActive()) {
+            List<TaskReminder> next = snapshot.occurrencesBetween(watermark, horizon, 1);
+            reminder = next.isEmpty() ? null : next.get(0);
+        }
+        if (reminder == null || !reminder.isActive() || !reminder.reminderTime().isBefore(horizon)) {
+            cancel(snapshot.taskId());
+            return;
+        }
+        TimingWheel.Timeout<TaskReminder> existing = scheduled.get(reminder.taskId());
+        if (existing != null && existing.getDeadlineMs() == toMillis(reminder.reminderTime())) {
+            return;
+        }
+        cancel(reminder.taskId());
+        add(reminder);
+    }
+
+    private boolean add(TaskReminder reminder) {
+        if (reminder.reminderTime().isBefore(watermark) || scheduled.containsKey(reminder.taskId())) {
+            return false;
+        }
+        TimingWheel.Timeout<TaskReminder> timeout = wheel.schedule(reminder, toMillis(reminder.reminderTime()));
+        if (timeout == null) {
+            overdue.add(reminder);
+        } else {
+            scheduled.put(reminder.taskId(), timeout);
+        }
+        return true;
+    }
+
+    private void cancel(Long taskId) {
+        TimingWheel.Timeout<TaskReminder> timeout = scheduled.remove(taskId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        overdue.removeIf(reminder -> reminder.taskId().equals(taskId));
+    }
+
+    /**
+     * 回查一批到期提醒的最新状态后发送，发送失败的提醒不重试
+     */
+    private void dispatch(List<TaskReminder> batch) {
+        Map<Long, TaskReminder> current = taskRepository.findRemindersByIds(
+                        batch.stream().map(TaskReminder::taskId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(TaskReminder::taskId, Function.identity()));
+        List<TaskReminder> valid = new ArrayList<>(batch.size());
+        for (TaskReminder reminder : batch) {
+            TaskReminder latest = current.get(reminder.taskId());
+            if (latest != null && latest.isActive() && latest.remindsAt(reminder.reminderTime())) {
+                valid.add(latest.isRecurring() ? latest.withReminderTime(reminder.reminderTime()) : latest);
+            }
+        }
+        removeCompletedOccurrences(valid);
+        increment(staleCounter, batch.size() - valid.size());
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            notifier.notify(valid);
+            increment(sentCounter, valid.size());
+        } catch (RuntimeException e) {
+            increment(failedCounter, valid.size());
+            log.error("发送任务提醒失败, 数量: {}", valid.size(), e);
+        }
+    }
+
+    /**
+     * 去掉已单独标记完成的重复任务实例，一批只查询一次例外记录
+     */
+    private void removeCompletedOccurrences(List<TaskReminder> reminders) {
+        List<TaskReminder> recurring = reminders.stream().filter(TaskReminder::isRecurring).toList();
+        if (recurring.isEmpty()) {
+            return;
+        }
+        LocalDate first = recurring.stream().map(reminder -> reminder.reminderTime().toLocalDate())
+                .min(LocalDate::compareTo).orElseThrow();
+        LocalDate last = recurring.stream().map(reminder -> reminder.reminderTime().toLocalDate())
+                .max(LocalDate::compareTo).orElseThrow();
+        Set<String> completed = new HashSet<>();
+        for (TaskOccurrence occurrence : taskOccurrenceRepository.findByTaskIdsAndDateBetween(
+                recurring.stream().map(TaskReminder::taskId).collect(Collectors.toSet()), first, last)) {
+            completed.add(occurrence.getTask().getId() + "@" + occurrence.getOccurrenceDate());
+        }
+        reminders.removeIf(reminder -> reminder.isRecurring()
+                && completed.contains(reminder.taskId() + "@" + reminder.reminderTime().toLocalDate()));
+    }
+
+    /**
+     * 可安全保存的水位：加载落后于时间轮时，未加载的部分不能算作已处理
+     */
+    private LocalDateTime persistableWatermark() {
+        return horizon.isBefore(watermark) ? horizon : watermark;
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    private static Runnable guarded(String action, Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                // 异常会终止周期任务，这里吞掉等下一轮重试
+                log.error("任务提醒调度{}失败: {}", action, e.getMessage(), e);
+            }
+        };
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return registry == null ? null : Counter.builder("reminder.dispatched")
+                .description("到期提醒的处理结果")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter, int amount) {
+        if (counter != null && amount > 0) {
+            counter.increment(amount);
+        }
+    }
+}
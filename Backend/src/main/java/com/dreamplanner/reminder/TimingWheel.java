@@ -0,0 +1,163 @@
+package com.dreamplanner.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * 第一层每格tickMs，共wheelSize格；超出本层范围的定时项放入上一层（每格为下层一圈的时长），按需创建。
+ * 加入和取消都是O(1)，每推进一格只处理当格的定时项；上层的格在下层转完一圈时整体下放到下层重新分格。
+ * 到期时间落在当前格内的定时项视为已到期，最多提前一个tick触发。
+ * 非线程安全，由调用方保证只在一个线程中访问
+ *
+ * @param <T> 定时项携带的数据
+ * @author DreamPlanner
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Timeout<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    /**
+     * @param tickMs    每格时长（毫秒）
+     * @param wheelSize 每层格数
+     * @param startMs   起始时间（毫秒时间戳），按tickMs向下取整
+     */
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("时间轮参数无效, tickMs: " + tickMs + ", wheelSize: " + wheelSize);
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 当前时间（已推进到的格的起始时间）
+     */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * 加入定时项
+     *
+     * @param value      数据
+     * @param deadlineMs 到期时间（毫秒时间戳）
+     * @return 定时项，可用于取消；已到期时返回null，由调用方立即处理
+     */
+    public Timeout<T> schedule(T value, long deadlineMs) {
+        Timeout<T> timeout = new Timeout<>(value, deadlineMs);
+        return add(timeout) ? timeout : null;
+    }
+
+    /**
+     * 推进到指定时间，依次回调其间到期且未取消的定时项
+     *
+     * @param nowMs   当前时间（毫秒时间戳）
+     * @param expired 到期回调
+     */
+    public void advance(long nowMs, Consumer<T> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+            if (overflow != null && Math.floorMod(currentTime, interval) == 0) {
+                overflow.cascade(currentTime, this, expired);
+            }
+            List<Timeout<T>> bucket = drain(currentTime);
+            for (Timeout<T> timeout : bucket) {
+                fire(timeout, expired);
+            }
+        }
+    }
+
+    private boolean add(Timeout<T> timeout) {
+        long deadline = timeout.deadlineMs;
+        if (deadline < currentTime + tickMs) {
+            return false;
+        }
+        if (deadline < currentTime + interval) {
+            buckets.get(slot(deadline)).add(timeout);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflow.add(timeout);
+    }
+
+    /**
+     * 下层转完一圈时调用：推进本层一格，把该格的定时项重新放入最底层
+     */
+    private void cascade(long time, TimingWheel<T> root, Consumer<T> expired) {
+        currentTime = time;
+        if (overflow != null && Math.floorMod(time, interval) == 0) {
+            overflow.cascade(time, root, expired);
+        }
+        for (Timeout<T> timeout : drain(time)) {
+            if (!timeout.cancelled && !root.add(timeout)) {
+                fire(timeout, expired);
+            }
+        }
+    }
+
+    private List<Timeout<T>> drain(long time) {
+        int slot = slot(time);
+        List<Timeout<T>> bucket = buckets.get(slot);
+        if (bucket.isEmpty()) {
+            return bucket;
+        }
+        buckets.set(slot, new ArrayList<>());
+        return bucket;
+    }
+
+    private int slot(long time) {
+        return (int) Math.floorMod(Math.floorDiv(time, tickMs), (long) wheelSize);
+    }
+
+    private static <T> void fire(Timeout<T> timeout, Consumer<T> expired) {
+        if (!timeout.cancelled) {
+            timeout.cancelled = true;
+            expired.accept(timeout.value);
+        }
+    }
+
+    /**
+     * 时间轮中的定时项
+     */
+    public static final class Timeout<T> {
+
+        private final T value;
+        private final long deadlineMs;
+        private boolean cancelled;
+
+        private Timeout(T value, long deadlineMs) {
+            this.value = value;
+            this.deadlineMs = deadlineMs;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        /**
+         * 取消定时项，取消后留在格中，推进到该格时直接丢弃
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.dreamplanner.repository;
 import com.dreamplanner.entity.Comment;
 import com.dreamplanner.entity.Post;
 import com.dreamplanner.entity.User;
+import com.dreamplanner.notification.CommentAuthor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -83,4 +87,13 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * @return 评论数量
      */
     long countByPost(Post post);
-} 
\ No newline at end of file
+
+    /**
+     * 查询一批评论的作者，只取ID，供通知投递解析回复的接收者
+     *
+     * @param ids 评论ID
+     * @return 评论ID与作者ID
+     */
+    @Query("SELECT new com.dreamplanner.notification.CommentAuthor(c.id, c.user.id) FROM Comment c WHERE c.id IN :ids")
+    List<CommentAuthor> findAuthors(@Param("ids") Collection<Long> ids);
+}
@@ -1,14 +1,20 @@
 package com.dreamplanner.repository;
 
 import com.dreamplanner.entity.Dream;
+import com.dreamplanner.leaderboard.UserScore;
+import com.dreamplanner.search.SearchHit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 梦想数据访问接口
@@ -80,13 +86,57 @@ public interface DreamRepository extends JpaRepository<Dream, Long> {
     Long countCompletedTasksByDreamId(@Param("dreamId") Long dreamId);
 
     /**
-     * 根据用户ID和关键词搜索梦想
+     * 根据用户ID和关键词搜索梦想ID，标题或描述包含关键词即命中
      *
      * @param userId   用户ID
      * @param keyword  关键词
      * @param pageable 分页参数
-     * @return 梦想分页列表
+     * @return 梦想ID分页列表，新建的在前
+     */
+    @Query("SELECT d.id FROM Dream d WHERE d.user.id = :userId AND (d.title LIKE %:keyword% OR d.description LIKE %:keyword%) " +
+           "ORDER BY d.id DESC")
+    Page<Long> searchIdsByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * 通过标题、描述上的ngram全文索引搜索梦想，仅支持MySQL
+     *
+     * @param userId   用户ID
+     * @param query    BOOLEAN MODE查询串
+     * @param pageable 分页参数，不能带排序条件
+     * @return 命中的梦想ID及相关度，相关度高的在前
+     */
+    @Query(value = "SELECT d.id AS id, MATCH(d.title, d.description) AGAINST (:query IN BOOLEAN MODE) AS score " +
+            "FROM dream d WHERE d.user_id = :userId AND MATCH(d.title, d.description) AGAINST (:query IN BOOLEAN MODE) " +
+            "ORDER BY score DESC, d.id DESC",
+            countQuery = "SELECT COUNT(*) FROM dream d " +
+                    "WHERE d.user_id = :userId AND MATCH(d.title, d.description) AGAINST (:query IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<SearchHit> searchFulltext(@Param("userId") Long userId, @Param("query") String query, Pageable pageable);
+
+    /**
+     * 按用户统计已完成的梦想数，用于重建排行榜
+     *
+     * @return 每个有已完成梦想的用户一行
+     */
+    @Query("SELECT new com.dreamplanner.leaderboard.UserScore(d.user.id, COUNT(d)) FROM Dream d " +
+           "WHERE d.status = 2 GROUP BY d.user.id")
+    List<UserScore> countCompletedByUser();
+
+    /**
+     * 统计用户某个状态的梦想数
+     *
+     * @param userId 用户ID
+     * @param status 梦想状态
+     * @return 梦想数
+     */
+    long countByUserIdAndStatus(Long userId, Integer status);
+
+    /**
+     * 流式读取所有非空的梦想封面URL，供上传文件引用扫描使用
+     *
+     * @return URL流
      */
-    @Query("SELECT d FROM Dream d WHERE d.user.id = :userId AND (d.title LIKE %:keyword% OR d.description LIKE %:keyword%)")
-    Page<Dream> searchByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword, Pageable pageable);
-} 
\ No newline at end of file
+    @Query("SELECT d.imageUrl FROM Dream d WHERE d.imageUrl IS NOT NULL AND d.imageUrl <> ''")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamReferencedUrls();
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -65,6 +66,17 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     @Query(value = "SELECT following_id FROM follow WHERE follower_id = :userId", nativeQuery = true)
     List<Long> findFollowedIdsByUserId(@Param("userId") Long userId);
 
+    /**
+     * 在给定的用户中筛选出已关注的，用于一页内容的关注状态，不随关注总数增长
+     *
+     * @param userId      关注者ID
+     * @param followedIds 候选的被关注者ID
+     * @return 已关注的用户ID
+     */
+    @Query(value = "SELECT following_id FROM follow WHERE follower_id = :userId AND following_id IN (:followedIds)",
+            nativeQuery = true)
+    List<Long> findFollowedIdsIn(@Param("userId") Long userId, @Param("followedIds") Collection<Long> followedIds);
+
     /**
      * 删除关注关系
      *
@@ -5,8 +5,12 @@ import com.dreamplanner.entity.Like;
 import com.dreamplanner.entity.Post;
 import com.dreamplanner.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,6 +30,16 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
      */
     Optional<Like> findByPostAndUser(Post post, User user);
 
+    /**
+     * 查询用户在一组动态中点赞过的动态ID，列表页一次判断整页的点赞状态
+     *
+     * @param userId  用户ID
+     * @param postIds 动态ID集合
+     * @return 已点赞的动态ID
+     */
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
     /**
      * 根据评论和用户查询点赞记录
      *
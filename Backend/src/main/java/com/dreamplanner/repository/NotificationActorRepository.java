@@ -0,0 +1,26 @@
+package com.dreamplanner.repository;
+
+import com.dreamplanner.entity.NotificationActor;
+import com.dreamplanner.entity.NotificationActorId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 通知发起用户数据访问接口
+ *
+ * @author DreamPlanner
+ */
+@Repository
+public interface NotificationActorRepository extends JpaRepository<NotificationActor, NotificationActorId> {
+
+    /**
+     * 查询一批通知的全部发起用户
+     *
+     * @param notificationIds 通知ID集合
+     * @return 发起用户行
+     */
+    List<NotificationActor> findByNotificationIdIn(Collection<Long> notificationIds);
+}
@@ -0,0 +1,97 @@
+package com.dreamplanner.repository;
+
+import com.dreamplanner.entity.Notification;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 通知数据访问接口
+ *
+ * @author DreamPlanner
+ */
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    /**
+     * 收件箱的第一页，按最近聚合时间、ID倒序
+     *
+     * @param recipientId 接收用户ID
+     * @param pageable    每页条数
+     * @return 通知
+     */
+    @Query("SELECT n FROM Notification n WHERE n.recipientId = :recipientId ORDER BY n.updatedAt DESC, n.id DESC")
+    List<Notification> findInbox(@Param("recipientId") Long recipientId, Pageable pageable);
+
+    /**
+     * 按(最近聚合时间, ID)键集查询收件箱中早于游标位置的一页
+     * 对应idx_recipient_updated_at上的一次倒序范围扫描
+     *
+     * @param recipientId 接收用户ID
+     * @param beforeTime  上一页最后一条的聚合时间
+     * @param beforeId    上一页最后一条的ID
+     * @param pageable    每页条数
+     * @return 通知
+     */
+    @Query("SELECT n FROM Notification n WHERE n.recipientId = :recipientId " +
+           "AND (n.updatedAt < :beforeTime OR (n.updatedAt = :beforeTime AND n.id < :beforeId)) " +
+           "ORDER BY n.updatedAt DESC, n.id DESC")
+    List<Notification> findInboxBefore(@Param("recipientId") Long recipientId,
+                                       @Param("beforeTime") LocalDateTime beforeTime,
+                                       @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * 统计未读通知数，只扫描idx_recipient_read_type_target的(recipient_id, is_read)前缀
+     *
+     * @param recipientId 接收用户ID
+     * @return 未读通知数
+     */
+    long countByRecipientIdAndReadFalse(Long recipientId);
+
+    /**
+     * 查询并锁定一批接收者在一批目标上的未读通知，供投递时聚合
+     * 结果是所需行的超集，调用方按(接收者, 类型, 目标)筛选；按ID顺序加锁，多节点同时投递时不会互相死锁
+     *
+     * @param recipientIds 接收用户ID
+     * @param targetIds    聚合目标ID
+     * @return 未读通知
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.recipientId IN :recipientIds AND n.read = false " +
+           "AND n.targetId IN :targetIds ORDER BY n.id")
+    List<Notification> findUnreadForUpdate(@Param("recipientIds") Collection<Long> recipientIds,
+                                           @Param("targetIds") Collection<Long> targetIds);
+
+    /**
+     * 标记一条通知为已读
+     *
+     * @param recipientId 接收用户ID
+     * @param id          通知ID
+     * @return 影响的行数，通知不存在或不属于该用户时为0
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.recipientId = :recipientId")
+    int markRead(@Param("recipientId") Long recipientId, @Param("id") Long id);
+
+    /**
+     * 标记用户的全部通知为已读
+     *
+     * @param recipientId 接收用户ID
+     * @return 影响的行数
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipientId = :recipientId AND n.read = false")
+    int markAllRead(@Param("recipientId") Long recipientId);
+}
@@ -3,14 +3,20 @@ package com.dreamplanner.repository;
 import com.dreamplanner.entity.Dream;
 import com.dreamplanner.entity.Post;
 import com.dreamplanner.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 社区动态仓库接口
@@ -99,4 +105,46 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      */
     @Query("SELECT p FROM Post p WHERE p.dream.category = :category AND p.status = :status")
     Page<Post> findByDreamCategoryAndStatus(@Param("category") String category, @Param("status") Integer status, Pageable pageable);
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取所有非空的动态图片URL，供上传文件引用扫描使用
+     *
+     * @return URL流
+     */
+    @Query("SELECT p.images FROM Post p WHERE p.images IS NOT NULL AND p.images <> ''")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamReferencedUrls();
+
+    /**
+     * 按ID批量查询动态，同时加载作者和梦想，供搜索结果转换使用
+     *
+     * @param ids 动态ID集合
+     * @return 动态列表，顺序不定
+     */
+    @Query("SELECT p FROM Post p JOIN FETCH p.user LEFT JOIN FETCH p.dream WHERE p.id IN :ids")
+    List<Post> findWithUserAndDreamByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按ID键集分页查询正常状态的动态，同时加载梦想，供重建搜索索引使用
+     *
+     * @param afterId  上一页最后一条动态的ID
+     * @param pageable 分页参数，只使用页大小
+     * @return 按ID升序的动态列表
+     */
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.dream WHERE p.status = 1 AND p.id > :afterId ORDER BY p.id")
+    List<Post> findIndexableAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按(更新时间, ID)键集分页查询更新过的动态，包括已删除的动态，同时加载梦想，供搜索索引增量同步使用
+     *
+     * @param afterTime 上一页最后一条动态的更新时间，首页传入起始时间
+     * @param afterId   上一页最后一条动态的ID，首页传入0
+     * @param pageable  分页参数，只使用页大小
+     * @return 按更新时间、ID升序的动态列表
+     */
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.dream " +
+           "WHERE p.updatedAt > :afterTime OR (p.updatedAt = :afterTime AND p.id > :afterId) " +
+           "ORDER BY p.updatedAt, p.id")
+    List<Post> findUpdatedAfter(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+                                Pageable pageable);
+}
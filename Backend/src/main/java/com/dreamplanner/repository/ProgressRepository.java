@@ -1,10 +1,20 @@
 package com.dreamplanner.repository;
 
 import com.dreamplanner.entity.Progress;
+import com.dreamplanner.leaderboard.CategoryScore;
+import com.dreamplanner.progress.ProgressDayCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 进度记录数据访问接口
@@ -37,4 +47,78 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
      * @return 进度记录列表
      */
     List<Progress> findByUserId(Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * 梦想进度时间线的第一页，按创建时间、ID倒序
+     *
+     * @param dreamId  梦想ID
+     * @param pageable 每页条数
+     * @return 进度记录
+     */
+    @Query("SELECT p FROM Progress p WHERE p.dream.id = :dreamId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Progress> findTimeline(@Param("dreamId") Long dreamId, Pageable pageable);
+
+    /**
+     * 按(创建时间, ID)键集查询梦想进度时间线中早于游标位置的一页
+     * 对应idx_dream_created_at上的一次倒序范围扫描，翻页深度不影响耗时
+     *
+     * @param dreamId    梦想ID
+     * @param beforeTime 上一页最后一条的创建时间
+     * @param beforeId   上一页最后一条的ID
+     * @param pageable   每页条数
+     * @return 进度记录
+     */
+    @Query("SELECT p FROM Progress p WHERE p.dream.id = :dreamId " +
+           "AND (p.createdAt < :beforeTime OR (p.createdAt = :beforeTime AND p.id < :beforeId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Progress> findTimelineBefore(@Param("dreamId") Long dreamId,
+                                      @Param("beforeTime") LocalDateTime beforeTime,
+                                      @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * 按创建日期分组统计梦想在时间区间内的进度记录数，按日期升序
+     *
+     * @param dreamId 梦想ID
+     * @param start   开始时间（含）
+     * @param end     结束时间（不含）
+     * @return 有记录的日期的统计行
+     */
+    @Query("SELECT new com.dreamplanner.progress.ProgressDayCount(CAST(p.createdAt AS LocalDate), COUNT(p)) " +
+           "FROM Progress p WHERE p.dream.id = :dreamId AND p.createdAt >= :start AND p.createdAt < :end " +
+           "GROUP BY CAST(p.createdAt AS LocalDate) ORDER BY CAST(p.createdAt AS LocalDate)")
+    List<ProgressDayCount> countByDay(@Param("dreamId") Long dreamId,
+                                      @Param("start") LocalDateTime start,
+                                      @Param("end") LocalDateTime end);
+
+    /**
+     * 按用户和梦想分类统计某时间之后的打卡次数，用于重建本周活跃榜
+     *
+     * @param start 开始时间（含）
+     * @return 统计行
+     */
+    @Query("SELECT new com.dreamplanner.leaderboard.CategoryScore(p.user.id, d.category, COUNT(p)) " +
+           "FROM Progress p JOIN p.dream d WHERE p.createdAt >= :start AND d.category IS NOT NULL " +
+           "GROUP BY p.user.id, d.category")
+    List<CategoryScore> countByUserAndCategorySince(@Param("start") LocalDateTime start);
+
+    /**
+     * 按梦想分类统计用户某时间之后的打卡次数
+     *
+     * @param userId 用户ID
+     * @param start  开始时间（含）
+     * @return 统计行
+     */
+    @Query("SELECT new com.dreamplanner.leaderboard.CategoryScore(p.user.id, d.category, COUNT(p)) " +
+           "FROM Progress p JOIN p.dream d WHERE p.user.id = :userId AND p.createdAt >= :start " +
+           "AND d.category IS NOT NULL GROUP BY p.user.id, d.category")
+    List<CategoryScore> countByCategorySince(@Param("userId") Long userId, @Param("start") LocalDateTime start);
+
+    /**
+     * 流式读取所有非空的进度图片URL，供上传文件引用扫描使用
+     *
+     * @return URL流
+     */
+    @Query("SELECT p.images FROM Progress p WHERE p.images IS NOT NULL AND p.images <> ''")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamReferencedUrls();
+}
@@ -0,0 +1,31 @@
+package com.dreamplanner.repository;
+
+import com.dreamplanner.entity.Resource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+/**
+ * 资源数据访问接口
+ *
+ * @author DreamPlanner
+ */
+@Repository
+public interface ResourceRepository extends JpaRepository<Resource, Long> {
+
+    /**
+     * 流式读取所有资源的链接和图片URL，供上传文件引用扫描使用
+     * 两列以逗号拼接成一行，扫描器按逗号分隔格式解析
+     *
+     * @return URL流
+     */
+    @Query("SELECT CONCAT(COALESCE(r.url, ''), ',', COALESCE(r.imageUrl, '')) FROM Resource r " +
+           "WHERE (r.url IS NOT NULL AND r.url <> '') OR (r.imageUrl IS NOT NULL AND r.imageUrl <> '')")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamReferencedUrls();
+}
@@ -0,0 +1,127 @@
+package com.dreamplanner.repository;
+
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.TaskClosure;
+import com.dreamplanner.entity.TaskClosureId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 任务闭包表数据访问接口
+ * 删除和移动子树使用原生SQL一次完成；MySQL不允许在DELETE的子查询中直接读取被删除的表，
+ * 子树ID先包一层派生表再参与条件
+ *
+ * @author DreamPlanner
+ */
+@Repository
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosureId> {
+
+    /**
+     * 任务及其在树中的深度
+     */
+    interface TaskDepth {
+
+        Task getTask();
+
+        Integer getDepth();
+    }
+
+    /**
+     * 查询多个任务的全部祖先（含自身）
+     *
+     * @param descendantIds 任务ID集合
+     * @return 闭包行
+     */
+    List<TaskClosure> findByDescendantIdIn(Collection<Long> descendantIds);
+
+    /**
+     * 判断一个任务是否是另一个任务的祖先（含自身）
+     *
+     * @param ancestorId   祖先任务ID
+     * @param descendantId 后代任务ID
+     * @return 是否存在祖先关系
+     */
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    /**
+     * 一次取出梦想下的全部任务及其深度（到最顶层祖先的层数）
+     *
+     * @param dreamId 梦想ID
+     * @return 任务及深度
+     */
+    @Query("SELECT t AS task, (SELECT MAX(c.depth) FROM TaskClosure c WHERE c.descendantId = t.id) AS depth " +
+           "FROM Task t WHERE t.dream.id = :dreamId")
+    List<TaskDepth> findDreamTasksWithDepth(@Param("dreamId") Long dreamId);
+
+    /**
+     * 一次取出以指定任务为根的整棵子树，深度相对于根任务
+     *
+     * @param taskId 根任务ID
+     * @return 任务及深度，根任务深度为0
+     */
+    @Query("SELECT t AS task, c.depth AS depth FROM TaskClosure c, Task t " +
+           "WHERE c.ancestorId = :taskId AND t.id = c.descendantId")
+    List<TaskDepth> findSubtree(@Param("taskId") Long taskId);
+
+    /**
+     * 断开子树与原祖先的关系，子树内部的行保留
+     *
+     * @param taskId 子树根任务ID
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_closure " +
+            "WHERE descendant_id IN (SELECT d FROM (SELECT descendant_id AS d FROM task_closure WHERE ancestor_id = :taskId) sub) " +
+            "AND ancestor_id NOT IN (SELECT a FROM (SELECT descendant_id AS a FROM task_closure WHERE ancestor_id = :taskId) anc)",
+            nativeQuery = true)
+    void detachSubtree(@Param("taskId") Long taskId);
+
+    /**
+     * 把子树挂到新的父任务下：新父任务的每个祖先（含自身）与子树中的每个任务组合成一行
+     *
+     * @param taskId   子树根任务ID
+     * @param parentId 新的父任务ID
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+            "FROM task_closure a CROSS JOIN task_closure d " +
+            "WHERE a.descendant_id = :parentId AND d.ancestor_id = :taskId",
+            nativeQuery = true)
+    void attachSubtree(@Param("taskId") Long taskId, @Param("parentId") Long parentId);
+
+    /**
+     * 查询若干子树包含的全部任务ID（含子树根）
+     *
+     * @param taskIds 子树根任务ID集合
+     * @return 子树内的任务ID
+     */
+    @Query("SELECT DISTINCT c.descendantId FROM TaskClosure c WHERE c.ancestorId IN :taskIds")
+    List<Long> findSubtreeIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * 删除若干子树涉及的全部闭包行
+     *
+     * @param taskIds 子树根任务ID集合
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_closure " +
+            "WHERE descendant_id IN (SELECT d FROM (SELECT descendant_id AS d FROM task_closure WHERE ancestor_id IN (:taskIds)) sub)",
+            nativeQuery = true)
+    void deleteSubtrees(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * 删除梦想下全部任务的闭包行
+     *
+     * @param dreamId 梦想ID
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_closure WHERE descendant_id IN (SELECT id FROM task WHERE dream_id = :dreamId)",
+            nativeQuery = true)
+    void deleteByDreamId(@Param("dreamId") Long dreamId);
+}
@@ -0,0 +1,58 @@
+package com.dreamplanner.repository;
+
+import com.dreamplanner.entity.TaskOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 重复任务实例例外数据访问接口
+ *
+ * @author DreamPlanner
+ */
+@Repository
+public interface TaskOccurrenceRepository extends JpaRepository<TaskOccurrence, Long> {
+
+    /**
+     * 一次查询多个重复任务在日期区间内已完成的实例，走uk_task_occurrence_date
+     *
+     * @param taskIds   重复任务ID
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     * @return 例外记录
+     */
+    @Query("SELECT o FROM TaskOccurrence o WHERE o.task.id IN :taskIds " +
+           "AND o.occurrenceDate BETWEEN :startDate AND :endDate")
+    List<TaskOccurrence> findByTaskIdsAndDateBetween(@Param("taskIds") Collection<Long> taskIds,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询某次实例的例外记录
+     *
+     * @param taskId         重复任务ID
+     * @param occurrenceDate 实例日期
+     * @return 例外记录
+     */
+    Optional<TaskOccurrence> findByTaskIdAndOccurrenceDate(Long taskId, LocalDate occurrenceDate);
+
+    /**
+     * 判断用户在时间区间内是否完成过重复任务的实例
+     *
+     * @param userId 用户ID
+     * @param start  开始时间（含）
+     * @param end    结束时间（不含）
+     * @return 是否完成过
+     */
+    @Query("SELECT COUNT(o) > 0 FROM TaskOccurrence o " +
+           "WHERE o.task.user.id = :userId AND o.completedAt >= :start AND o.completedAt < :end")
+    boolean existsCompletedBetween(@Param("userId") Long userId, @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end);
+}
@@ -1,18 +1,31 @@
 package com.dreamplanner.repository;
 
+import com.dreamplanner.calendar.TaskCalendarCount;
+import com.dreamplanner.calendar.TaskCalendarItem;
 import com.dreamplanner.entity.Task;
+import com.dreamplanner.leaderboard.CategoryScore;
+import com.dreamplanner.overdue.OverdueTask;
+import com.dreamplanner.reminder.TaskReminder;
+import com.dreamplanner.search.SearchHit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * 任务数据访问接口
+ * 返回任务列表的查询都使用Task.withDream实体图，避免转换DTO时逐条加载梦想；
+ * 按日期筛选的查询均以"用户 + 状态IN + 单个日期范围"的形式出现，以便命中(user_id, status, 日期)复合索引
  *
  * @author DreamPlanner
  */
@@ -25,6 +38,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param dreamId 梦想ID
      * @return 任务列表
      */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
     List<Task> findByDreamId(Long dreamId);
 
     /**
@@ -34,6 +48,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param pageable 分页参数
      * @return 任务分页列表
      */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
     Page<Task> findByDreamId(Long dreamId, Pageable pageable);
 
     /**
@@ -42,6 +57,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param userId 用户ID
      * @return 任务列表
      */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
     List<Task> findByUserId(Long userId);
 
     /**
@@ -51,6 +67,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param pageable 分页参数
      * @return 任务分页列表
      */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
     Page<Task> findByUserId(Long userId, Pageable pageable);
 
     /**
@@ -60,6 +77,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param status  状态
      * @return 任务列表
      */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
     List<Task> findByDreamIdAndStatus(Long dreamId, Integer status);
 
     /**
@@ -69,60 +87,219 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param status 状态
      * @return 任务列表
      */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
     List<Task> findByUserIdAndStatus(Long userId, Integer status);
 
     /**
-     * 查询用户今日任务
-     * 修改为返回更广泛的任务集合:
-     * 1. 今天开始或今天截止的任务
-     * 2. 已经开始但尚未完成的任务（进行中）
-     * 3. 7天内即将到期的任务
-     * 结果按优先级和截止日期排序
+     * 查询指定状态下截止日期落在区间内的任务
+     * 对应idx_user_status_due_date上每个状态的一次范围扫描，已完成的历史任务不会被读取
      *
      * @param userId    用户ID
-     * @param today     今天日期
-     * @param pageable  分页参数
-     * @return 任务分页列表
+     * @param statuses  任务状态
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     * @return 任务列表
      */
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND " +
-           "(" +
-           "  (t.startDate = :today OR t.dueDate = :today) OR " +
-           "  (t.startDate < :today AND (t.dueDate IS NULL OR t.dueDate >= :today)) OR " +
-           "  (t.dueDate IS NOT NULL AND t.dueDate > :today AND t.dueDate <= :endDate)" +
-           ") " +
-           "AND t.status != 2 " +
-           "ORDER BY " +
-           "CASE WHEN t.dueDate = :today THEN 0 " +
-           "     WHEN t.startDate = :today THEN 1 " +
-           "     ELSE 2 END, " +
-           "t.priority, " +
-           "CASE WHEN t.dueDate IS NULL THEN 1 ELSE 0 END, " +
-           "t.dueDate")
-    Page<Task> findTodayTasks(@Param("userId") Long userId, @Param("today") LocalDate today, 
-                              @Param("endDate") LocalDate endDate, Pageable pageable);
-
-    /**
-     * 查询用户未来7天任务
-     *
-     * @param userId     用户ID
-     * @param startDate  开始日期
-     * @param endDate    结束日期
-     * @param pageable   分页参数
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.status IN :statuses " +
+           "AND t.dueDate BETWEEN :startDate AND :endDate")
+    List<Task> findByStatusesAndDueDateBetween(@Param("userId") Long userId,
+                                               @Param("statuses") Collection<Integer> statuses,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询指定状态下开始日期落在区间内的任务
+     * 对应idx_user_status_start_date上每个状态的一次范围扫描
+     *
+     * @param userId    用户ID
+     * @param statuses  任务状态
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     * @return 任务列表
+     */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.status IN :statuses " +
+           "AND t.startDate BETWEEN :startDate AND :endDate")
+    List<Task> findByStatusesAndStartDateBetween(@Param("userId") Long userId,
+                                                 @Param("statuses") Collection<Integer> statuses,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    /**
+     * 分页查询今日任务中的普通任务：今天开始、7天内截止，或已经开始且尚未过截止日期
+     * 筛选、排序和分页都在数据库中完成，排序与服务层合并重复任务实例时一致：
+     * 今天截止、今天开始、其余；再按优先级、有截止日期优先、截止日期升序、ID
+     *
+     * @param userId   用户ID
+     * @param statuses 任务状态
+     * @param today    当天日期
+     * @param endDate  即将到期的截止日期（含）
+     * @param pageable 分页参数，不应带排序
      * @return 任务分页列表
      */
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND (t.startDate BETWEEN :startDate AND :endDate OR t.dueDate BETWEEN :startDate AND :endDate) AND t.status != 2")
-    Page<Task> findWeekTasks(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
+    @Query(value = "SELECT t FROM Task t WHERE t.user.id = :userId AND t.status IN :statuses " +
+           "AND t.recurrenceRule IS NULL AND (t.startDate = :today OR t.dueDate BETWEEN :today AND :endDate " +
+           "OR (t.startDate < :today AND (t.dueDate IS NULL OR t.dueDate >= :today))) " +
+           "ORDER BY CASE WHEN t.dueDate = :today THEN 0 WHEN t.startDate = :today THEN 1 ELSE 2 END, " +
+           "t.priority ASC NULLS FIRST, t.dueDate ASC NULLS LAST, t.id",
+           countQuery = "SELECT COUNT(t) FROM Task t WHERE t.user.id = :userId AND t.status IN :statuses " +
+           "AND t.recurrenceRule IS NULL AND (t.startDate = :today OR t.dueDate BETWEEN :today AND :endDate " +
+           "OR (t.startDate < :today AND (t.dueDate IS NULL OR t.dueDate >= :today)))")
+    Page<Task> findTodayTasks(@Param("userId") Long userId, @Param("statuses") Collection<Integer> statuses,
+                              @Param("today") LocalDate today, @Param("endDate") LocalDate endDate,
+                              Pageable pageable);
 
     /**
      * 查询用户即将到期的任务
      *
      * @param userId   用户ID
+     * @param statuses 任务状态
      * @param dueDate  截止日期
      * @param pageable 分页参数
      * @return 任务分页列表
      */
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.dueDate <= :dueDate AND t.status != 2")
-    Page<Task> findUpcomingTasks(@Param("userId") Long userId, @Param("dueDate") LocalDate dueDate, Pageable pageable);
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.status IN :statuses AND t.dueDate <= :dueDate")
+    Page<Task> findUpcomingTasks(@Param("userId") Long userId, @Param("statuses") Collection<Integer> statuses,
+                                 @Param("dueDate") LocalDate dueDate, Pageable pageable);
+
+    /**
+     * 按提醒时间分段加载未完成任务的提醒，按(提醒时间, ID)键集分页
+     *
+     * @param from      起始时间（含）
+     * @param to        结束时间（不含）
+     * @param afterTime 上一页最后一条的提醒时间，首页传from
+     * @param afterId   上一页最后一条的任务ID，首页传0
+     * @param pageable  每页条数
+     * @return 提醒列表
+     */
+    @Query("SELECT new com.dreamplanner.reminder.TaskReminder(t.id, t.user.id, t.title, t.reminderTime, t.status, " +
+           "t.recurrenceRule, t.startDate) " +
+           "FROM Task t WHERE t.reminderTime >= :from AND t.reminderTime < :to AND t.status <> 2 " +
+           "AND t.recurrenceRule IS NULL " +
+           "AND (t.reminderTime > :afterTime OR (t.reminderTime = :afterTime AND t.id > :afterId)) " +
+           "ORDER BY t.reminderTime, t.id")
+    List<TaskReminder> findPendingReminders(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                            @Param("afterTime") LocalDateTime afterTime,
+                                            @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 查询日期区间内可能有实例、设置了提醒的未完成重复任务，提醒按实例在内存中展开
+     * 对应idx_recurrence_end上的一次范围扫描，普通任务的recurrence_end为NULL，不会被读取
+     *
+     * @param startDate 区间开始日期（含）
+     * @param endDate   区间结束日期（含）
+     * @return 系列的提醒快照，提醒时间为系列起点那次实例的提醒时间
+     */
+    @Query("SELECT new com.dreamplanner.reminder.TaskReminder(t.id, t.user.id, t.title, t.reminderTime, t.status, " +
+           "t.recurrenceRule, t.startDate) " +
+           "FROM Task t WHERE t.recurrenceEnd >= :startDate AND t.startDate <= :endDate " +
+           "AND t.reminderTime IS NOT NULL AND t.status <> 2")
+    List<TaskReminder> findRecurringReminders(@Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按(截止日期, ID)键集分页查询某个状态下截止日期已过、尚未标记逾期的普通任务
+     * 对应idx_status_due_date上的一次范围扫描，InnoDB二级索引隐含主键，排序不需要额外的filesort
+     *
+     * @param status   任务状态
+     * @param today    当天日期，截止日期早于该日期的任务逾期
+     * @param afterDue 上一页最后一条的截止日期，首页传扫描起点
+     * @param afterId  上一页最后一条的任务ID，首页传0
+     * @param pageable 每页条数
+     * @return 新逾期的任务
+     */
+    @Query("SELECT new com.dreamplanner.overdue.OverdueTask(t.id, t.user.id, t.title, t.dueDate) " +
+           "FROM Task t WHERE t.status = :status AND t.dueDate < :today " +
+           "AND (t.dueDate > :afterDue OR (t.dueDate = :afterDue AND t.id > :afterId)) " +
+           "AND t.overdue = false AND t.recurrenceRule IS NULL " +
+           "ORDER BY t.dueDate, t.id")
+    List<OverdueTask> findNewlyOverdue(@Param("status") Integer status, @Param("today") LocalDate today,
+                                       @Param("afterDue") LocalDate afterDue, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    /**
+     * 批量标记任务逾期，不更新updated_at，逾期不算用户对任务的修改
+     *
+     * @param ids 任务ID
+     * @return 更新的行数
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.overdue = true WHERE t.id IN :ids AND t.overdue = false")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 判断用户在时间区间内是否有已完成的任务
+     *
+     * @param userId 用户ID
+     * @param start  开始时间（含）
+     * @param end    结束时间（不含）
+     * @return 是否有已完成的任务
+     */
+    @Query("SELECT COUNT(t) > 0 FROM Task t " +
+           "WHERE t.user.id = :userId AND t.status = 2 AND t.completedAt >= :start AND t.completedAt < :end")
+    boolean existsCompletedBetween(@Param("userId") Long userId, @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end);
+
+    /**
+     * 按用户和梦想分类统计某时间之后完成的任务数，用于重建本周活跃榜
+     *
+     * @param start 开始时间（含）
+     * @return 统计行
+     */
+    @Query("SELECT new com.dreamplanner.leaderboard.CategoryScore(t.user.id, d.category, COUNT(t)) " +
+           "FROM Task t JOIN t.dream d WHERE t.status = 2 AND t.completedAt >= :start AND d.category IS NOT NULL " +
+           "GROUP BY t.user.id, d.category")
+    List<CategoryScore> countCompletedByUserAndCategorySince(@Param("start") LocalDateTime start);
+
+    /**
+     * 按梦想分类统计用户某时间之后完成的任务数
+     *
+     * @param userId 用户ID
+     * @param start  开始时间（含）
+     * @return 统计行
+     */
+    @Query("SELECT new com.dreamplanner.leaderboard.CategoryScore(t.user.id, d.category, COUNT(t)) " +
+           "FROM Task t JOIN t.dream d WHERE t.user.id = :userId AND t.status = 2 AND t.completedAt >= :start " +
+           "AND d.category IS NOT NULL GROUP BY t.user.id, d.category")
+    List<CategoryScore> countCompletedByCategorySince(@Param("userId") Long userId,
+                                                      @Param("start") LocalDateTime start);
+
+    /**
+     * 查询指定时间之后更新过的任务的提醒快照，包括已完成和已清除提醒时间的任务
+     *
+     * @param since 更新时间下限（含）
+     * @return 提醒列表
+     */
+    @Query("SELECT new com.dreamplanner.reminder.TaskReminder(t.id, t.user.id, t.title, t.reminderTime, t.status, " +
+           "t.recurrenceRule, t.startDate) " +
+           "FROM Task t WHERE t.updatedAt >= :since")
+    List<TaskReminder> findRemindersUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 按任务ID查询提醒快照
+     *
+     * @param ids 任务ID
+     * @return 提醒列表，不存在的任务不返回
+     */
+    @Query("SELECT new com.dreamplanner.reminder.TaskReminder(t.id, t.user.id, t.title, t.reminderTime, t.status, " +
+           "t.recurrenceRule, t.startDate) " +
+           "FROM Task t WHERE t.id IN :ids")
+    List<TaskReminder> findRemindersByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按梦想统计任务总数和已完成数，没有任务的梦想不返回
+     *
+     * @param dreamIds 梦想ID
+     * @return 各梦想的任务统计
+     */
+    @Query("SELECT t.dream.id AS dreamId, COUNT(t) AS total, " +
+           "SUM(CASE WHEN t.status = 2 THEN 1 ELSE 0 END) AS completed " +
+           "FROM Task t WHERE t.dream.id IN :dreamIds GROUP BY t.dream.id")
+    List<DreamTaskCount> countByDreamIds(@Param("dreamIds") Collection<Long> dreamIds);
 
     /**
      * 查询父任务的子任务列表
@@ -130,18 +307,54 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param parentTaskId 父任务ID
      * @return 子任务列表
      */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
     List<Task> findByParentTaskId(Long parentTaskId);
+
+    /**
+     * 一次查询一批父任务的直接子任务，用于批量接口返回带子任务的DTO
+     *
+     * @param parentTaskIds 父任务ID集合
+     * @return 子任务列表，顺序不定
+     */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
+    List<Task> findByParentTaskIdIn(Collection<Long> parentTaskIds);
     
     /**
-     * 根据用户ID和关键词搜索任务
+     * 按ID批量查询任务，用于搜索命中后加载实体
+     *
+     * @param ids 任务ID集合
+     * @return 任务列表，顺序不定
+     */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
+    List<Task> findByIdIn(Collection<Long> ids);
+
+    /**
+     * 根据用户ID和关键词搜索任务ID，标题或描述包含关键词即命中
      *
      * @param userId   用户ID
      * @param keyword  关键词
      * @param pageable 分页参数
-     * @return 任务分页列表
+     * @return 任务ID分页列表，新建的在前
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId AND (t.title LIKE %:keyword% OR t.description LIKE %:keyword%) " +
+           "ORDER BY t.id DESC")
+    Page<Long> searchIdsByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * 通过标题、描述上的ngram全文索引搜索任务，仅支持MySQL
+     *
+     * @param userId   用户ID
+     * @param query    BOOLEAN MODE查询串
+     * @param pageable 分页参数，不能带排序条件
+     * @return 命中的任务ID及相关度，相关度高的在前
      */
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND (t.title LIKE %:keyword% OR t.description LIKE %:keyword%)")
-    Page<Task> searchByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword, Pageable pageable);
+    @Query(value = "SELECT t.id AS id, MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE) AS score " +
+            "FROM task t WHERE t.user_id = :userId AND MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE) " +
+            "ORDER BY score DESC, t.id DESC",
+            countQuery = "SELECT COUNT(*) FROM task t " +
+                    "WHERE t.user_id = :userId AND MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<SearchHit> searchFulltext(@Param("userId") Long userId, @Param("query") String query, Pageable pageable);
     
     /**
      * 统计用户的任务总数
@@ -159,4 +372,101 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @return 指定状态的任务数量
      */
     Long countByUserIdAndStatus(Long userId, Integer status);
-} 
\ No newline at end of file
+
+    /**
+     * 查询在日期窗口内可能有实例的重复任务：系列已开始且结束日期不早于窗口开始
+     * 对应idx_user_recurrence_end上的一次范围扫描，普通任务的recurrence_end为NULL，不会被读取
+     *
+     * @param userId    用户ID
+     * @param statuses  任务状态
+     * @param startDate 窗口开始（含）
+     * @param endDate   窗口结束（含）
+     * @return 重复任务列表
+     */
+    @EntityGraph(Task.GRAPH_WITH_DREAM)
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.recurrenceEnd >= :startDate " +
+           "AND t.startDate <= :endDate AND t.status IN :statuses")
+    List<Task> findRecurringInWindow(@Param("userId") Long userId,
+                                     @Param("statuses") List<Integer> statuses,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按截止日期、状态、优先级分组统计区间内的任务数
+     * idx_user_due_date_status_priority覆盖查询的全部列，只做一次索引范围扫描，不回表
+     *
+     * @param userId    用户ID
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     * @return 分组统计行，没有任务的日期不出现
+     */
+    @Query("SELECT new com.dreamplanner.calendar.TaskCalendarCount(t.dueDate, t.status, t.priority, COUNT(t)) " +
+           "FROM Task t WHERE t.user.id = :userId AND t.dueDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY t.dueDate, t.status, t.priority")
+    List<TaskCalendarCount> countCalendar(@Param("userId") Long userId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询区间内截止的任务摘要，按截止日期、ID排序
+     *
+     * @param userId    用户ID
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     * @return 任务摘要列表
+     */
+    @Query("SELECT new com.dreamplanner.calendar.TaskCalendarItem(t.id, t.dream.id, t.parentTask.id, t.title, " +
+           "t.status, t.priority, t.dueDate) " +
+           "FROM Task t WHERE t.user.id = :userId AND t.dueDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.dueDate, t.id")
+    List<TaskCalendarItem> findCalendarItems(@Param("userId") Long userId,
+                                             @Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询日历区间内需要展开的重复任务，各状态都包括：系列在区间内可能有实例，或系列本身的截止日期落在区间内
+     * （分组统计和任务摘要查询按截止日期读到的系列行需要扣除）。对应idx_user_recurrence_end上user_id之后的范围扫描
+     *
+     * @param userId    用户ID
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     * @return 重复任务列表
+     */
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.recurrenceEnd IS NOT NULL " +
+           "AND t.startDate <= :endDate " +
+           "AND (t.recurrenceEnd >= :startDate OR t.dueDate BETWEEN :startDate AND :endDate)")
+    List<Task> findRecurringForCalendar(@Param("userId") Long userId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    /**
+     * 梦想的任务统计
+     */
+    interface DreamTaskCount {
+
+        Long getDreamId();
+
+        Long getTotal();
+
+        Long getCompleted();
+    }
+
+    /**
+     * 断开任务与父任务的关联，批量删除子树前先调用，避免同一条DELETE里父任务先于子任务被删除时违反外键
+     *
+     * @param ids 任务ID集合
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.parentTask = null WHERE t.id IN :ids")
+    void detachFromParents(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 一条语句批量删除任务，不经过子任务集合的级联
+     *
+     * @param ids 任务ID集合
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
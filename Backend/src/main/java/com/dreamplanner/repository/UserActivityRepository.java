@@ -0,0 +1,86 @@
+package com.dreamplanner.repository;
+
+import com.dreamplanner.entity.UserActivity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 用户活跃度位图数据访问接口
+ *
+ * @author DreamPlanner
+ */
+@Repository
+public interface UserActivityRepository extends JpaRepository<UserActivity, Long> {
+
+    /**
+     * 查询并锁定一行位图，并发更新同一行时按顺序执行，不会丢失其他事务设置的位
+     *
+     * @param userId 用户ID
+     * @param type   活动类型编码
+     * @param year   年份
+     * @return 位图
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM UserActivity a WHERE a.userId = :userId AND a.type = :type AND a.year = :year")
+    Optional<UserActivity> findForUpdate(@Param("userId") Long userId, @Param("type") Integer type,
+                                         @Param("year") Integer year);
+
+    /**
+     * 查询用户某类活动某一年的位图
+     *
+     * @param userId 用户ID
+     * @param type   活动类型编码
+     * @param year   年份
+     * @return 位图
+     */
+    Optional<UserActivity> findByUserIdAndTypeAndYear(Long userId, Integer type, Integer year);
+
+    /**
+     * 查询用户某类活动的全部位图，每年一行
+     *
+     * @param userId 用户ID
+     * @param type   活动类型编码
+     * @return 位图
+     */
+    List<UserActivity> findByUserIdAndType(Long userId, Integer type);
+
+    /**
+     * 按(用户ID, 年份)键集分页读取某类活动的全部位图，用于重建排行榜
+     *
+     * @param type        活动类型编码
+     * @param afterUserId 上一页最后一行的用户ID，首页传0
+     * @param afterYear   上一页最后一行的年份，首页传0
+     * @param pageable    每页条数
+     * @return 按用户ID、年份排序的位图
+     */
+    @Query("SELECT a FROM UserActivity a WHERE a.type = :type " +
+           "AND (a.userId > :afterUserId OR (a.userId = :afterUserId AND a.year > :afterYear)) " +
+           "ORDER BY a.userId, a.year")
+    List<UserActivity> findByTypeAfter(@Param("type") Integer type, @Param("afterUserId") Long afterUserId,
+                                       @Param("afterYear") Integer afterYear, Pageable pageable);
+
+    /**
+     * 插入一行位图，该行已被其他事务插入时忽略
+     *
+     * @param userId 用户ID
+     * @param type   活动类型编码
+     * @param year   年份
+     * @param days   位图
+     * @return 插入的行数，0表示行已存在
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_activity (user_id, type, activity_year, days, updated_at) " +
+            "VALUES (:userId, :type, :year, :days, NOW())",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("type") Integer type,
+                       @Param("year") Integer year, @Param("days") byte[] days);
+}
@@ -1,14 +1,18 @@
 package com.dreamplanner.repository;
 
 import com.dreamplanner.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 用户数据访问接口
@@ -26,6 +30,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * 根据用户名查询用户ID
+     *
+     * @param username 用户名
+     * @return 用户ID
+     */
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
     /**
      * 根据邮箱查找用户
      *
@@ -112,4 +125,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT f.followed FROM Follow f WHERE f.follower.id = :userId")
     Page<User> findFollowedUsersByUserId(@Param("userId") Long userId, Pageable pageable);
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取所有非空的用户头像URL，供上传文件引用扫描使用
+     * 连接参数开启useCursorFetch后，MySQL驱动按fetchSize分批从服务端游标读取，内存占用与表大小无关
+     *
+     * @return URL流，调用方需在事务内消费并关闭
+     */
+    @Query("SELECT u.avatar FROM User u WHERE u.avatar IS NOT NULL AND u.avatar <> ''")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamReferencedUrls();
+}
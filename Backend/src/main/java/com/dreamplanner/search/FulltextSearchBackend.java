@@ -0,0 +1,146 @@
+package com.dreamplanner.search;
+
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * MySQL全文索引搜索后端
+ * 标题和描述上建有WITH PARSER ngram的全文索引（见V5迁移脚本），每个词作为短语以BOOLEAN MODE全部必须命中，
+ * 结果按MATCH相关度降序。ngram索引查不到短于ngram_token_size的词，这些词逐个用LIKE匹配标题或描述，
+ * 与其余词的MATCH条件同时满足；所有词都过短时只按LIKE条件匹配，按ID倒序
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "search.backend", havingValue = "fulltext", matchIfMissing = true)
+@Slf4j
+public class FulltextSearchBackend implements SearchBackend {
+
+    private static final String MATCH = "MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE)";
+
+    private final TaskRepository taskRepository;
+    private final DreamRepository dreamRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int ngramTokenSize;
+
+    public FulltextSearchBackend(TaskRepository taskRepository, DreamRepository dreamRepository,
+                                 NamedParameterJdbcTemplate jdbcTemplate,
+                                 @Value("${search.ngram-token-size:2}") int ngramTokenSize) {
+        this.taskRepository = taskRepository;
+        this.dreamRepository = dreamRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ngramTokenSize = ngramTokenSize;
+    }
+
+    @Override
+    public Page<SearchHit> searchTasks(Long userId, String keyword, Pageable pageable) {
+        List<String> terms = SearchTerms.split(keyword);
+        if (terms.isEmpty()) {
+            return LikeSearchBackend.searchTasksByLike(taskRepository, userId, keyword, pageable);
+        }
+        if (terms.stream().allMatch(this::indexable)) {
+            return taskRepository.searchFulltext(userId, toBooleanQuery(terms), LikeSearchBackend.unsorted(pageable));
+        }
+        log.debug("关键词含短于ngram长度的词, 任务搜索对这些词使用LIKE, keyword: {}", keyword);
+        return searchWithShortTerms("task", userId, terms, pageable);
+    }
+
+    @Override
+    public Page<SearchHit> searchDreams(Long userId, String keyword, Pageable pageable) {
+        List<String> terms = SearchTerms.split(keyword);
+        if (terms.isEmpty()) {
+            return LikeSearchBackend.searchDreamsByLike(dreamRepository, userId, keyword, pageable);
+        }
+        if (terms.stream().allMatch(this::indexable)) {
+            return dreamRepository.searchFulltext(userId, toBooleanQuery(terms), LikeSearchBackend.unsorted(pageable));
+        }
+        log.debug("关键词含短于ngram长度的词, 梦想搜索对这些词使用LIKE, keyword: {}", keyword);
+        return searchWithShortTerms("dream", userId, terms, pageable);
+    }
+
+    /**
+     * 在task或dream表上执行MATCH与LIKE组合的查询，两张表的ID、用户、标题和描述列同名
+     */
+    private Page<SearchHit> searchWithShortTerms(String table, Long userId, List<String> terms, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        String where = whereClause(terms, ngramTokenSize, params);
+        String score = params.hasValue("query") ? MATCH : "0";
+        String sql = "SELECT t.id AS id, " + score + " AS score FROM " + table + " t WHERE " + where
+                + " ORDER BY score DESC, t.id DESC";
+        if (pageable.isPaged()) {
+            sql += " LIMIT :limit OFFSET :offset";
+            params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+        }
+        List<SearchHit> hits = jdbcTemplate.query(sql, params,
+                (rs, rowNum) -> SearchHit.of(rs.getLong("id"), rs.getDouble("score")));
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && hits.size() < pageable.getPageSize())) {
+            return new PageImpl<>(hits, pageable, hits.size());
+        }
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " t WHERE " + where,
+                params, Long.class);
+        return new PageImpl<>(hits, pageable, total == null ? 0 : total);
+    }
+
+    /**
+     * 组合查询条件：可索引的词合成一个MATCH条件，其余每个词一个LIKE条件，全部用AND连接
+     *
+     * @param terms          拆分后的词
+     * @param ngramTokenSize ngram长度
+     * @param params         写入userId以外的参数：query和term0、term1……
+     * @return WHERE子句，表别名为t
+     */
+    static String whereClause(List<String> terms, int ngramTokenSize, MapSqlParameterSource params) {
+        List<String> indexed = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        conditions.add("t.user_id = :userId");
+        for (String term : terms) {
+            if (indexable(term, ngramTokenSize)) {
+                indexed.add(term);
+                continue;
+            }
+            String name = "term" + (conditions.size() - 1);
+            params.addValue(name, "%" + escapeLike(term) + "%");
+            conditions.add("(t.title LIKE :" + name + " ESCAPE '!' OR t.description LIKE :" + name + " ESCAPE '!')");
+        }
+        if (!indexed.isEmpty()) {
+            params.addValue("query", toBooleanQuery(indexed));
+            conditions.add(1, MATCH);
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private boolean indexable(String term) {
+        return indexable(term, ngramTokenSize);
+    }
+
+    private static boolean indexable(String term, int ngramTokenSize) {
+        String phrase = term.replace("\"", "");
+        return phrase.codePointCount(0, phrase.length()) >= ngramTokenSize;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * 每个词作为必须命中的短语："+"词1" +"词2""，去掉词中的双引号，短语内的其他运算符按普通字符处理
+     */
+    static String toBooleanQuery(List<String> terms) {
+        return terms.stream()
+                .map(term -> "+\"" + term.replace("\"", "") + "\"")
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,55 @@
+package com.dreamplanner.search;
+
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * LIKE匹配的搜索后端
+ * 整个关键词作为子串匹配标题或描述，没有相关度，按ID倒序（新建的在前）；
+ * 用于不支持全文索引的数据库，如测试使用的H2
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "search.backend", havingValue = "like")
+@RequiredArgsConstructor
+public class LikeSearchBackend implements SearchBackend {
+
+    private final TaskRepository taskRepository;
+    private final DreamRepository dreamRepository;
+
+    @Override
+    public Page<SearchHit> searchTasks(Long userId, String keyword, Pageable pageable) {
+        return searchTasksByLike(taskRepository, userId, keyword, pageable);
+    }
+
+    @Override
+    public Page<SearchHit> searchDreams(Long userId, String keyword, Pageable pageable) {
+        return searchDreamsByLike(dreamRepository, userId, keyword, pageable);
+    }
+
+    static Page<SearchHit> searchTasksByLike(TaskRepository taskRepository, Long userId, String keyword,
+                                             Pageable pageable) {
+        return taskRepository.searchIdsByKeyword(userId, keyword == null ? "" : keyword.trim(), unsorted(pageable))
+                .map(id -> SearchHit.of(id, 0));
+    }
+
+    static Page<SearchHit> searchDreamsByLike(DreamRepository dreamRepository, Long userId, String keyword,
+                                              Pageable pageable) {
+        return dreamRepository.searchIdsByKeyword(userId, keyword == null ? "" : keyword.trim(), unsorted(pageable))
+                .map(id -> SearchHit.of(id, 0));
+    }
+
+    /**
+     * 搜索结果有固定的排序，忽略请求中的排序条件
+     */
+    static Pageable unsorted(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+    }
+}
@@ -0,0 +1,34 @@
+package com.dreamplanner.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * 关键词搜索后端
+ * 只返回按相关度排序的命中ID，实体由调用方一次查询加载并转换；由search.backend选择实现：
+ * fulltext使用MySQL的ngram全文索引，like为原有的LIKE匹配（H2等不支持全文索引的数据库）
+ *
+ * @author DreamPlanner
+ */
+public interface SearchBackend {
+
+    /**
+     * 在用户的任务标题和描述中搜索
+     *
+     * @param userId   用户ID
+     * @param keyword  关键词，多个词以空白分隔，需全部命中
+     * @param pageable 分页参数，排序条件被忽略
+     * @return 命中的任务ID，相关度高的在前
+     */
+    Page<SearchHit> searchTasks(Long userId, String keyword, Pageable pageable);
+
+    /**
+     * 在用户的梦想标题和描述中搜索
+     *
+     * @param userId   用户ID
+     * @param keyword  关键词，多个词以空白分隔，需全部命中
+     * @param pageable 分页参数，排序条件被忽略
+     * @return 命中的梦想ID，相关度高的在前
+     */
+    Page<SearchHit> searchDreams(Long userId, String keyword, Pageable pageable);
+}
@@ -0,0 +1,121 @@
+package com.dreamplanner.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索结果高亮
+ * 从第一个命中处截取一段文本，命中的词用标签包裹，其余内容做HTML转义，可直接作为富文本展示
+ *
+ * @author DreamPlanner
+ */
+@Component
+public class SearchHighlighter {
+
+    private static final String ELLIPSIS = "…";
+
+    private final int fragmentSize;
+    private final String preTag;
+    private final String postTag;
+
+    public SearchHighlighter(@Value("${search.highlight.fragment-size:80}") int fragmentSize,
+                             @Value("${search.highlight.pre-tag:<em>}") String preTag,
+                             @Value("${search.highlight.post-tag:</em>}") String postTag) {
+        this.fragmentSize = fragmentSize;
+        this.preTag = preTag;
+        this.postTag = postTag;
+    }
+
+    /**
+     * 对多个字段做高亮，没有命中的字段不出现在结果中
+     *
+     * @param keyword 关键词
+     * @param fields  字段名到字段内容，按顺序处理
+     * @return 字段名到高亮片段，没有任何字段命中时为null
+     */
+    public Map<String, String> highlight(String keyword, Map<String, String> fields) {
+        List<String> terms = SearchTerms.split(keyword).stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .collect(Collectors.toList());
+        if (terms.isEmpty()) {
+            return null;
+        }
+        Map<String, String> highlights = new LinkedHashMap<>();
+        fields.forEach((name, text) -> {
+            String fragment = highlight(text, terms);
+            if (fragment != null) {
+                highlights.put(name, fragment);
+            }
+        });
+        return highlights.isEmpty() ? null : highlights;
+    }
+
+    /**
+     * @param terms 按长度降序排列，重叠时优先匹配较长的词
+     */
+    private String highlight(String text, List<String> terms) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        int first = -1;
+        for (int i = 0; i < text.length() && first < 0; i++) {
+            if (matchAt(text, i, terms) != null) {
+                first = i;
+            }
+        }
+        if (first < 0) {
+            return null;
+        }
+
+        // 命中位置前保留约四分之一的上下文
+        int start = Math.max(0, Math.min(first - fragmentSize / 4, text.length() - fragmentSize));
+        int end = Math.min(text.length(), start + fragmentSize);
+        if (Character.isLowSurrogate(text.charAt(start)) && start > 0) {
+            start--;
+        }
+        if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end++;
+        }
+
+        StringBuilder fragment = new StringBuilder();
+        if (start > 0) {
+            fragment.append(ELLIPSIS);
+        }
+        int plainStart = start;
+        int i = start;
+        while (i < end) {
+            String term = matchAt(text, i, terms);
+            if (term == null || i + term.length() > end) {
+                i++;
+                continue;
+            }
+            fragment.append(HtmlUtils.htmlEscape(text.substring(plainStart, i)))
+                    .append(preTag)
+                    .append(HtmlUtils.htmlEscape(text.substring(i, i + term.length())))
+                    .append(postTag);
+            i += term.length();
+            plainStart = i;
+        }
+        fragment.append(HtmlUtils.htmlEscape(text.substring(plainStart, end)));
+        if (end < text.length()) {
+            fragment.append(ELLIPSIS);
+        }
+        return fragment.toString();
+    }
+
+    private static String matchAt(String text, int offset, List<String> terms) {
+        for (String term : terms) {
+            if (text.regionMatches(true, offset, term, 0, term.length())) {
+                return term;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.dreamplanner.search;
+
+/**
+ * 搜索命中的记录ID及相关度
+ *
+ * @author DreamPlanner
+ */
+public interface SearchHit {
+
+    Long getId();
+
+    Double getScore();
+
+    static SearchHit of(Long id, double score) {
+        return new SearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Double getScore() {
+                return score;
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.dreamplanner.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 关键词拆分
+ *
+ * @author DreamPlanner
+ */
+public final class SearchTerms {
+
+    /**
+     * 最多使用的词数，多余的词被忽略
+     */
+    public static final int MAX_TERMS = 5;
+
+    private SearchTerms() {
+    }
+
+    /**
+     * 按空白拆分关键词，去掉空词和重复词
+     *
+     * @param keyword 关键词
+     * @return 词列表，关键词为空时为空列表
+     */
+    public static List<String> split(String keyword) {
+        if (keyword == null) {
+            return List.of();
+        }
+        return Arrays.stream(keyword.trim().split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_TERMS)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,104 @@
+package com.dreamplanner.search.post;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 中日韩二元分词
+ * 连续的中日韩字符切成相邻两字的片段，字母、数字按整词切分并转为小写，其余字符作为分隔符。
+ * 索引时每个字额外输出单字，查询时只有孤立的单字才按单字查，
+ * 这样"学习英语"只匹配包含"学习""习英""英语"的动态，而单字查询"跑"也能命中
+ *
+ * @author DreamPlanner
+ */
+public final class CjkBigramTokenizer {
+
+    /**
+     * 字母数字词的最大长度，超出部分截断
+     */
+    static final int MAX_WORD_LENGTH = 64;
+
+    private CjkBigramTokenizer() {
+    }
+
+    /**
+     * 索引分词，保留重复词，词频由调用方统计
+     *
+     * @param text 文本
+     * @return 词列表，文本为空时为空列表
+     */
+    public static List<String> indexTokens(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查询分词，去掉重复词
+     *
+     * @param text 查询文本
+     * @return 词列表，按出现顺序
+     */
+    public static List<String> queryTokens(String text) {
+        return new ArrayList<>(new LinkedHashSet<>(tokenize(text, false)));
+    }
+
+    private static List<String> tokenize(String text, boolean unigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int length = lower.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = lower.codePointAt(i);
+            if (isCjk(codePoint)) {
+                List<String> run = new ArrayList<>();
+                while (i < length && isCjk(codePoint = lower.codePointAt(i))) {
+                    run.add(new String(Character.toChars(codePoint)));
+                    i += Character.charCount(codePoint);
+                }
+                addCjkRun(run, unigrams, tokens);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int start = i;
+                while (i < length) {
+                    codePoint = lower.codePointAt(i);
+                    if (isCjk(codePoint) || !Character.isLetterOrDigit(codePoint)) {
+                        break;
+                    }
+                    i += Character.charCount(codePoint);
+                }
+                String word = lower.substring(start, i);
+                tokens.add(word.codePointCount(0, word.length()) > MAX_WORD_LENGTH
+                        ? word.substring(0, word.offsetByCodePoints(0, MAX_WORD_LENGTH)) : word);
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addCjkRun(List<String> run, boolean unigrams, List<String> tokens) {
+        if (run.size() == 1) {
+            tokens.add(run.get(0));
+            return;
+        }
+        for (int j = 0; j < run.size(); j++) {
+            if (unigrams) {
+                tokens.add(run.get(j));
+            }
+            if (j + 1 < run.size()) {
+                tokens.add(run.get(j) + run.get(j + 1));
+            }
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,314 @@
+package com.dreamplanner.search.post;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 不可变的倒排索引段，以内存映射方式读取
+ * 文件布局：文件头（魔数、版本、水位、文档数、总长度）、分类表、按动态ID排序的定长文档表、
+ * 按词排序的倒排表（文档序号、词频）、词典（词、文档频率、倒排表偏移）、文件尾（词典偏移、魔数）。
+ * 打开时只把分类表和词典读入堆内，文档表和倒排表按需从映射区读取，由操作系统页缓存负责换入换出。
+ * 单个段不超过2GB
+ *
+ * @author DreamPlanner
+ */
+final class IndexSegment {
+
+    private static final int MAGIC = 0x50535849;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 8;
+    private static final int TRAILER_SIZE = 8 + 4;
+    private static final int DOC_SIZE = 8 + 8 + 4 + 4;
+    private static final int POSTING_SIZE = 4 + 4;
+
+    private final MappedByteBuffer buffer;
+    private final long watermark;
+    private final int docCount;
+    private final long totalLength;
+    private final String[] categories;
+    private final int docsOffset;
+    private final Map<String, TermInfo> dictionary;
+
+    private IndexSegment(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        int size = buffer.capacity();
+        if (size < HEADER_SIZE + TRAILER_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.getInt(size - 4) != MAGIC) {
+            throw new IOException("索引段格式错误");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("不支持的索引段版本: " + buffer.getInt(4));
+        }
+        watermark = buffer.getLong(8);
+        docCount = buffer.getInt(16);
+        totalLength = buffer.getLong(20);
+
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(HEADER_SIZE);
+        categories = new String[reader.getInt()];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = readString(reader);
+        }
+        docsOffset = reader.position();
+
+        reader.position((int) buffer.getLong(size - TRAILER_SIZE));
+        int termCount = reader.getInt();
+        dictionary = new LinkedHashMap<>(termCount * 4 / 3 + 1);
+        for (int i = 0; i < termCount; i++) {
+            String term = readString(reader);
+            dictionary.put(term, new TermInfo(reader.getInt(), (int) reader.getLong()));
+        }
+    }
+
+    /**
+     * 映射并校验索引段文件
+     *
+     * @param file 段文件
+     * @return 索引段
+     * @throws IOException 文件不可读或格式错误
+     */
+    static IndexSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("索引段超过2GB: " + file);
+            }
+            return new IndexSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return 段写入时的同步水位（毫秒时间戳）
+     */
+    long watermark() {
+        return watermark;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    long postId(int ord) {
+        return buffer.getLong(docsOffset + ord * DOC_SIZE);
+    }
+
+    long authorId(int ord) {
+        return buffer.getLong(docsOffset + ord * DOC_SIZE + 8);
+    }
+
+    String category(int ord) {
+        int index = buffer.getInt(docsOffset + ord * DOC_SIZE + 16);
+        return index < 0 ? null : categories[index];
+    }
+
+    int length(int ord) {
+        return buffer.getInt(docsOffset + ord * DOC_SIZE + 20);
+    }
+
+    /**
+     * 按动态ID二分查找文档序号
+     *
+     * @param postId 动态ID
+     * @return 文档序号，不存在时为-1
+     */
+    int ordOf(long postId) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = postId(mid);
+            if (id < postId) {
+                low = mid + 1;
+            } else if (id > postId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return 词典中的全部词，按字典序
+     */
+    Iterable<String> terms() {
+        return Collections.unmodifiableSet(dictionary.keySet());
+    }
+
+    TermInfo term(String term) {
+        return dictionary.get(term);
+    }
+
+    /**
+     * 倒排表中第i项的文档序号，倒排表按文档序号升序
+     */
+    int postingOrd(TermInfo info, int i) {
+        return buffer.getInt(info.offset() + i * POSTING_SIZE);
+    }
+
+    int postingFrequency(TermInfo info, int i) {
+        return buffer.getInt(info.offset() + i * POSTING_SIZE + 4);
+    }
+
+    private static String readString(ByteBuffer reader) {
+        byte[] bytes = new byte[Short.toUnsignedInt(reader.getShort())];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 词典项
+     *
+     * @param df     包含该词的文档数
+     * @param offset 倒排表在文件中的偏移
+     */
+    record TermInfo(int df, int offset) {
+    }
+
+    /**
+     * 文档表中的一项
+     */
+    record Doc(long postId, long authorId, String category, int length) {
+    }
+
+    /**
+     * 顺序写出索引段：构造时写入文件头和文档表，之后按字典序逐个写入词的倒排表，关闭时写入词典并刷盘
+     */
+    static final class Writer implements Closeable {
+
+        private final FileOutputStream file;
+        private final DataOutputStream out;
+        private final List<String> terms = new ArrayList<>();
+        private final List<long[]> termInfos = new ArrayList<>();
+        private final int docCount;
+        private long position;
+
+        /**
+         * @param path      目标文件
+         * @param watermark 同步水位（毫秒时间戳）
+         * @param docs      文档表，需按动态ID升序，序号即下标
+         */
+        Writer(Path path, long watermark, List<Doc> docs) throws IOException {
+            file = new FileOutputStream(path.toFile());
+            out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+            docCount = docs.size();
+            try {
+                long totalLength = 0;
+                Map<String, Integer> categoryIndex = new HashMap<>();
+                List<String> categories = new ArrayList<>();
+                for (Doc doc : docs) {
+                    totalLength += doc.length();
+                    if (doc.category() != null && !categoryIndex.containsKey(doc.category())) {
+                        categoryIndex.put(doc.category(), categories.size());
+                        categories.add(doc.category());
+                    }
+                }
+
+                writeInt(MAGIC);
+                writeInt(VERSION);
+                writeLong(watermark);
+                writeInt(docs.size());
+                writeLong(totalLength);
+                writeInt(categories.size());
+                for (String category : categories) {
+                    writeString(category);
+                }
+                for (Doc doc : docs) {
+                    writeLong(doc.postId());
+                    writeLong(doc.authorId());
+                    writeInt(doc.category() == null ? -1 : categoryIndex.get(doc.category()));
+                    writeInt(doc.length());
+                }
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e;
+            }
+        }
+
+        /**
+         * 写入一个词的倒排表
+         *
+         * @param term        词，需大于上一个写入的词
+         * @param ords        文档序号，升序
+         * @param frequencies 与ords对应的词频
+         * @param count       有效项数
+         */
+        void addTerm(String term, int[] ords, int[] frequencies, int count) throws IOException {
+            if (count == 0) {
+                return;
+            }
+            if (!terms.isEmpty() && terms.get(terms.size() - 1).compareTo(term) >= 0) {
+                throw new IllegalArgumentException("词需按字典序写入: " + term);
+            }
+            terms.add(term);
+            termInfos.add(new long[]{count, position});
+            for (int i = 0; i < count; i++) {
+                if (ords[i] < 0 || ords[i] >= docCount) {
+                    throw new IllegalArgumentException("文档序号越界: " + ords[i]);
+                }
+                writeInt(ords[i]);
+                writeInt(frequencies[i]);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                long dictionaryOffset = position;
+                writeInt(terms.size());
+                for (int i = 0; i < terms.size(); i++) {
+                    writeString(terms.get(i));
+                    writeInt((int) termInfos.get(i)[0]);
+                    writeLong(termInfos.get(i)[1]);
+                }
+                writeLong(dictionaryOffset);
+                writeInt(MAGIC);
+                if (position > Integer.MAX_VALUE) {
+                    throw new IOException("索引段超过2GB");
+                }
+                out.flush();
+                file.getChannel().force(true);
+            } finally {
+                file.close();
+            }
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.writeInt(value);
+            position += 4;
+        }
+
+        private void writeLong(long value) throws IOException {
+            out.writeLong(value);
+            position += 8;
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("字符串过长: " + value.substring(0, 16) + "…");
+            }
+            out.writeShort(bytes.length);
+            out.write(bytes);
+            position += 2 + bytes.length;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.dreamplanner.search.post;
+
+import com.dreamplanner.entity.Post;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 动态在索引中的文档
+ *
+ * @param postId          动态ID
+ * @param authorId        作者ID
+ * @param category        关联梦想的分类，未关联梦想时为null
+ * @param length          文档长度，即加权后的词数
+ * @param termFrequencies 词到加权词频
+ * @author DreamPlanner
+ */
+public record PostDocument(long postId, long authorId, String category, int length,
+                           Map<String, Integer> termFrequencies) {
+
+    /**
+     * 标题中的词按出现两次计算
+     */
+    static final int TITLE_BOOST = 2;
+
+    /**
+     * 由动态实体生成文档，dream需已加载
+     *
+     * @param post 动态
+     * @return 文档
+     */
+    public static PostDocument of(Post post) {
+        return of(post.getId(), post.getUser().getId(),
+                post.getDream() == null ? null : post.getDream().getCategory(),
+                post.getTitle(), post.getContent());
+    }
+
+    public static PostDocument of(long postId, long authorId, String category, String title, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(CjkBigramTokenizer.indexTokens(title), TITLE_BOOST, frequencies)
+                + count(CjkBigramTokenizer.indexTokens(content), 1, frequencies);
+        return new PostDocument(postId, authorId, category, length, frequencies);
+    }
+
+    private static int count(List<String> tokens, int weight, Map<String, Integer> frequencies) {
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+}
@@ -0,0 +1,243 @@
+package com.dreamplanner.search.post;
+
+import com.dreamplanner.entity.Post;
+import com.dreamplanner.event.PostChangedEvent;
+import com.dreamplanner.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 动态搜索索引同步
+ * 启动时加载磁盘上最新的索引段，从段的水位（回溯change-overlap）增量补齐；没有可用段时按ID分批全量重建。
+ * 本节点的动态变更在事务提交后通过PostChangedEvent立即写入索引，其他节点的变更由定期按更新时间增量拉取。
+ * 未合并的变更超过snapshot-threshold条或距上次快照超过snapshot-interval时合并成新段写入磁盘，
+ * 重启后只需补齐水位之后的变更。索引及同步状态只在同步线程中修改
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "post-search.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PostIndexer implements SmartLifecycle {
+
+    private final PostRepository postRepository;
+    private final PostSearchIndex index;
+
+    @Value("${post-search.index-dir:data/post-index}")
+    private String indexDir;
+
+    @Value("${post-search.poll-interval:30s}")
+    private Duration pollInterval;
+
+    @Value("${post-search.change-overlap:1m}")
+    private Duration changeOverlap;
+
+    @Value("${post-search.snapshot-interval:10m}")
+    private Duration snapshotInterval;
+
+    @Value("${post-search.snapshot-threshold:1000}")
+    private int snapshotThreshold;
+
+    @Value("${post-search.batch-size:500}")
+    private int batchSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private volatile ScheduledExecutorService executor;
+    private Path directory;
+
+    // 以下字段只在同步线程中访问
+    private boolean ready;
+    private LocalDateTime watermark;
+    private LocalDateTime lastSnapshot;
+
+    @Override
+    public void start() {
+        directory = Paths.get(indexDir).toAbsolutePath();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(guarded("同步", this::poll), 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        executor = scheduler;
+        log.info("动态搜索索引同步已启动, 索引目录: {}", directory);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+                return;
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // 同步线程已结束，停机前保存未合并的变更，下次启动少补一些
+        if (ready && index.pendingChanges() > 0) {
+            snapshot();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * 动态变更提交后重新索引该动态；索引尚未就绪时忽略，由初始化后的增量补齐处理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler == null) {
+            return;
+        }
+        try {
+            scheduler.execute(guarded("处理动态变更", () -> {
+                if (!ready) {
+                    return;
+                }
+                List<Post> posts = postRepository.findWithUserAndDreamByIdIn(List.of(event.postId()));
+                if (posts.isEmpty()) {
+                    index.remove(event.postId());
+                } else {
+                    apply(posts.get(0));
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // 正在停止
+        }
+    }
+
+    /**
+     * 初始化失败时下一轮重试；就绪后拉取增量并按需保存快照
+     */
+    private void poll() {
+        if (!ready) {
+            initialize();
+            return;
+        }
+        pollChanges();
+        LocalDateTime now = LocalDateTime.now();
+        int pending = index.pendingChanges();
+        if (pending >= snapshotThreshold
+                || (pending > 0 && !lastSnapshot.plus(snapshotInterval).isAfter(now))) {
+            snapshot();
+        }
+    }
+
+    private void initialize() {
+        long saved = index.load(directory);
+        if (saved >= 0) {
+            watermark = LocalDateTime.ofInstant(Instant.ofEpochMilli(saved), zone);
+            lastSnapshot = LocalDateTime.now();
+            pollChanges();
+            log.info("动态搜索索引已就绪, 从 {} 补齐变更, 文档数: {}", watermark, index.size());
+        } else {
+            LocalDateTime started = LocalDateTime.now();
+            rebuild();
+            watermark = started;
+            // 重建期间的变更由下一轮增量拉取补齐
+            snapshot();
+            log.info("动态搜索索引已重建, 文档数: {}, 耗时: {}ms", index.size(),
+                    Duration.between(started, LocalDateTime.now()).toMillis());
+        }
+        ready = true;
+    }
+
+    private void rebuild() {
+        index.clear();
+        long afterId = 0;
+        List<Post> page;
+        do {
+            page = postRepository.findIndexableAfter(afterId, PageRequest.of(0, batchSize));
+            for (Post post : page) {
+                index.index(PostDocument.of(post));
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == batchSize);
+    }
+
+    /**
+     * 拉取水位之后更新过的动态，重叠一段时间以覆盖提交较晚的事务
+     */
+    private void pollChanges() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime afterTime = watermark.minus(changeOverlap);
+        long afterId = 0;
+        List<Post> page;
+        do {
+            page = postRepository.findUpdatedAfter(afterTime, afterId, PageRequest.of(0, batchSize));
+            page.forEach(this::apply);
+            if (!page.isEmpty()) {
+                Post last = page.get(page.size() - 1);
+                afterTime = last.getUpdatedAt();
+                afterId = last.getId();
+            }
+        } while (page.size() == batchSize);
+        watermark = now;
+    }
+
+    private void apply(Post post) {
+        if (Integer.valueOf(1).equals(post.getStatus())) {
+            index.index(PostDocument.of(post));
+        } else {
+            index.remove(post.getId());
+        }
+    }
+
+    /**
+     * 写入失败不影响查询，变更继续留在内存中，到下一个快照周期再试
+     */
+    private void snapshot() {
+        try {
+            index.snapshot(directory, watermark.atZone(zone).toInstant().toEpochMilli());
+        } catch (IOException e) {
+            log.warn("写入动态索引段失败, 未合并变更数: {}", index.pendingChanges(), e);
+        }
+        lastSnapshot = LocalDateTime.now();
+    }
+
+    private static Runnable guarded(String action, Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                // 异常会终止周期任务，这里吞掉等下一轮重试
+                log.error("动态搜索索引{}失败: {}", action, e.getMessage(), e);
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.dreamplanner.search.post;
+
+import com.dreamplanner.exception.BusinessException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * 动态搜索分页游标
+ * 编码上一页最后一条结果的相关度和动态ID，下一页从其后继续，翻页期间有新动态写入也不会重复或遗漏已排过序的结果
+ *
+ * @author DreamPlanner
+ */
+public final class PostSearchCursor {
+
+    private static final int SIZE = 8 + 8;
+
+    private PostSearchCursor() {
+    }
+
+    /**
+     * @param hit 上一页最后一条结果
+     * @return URL安全的游标
+     */
+    public static String encode(PostSearchIndex.Hit hit) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE)
+                .putLong(Double.doubleToLongBits(hit.score()))
+                .putLong(hit.postId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor 游标
+     * @return 游标对应的结果位置
+     * @throws BusinessException 游标无效
+     */
+    public static PostSearchIndex.Hit decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+        if (bytes.length != SIZE) {
+            throw new BusinessException("无效的分页游标");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        double score = Double.longBitsToDouble(buffer.getLong());
+        if (Double.isNaN(score) || Double.isInfinite(score)) {
+            throw new BusinessException("无效的分页游标");
+        }
+        return new PostSearchIndex.Hit(buffer.getLong(), score);
+    }
+}
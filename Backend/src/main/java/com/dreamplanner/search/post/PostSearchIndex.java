@@ -0,0 +1,427 @@
+package com.dreamplanner.search.post;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 动态全文倒排索引
+ * 由一个内存映射的基础段和内存中的增量组成：新增或修改的动态写入增量，
+ * 被修改或删除的基础段文档记入删除集，查询时合并两者；snapshot把二者合并成新的基础段写入磁盘。
+ * 写操作之间互斥，读写锁只用于让查询与写操作隔离，合并新段期间查询照常进行。
+ * 按BM25（k1=1.2，b=0.75）排序，多个词之间为"或"关系，相关度相同时按动态ID降序。
+ * 文档频率和平均长度按全部文档统计，不受作者、分类过滤影响
+ *
+ * @author DreamPlanner
+ */
+@Component
+@Slf4j
+public class PostSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.seg");
+
+    /**
+     * 排序：相关度降序，相同时动态ID降序
+     */
+    static final Comparator<Hit> ORDER = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(Comparator.comparingLong(Hit::postId).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IndexSegment base;
+    private long generation;
+    private final Map<Long, PostDocument> delta = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> deltaPostings = new HashMap<>();
+    private long deltaLength;
+    private final Set<Long> deleted = new HashSet<>();
+    private long deletedLength;
+
+    /**
+     * 新增或替换一条动态
+     *
+     * @param document 文档
+     */
+    public synchronized void index(PostDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.postId());
+            delta.put(document.postId(), document);
+            deltaLength += document.length();
+            document.termFrequencies().forEach((term, frequency) ->
+                    deltaPostings.computeIfAbsent(term, key -> new HashMap<>()).put(document.postId(), frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除一条动态，不存在时忽略
+     *
+     * @param postId 动态ID
+     */
+    public synchronized void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引，磁盘上的段文件不受影响
+     */
+    public synchronized void clear() {
+        lock.writeLock().lock();
+        try {
+            base = null;
+            clearChanges();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return 尚未合并进基础段的变更数
+     */
+    public int pendingChanges() {
+        lock.readLock().lock();
+        try {
+            return delta.size() + deleted.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return 索引中的动态数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 搜索动态
+     *
+     * @param keyword  关键词
+     * @param category 梦想分类，为null时不过滤
+     * @param authorId 作者ID，为null时不过滤
+     * @param after    上一页最后一条结果，为null时从头开始
+     * @param limit    最多返回条数
+     * @return 按相关度排序的结果
+     */
+    public List<Hit> search(String keyword, String category, Long authorId, Hit after, int limit) {
+        List<String> terms = CjkBigramTokenizer.queryTokens(keyword);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int docCount = liveCount();
+            if (docCount == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0,
+                    (double) ((base == null ? 0 : base.totalLength()) - deletedLength + deltaLength) / docCount);
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                score(term, category, authorId, docCount, averageLength, scores);
+            }
+            return top(scores, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从目录加载最新的可用段，替换当前索引
+     *
+     * @param directory 段文件目录
+     * @return 段的同步水位（毫秒时间戳），没有可用段时为-1
+     */
+    public synchronized long load(Path directory) {
+        for (Map.Entry<Long, Path> entry : listSegments(directory).descendingMap().entrySet()) {
+            try {
+                IndexSegment segment = IndexSegment.open(entry.getValue());
+                lock.writeLock().lock();
+                try {
+                    base = segment;
+                    generation = entry.getKey();
+                    clearChanges();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("加载动态索引段 {}, 文档数: {}", entry.getValue().getFileName(), segment.docCount());
+                return segment.watermark();
+            } catch (IOException | RuntimeException e) {
+                log.warn("动态索引段 {} 不可用: {}", entry.getValue(), e.getMessage());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 把基础段和增量合并成新段写入目录，成功后切换到新段并删除旧段文件
+     * 合并期间只持有读锁，查询不受影响，其他写操作等待合并完成
+     *
+     * @param directory 段文件目录
+     * @param watermark 已同步到的时间点（毫秒时间戳），随段保存
+     * @throws IOException 写入失败，此时索引保持不变
+     */
+    public synchronized void snapshot(Path directory, long watermark) throws IOException {
+        Files.createDirectories(directory);
+        long nextGeneration;
+        Path target;
+        lock.readLock().lock();
+        try {
+            TreeMap<Long, Path> existing = listSegments(directory);
+            nextGeneration = Math.max(generation, existing.isEmpty() ? 0 : existing.lastKey()) + 1;
+            target = directory.resolve(String.format("segment-%016d.seg", nextGeneration));
+            Path temp = directory.resolve(target.getFileName() + ".tmp");
+            try {
+                writeMerged(temp, watermark);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        IndexSegment segment = IndexSegment.open(target);
+        lock.writeLock().lock();
+        try {
+            base = segment;
+            generation = nextGeneration;
+            clearChanges();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("动态索引已写入 {}, 文档数: {}", target.getFileName(), segment.docCount());
+        deleteOlderSegments(directory, nextGeneration);
+    }
+
+    private void removeInternal(long postId) {
+        PostDocument previous = delta.remove(postId);
+        if (previous != null) {
+            deltaLength -= previous.length();
+            previous.termFrequencies().keySet().forEach(term -> {
+                Map<Long, Integer> postings = deltaPostings.get(term);
+                postings.remove(postId);
+                if (postings.isEmpty()) {
+                    deltaPostings.remove(term);
+                }
+            });
+        }
+        if (base != null && !deleted.contains(postId)) {
+            int ord = base.ordOf(postId);
+            if (ord >= 0) {
+                deleted.add(postId);
+                deletedLength += base.length(ord);
+            }
+        }
+    }
+
+    private void clearChanges() {
+        delta.clear();
+        deltaPostings.clear();
+        deltaLength = 0;
+        deleted.clear();
+        deletedLength = 0;
+    }
+
+    private int liveCount() {
+        return (base == null ? 0 : base.docCount()) - deleted.size() + delta.size();
+    }
+
+    /**
+     * 累加一个词对各文档的BM25得分，文档频率需先数出未删除的命中数
+     */
+    private void score(String term, String category, Long authorId, int docCount, double averageLength,
+                       Map<Long, Double> scores) {
+        IndexSegment.TermInfo info = base == null ? null : base.term(term);
+        Map<Long, Integer> deltaHits = deltaPostings.getOrDefault(term, Map.of());
+        List<Integer> baseHits = new ArrayList<>();
+        if (info != null) {
+            for (int i = 0; i < info.df(); i++) {
+                int ord = base.postingOrd(info, i);
+                if (deleted.isEmpty() || !deleted.contains(base.postId(ord))) {
+                    baseHits.add(i);
+                }
+            }
+        }
+        int df = baseHits.size() + deltaHits.size();
+        if (df == 0) {
+            return;
+        }
+        double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+        for (int i : baseHits) {
+            int ord = base.postingOrd(info, i);
+            if (matches(base.category(ord), base.authorId(ord), category, authorId)) {
+                scores.merge(base.postId(ord),
+                        bm25(idf, base.postingFrequency(info, i), base.length(ord), averageLength), Double::sum);
+            }
+        }
+        deltaHits.forEach((postId, frequency) -> {
+            PostDocument document = delta.get(postId);
+            if (matches(document.category(), document.authorId(), category, authorId)) {
+                scores.merge(postId, bm25(idf, frequency, document.length(), averageLength), Double::sum);
+            }
+        });
+    }
+
+    private static double bm25(double idf, int frequency, int length, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static boolean matches(String docCategory, long docAuthorId, String category, Long authorId) {
+        return (category == null || category.equals(docCategory))
+                && (authorId == null || authorId == docAuthorId);
+    }
+
+    /**
+     * 取排在after之后的前limit条
+     */
+    private static List<Hit> top(Map<Long, Double> scores, Hit after, int limit) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 1, ORDER.reversed());
+        scores.forEach((postId, score) -> {
+            Hit hit = new Hit(postId, score);
+            if (after != null && ORDER.compare(hit, after) <= 0) {
+                return;
+            }
+            heap.add(hit);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(ORDER);
+        return hits;
+    }
+
+    /**
+     * 按动态ID重新编号全部存活文档，逐词合并基础段和增量的倒排表写出新段
+     */
+    private void writeMerged(Path file, long watermark) throws IOException {
+        List<IndexSegment.Doc> docs = new ArrayList<>(liveCount());
+        int baseCount = base == null ? 0 : base.docCount();
+        int[] baseOrdMap = new int[baseCount];
+        Map<Long, Integer> deltaOrdMap = new HashMap<>();
+        List<Long> deltaIds = new ArrayList<>(delta.keySet());
+        deltaIds.sort(null);
+        int b = 0;
+        int d = 0;
+        while (b < baseCount || d < deltaIds.size()) {
+            if (b < baseCount && deleted.contains(base.postId(b))) {
+                baseOrdMap[b++] = -1;
+            } else if (d >= deltaIds.size() || (b < baseCount && base.postId(b) < deltaIds.get(d))) {
+                baseOrdMap[b] = docs.size();
+                docs.add(new IndexSegment.Doc(base.postId(b), base.authorId(b), base.category(b), base.length(b)));
+                b++;
+            } else {
+                PostDocument document = delta.get(deltaIds.get(d++));
+                deltaOrdMap.put(document.postId(), docs.size());
+                docs.add(new IndexSegment.Doc(document.postId(), document.authorId(), document.category(),
+                        document.length()));
+            }
+        }
+
+        TreeSet<String> terms = new TreeSet<>(deltaPostings.keySet());
+        if (base != null) {
+            base.terms().forEach(terms::add);
+        }
+        int[] ords = new int[Math.max(1, docs.size())];
+        int[] frequencies = new int[ords.length];
+        long[] packed = new long[ords.length];
+        try (IndexSegment.Writer writer = new IndexSegment.Writer(file, watermark, docs)) {
+            for (String term : terms) {
+                int count = 0;
+                IndexSegment.TermInfo info = base == null ? null : base.term(term);
+                if (info != null) {
+                    for (int i = 0; i < info.df(); i++) {
+                        int ord = baseOrdMap[base.postingOrd(info, i)];
+                        if (ord >= 0) {
+                            packed[count++] = (long) ord << 32 | base.postingFrequency(info, i);
+                        }
+                    }
+                }
+                for (Map.Entry<Long, Integer> posting : deltaPostings.getOrDefault(term, Map.of()).entrySet()) {
+                    packed[count++] = (long) deltaOrdMap.get(posting.getKey()) << 32 | posting.getValue();
+                }
+                Arrays.sort(packed, 0, count);
+                for (int i = 0; i < count; i++) {
+                    ords[i] = (int) (packed[i] >>> 32);
+                    frequencies[i] = (int) packed[i];
+                }
+                writer.addTerm(term, ords, frequencies, count);
+            }
+        }
+    }
+
+    private static TreeMap<Long, Path> listSegments(Path directory) {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*.seg")) {
+            for (Path path : stream) {
+                Matcher matcher = SEGMENT_FILE.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取动态索引目录失败: {}", e.getMessage());
+        }
+        return segments;
+    }
+
+    /**
+     * 删除旧段，已映射的旧段在不再被引用后由GC解除映射；删除失败的留到下次快照再删
+     */
+    private static void deleteOlderSegments(Path directory, long current) {
+        listSegments(directory).headMap(current).values().forEach(path -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.debug("删除旧动态索引段 {} 失败: {}", path, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 搜索结果
+     *
+     * @param postId 动态ID
+     * @param score  BM25相关度
+     */
+    public record Hit(long postId, double score) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.dreamplanner.service;
+
+import com.dreamplanner.activity.ActivityType;
+import com.dreamplanner.dto.ActivityHeatmapDTO;
+import com.dreamplanner.dto.ActivityStreakDTO;
+
+import java.time.LocalDate;
+
+/**
+ * 用户活跃度服务接口
+ *
+ * @author DreamPlanner
+ */
+public interface ActivityService {
+
+    /**
+     * 记录用户某天有某类活动，需在写入活动的事务中调用
+     *
+     * @param userId 用户ID
+     * @param type   活动类型
+     * @param date   活动日期
+     */
+    void recordActivity(Long userId, ActivityType type, LocalDate date);
+
+    /**
+     * 任务取消完成后，当天没有其他已完成的任务或重复任务实例时清除当天的完成标记
+     *
+     * @param userId 用户ID
+     * @param date   原完成日期
+     */
+    void onTaskCompletionRevoked(Long userId, LocalDate date);
+
+    /**
+     * 获取用户一年的活跃度热力图
+     *
+     * @param userId 用户ID
+     * @param type   活动类型
+     * @param year   年份
+     * @return 热力图
+     */
+    ActivityHeatmapDTO getHeatmap(Long userId, ActivityType type, int year);
+
+    /**
+     * 获取用户某类活动的当前和最长连续天数
+     *
+     * @param userId 用户ID
+     * @param type   活动类型
+     * @return 连续天数
+     */
+    ActivityStreakDTO getStreaks(Long userId, ActivityType type);
+}
@@ -0,0 +1,70 @@
+package com.dreamplanner.service;
+
+import com.dreamplanner.dto.ChunkUploadDTO;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 分片上传服务接口
+ * 支持大文件断点续传：初始化会话、按偏移量写入分片、查询进度、合并完成；
+ * 会话只能由创建它的用户操作
+ *
+ * @author DreamPlanner
+ */
+public interface ChunkedUploadService {
+
+    /**
+     * 初始化分片上传会话
+     *
+     * @param userId      当前用户ID，成为会话的所有者
+     * @param type        文件类型目录
+     * @param filename    原始文件名
+     * @param contentType 内容类型
+     * @param totalSize   文件总大小
+     * @param chunkSize   分片大小，为空时使用默认值
+     * @return 上传会话
+     */
+    ChunkUploadDTO initiate(Long userId, String type, String filename, String contentType, long totalSize,
+                            Integer chunkSize);
+
+    /**
+     * 在指定偏移量写入一个分片
+     *
+     * @param userId        当前用户ID
+     * @param uploadId      上传会话ID
+     * @param offset        分片起始偏移量，必须是分片大小的整数倍
+     * @param content       分片内容
+     * @param contentLength 请求声明的分片长度，未知时为-1
+     * @param checksum      分片CRC32C校验值（十六进制），为空时不校验
+     * @return 写入后的会话状态
+     */
+    ChunkUploadDTO writeChunk(Long userId, String uploadId, long offset, InputStream content, long contentLength,
+                              String checksum);
+
+    /**
+     * 查询上传进度，用于断点续传
+     *
+     * @param userId   当前用户ID
+     * @param uploadId 上传会话ID
+     * @return 会话状态
+     */
+    ChunkUploadDTO getStatus(Long userId, String uploadId);
+
+    /**
+     * 完成上传，将临时文件移动到正式目录
+     *
+     * @param userId   当前用户ID
+     * @param uploadId 上传会话ID
+     * @return 包含url和filename的结果
+     */
+    Map<String, String> complete(Long userId, String uploadId);
+
+    /**
+     * 取消上传并清理临时文件
+     *
+     * @param userId   当前用户ID
+     * @param uploadId 上传会话ID
+     */
+    void abort(Long userId, String uploadId);
+}
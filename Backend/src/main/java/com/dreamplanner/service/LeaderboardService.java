@@ -0,0 +1,34 @@
+package com.dreamplanner.service;
+
+import com.dreamplanner.dto.LeaderboardDTO;
+import com.dreamplanner.leaderboard.LeaderboardType;
+
+/**
+ * 排行榜服务接口
+ *
+ * @author DreamPlanner
+ */
+public interface LeaderboardService {
+
+    /**
+     * 获取排行榜从某个位置开始的一段
+     *
+     * @param type     排行榜类型
+     * @param category 梦想分类，按分类分榜时必填
+     * @param offset   跳过的名次数
+     * @param limit    条数
+     * @return 排行榜
+     */
+    LeaderboardDTO getTop(LeaderboardType type, String category, int offset, int limit);
+
+    /**
+     * 获取用户在排行榜上的名次及前后若干名
+     *
+     * @param type     排行榜类型
+     * @param category 梦想分类，按分类分榜时必填
+     * @param userId   用户ID
+     * @param radius   前后各取的名次数
+     * @return 排行榜，用户不在榜上时只返回总人数
+     */
+    LeaderboardDTO getAround(LeaderboardType type, String category, Long userId, int radius);
+}
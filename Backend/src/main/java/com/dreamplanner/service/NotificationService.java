@@ -0,0 +1,52 @@
+package com.dreamplanner.service;
+
+import com.dreamplanner.dto.NotificationPageDTO;
+import com.dreamplanner.dto.NotificationUnreadDTO;
+import com.dreamplanner.event.NotificationEvent;
+
+import java.util.List;
+
+/**
+ * 通知服务接口
+ *
+ * @author DreamPlanner
+ */
+public interface NotificationService {
+
+    /**
+     * 在一个事务中投递一批通知事件，按(接收者, 类型, 目标)聚合到未读通知上
+     *
+     * @param events 通知事件
+     */
+    void deliver(List<NotificationEvent> events);
+
+    /**
+     * 分页获取当前用户的收件箱，按最近聚合时间倒序
+     *
+     * @param cursor 上一页返回的nextCursor，首页为null
+     * @param size   每页条数
+     * @return 收件箱的一页
+     */
+    NotificationPageDTO getInbox(String cursor, int size);
+
+    /**
+     * 获取当前用户的未读通知数
+     *
+     * @return 未读通知数
+     */
+    NotificationUnreadDTO getUnreadCount();
+
+    /**
+     * 标记当前用户的一条通知为已读
+     *
+     * @param id 通知ID
+     */
+    void markRead(Long id);
+
+    /**
+     * 标记当前用户的全部通知为已读
+     *
+     * @return 标记的通知数
+     */
+    int markAllRead();
+}
@@ -151,6 +151,20 @@ public interface PostService {
      */
     Map<String, Object> getPosts(int page, int pageSize, String category, Long authorId, Long currentUserId);
 
+    /**
+     * 搜索帖子，按标题和内容的相关度排序，使用游标分页
+     *
+     * @param keyword 关键词
+     * @param category 梦想分类（可选）
+     * @param authorId 作者ID（可选）
+     * @param cursor 上一页返回的nextCursor，首页为null
+     * @param size 每页大小，最多50
+     * @param currentUserId 当前用户ID（用于判断点赞和关注状态）
+     * @return 帖子列表、下一页游标和是否还有更多
+     */
+    Map<String, Object> searchPosts(String keyword, String category, Long authorId, String cursor,
+                                    int size, Long currentUserId);
+
     /**
      * 更新帖子
      *
@@ -1,7 +1,10 @@
 package com.dreamplanner.service;
 
+import com.dreamplanner.dto.ProgressActivityDTO;
 import com.dreamplanner.dto.ProgressDTO;
+import com.dreamplanner.dto.ProgressTimelineDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -35,6 +38,36 @@ public interface ProgressService {
      */
     List<ProgressDTO> getProgressByUserId(Long userId);
 
+    /**
+     * 分页获取梦想的进度时间线，按创建时间倒序
+     *
+     * @param dreamId 梦想ID
+     * @param cursor  上一页返回的nextCursor，首页为null
+     * @param size    每页条数
+     * @return 进度时间线的一页
+     */
+    ProgressTimelineDTO getProgressTimeline(Long dreamId, String cursor, int size);
+
+    /**
+     * 按天统计梦想在日期区间内的打卡情况
+     *
+     * @param dreamId 梦想ID
+     * @param from    开始日期
+     * @param to      结束日期（含）
+     * @return 打卡统计
+     */
+    ProgressActivityDTO getDailyActivity(Long dreamId, LocalDate from, LocalDate to);
+
+    /**
+     * 按周统计梦想在日期区间内的打卡情况，区间扩展到完整的周
+     *
+     * @param dreamId 梦想ID
+     * @param from    开始日期
+     * @param to      结束日期（含）
+     * @return 打卡统计
+     */
+    ProgressActivityDTO getWeeklyActivity(Long dreamId, LocalDate from, LocalDate to);
+
     /**
      * 添加进度记录
      *
@@ -0,0 +1,24 @@
+package com.dreamplanner.service;
+
+import com.dreamplanner.dto.TaskCalendarDTO;
+
+import java.time.LocalDate;
+
+/**
+ * 任务日历服务接口
+ *
+ * @author DreamPlanner
+ */
+public interface TaskCalendarService {
+
+    /**
+     * 获取用户在日期区间内的任务日历
+     *
+     * @param userId       用户ID
+     * @param from         开始日期
+     * @param to           结束日期（含）
+     * @param includeTasks 是否返回任务摘要
+     * @return 任务日历
+     */
+    TaskCalendarDTO getCalendar(Long userId, LocalDate from, LocalDate to, boolean includeTasks);
+}
@@ -0,0 +1,62 @@
+package com.dreamplanner.service;
+
+import com.dreamplanner.dto.TaskTreeDTO;
+import com.dreamplanner.entity.Task;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 任务层级服务接口
+ * 维护任务闭包表，并提供整棵任务树的一次性加载
+ *
+ * @author DreamPlanner
+ */
+public interface TaskHierarchyService {
+
+    /**
+     * 登记新建的任务，任务需已分配ID；同一批中的父任务可以在子任务之后出现
+     *
+     * @param tasks 新建的任务
+     */
+    void onTasksCreated(Collection<Task> tasks);
+
+    /**
+     * 把任务连同其子树移动到新的父任务下，需在修改任务的父任务之前调用
+     *
+     * @param taskId      任务ID
+     * @param newParentId 新的父任务ID，为null时成为根任务
+     */
+    void onTaskMoved(Long taskId, Long newParentId);
+
+    /**
+     * 删除任务及其子树的闭包行
+     *
+     * @param taskIds 被删除的任务ID
+     * @return 子树内的全部任务ID（含被删除的任务自身），供调用方批量删除任务行
+     */
+    List<Long> onTasksDeleted(Collection<Long> taskIds);
+
+    /**
+     * 删除梦想下全部任务的闭包行，需在删除梦想之前调用
+     *
+     * @param dreamId 梦想ID
+     */
+    void onDreamDeleted(Long dreamId);
+
+    /**
+     * 获取梦想下的完整任务树
+     *
+     * @param dreamId 梦想ID
+     * @return 根任务列表，每个节点带有后代任务的汇总数
+     */
+    List<TaskTreeDTO> getDreamTaskTree(Long dreamId);
+
+    /**
+     * 获取以指定任务为根的子树
+     *
+     * @param taskId 任务ID
+     * @return 根节点，深度相对于该任务
+     */
+    TaskTreeDTO getSubtree(Long taskId);
+}
@@ -138,6 +138,16 @@ public interface TaskService {
      */
     TaskDTO updateTaskStatus(Long id, Integer status);
 
+    /**
+     * 标记或撤销重复任务某次实例的完成，只有已完成的实例会被保存
+     *
+     * @param id             重复任务ID
+     * @param occurrenceDate 实例日期
+     * @param completed      是否完成
+     * @return 该次实例的任务DTO
+     */
+    TaskDTO setOccurrenceCompleted(Long id, LocalDate occurrenceDate, boolean completed);
+
     /**
      * 删除任务
      *
@@ -145,6 +155,30 @@ public interface TaskService {
      */
     void deleteTask(Long id);
 
+    /**
+     * 批量创建当前用户的任务，所属梦想的完成率每个梦想只重新计算一次
+     *
+     * @param taskDTOs 任务DTO列表
+     * @return 创建的任务DTO列表，顺序与请求一致
+     */
+    List<TaskDTO> createTasks(List<TaskDTO> taskDTOs);
+
+    /**
+     * 批量更新当前用户任务的状态
+     *
+     * @param ids    任务ID列表
+     * @param status 状态
+     * @return 更新后的任务DTO列表
+     */
+    List<TaskDTO> updateTasksStatus(List<Long> ids, Integer status);
+
+    /**
+     * 批量删除当前用户的任务，子任务随父任务一并删除
+     *
+     * @param ids 任务ID列表
+     */
+    void deleteTasks(List<Long> ids);
+
     /**
      * 搜索任务
      *
@@ -28,6 +28,14 @@ public interface UserService {
      */
     UserDTO getUserByUsername(String username);
 
+    /**
+     * 根据用户名获取用户ID，不统计关联数据
+     *
+     * @param username 用户名
+     * @return 用户ID
+     */
+    Long getUserIdByUsername(String username);
+
     /**
      * 根据邮箱获取用户
      *
@@ -0,0 +1,142 @@
+package com.dreamplanner.service.impl;
+
+import com.dreamplanner.activity.ActivityBitmap;
+import com.dreamplanner.activity.ActivityType;
+import com.dreamplanner.dto.ActivityHeatmapDTO;
+import com.dreamplanner.dto.ActivityStreakDTO;
+import com.dreamplanner.entity.UserActivity;
+import com.dreamplanner.repository.TaskOccurrenceRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.repository.UserActivityRepository;
+import com.dreamplanner.service.ActivityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 用户活跃度服务实现类
+ * 每个用户每类活动每年一个46字节位图。记录活动时锁定该行后置位，当天已有活动时不产生写入；
+ * 热力图和连续天数只读取位图做位运算，与进度记录、任务的数量无关。
+ * 任务删除不清除已记录的完成日，只有取消完成才会按当天的其他完成记录重新判断
+ *
+ * @author DreamPlanner
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityServiceImpl implements ActivityService {
+
+    private final UserActivityRepository userActivityRepository;
+    private final TaskRepository taskRepository;
+    private final TaskOccurrenceRepository taskOccurrenceRepository;
+
+    /**
+     * 记录用户某天有某类活动
+     *
+     * @param userId 用户ID
+     * @param type   活动类型
+     * @param date   活动日期
+     */
+    @Override
+    @Transactional
+    public void recordActivity(Long userId, ActivityType type, LocalDate date) {
+        UserActivity activity = userActivityRepository.findForUpdate(userId, type.getCode(), date.getYear())
+                .orElse(null);
+        if (activity == null) {
+            ActivityBitmap bitmap = ActivityBitmap.empty(date.getYear());
+            bitmap.set(date);
+            if (userActivityRepository.insertIfAbsent(userId, type.getCode(), date.getYear(), bitmap.toBytes()) > 0) {
+                return;
+            }
+            // 其他事务刚插入了这一行，锁定后在其基础上置位
+            activity = userActivityRepository.findForUpdate(userId, type.getCode(), date.getYear())
+                    .orElseThrow(() -> new IllegalStateException("活跃度位图不存在: " + userId));
+        }
+        ActivityBitmap bitmap = ActivityBitmap.of(date.getYear(), activity.getDays());
+        if (bitmap.set(date)) {
+            activity.setDays(bitmap.toBytes());
+        }
+    }
+
+    /**
+     * 任务取消完成后，当天没有其他完成记录时清除当天的完成标记
+     *
+     * @param userId 用户ID
+     * @param date   原完成日期
+     */
+    @Override
+    @Transactional
+    public void onTaskCompletionRevoked(Long userId, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+        if (taskRepository.existsCompletedBetween(userId, start, end)
+                || taskOccurrenceRepository.existsCompletedBetween(userId, start, end)) {
+            return;
+        }
+        userActivityRepository.findForUpdate(userId, ActivityType.TASK_COMPLETED.getCode(), date.getYear())
+                .ifPresent(activity -> {
+                    ActivityBitmap bitmap = ActivityBitmap.of(date.getYear(), activity.getDays());
+                    if (bitmap.clear(date)) {
+                        activity.setDays(bitmap.toBytes());
+                    }
+                });
+    }
+
+    /**
+     * 获取用户一年的活跃度热力图
+     *
+     * @param userId 用户ID
+     * @param type   活动类型
+     * @param year   年份
+     * @return 热力图
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ActivityHeatmapDTO getHeatmap(Long userId, ActivityType type, int year) {
+        log.info("获取活跃度热力图, userId: {}, type: {}, year: {}", userId, type, year);
+        ActivityBitmap bitmap = userActivityRepository.findByUserIdAndTypeAndYear(userId, type.getCode(), year)
+                .map(activity -> ActivityBitmap.of(year, activity.getDays()))
+                .orElseGet(() -> ActivityBitmap.empty(year));
+        return ActivityHeatmapDTO.builder()
+                .userId(userId)
+                .type(type)
+                .year(year)
+                .activeDays(bitmap.activeDays())
+                .activeDates(bitmap.activeDates())
+                .bitmap(Base64.getEncoder().encodeToString(bitmap.toBytes()))
+                .build();
+    }
+
+    /**
+     * 获取用户某类活动的当前和最长连续天数
+     *
+     * @param userId 用户ID
+     * @param type   活动类型
+     * @return 连续天数
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ActivityStreakDTO getStreaks(Long userId, ActivityType type) {
+        log.info("获取连续活动天数, userId: {}, type: {}", userId, type);
+        SortedMap<Integer, ActivityBitmap> bitmaps = new TreeMap<>();
+        for (UserActivity activity : userActivityRepository.findByUserIdAndType(userId, type.getCode())) {
+            bitmaps.put(activity.getYear(), ActivityBitmap.of(activity.getYear(), activity.getDays()));
+        }
+        LocalDate today = LocalDate.now();
+        ActivityBitmap current = bitmaps.get(today.getYear());
+        return ActivityStreakDTO.builder()
+                .userId(userId)
+                .type(type)
+                .activeToday(current != null && current.get(today))
+                .currentStreak(ActivityBitmap.currentStreak(bitmaps, today))
+                .longestStreak(ActivityBitmap.longestStreak(bitmaps))
+                .build();
+    }
+}
@@ -0,0 +1,561 @@
+package com.dreamplanner.service.impl;
+
+import com.dreamplanner.dto.ChunkUploadDTO;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.exception.ResourceNotFoundException;
+import com.dreamplanner.service.ChunkedUploadService;
+import com.dreamplanner.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * 分片上传服务实现类
+ * 临时文件在初始化时按总大小预分配，分片通过FileChannel按偏移量原地写入，
+ * 每次只占用固定大小的读写缓冲区；会话元数据落盘，服务重启后可继续上传。
+ * 会话记录创建者，其他用户不能写入、查询、完成或取消
+ *
+ * @author DreamPlanner
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final String META_SUFFIX = ".meta";
+    private static final String PART_SUFFIX = ".part";
+    private static final Pattern TYPE_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    // 文件存储根目录，从配置文件中读取
+    @Value("${file.upload.dir:uploads}")
+    private String uploadDir;
+
+    // 文件访问的基础URL，从配置文件中读取
+    @Value("${file.access.url:http://localhost:8080/api/files}")
+    private String fileAccessUrl;
+
+    @Value("${file.upload.chunk.default-size:4MB}")
+    private DataSize defaultChunkSize;
+
+    @Value("${file.upload.chunk.max-chunk-size:16MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${file.upload.chunk.max-file-size:2GB}")
+    private DataSize maxFileSize;
+
+    @Value("${file.upload.chunk.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    private final BlobStore blobStore;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    private Path chunkDir;
+
+    /**
+     * 创建临时目录并恢复未完成的上传会话
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        chunkDir = Paths.get(uploadDir, ".chunks");
+        Files.createDirectories(chunkDir);
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(chunkDir, "*" + META_SUFFIX)) {
+            for (Path metaFile : stream) {
+                try {
+                    UploadSession session = UploadSession.fromJson(new JSONObject(Files.readString(metaFile)));
+                    if (Files.exists(partPath(session.uploadId))) {
+                        sessions.put(session.uploadId, session);
+                    } else {
+                        Files.deleteIfExists(metaFile);
+                    }
+                } catch (Exception e) {
+                    log.warn("恢复分片上传会话失败: {}, 原因: {}", metaFile, e.getMessage());
+                }
+            }
+        }
+        log.info("分片上传临时目录: {}, 恢复会话数: {}", chunkDir.toAbsolutePath(), sessions.size());
+    }
+
+    @Override
+    public ChunkUploadDTO initiate(Long userId, String type, String filename, String contentType, long totalSize,
+                                   Integer chunkSize) {
+        log.info("初始化分片上传, 类型: {}, 文件名: {}, 内容类型: {}, 大小: {} bytes, 分片大小: {}",
+                type, filename, contentType, totalSize, chunkSize);
+
+        if (type == null || !TYPE_PATTERN.matcher(type).matches()) {
+            throw new BusinessException("文件类型目录无效: " + type);
+        }
+        if (contentType == null || !(contentType.startsWith("image/") || contentType.startsWith("video/"))) {
+            throw new BusinessException("只支持图片或视频文件");
+        }
+        if (totalSize <= 0 || totalSize > maxFileSize.toBytes()) {
+            throw new BusinessException("文件大小无效，最大限制: " + maxFileSize.toMegabytes() + "MB");
+        }
+        int effectiveChunkSize = chunkSize != null ? chunkSize : (int) defaultChunkSize.toBytes();
+        if (effectiveChunkSize <= 0 || effectiveChunkSize > maxChunkSize.toBytes()) {
+            throw new BusinessException("分片大小无效，最大限制: " + maxChunkSize.toMegabytes() + "MB");
+        }
+        long chunkCount = (totalSize + effectiveChunkSize - 1) / effectiveChunkSize;
+        if (chunkCount > Integer.MAX_VALUE) {
+            throw new BusinessException("分片数量过多，请增大分片大小");
+        }
+
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        UploadSession session = new UploadSession(uploadId, userId, type, filename, contentType, totalSize,
+                effectiveChunkSize, (int) chunkCount, new BitSet((int) chunkCount), expiryFromNow());
+
+        try {
+            // 预分配稀疏文件，后续分片直接按偏移量写入
+            try (FileChannel channel = FileChannel.open(partPath(uploadId),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(1), totalSize - 1);
+            }
+            persist(session);
+        } catch (IOException e) {
+            log.error("创建分片上传临时文件失败: {}", e.getMessage(), e);
+            throw new BusinessException("创建上传会话失败: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        sessions.put(uploadId, session);
+        return toDTO(session);
+    }
+
+    @Override
+    public ChunkUploadDTO writeChunk(Long userId, String uploadId, long offset, InputStream content,
+                                     long contentLength, String checksum) {
+        UploadSession session = requireSession(userId, uploadId);
+
+        if (offset < 0 || offset >= session.totalSize || offset % session.chunkSize != 0) {
+            throw new BusinessException("分片偏移量无效: " + offset);
+        }
+        int chunkIndex = (int) (offset / session.chunkSize);
+        long expectedLength = Math.min(session.chunkSize, session.totalSize - offset);
+        if (contentLength >= 0 && contentLength != expectedLength) {
+            throw new BusinessException("分片长度无效，期望: " + expectedLength + ", 实际: " + contentLength);
+        }
+
+        // 分片数据从网络读取耗时较长，不持锁写入以便同一会话的分片并行上传；
+        // 写入前登记，写入期间会话被完成、取消或清理时丢弃该分片
+        session.lock.lock();
+        try {
+            requireActive(session);
+            session.activeWrites++;
+        } finally {
+            session.lock.unlock();
+        }
+        try {
+            writeChunkData(session, offset, chunkIndex, expectedLength, content, checksum);
+        } catch (RuntimeException e) {
+            session.lock.lock();
+            try {
+                session.activeWrites--;
+                // 失败的写入可能已覆盖该分片的部分数据，之前收到过也要重传
+                if (session.state == SessionState.ACTIVE && session.received.get(chunkIndex)) {
+                    session.received.clear(chunkIndex);
+                    persistQuietly(session);
+                }
+            } finally {
+                session.lock.unlock();
+            }
+            throw e;
+        }
+
+        session.lock.lock();
+        try {
+            session.activeWrites--;
+            if (session.state != SessionState.ACTIVE) {
+                // 写入期间会话已完成、取消或过期，临时文件已不再使用，丢弃该分片
+                log.warn("上传会话已结束，丢弃分片, uploadId: {}, chunk: {}", uploadId, chunkIndex);
+                throw new ResourceNotFoundException("上传会话", "uploadId", uploadId);
+            }
+            session.received.set(chunkIndex);
+            session.expiresAt = expiryFromNow();
+            persistQuietly(session);
+            log.debug("分片写入成功, uploadId: {}, chunk: {}/{}", uploadId, chunkIndex + 1, session.totalChunks);
+            return toDTO(session);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    private void writeChunkData(UploadSession session, long offset, int chunkIndex, long expectedLength,
+                                InputStream content, String checksum) {
+        String uploadId = session.uploadId;
+        CRC32C crc = new CRC32C();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partPath(uploadId), StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[IO_BUFFER_SIZE];
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            int read;
+            // 多读1个字节用于检测超长分片
+            while ((read = content.read(buffer, 0, (int) Math.min(buffer.length, expectedLength - written + 1))) != -1) {
+                if (written + read > expectedLength) {
+                    throw new BusinessException("分片数据超出预期长度: " + expectedLength);
+                }
+                crc.update(buffer, 0, read);
+                byteBuffer.clear();
+                byteBuffer.limit(read);
+                long position = offset + written;
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+                written += read;
+            }
+        } catch (IOException e) {
+            log.error("写入分片失败, uploadId: {}, offset: {}, 原因: {}", uploadId, offset, e.getMessage());
+            throw new BusinessException("写入分片失败: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        if (written != expectedLength) {
+            throw new BusinessException("分片数据不完整，期望: " + expectedLength + ", 实际: " + written);
+        }
+        String actualChecksum = String.format("%08x", crc.getValue());
+        if (checksum != null && !checksum.isBlank() && !actualChecksum.equalsIgnoreCase(checksum.trim())) {
+            log.warn("分片校验失败, uploadId: {}, chunk: {}, 期望: {}, 实际: {}", uploadId, chunkIndex, checksum, actualChecksum);
+            throw new BusinessException("分片校验失败，请重新上传该分片");
+        }
+    }
+
+    @Override
+    public ChunkUploadDTO getStatus(Long userId, String uploadId) {
+        UploadSession session = requireSession(userId, uploadId);
+        session.lock.lock();
+        try {
+            return toDTO(session);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<String, String> complete(Long userId, String uploadId) {
+        UploadSession session = requireSession(userId, uploadId);
+
+        // 持锁只做检查和状态切换，写入存储可能很慢，期间其他请求仍能查询进度
+        session.lock.lock();
+        try {
+            requireActive(session);
+            if (session.received.cardinality() != session.totalChunks) {
+                throw new BusinessException("仍有分片未上传，下一个偏移量: " + session.nextOffset());
+            }
+            if (session.activeWrites > 0) {
+                // 重传的分片正在覆盖临时文件，此时合并可能读到一半新一半旧的数据
+                throw new BusinessException("仍有分片正在写入，请稍后重试", HttpStatus.CONFLICT);
+            }
+            session.state = SessionState.COMPLETING;
+        } finally {
+            session.lock.unlock();
+        }
+
+        String dateFolder = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        String newFilename = UUID.randomUUID().toString() + resolveExtension(session.filename, session.contentType);
+        String key = session.type + "/" + dateFolder + "/" + newFilename;
+        Path partFile = partPath(uploadId);
+        try {
+            try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            blobStore.putFile(key, partFile, session.contentType);
+        } catch (IOException | RuntimeException e) {
+            log.error("合并分片文件失败, uploadId: {}, 原因: {}", uploadId, e.getMessage(), e);
+            session.lock.lock();
+            try {
+                // 临时文件仍在，允许客户端重试完成
+                session.state = SessionState.ACTIVE;
+            } finally {
+                session.lock.unlock();
+            }
+            throw new BusinessException("完成上传失败: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        session.lock.lock();
+        try {
+            session.state = SessionState.CLOSED;
+            sessions.remove(uploadId);
+        } finally {
+            session.lock.unlock();
+        }
+        try {
+            Files.deleteIfExists(metaPath(uploadId));
+        } catch (IOException e) {
+            log.warn("删除分片上传会话文件失败, uploadId: {}, 原因: {}", uploadId, e.getMessage());
+        }
+        log.info("分片上传完成, uploadId: {}, 文件: {}", uploadId, key);
+
+        Map<String, String> result = new HashMap<>();
+        result.put("url", fileAccessUrl + "/" + key);
+        result.put("filename", newFilename);
+        return result;
+    }
+
+    @Override
+    public void abort(Long userId, String uploadId) {
+        UploadSession session = requireSession(userId, uploadId);
+        session.lock.lock();
+        try {
+            requireActive(session);
+            session.state = SessionState.CLOSED;
+            sessions.remove(uploadId);
+            deleteSessionFiles(uploadId);
+        } finally {
+            session.lock.unlock();
+        }
+        log.info("分片上传已取消, uploadId: {}", uploadId);
+    }
+
+    /**
+     * 定时清理过期的上传会话
+     */
+    @Scheduled(fixedDelayString = "${file.upload.chunk.cleanup-interval-ms:3600000}")
+    public void purgeExpiredSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        for (UploadSession session : new ArrayList<>(sessions.values())) {
+            session.lock.lock();
+            try {
+                if (session.expiresAt.isBefore(now) && session.state == SessionState.ACTIVE
+                        && session.activeWrites == 0) {
+                    session.state = SessionState.CLOSED;
+                    sessions.remove(session.uploadId);
+                    deleteSessionFiles(session.uploadId);
+                    log.info("清理过期分片上传会话, uploadId: {}", session.uploadId);
+                }
+            } finally {
+                session.lock.unlock();
+            }
+        }
+    }
+
+    private UploadSession requireSession(Long userId, String uploadId) {
+        UploadSession session = uploadId != null && UPLOAD_ID_PATTERN.matcher(uploadId).matches()
+                ? sessions.get(uploadId) : null;
+        if (session == null) {
+            throw new ResourceNotFoundException("上传会话", "uploadId", uploadId);
+        }
+        if (userId == null || session.ownerId != userId) {
+            throw new BusinessException("上传会话不属于当前用户: " + uploadId, HttpStatus.FORBIDDEN);
+        }
+        return session;
+    }
+
+    /**
+     * 需持有会话锁调用
+     */
+    private static void requireActive(UploadSession session) {
+        if (session.state == SessionState.COMPLETING) {
+            throw new BusinessException("上传正在完成，请稍后查询结果", HttpStatus.CONFLICT);
+        }
+        if (session.state == SessionState.CLOSED) {
+            throw new ResourceNotFoundException("上传会话", "uploadId", session.uploadId);
+        }
+    }
+
+    private void persist(UploadSession session) throws IOException {
+        Path metaFile = metaPath(session.uploadId);
+        Path tmpFile = chunkDir.resolve(session.uploadId + META_SUFFIX + ".tmp");
+        Files.writeString(tmpFile, session.toJson().toString());
+        Files.move(tmpFile, metaFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void persistQuietly(UploadSession session) {
+        try {
+            persist(session);
+        } catch (IOException e) {
+            log.warn("保存分片上传会话失败, uploadId: {}, 原因: {}", session.uploadId, e.getMessage());
+        }
+    }
+
+    private void deleteSessionFiles(String uploadId) {
+        try {
+            Files.deleteIfExists(partPath(uploadId));
+            Files.deleteIfExists(metaPath(uploadId));
+        } catch (IOException e) {
+            log.warn("删除分片上传临时文件失败, uploadId: {}, 原因: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private Path partPath(String uploadId) {
+        return chunkDir.resolve(uploadId + PART_SUFFIX);
+    }
+
+    private Path metaPath(String uploadId) {
+        return chunkDir.resolve(uploadId + META_SUFFIX);
+    }
+
+    private LocalDateTime expiryFromNow() {
+        return LocalDateTime.now().plusHours(sessionTtlHours);
+    }
+
+    private String resolveExtension(String filename, String contentType) {
+        if (filename != null && filename.contains(".")) {
+            return filename.substring(filename.lastIndexOf(".")).toLowerCase();
+        }
+        if (contentType.contains("jpeg") || contentType.contains("jpg")) {
+            return ".jpg";
+        } else if (contentType.contains("png")) {
+            return ".png";
+        } else if (contentType.contains("gif")) {
+            return ".gif";
+        } else if (contentType.contains("webp")) {
+            return ".webp";
+        } else if (contentType.contains("mp4")) {
+            return ".mp4";
+        } else if (contentType.contains("quicktime")) {
+            return ".mov";
+        }
+        return ".bin";
+    }
+
+    private ChunkUploadDTO toDTO(UploadSession session) {
+        List<Integer> receivedChunks = new ArrayList<>(session.received.cardinality());
+        for (int i = session.received.nextSetBit(0); i >= 0; i = session.received.nextSetBit(i + 1)) {
+            receivedChunks.add(i);
+        }
+        long receivedBytes = (long) receivedChunks.size() * session.chunkSize;
+        if (session.received.get(session.totalChunks - 1)) {
+            // 最后一片可能不足一个分片大小
+            receivedBytes -= (long) session.totalChunks * session.chunkSize - session.totalSize;
+        }
+        return ChunkUploadDTO.builder()
+                .uploadId(session.uploadId)
+                .type(session.type)
+                .filename(session.filename)
+                .contentType(session.contentType)
+                .totalSize(session.totalSize)
+                .chunkSize(session.chunkSize)
+                .totalChunks(session.totalChunks)
+                .receivedChunks(receivedChunks)
+                .receivedBytes(receivedBytes)
+                .nextOffset(session.nextOffset())
+                .completed(receivedChunks.size() == session.totalChunks)
+                .expiresAt(session.expiresAt)
+                .build();
+    }
+
+    /**
+     * 会话状态
+     */
+    private enum SessionState {
+        /**
+         * 接收分片中
+         */
+        ACTIVE,
+        /**
+         * 正在写入存储，不再接收分片
+         */
+        COMPLETING,
+        /**
+         * 已完成、取消或过期清理，之后写入的分片一律丢弃
+         */
+        CLOSED
+    }
+
+    /**
+     * 分片上传会话，已接收分片以位图记录
+     */
+    private static final class UploadSession {
+        private final String uploadId;
+        /**
+         * 创建会话的用户ID，旧版本落盘的会话没有该字段，记为0，只能等待过期清理
+         */
+        private final long ownerId;
+        private final String type;
+        private final String filename;
+        private final String contentType;
+        private final long totalSize;
+        private final int chunkSize;
+        private final int totalChunks;
+        private final BitSet received;
+        private LocalDateTime expiresAt;
+        /**
+         * 正在写入临时文件的分片数
+         */
+        private int activeWrites;
+        private SessionState state = SessionState.ACTIVE;
+        /**
+         * 保护received、expiresAt、activeWrites和state；持锁期间会写会话元数据文件，使用ReentrantLock而不是synchronized，避免虚拟线程在I/O期间固定载体线程
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private UploadSession(String uploadId, long ownerId, String type, String filename, String contentType,
+                              long totalSize, int chunkSize, int totalChunks, BitSet received,
+                              LocalDateTime expiresAt) {
+            this.uploadId = uploadId;
+            this.ownerId = ownerId;
+            this.type = type;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.totalChunks = totalChunks;
+            this.received = received;
+            this.expiresAt = expiresAt;
+        }
+
+        private long nextOffset() {
+            int missing = received.nextClearBit(0);
+            return missing >= totalChunks ? totalSize : (long) missing * chunkSize;
+        }
+
+        private JSONObject toJson() {
+            JSONObject json = new JSONObject();
+            json.put("uploadId", uploadId);
+            json.put("ownerId", ownerId);
+            json.put("type", type);
+            json.put("filename", filename != null ? filename : "");
+            json.put("contentType", contentType);
+            json.put("totalSize", totalSize);
+            json.put("chunkSize", chunkSize);
+            json.put("totalChunks", totalChunks);
+            json.put("received", Base64.getEncoder().encodeToString(received.toByteArray()));
+            json.put("expiresAt", expiresAt.toString());
+            return json;
+        }
+
+        private static UploadSession fromJson(JSONObject json) {
+            return new UploadSession(
+                    json.getString("uploadId"),
+                    json.optLong("ownerId", 0),
+                    json.getString("type"),
+                    json.optString("filename", null),
+                    json.getString("contentType"),
+                    json.getLong("totalSize"),
+                    json.getInt("chunkSize"),
+                    json.getInt("totalChunks"),
+                    BitSet.valueOf(Base64.getDecoder().decode(json.getString("received"))),
+                    LocalDateTime.parse(json.getString("expiresAt")));
+        }
+    }
+}
@@ -11,13 +11,21 @@ import com.dreamplanner.entity.Resource;
 import com.dreamplanner.entity.Tag;
 import com.dreamplanner.entity.Task;
 import com.dreamplanner.entity.User;
+import com.dreamplanner.event.DreamChangedEvent;
+import com.dreamplanner.event.DreamDeletedEvent;
 import com.dreamplanner.repository.DreamRepository;
 import com.dreamplanner.repository.TaskRepository;
 import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.search.SearchBackend;
+import com.dreamplanner.search.SearchHighlighter;
+import com.dreamplanner.search.SearchHit;
 import com.dreamplanner.service.DreamService;
+import com.dreamplanner.service.TaskHierarchyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,7 +34,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +54,10 @@ public class DreamServiceImpl implements DreamService {
     private final DreamRepository dreamRepository;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskHierarchyService taskHierarchyService;
+    private final SearchBackend searchBackend;
+    private final SearchHighlighter searchHighlighter;
 
     /**
      * 根据梦想ID获取梦想
@@ -214,6 +230,7 @@ public class DreamServiceImpl implements DreamService {
         
         // 保存梦想
         Dream savedDream = dreamRepository.save(dream);
+        eventPublisher.publishEvent(new DreamChangedEvent(savedDream.getId(), user.getId()));
         
         // 返回DTO
         return convertToDTO(savedDream);
@@ -248,6 +265,7 @@ public class DreamServiceImpl implements DreamService {
         
         // 保存梦想
         Dream updatedDream = dreamRepository.save(dream);
+        eventPublisher.publishEvent(new DreamChangedEvent(id, dream.getUser().getId()));
         
         // 返回DTO
         return convertToDTO(updatedDream);
@@ -264,12 +282,14 @@ public class DreamServiceImpl implements DreamService {
         log.info("删除梦想, id: {}", id);
         
         // 检查梦想是否存在
-        if (!dreamRepository.existsById(id)) {
-            throw new RuntimeException("梦想不存在: " + id);
-        }
+        Dream dream = dreamRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("梦想不存在: " + id));
         
-        // 删除梦想
+        // 删除梦想，任务随之级联删除，闭包行需在任务删除前按梦想清理
+        taskHierarchyService.onDreamDeleted(id);
         dreamRepository.deleteById(id);
+        // 级联删除的任务不会逐个发布任务变更事件，由梦想删除事件统一通知
+        eventPublisher.publishEvent(new DreamDeletedEvent(id, dream.getUser().getId()));
     }
 
     /**
@@ -288,6 +308,7 @@ public class DreamServiceImpl implements DreamService {
 
     /**
      * 搜索梦想
+     * 搜索后端按相关度返回一页命中ID，再一次查询加载梦想，结果带标题和描述的高亮片段
      *
      * @param userId   用户ID
      * @param keyword  关键词
@@ -299,8 +320,26 @@ public class DreamServiceImpl implements DreamService {
     public Page<DreamDTO> searchDreams(Long userId, String keyword, Pageable pageable) {
         log.info("搜索梦想, userId: {}, keyword: {}, page: {}, size: {}", 
                 userId, keyword, pageable.getPageNumber(), pageable.getPageSize());
-        return dreamRepository.searchByKeyword(userId, keyword, pageable)
-                .map(this::convertToDTO);
+        Page<SearchHit> hits = searchBackend.searchDreams(userId, keyword, pageable);
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), hits.getPageable(), hits.getTotalElements());
+        }
+        Map<Long, Dream> dreams = dreamRepository.findAllById(hits.map(SearchHit::getId).getContent()).stream()
+                .collect(Collectors.toMap(Dream::getId, Function.identity()));
+        // 命中与加载之间被删除的梦想直接跳过
+        List<DreamDTO> content = hits.stream()
+                .map(hit -> dreams.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .map(dream -> {
+                    DreamDTO dto = convertToDTO(dream);
+                    Map<String, String> fields = new LinkedHashMap<>();
+                    fields.put("title", dream.getTitle());
+                    fields.put("description", dream.getDescription());
+                    dto.setHighlights(searchHighlighter.highlight(keyword, fields));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, hits.getPageable(), hits.getTotalElements());
     }
 
     /**
@@ -0,0 +1,111 @@
+package com.dreamplanner.service.impl;
+
+import com.dreamplanner.dto.LeaderboardDTO;
+import com.dreamplanner.dto.LeaderboardEntryDTO;
+import com.dreamplanner.entity.User;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.leaderboard.LeaderboardStore;
+import com.dreamplanner.leaderboard.LeaderboardType;
+import com.dreamplanner.leaderboard.RankedSet;
+import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 排行榜服务实现类
+ * 名次和分数直接从内存榜单读取，只为本段用户查询一次昵称和头像
+ *
+ * @author DreamPlanner
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_RADIUS = 50;
+
+    private final LeaderboardStore leaderboardStore;
+    private final UserRepository userRepository;
+
+    /**
+     * 获取排行榜从某个位置开始的一段
+     *
+     * @param type     排行榜类型
+     * @param category 梦想分类，按分类分榜时必填
+     * @param offset   跳过的名次数
+     * @param limit    条数
+     * @return 排行榜
+     */
+    @Override
+    public LeaderboardDTO getTop(LeaderboardType type, String category, int offset, int limit) {
+        log.info("获取排行榜, type: {}, category: {}, offset: {}, limit: {}", type, category, offset, limit);
+        RankedSet board = board(type, category);
+        List<RankedSet.Entry> entries = board == null ? List.of()
+                : board.range(Math.max(0, offset) + 1, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return toDTO(type, category, board, entries, null);
+    }
+
+    /**
+     * 获取用户在排行榜上的名次及前后若干名
+     *
+     * @param type     排行榜类型
+     * @param category 梦想分类，按分类分榜时必填
+     * @param userId   用户ID
+     * @param radius   前后各取的名次数
+     * @return 排行榜，用户不在榜上时只返回总人数
+     */
+    @Override
+    public LeaderboardDTO getAround(LeaderboardType type, String category, Long userId, int radius) {
+        log.info("获取用户排名, type: {}, category: {}, userId: {}, radius: {}", type, category, userId, radius);
+        RankedSet board = board(type, category);
+        RankedSet.Entry me = board == null ? null : board.get(userId);
+        if (me == null) {
+            return toDTO(type, category, board, List.of(), null);
+        }
+        int span = Math.max(0, Math.min(radius, MAX_RADIUS));
+        int fromRank = Math.max(1, me.rank() - span);
+        List<RankedSet.Entry> entries = board.range(fromRank, me.rank() - fromRank + span + 1);
+        return toDTO(type, category, board, entries, me);
+    }
+
+    private RankedSet board(LeaderboardType type, String category) {
+        if (type.isPerCategory() && (category == null || category.isBlank())) {
+            throw new BusinessException("该排行榜按梦想分类分榜，需要指定分类");
+        }
+        return leaderboardStore.get(type, category);
+    }
+
+    private LeaderboardDTO toDTO(LeaderboardType type, String category, RankedSet board,
+                                 List<RankedSet.Entry> entries, RankedSet.Entry me) {
+        Map<Long, User> users = entries.isEmpty() ? Map.of()
+                : userRepository.findAllById(entries.stream().map(RankedSet.Entry::userId).toList()).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+        return LeaderboardDTO.builder()
+                .type(type)
+                .category(type.isPerCategory() ? category : null)
+                .weekStart(type == LeaderboardType.WEEKLY_ACTIVE ? leaderboardStore.getWeekStart() : null)
+                .total(board == null ? 0 : board.size())
+                .entries(entries.stream().map(entry -> toEntry(entry, users)).toList())
+                .me(me == null ? null : toEntry(me, users))
+                .build();
+    }
+
+    private static LeaderboardEntryDTO toEntry(RankedSet.Entry entry, Map<Long, User> users) {
+        User user = users.get(entry.userId());
+        return LeaderboardEntryDTO.builder()
+                .rank(entry.rank())
+                .userId(entry.userId())
+                .nickname(user != null ? user.getNickname() : null)
+                .avatar(user != null ? user.getAvatar() : null)
+                .score(entry.score())
+                .build();
+    }
+}
@@ -0,0 +1,373 @@
+package com.dreamplanner.service.impl;
+
+import com.dreamplanner.dto.NotificationDTO;
+import com.dreamplanner.dto.NotificationPageDTO;
+import com.dreamplanner.dto.NotificationUnreadDTO;
+import com.dreamplanner.entity.Notification;
+import com.dreamplanner.entity.NotificationActor;
+import com.dreamplanner.entity.User;
+import com.dreamplanner.event.NotificationEvent;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.notification.CommentAuthor;
+import com.dreamplanner.notification.NotificationCursor;
+import com.dreamplanner.notification.NotificationType;
+import com.dreamplanner.repository.CommentRepository;
+import com.dreamplanner.repository.NotificationActorRepository;
+import com.dreamplanner.repository.NotificationRepository;
+import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 通知服务实现类
+ * 投递时先在内存中按(接收者, 类型, 目标)合并一批事件，再一次查询锁定可聚合的未读通知，
+ * 已有的补充发起用户，没有的批量插入。不同的发起用户记录在notification_actor中，聚合人数取其行数：
+ * 同一用户取消后再次点赞不会重复计数，取消点赞、取消关注会从未读通知中移除该用户，移除到没有人时删除通知。
+ * 收件箱按(updated_at, id)键集分页，未读数只扫描(recipient_id, is_read)索引前缀
+ *
+ * @author DreamPlanner
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationServiceImpl implements NotificationService {
+
+    private static final int MAX_INBOX_PAGE_SIZE = 50;
+
+    /**
+     * 评论内容摘要的最大长度
+     */
+    private static final int CONTENT_PREVIEW_LENGTH = 100;
+
+    /**
+     * 关注通知没有目标，聚合目标记为0
+     */
+    private static final long NO_TARGET = 0L;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationActorRepository notificationActorRepository;
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * 在一个事务中投递一批通知事件
+     *
+     * @param events 通知事件
+     */
+    @Override
+    @Transactional
+    public void deliver(List<NotificationEvent> events) {
+        Map<Key, Pending> pending = aggregate(events);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Set<Long> recipientIds = new LinkedHashSet<>();
+        Set<Long> targetIds = new LinkedHashSet<>();
+        pending.keySet().forEach(key -> {
+            recipientIds.add(key.recipientId());
+            targetIds.add(key.targetId());
+        });
+        Map<Key, Notification> unread = new HashMap<>();
+        for (Notification notification : notificationRepository.findUnreadForUpdate(recipientIds, targetIds)) {
+            unread.putIfAbsent(new Key(notification.getRecipientId(), notification.getType(),
+                    notification.getTargetId()), notification);
+        }
+
+        Map<Long, Map<Long, NotificationActor>> actorsByNotification = new HashMap<>();
+        List<Long> matchedIds = pending.keySet().stream()
+                .map(unread::get)
+                .filter(Objects::nonNull)
+                .map(Notification::getId)
+                .toList();
+        if (!matchedIds.isEmpty()) {
+            for (NotificationActor actor : notificationActorRepository.findByNotificationIdIn(matchedIds)) {
+                actorsByNotification.computeIfAbsent(actor.getNotificationId(), id -> new LinkedHashMap<>())
+                        .put(actor.getActorId(), actor);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> created = new ArrayList<>();
+        List<Set<Long>> createdActorIds = new ArrayList<>();
+        List<NotificationActor> addedActors = new ArrayList<>();
+        List<NotificationActor> removedActors = new ArrayList<>();
+        List<Notification> emptied = new ArrayList<>();
+        pending.forEach((key, value) -> {
+            Notification notification = unread.get(key);
+            if (notification == null) {
+                // 只有撤回时没有可撤回的未读通知
+                if (value.actorIds.isEmpty()) {
+                    return;
+                }
+                created.add(Notification.builder()
+                        .recipientId(key.recipientId())
+                        .type(key.type())
+                        .targetId(key.targetId())
+                        .actorCount(value.actorIds.size())
+                        .lastActorId(value.lastActorId())
+                        .content(value.content)
+                        .read(false)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build());
+                createdActorIds.add(value.actorIds);
+                return;
+            }
+            Map<Long, NotificationActor> actors = actorsByNotification.getOrDefault(notification.getId(),
+                    new LinkedHashMap<>());
+            for (Long actorId : value.retractedIds) {
+                NotificationActor removed = actors.remove(actorId);
+                if (removed != null) {
+                    removedActors.add(removed);
+                }
+            }
+            for (Long actorId : value.actorIds) {
+                if (!actors.containsKey(actorId)) {
+                    NotificationActor added = new NotificationActor(notification.getId(), actorId);
+                    actors.put(actorId, added);
+                    addedActors.add(added);
+                }
+            }
+            if (actors.isEmpty()) {
+                emptied.add(notification);
+                return;
+            }
+            notification.setActorCount(actors.size());
+            if (!value.actorIds.isEmpty()) {
+                notification.setLastActorId(value.lastActorId());
+                if (value.content != null) {
+                    notification.setContent(value.content);
+                }
+                notification.setUpdatedAt(now);
+            } else if (!actors.containsKey(notification.getLastActorId())) {
+                // 撤回的是最近一人，改为剩下的人中的一个，不改变收件箱中的位置
+                notification.setLastActorId(actors.keySet().iterator().next());
+            }
+        });
+        notificationRepository.saveAll(created);
+        for (int i = 0; i < created.size(); i++) {
+            Long notificationId = created.get(i).getId();
+            createdActorIds.get(i).forEach(actorId -> addedActors.add(new NotificationActor(notificationId, actorId)));
+        }
+        notificationActorRepository.saveAll(addedActors);
+        notificationActorRepository.deleteAll(removedActors);
+        notificationRepository.deleteAll(emptied);
+        log.debug("投递通知, 事件数: {}, 新建: {}, 聚合: {}, 删除: {}", events.size(), created.size(),
+                pending.size() - created.size() - emptied.size(), emptied.size());
+    }
+
+    /**
+     * 分页获取当前用户的收件箱
+     *
+     * @param cursor 上一页返回的nextCursor，首页为null
+     * @param size   每页条数
+     * @return 收件箱的一页
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationPageDTO getInbox(String cursor, int size) {
+        User user = requireCurrentUser();
+        log.info("获取通知收件箱, userId: {}, cursor: {}, size: {}", user.getId(), cursor, size);
+        int limit = Math.max(1, Math.min(size, MAX_INBOX_PAGE_SIZE));
+        // 多取一条判断是否还有下一页
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Notification> notifications;
+        if (StringUtils.hasText(cursor)) {
+            NotificationCursor before = NotificationCursor.decode(cursor);
+            notifications = notificationRepository.findInboxBefore(user.getId(), before.updatedAt(), before.id(), page);
+        } else {
+            notifications = notificationRepository.findInbox(user.getId(), page);
+        }
+
+        boolean hasMore = notifications.size() > limit;
+        if (hasMore) {
+            notifications = notifications.subList(0, limit);
+        }
+        Map<Long, User> actors = notifications.isEmpty() ? Map.of()
+                : userRepository.findAllById(notifications.stream()
+                                .map(Notification::getLastActorId)
+                                .collect(Collectors.toSet())).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+        return NotificationPageDTO.builder()
+                .items(notifications.stream()
+                        .map(notification -> convertToDTO(notification, actors.get(notification.getLastActorId())))
+                        .collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? NotificationCursor.of(notifications.get(notifications.size() - 1)).encode() : null)
+                .build();
+    }
+
+    /**
+     * 获取当前用户的未读通知数
+     *
+     * @return 未读通知数
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationUnreadDTO getUnreadCount() {
+        User user = requireCurrentUser();
+        return NotificationUnreadDTO.builder()
+                .unreadCount(notificationRepository.countByRecipientIdAndReadFalse(user.getId()))
+                .build();
+    }
+
+    /**
+     * 标记当前用户的一条通知为已读
+     *
+     * @param id 通知ID
+     */
+    @Override
+    @Transactional
+    public void markRead(Long id) {
+        User user = requireCurrentUser();
+        log.info("标记通知已读, userId: {}, id: {}", user.getId(), id);
+        if (notificationRepository.markRead(user.getId(), id) == 0) {
+            throw new BusinessException("通知不存在: " + id, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * 标记当前用户的全部通知为已读
+     *
+     * @return 标记的通知数
+     */
+    @Override
+    @Transactional
+    public int markAllRead() {
+        User user = requireCurrentUser();
+        int updated = notificationRepository.markAllRead(user.getId());
+        log.info("标记全部通知已读, userId: {}, 通知数: {}", user.getId(), updated);
+        return updated;
+    }
+
+    /**
+     * 展开回复、去掉发给自己的通知，再按(接收者, 类型, 目标)合并
+     */
+    private Map<Key, Pending> aggregate(List<NotificationEvent> events) {
+        Set<Long> parentIds = events.stream()
+                .map(NotificationEvent::parentCommentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Long> parentAuthors = parentIds.isEmpty() ? Map.of()
+                : commentRepository.findAuthors(parentIds).stream()
+                        .collect(Collectors.toMap(CommentAuthor::commentId, CommentAuthor::userId));
+
+        Map<Key, Pending> pending = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            long targetId = event.postId() != null ? event.postId() : NO_TARGET;
+            if (event.type() != NotificationType.COMMENT) {
+                add(pending, event.recipientId(), event.type(), targetId, event);
+                continue;
+            }
+            // 回复通知父评论作者；动态作者就是父评论作者时只收到回复通知
+            Long replyTo = event.parentCommentId() != null ? parentAuthors.get(event.parentCommentId()) : null;
+            if (replyTo != null) {
+                add(pending, replyTo, NotificationType.REPLY, targetId, event);
+            }
+            if (!event.recipientId().equals(replyTo)) {
+                add(pending, event.recipientId(), NotificationType.COMMENT, targetId, event);
+            }
+        }
+        return pending;
+    }
+
+    private static void add(Map<Key, Pending> pending, Long recipientId, NotificationType type, long targetId,
+                            NotificationEvent event) {
+        if (recipientId == null || recipientId.equals(event.actorId())) {
+            return;
+        }
+        Pending value = pending.computeIfAbsent(new Key(recipientId, type.getCode(), targetId), key -> new Pending());
+        // 重新插入使最近的发起用户排在最后；同一批中先撤回后再次发起以最后一次为准
+        value.actorIds.remove(event.actorId());
+        if (event.retracted()) {
+            value.retractedIds.add(event.actorId());
+            return;
+        }
+        value.retractedIds.remove(event.actorId());
+        value.actorIds.add(event.actorId());
+        if (event.content() != null) {
+            value.content = event.content().length() > CONTENT_PREVIEW_LENGTH
+                    ? event.content().substring(0, CONTENT_PREVIEW_LENGTH)
+                    : event.content();
+        }
+    }
+
+    private NotificationDTO convertToDTO(Notification notification, User actor) {
+        NotificationType type = NotificationType.fromCode(notification.getType());
+        String nickname = actor != null ? actor.getNickname() : null;
+        String message = (nickname != null ? nickname : "有人")
+                + (notification.getActorCount() > 1 ? "等" + notification.getActorCount() + "人" : "")
+                + type.getAction();
+        return NotificationDTO.builder()
+                .id(notification.getId())
+                .type(type)
+                .postId(type == NotificationType.FOLLOW ? null : notification.getTargetId())
+                .actorCount(notification.getActorCount())
+                .lastActorId(notification.getLastActorId())
+                .lastActorNickname(nickname)
+                .lastActorAvatar(actor != null ? actor.getAvatar() : null)
+                .message(message)
+                .content(notification.getContent())
+                .read(notification.isRead())
+                .updatedAt(notification.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * 获取当前登录用户，收件箱只能查看自己的
+     */
+    private User requireCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new BusinessException("用户未登录", HttpStatus.UNAUTHORIZED);
+        }
+        return userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new BusinessException("用户未登录", HttpStatus.UNAUTHORIZED));
+    }
+
+    /**
+     * 聚合键
+     */
+    private record Key(Long recipientId, Integer type, Long targetId) {
+    }
+
+    /**
+     * 一批事件中同一聚合键的合并结果
+     */
+    private static final class Pending {
+
+        private final Set<Long> actorIds = new LinkedHashSet<>();
+        private final Set<Long> retractedIds = new LinkedHashSet<>();
+        private String content;
+
+        private Long lastActorId() {
+            Long last = null;
+            for (Long actorId : actorIds) {
+                last = actorId;
+            }
+            return last;
+        }
+    }
+}
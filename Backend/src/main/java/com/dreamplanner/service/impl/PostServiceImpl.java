@@ -3,17 +3,26 @@ package com.dreamplanner.service.impl;
 import com.dreamplanner.dto.CommentDTO;
 import com.dreamplanner.dto.PostDTO;
 import com.dreamplanner.entity.*;
+import com.dreamplanner.event.NotificationEvent;
+import com.dreamplanner.event.PostChangedEvent;
+import com.dreamplanner.exception.BusinessException;
 import com.dreamplanner.exception.ResourceNotFoundException;
 import com.dreamplanner.repository.CommentRepository;
 import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.FollowRepository;
 import com.dreamplanner.repository.LikeRepository;
 import com.dreamplanner.repository.PostRepository;
 import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.search.SearchHighlighter;
+import com.dreamplanner.search.post.CjkBigramTokenizer;
+import com.dreamplanner.search.post.PostSearchCursor;
+import com.dreamplanner.search.post.PostSearchIndex;
 import com.dreamplanner.service.PostService;
 import com.dreamplanner.vo.PostVO;
 import com.dreamplanner.vo.UserVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,13 +31,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -41,11 +56,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PostServiceImpl implements PostService {
 
+    /**
+     * 搜索每页最多条数
+     */
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final DreamRepository dreamRepository;
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
+    private final FollowRepository followRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostSearchIndex postSearchIndex;
+    private final SearchHighlighter searchHighlighter;
 
     /**
      * 获取当前登录用户
@@ -232,6 +256,7 @@ public class PostServiceImpl implements PostService {
         post.setCommentCount(0);
         
         Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId()));
         return convertToDTO(savedPost);
     }
 
@@ -270,6 +295,7 @@ public class PostServiceImpl implements PostService {
         }
         
         Post updatedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(updatedPost.getId()));
         return convertToDTO(updatedPost);
     }
 
@@ -317,6 +343,7 @@ public class PostServiceImpl implements PostService {
         // 逻辑删除
         post.setStatus(0);
         postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(id));
         
         log.info("用户[{}]成功删除动态，ID: {}", currentUser.getUsername(), id);
     }
@@ -349,6 +376,7 @@ public class PostServiceImpl implements PostService {
         // 更新动态点赞数
         post.setLikeCount(post.getLikeCount() + 1);
         postRepository.save(post);
+        eventPublisher.publishEvent(NotificationEvent.liked(currentUser.getId(), post.getUser().getId(), id));
     }
 
     @Override
@@ -375,6 +403,7 @@ public class PostServiceImpl implements PostService {
         // 更新动态点赞数
         post.setLikeCount(Math.max(0, post.getLikeCount() - 1));
         postRepository.save(post);
+        eventPublisher.publishEvent(NotificationEvent.unliked(currentUser.getId(), post.getUser().getId(), id));
     }
 
     @Override
@@ -435,6 +464,8 @@ public class PostServiceImpl implements PostService {
         post.setCommentCount(post.getCommentCount() + 1);
         postRepository.save(post);
         log.info("更新帖子评论数成功, 当前评论数: {}", post.getCommentCount());
+        eventPublisher.publishEvent(NotificationEvent.commented(currentUser.getId(), post.getUser().getId(), id,
+                savedComment.getParentId(), savedComment.getContent()));
         
         // 8. 返回评论DTO
         return convertCommentToDTO(savedComment);
@@ -463,7 +494,9 @@ public class PostServiceImpl implements PostService {
     @Override
     @Transactional
     public Post createPost(Post post) {
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId()));
+        return savedPost;
     }
 
     @Override
@@ -626,6 +659,85 @@ public class PostServiceImpl implements PostService {
         }
         
         // 获取用于检查点赞和关注状态的用户
+        User statusCheckUser = resolveStatusCheckUser(currentUserId);
+        
+        // 转换为视图对象
+        List<PostVO> postVOs = toPostVOs(postPage.getContent(), statusCheckUser);
+        
+        // 构建返回结果
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("posts", postVOs);
+        result.put("currentPage", postPage.getNumber());
+        result.put("totalItems", postPage.getTotalElements());
+        result.put("totalPages", postPage.getTotalPages());
+        
+        log.info("返回帖子列表数据：{} 条记录", postVOs.size());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> searchPosts(String keyword, String category, Long authorId, String cursor,
+                                           int size, Long currentUserId) {
+        if (!StringUtils.hasText(keyword)) {
+            throw new BusinessException("搜索关键词不能为空");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        PostSearchIndex.Hit after = StringUtils.hasText(cursor) ? PostSearchCursor.decode(cursor) : null;
+        String categoryFilter = StringUtils.hasText(category) ? category : null;
+
+        // 多取一条判断是否还有下一页
+        List<PostSearchIndex.Hit> hits = postSearchIndex.search(keyword, categoryFilter, authorId, after, limit + 1);
+        boolean hasMore = hits.size() > limit;
+        if (hasMore) {
+            hits = hits.subList(0, limit);
+        }
+
+        Map<Long, Post> posts = hits.isEmpty() ? Map.of() : postRepository.findWithUserAndDreamByIdIn(
+                        hits.stream().map(PostSearchIndex.Hit::postId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        User statusCheckUser = hits.isEmpty() ? null : resolveStatusCheckUser(currentUserId);
+        String highlightTerms = String.join(" ", CjkBigramTokenizer.queryTokens(keyword));
+
+        List<Post> matched = new ArrayList<>(hits.size());
+        for (PostSearchIndex.Hit hit : hits) {
+            // 索引与数据库之间可能有短暂延迟，以数据库为准过滤已删除或已不满足条件的帖子
+            Post post = posts.get(hit.postId());
+            if (post == null || !Integer.valueOf(1).equals(post.getStatus())
+                    || (authorId != null && !authorId.equals(post.getUser().getId()))
+                    || (categoryFilter != null && (post.getDream() == null
+                        || !categoryFilter.equals(post.getDream().getCategory())))) {
+                continue;
+            }
+            matched.add(post);
+        }
+
+        List<PostVO> postVOs = toPostVOs(matched, statusCheckUser);
+        for (int i = 0; i < matched.size(); i++) {
+            Post post = matched.get(i);
+            PostVO vo = postVOs.get(i);
+            Map<String, String> fields = new LinkedHashMap<>();
+            fields.put("title", post.getTitle());
+            fields.put("content", post.getContent());
+            vo.setHighlights(searchHighlighter.highlight(highlightTerms, fields));
+        }
+
+        // 游标取索引中的最后一条命中，被过滤掉的帖子不影响翻页位置
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("posts", postVOs);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore ? PostSearchCursor.encode(hits.get(hits.size() - 1)) : null);
+        return result;
+    }
+
+    /**
+     * 获取用于检查点赞和关注状态的用户，优先使用请求参数中的用户ID，其次是当前登录用户
+     *
+     * @param currentUserId 请求参数中的用户ID，可为null
+     * @return 用户，均不存在时为null
+     */
+    private User resolveStatusCheckUser(Long currentUserId) {
         User statusCheckUser = null;
         
         // 如果提供了currentUserId，根据它获取用户
@@ -637,98 +749,120 @@ public class PostServiceImpl implements PostService {
         if (statusCheckUser == null) {
             statusCheckUser = getCurrentUser();
         }
+        return statusCheckUser;
+    }
+
+    /**
+     * 批量转换为帖子视图对象，整页的点赞状态和对本页作者的关注状态各用一次查询取出
+     *
+     * @param posts 帖子
+     * @param viewer 用于检查点赞和关注状态的用户，可为null
+     * @return 帖子视图对象，顺序与帖子一致
+     */
+    private List<PostVO> toPostVOs(List<Post> posts, User viewer) {
+        Set<Long> likedPostIds = Set.of();
+        Set<Long> followedUserIds = Set.of();
+        if (viewer != null && viewer.getId() != null && !posts.isEmpty()) {
+            likedPostIds = new HashSet<>(likeRepository.findLikedPostIds(viewer.getId(),
+                    posts.stream().map(Post::getId).collect(Collectors.toList())));
+            Set<Long> authorIds = posts.stream()
+                    .map(Post::getUser)
+                    .filter(Objects::nonNull)
+                    .map(User::getId)
+                    .filter(authorId -> !viewer.getId().equals(authorId))
+                    .collect(Collectors.toSet());
+            if (!authorIds.isEmpty()) {
+                followedUserIds = new HashSet<>(followRepository.findFollowedIdsIn(viewer.getId(), authorIds));
+            }
+        }
+        List<PostVO> postVOs = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            postVOs.add(toPostVO(post, viewer, likedPostIds, followedUserIds));
+        }
+        return postVOs;
+    }
+
+    /**
+     * 转换为帖子视图对象
+     *
+     * @param post 帖子
+     * @param viewer 用于检查点赞和关注状态的用户，可为null
+     * @param likedPostIds 当前用户已点赞的帖子ID
+     * @param followedUserIds 当前用户关注的用户ID
+     * @return 帖子视图对象
+     */
+    private PostVO toPostVO(Post post, User viewer, Set<Long> likedPostIds, Set<Long> followedUserIds) {
+        PostVO vo = new PostVO();
+        vo.setId(post.getId());
         
-        // 最终用于检查状态的用户引用
-        final User finalStatusCheckUser = statusCheckUser;
+        // 确保用户信息正确获取和设置
+        if (post.getUser() != null) {
+            User postAuthor = post.getUser();
+            vo.setUserId(postAuthor.getId());
+            vo.setUsername(postAuthor.getUsername());
+            vo.setNickname(postAuthor.getNickname() != null ? postAuthor.getNickname() : postAuthor.getUsername());
+            vo.setUserAvatar(postAuthor.getAvatar());
+            
+            // 设置作者信息
+            UserVO authorVO = new UserVO();
+            authorVO.setId(postAuthor.getId());
+            authorVO.setUsername(postAuthor.getUsername());
+            authorVO.setNickname(postAuthor.getNickname() != null ? postAuthor.getNickname() : postAuthor.getUsername());
+            authorVO.setAvatar(postAuthor.getAvatar());
+            authorVO.setIsFollowed(false); // 默认未关注
+            
+            vo.setAuthor(authorVO);
+            
+            // 如果提供了当前用户，检查是否已关注作者
+            if (viewer != null && viewer.getId() != null && 
+                !viewer.getId().equals(postAuthor.getId())) {
+                // 检查当前用户是否关注了帖子作者
+                vo.getAuthor().setIsFollowed(followedUserIds.contains(postAuthor.getId()));
+            }
+        } else {
+            // 如果用户为空，设置默认值
+            log.warn("帖子 {} 缺少用户信息，使用默认值", post.getId());
+            vo.setUserId(0L);
+            vo.setUsername("未知用户");
+            vo.setNickname("未知用户");
+            vo.setUserAvatar("");
+            
+            // 设置默认作者信息
+            UserVO authorVO = new UserVO();
+            authorVO.setId(0L);
+            authorVO.setUsername("未知用户");
+            authorVO.setNickname("未知用户");
+            authorVO.setAvatar("");
+            authorVO.setIsFollowed(false);
+            
+            vo.setAuthor(authorVO);
+        }
         
-        // 转换为视图对象
-        List<PostVO> postVOs = postPage.getContent().stream()
-                .map(post -> {
-                    PostVO vo = new PostVO();
-                    vo.setId(post.getId());
-                    
-                    // 确保用户信息正确获取和设置
-                    if (post.getUser() != null) {
-                        User postAuthor = post.getUser();
-                        vo.setUserId(postAuthor.getId());
-                        vo.setUsername(postAuthor.getUsername());
-                        vo.setNickname(postAuthor.getNickname() != null ? postAuthor.getNickname() : postAuthor.getUsername());
-                        vo.setUserAvatar(postAuthor.getAvatar());
-                        
-                        // 设置作者信息
-                        UserVO authorVO = new UserVO();
-                        authorVO.setId(postAuthor.getId());
-                        authorVO.setUsername(postAuthor.getUsername());
-                        authorVO.setNickname(postAuthor.getNickname() != null ? postAuthor.getNickname() : postAuthor.getUsername());
-                        authorVO.setAvatar(postAuthor.getAvatar());
-                        authorVO.setIsFollowed(false); // 默认未关注
-                        
-                        vo.setAuthor(authorVO);
-                        
-                        // 如果提供了当前用户，检查是否已关注作者
-                        if (finalStatusCheckUser != null && finalStatusCheckUser.getId() != null && 
-                            !finalStatusCheckUser.getId().equals(postAuthor.getId())) {
-                            // 检查当前用户是否关注了帖子作者
-                            boolean isFollowing = finalStatusCheckUser.getFollowing().stream()
-                                .anyMatch(follow -> follow.getFollowed().getId().equals(postAuthor.getId()));
-                            vo.getAuthor().setIsFollowed(isFollowing);
-                        }
-                    } else {
-                        // 如果用户为空，设置默认值
-                        log.warn("帖子 {} 缺少用户信息，使用默认值", post.getId());
-                        vo.setUserId(0L);
-                        vo.setUsername("未知用户");
-                        vo.setNickname("未知用户");
-                        vo.setUserAvatar("");
-                        
-                        // 设置默认作者信息
-                        UserVO authorVO = new UserVO();
-                        authorVO.setId(0L);
-                        authorVO.setUsername("未知用户");
-                        authorVO.setNickname("未知用户");
-                        authorVO.setAvatar("");
-                        authorVO.setIsFollowed(false);
-                        
-                        vo.setAuthor(authorVO);
-                    }
-                    
-                    if (post.getDream() != null) {
-                        vo.setDreamId(post.getDream().getId());
-                        vo.setDreamTitle(post.getDream().getTitle());
-                    }
-                    
-                    vo.setTitle(post.getTitle());
-                    vo.setContent(post.getContent());
-                    
-                    // 处理图片URL
-                    if (post.getImages() != null && !post.getImages().isEmpty()) {
-                        vo.setImages(Arrays.asList(post.getImages().split(",")));
-                    }
-                    
-                    vo.setViewCount(post.getViewCount());
-                    vo.setLikeCount(post.getLikeCount());
-                    vo.setCommentCount(post.getCommentCount());
-                    vo.setCreatedAt(post.getCreatedAt());
-                    vo.setUpdatedAt(post.getUpdatedAt());
-                    
-                    // 检查当前用户是否点赞
-                    if (finalStatusCheckUser != null) {
-                        vo.setLiked(likeRepository.findByPostAndUser(post, finalStatusCheckUser).isPresent());
-                    }
-                    
-                    return vo;
-                })
-                .collect(Collectors.toList());
+        if (post.getDream() != null) {
+            vo.setDreamId(post.getDream().getId());
+            vo.setDreamTitle(post.getDream().getTitle());
+        }
         
-        // 构建返回结果
-        Map<String, Object> result = new java.util.HashMap<>();
-        result.put("posts", postVOs);
-        result.put("currentPage", postPage.getNumber());
-        result.put("totalItems", postPage.getTotalElements());
-        result.put("totalPages", postPage.getTotalPages());
+        vo.setTitle(post.getTitle());
+        vo.setContent(post.getContent());
         
-        log.info("返回帖子列表数据：{} 条记录", postVOs.size());
-        return result;
+        // 处理图片URL
+        if (post.getImages() != null && !post.getImages().isEmpty()) {
+            vo.setImages(Arrays.asList(post.getImages().split(",")));
+        }
+        
+        vo.setViewCount(post.getViewCount());
+        vo.setLikeCount(post.getLikeCount());
+        vo.setCommentCount(post.getCommentCount());
+        vo.setCreatedAt(post.getCreatedAt());
+        vo.setUpdatedAt(post.getUpdatedAt());
+        
+        // 检查当前用户是否点赞
+        if (viewer != null) {
+            vo.setLiked(likedPostIds.contains(post.getId()));
+        }
+        
+        return vo;
     }
 
     @Override
@@ -788,6 +922,7 @@ public class PostServiceImpl implements PostService {
                 
         // 保存更新的帖子
         Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId()));
         log.info("帖子更新成功，ID: {}", savedPost.getId());
         
         // 返回简化版的Post对象，避免无限递归序列化问题
@@ -831,6 +966,7 @@ public class PostServiceImpl implements PostService {
             // 更新帖子点赞数
             post.setLikeCount(Math.max(0, post.getLikeCount() - 1));
             postRepository.save(post);
+            eventPublisher.publishEvent(NotificationEvent.unliked(userId, post.getUser().getId(), postId));
             
             return false; // 返回当前状态：未点赞
         } else {
@@ -844,6 +980,7 @@ public class PostServiceImpl implements PostService {
             // 更新帖子点赞数
             post.setLikeCount(post.getLikeCount() + 1);
             postRepository.save(post);
+            eventPublisher.publishEvent(NotificationEvent.liked(userId, post.getUser().getId(), postId));
             
             return true; // 返回当前状态：已点赞
         }
@@ -1,26 +1,44 @@
 package com.dreamplanner.service.impl;
 
+import com.dreamplanner.activity.ActivityType;
+import com.dreamplanner.dto.ProgressActivityBucketDTO;
+import com.dreamplanner.dto.ProgressActivityDTO;
 import com.dreamplanner.dto.ProgressDTO;
+import com.dreamplanner.dto.ProgressTimelineDTO;
 import com.dreamplanner.entity.Dream;
 import com.dreamplanner.entity.Progress;
 import com.dreamplanner.entity.Task;
 import com.dreamplanner.entity.User;
+import com.dreamplanner.event.ProgressAddedEvent;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.progress.ProgressActivity;
+import com.dreamplanner.progress.ProgressCursor;
+import com.dreamplanner.progress.ProgressDayCount;
 import com.dreamplanner.repository.DreamRepository;
 import com.dreamplanner.repository.ProgressRepository;
 import com.dreamplanner.repository.TaskRepository;
 import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.service.ActivityService;
 import com.dreamplanner.service.ProgressService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * 进度记录服务实现类
+ * 时间线按(创建时间, ID)键集分页；打卡统计只读取数据库按天分组的结果，按周汇总和连续天数在此基础上计算，
+ * 不加载进度记录本身
  *
  * @author DreamPlanner
  */
@@ -29,10 +47,25 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProgressServiceImpl implements ProgressService {
 
+    /**
+     * 时间线每页最多条数
+     */
+    private static final int MAX_TIMELINE_PAGE_SIZE = 50;
+
+    /**
+     * 计算当前连续打卡天数时每次加载的天数
+     */
+    private static final int STREAK_WINDOW_DAYS = 366;
+
     private final ProgressRepository progressRepository;
     private final TaskRepository taskRepository;
     private final DreamRepository dreamRepository;
     private final UserRepository userRepository;
+    private final ActivityService activityService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${progress.activity.max-days:366}")
+    private int maxActivityDays;
 
     /**
      * 根据任务ID获取进度记录列表
@@ -79,6 +112,106 @@ public class ProgressServiceImpl implements ProgressService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 分页获取梦想的进度时间线，按创建时间倒序
+     *
+     * @param dreamId 梦想ID
+     * @param cursor  上一页返回的nextCursor，首页为null
+     * @param size    每页条数
+     * @return 进度时间线的一页
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProgressTimelineDTO getProgressTimeline(Long dreamId, String cursor, int size) {
+        log.info("获取梦想进度时间线, dreamId: {}, cursor: {}, size: {}", dreamId, cursor, size);
+        int limit = Math.max(1, Math.min(size, MAX_TIMELINE_PAGE_SIZE));
+        // 多取一条判断是否还有下一页
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Progress> progresses;
+        if (StringUtils.hasText(cursor)) {
+            ProgressCursor before = ProgressCursor.decode(cursor);
+            progresses = progressRepository.findTimelineBefore(dreamId, before.createdAt(), before.id(), page);
+        } else {
+            progresses = progressRepository.findTimeline(dreamId, page);
+        }
+
+        boolean hasMore = progresses.size() > limit;
+        if (hasMore) {
+            progresses = progresses.subList(0, limit);
+        }
+        return ProgressTimelineDTO.builder()
+                .dreamId(dreamId)
+                .items(progresses.stream().map(this::convertToDTO).collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? ProgressCursor.of(progresses.get(progresses.size() - 1)).encode() : null)
+                .build();
+    }
+
+    /**
+     * 按天统计梦想在日期区间内的打卡情况
+     *
+     * @param dreamId 梦想ID
+     * @param from    开始日期
+     * @param to      结束日期（含）
+     * @return 打卡统计
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProgressActivityDTO getDailyActivity(Long dreamId, LocalDate from, LocalDate to) {
+        log.info("按天统计梦想打卡, dreamId: {}, from: {}, to: {}", dreamId, from, to);
+        checkActivityRange(from, to);
+        List<ProgressDayCount> days = countByDay(dreamId, from, to);
+        return buildActivity(dreamId, "day", from, to, days, ProgressActivity.daily(days));
+    }
+
+    /**
+     * 按周统计梦想在日期区间内的打卡情况，区间扩展到完整的周
+     *
+     * @param dreamId 梦想ID
+     * @param from    开始日期
+     * @param to      结束日期（含）
+     * @return 打卡统计
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProgressActivityDTO getWeeklyActivity(Long dreamId, LocalDate from, LocalDate to) {
+        log.info("按周统计梦想打卡, dreamId: {}, from: {}, to: {}", dreamId, from, to);
+        checkActivityRange(from, to);
+        LocalDate weekFrom = ProgressActivity.weekStart(from);
+        LocalDate weekTo = ProgressActivity.weekStart(to).plusDays(6);
+        List<ProgressDayCount> days = countByDay(dreamId, weekFrom, weekTo);
+        return buildActivity(dreamId, "week", weekFrom, weekTo, days, ProgressActivity.weekly(days, weekFrom, weekTo));
+    }
+
+    private void checkActivityRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("结束日期不能早于开始日期");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxActivityDays) {
+            throw new BusinessException("日期区间不能超过" + maxActivityDays + "天");
+        }
+    }
+
+    private List<ProgressDayCount> countByDay(Long dreamId, LocalDate from, LocalDate to) {
+        return progressRepository.countByDay(dreamId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    private ProgressActivityDTO buildActivity(Long dreamId, String granularity, LocalDate from, LocalDate to,
+                                              List<ProgressDayCount> days, List<ProgressActivityBucketDTO> buckets) {
+        return ProgressActivityDTO.builder()
+                .dreamId(dreamId)
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .buckets(buckets)
+                .totalCheckIns(days.stream().mapToLong(ProgressDayCount::count).sum())
+                .activeDays(days.size())
+                .longestStreak(ProgressActivity.longestStreak(days))
+                .currentStreak(ProgressActivity.currentStreak(LocalDate.now(), STREAK_WINDOW_DAYS,
+                        (start, end) -> countByDay(dreamId, start, end)))
+                .build();
+    }
+
     /**
      * 添加进度记录
      *
@@ -126,6 +259,8 @@ public class ProgressServiceImpl implements ProgressService {
         
         // 保存进度记录
         Progress savedProgress = progressRepository.save(progress);
+        activityService.recordActivity(user.getId(), ActivityType.CHECK_IN, savedProgress.getCreatedAt().toLocalDate());
+        eventPublisher.publishEvent(new ProgressAddedEvent(savedProgress.getId(), user.getId()));
         
         // 返回DTO
         return convertToDTO(savedProgress);
@@ -0,0 +1,255 @@
+package com.dreamplanner.service.impl;
+
+import com.dreamplanner.cache.TaskCalendarCache;
+import com.dreamplanner.calendar.TaskCalendarCount;
+import com.dreamplanner.calendar.TaskCalendarItem;
+import com.dreamplanner.dto.TaskCalendarDTO;
+import com.dreamplanner.dto.TaskCalendarDayDTO;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.recurrence.RecurrenceRule;
+import com.dreamplanner.repository.TaskOccurrenceRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.service.TaskCalendarService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 任务日历服务实现类
+ * 按整月从缓存取分组统计行，再裁剪到请求区间并按天汇总；缓存未命中的连续月份只执行一次分组查询。
+ * 重复任务在加载月份时展开：扣除按系列行统计到的一条，换成区间内按截止日期落入的各次实例，
+ * 已单独完成的实例按已完成统计；系列和例外记录每次请求最多各查询一次
+ *
+ * @author DreamPlanner
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCalendarServiceImpl implements TaskCalendarService {
+
+    /**
+     * 已完成状态
+     */
+    private static final int COMPLETED = 2;
+
+    /**
+     * 一个系列在一次加载中最多展开的实例数，日历区间有上限，按天重复也不会超过
+     */
+    private static final int MAX_OCCURRENCES_PER_SERIES = 366;
+
+    private final TaskRepository taskRepository;
+    private final TaskOccurrenceRepository taskOccurrenceRepository;
+    private final TaskCalendarCache taskCalendarCache;
+
+    @Value("${task-calendar.max-days:92}")
+    private int maxDays;
+
+    /**
+     * 获取用户在日期区间内的任务日历
+     *
+     * @param userId       用户ID
+     * @param from         开始日期
+     * @param to           结束日期（含）
+     * @param includeTasks 是否返回任务摘要
+     * @return 任务日历
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskCalendarDTO getCalendar(Long userId, LocalDate from, LocalDate to, boolean includeTasks) {
+        log.info("获取任务日历, userId: {}, from: {}, to: {}, includeTasks: {}", userId, from, to, includeTasks);
+        if (to.isBefore(from)) {
+            throw new BusinessException("结束日期不能早于开始日期");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BusinessException("日期区间不能超过" + maxDays + "天");
+        }
+
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        RecurringSeries series = new RecurringSeries(userId, first.atDay(1), last.atEndOfMonth());
+        List<TaskCalendarCount> counts = taskCalendarCache.getCounts(userId, first, last,
+                (start, end) -> loadCounts(userId, start, end, series));
+
+        List<TaskCalendarItem> tasks = null;
+        if (includeTasks) {
+            tasks = new ArrayList<>();
+            for (TaskCalendarItem item : taskCalendarCache.getItems(userId, first, last,
+                    (start, end) -> loadItems(userId, start, end, series))) {
+                if (inRange(item.dueDate(), from, to)) {
+                    tasks.add(item);
+                }
+            }
+        }
+
+        return TaskCalendarDTO.builder()
+                .userId(userId)
+                .from(from)
+                .to(to)
+                .days(aggregate(counts, from, to))
+                .tasks(tasks)
+                .build();
+    }
+
+    /**
+     * 加载区间内的分组统计，重复任务按实例计数
+     */
+    private List<TaskCalendarCount> loadCounts(Long userId, LocalDate start, LocalDate end, RecurringSeries series) {
+        List<TaskCalendarCount> rows = taskRepository.countCalendar(userId, start, end);
+        if (series.tasks().isEmpty()) {
+            return rows;
+        }
+        Map<CountKey, Long> merged = new LinkedHashMap<>();
+        for (TaskCalendarCount row : rows) {
+            merged.merge(new CountKey(row.date(), row.status(), row.priority()), row.count(), Long::sum);
+        }
+        for (Task task : series.tasks()) {
+            if (task.getDueDate() != null && inRange(task.getDueDate(), start, end)) {
+                merged.merge(new CountKey(task.getDueDate(), task.getStatus(), task.getPriority()), -1L, Long::sum);
+            }
+        }
+        for (TaskCalendarItem item : series.expand(start, end)) {
+            merged.merge(new CountKey(item.dueDate(), item.status(), item.priority()), 1L, Long::sum);
+        }
+        List<TaskCalendarCount> counts = new ArrayList<>(merged.size());
+        merged.forEach((key, count) -> {
+            if (count > 0) {
+                counts.add(new TaskCalendarCount(key.date(), key.status(), key.priority(), count));
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * 加载区间内的任务摘要，重复任务的系列行换成各次实例，按截止日期、ID排序
+     */
+    private List<TaskCalendarItem> loadItems(Long userId, LocalDate start, LocalDate end, RecurringSeries series) {
+        List<TaskCalendarItem> rows = taskRepository.findCalendarItems(userId, start, end);
+        if (series.tasks().isEmpty()) {
+            return rows;
+        }
+        Set<Long> seriesIds = series.tasks().stream().map(Task::getId).collect(Collectors.toSet());
+        List<TaskCalendarItem> items = new ArrayList<>(rows.size());
+        for (TaskCalendarItem row : rows) {
+            if (!seriesIds.contains(row.id())) {
+                items.add(row);
+            }
+        }
+        items.addAll(series.expand(start, end));
+        items.sort(Comparator.comparing(TaskCalendarItem::dueDate).thenComparing(TaskCalendarItem::id));
+        return items;
+    }
+
+    /**
+     * 把分组统计行按天汇总，状态或优先级为空的行只计入总数
+     */
+    static List<TaskCalendarDayDTO> aggregate(List<TaskCalendarCount> counts, LocalDate from, LocalDate to) {
+        Map<LocalDate, TaskCalendarDayDTO> days = new TreeMap<>();
+        for (TaskCalendarCount count : counts) {
+            if (!inRange(count.date(), from, to)) {
+                continue;
+            }
+            TaskCalendarDayDTO day = days.computeIfAbsent(count.date(), date -> TaskCalendarDayDTO.builder()
+                    .date(date)
+                    .byStatus(new TreeMap<>())
+                    .byPriority(new TreeMap<>())
+                    .build());
+            day.setTotal(day.getTotal() + count.count());
+            if (count.status() != null) {
+                day.getByStatus().merge(count.status(), count.count(), Long::sum);
+            }
+            if (count.priority() != null) {
+                day.getByPriority().merge(count.priority(), count.count(), Long::sum);
+            }
+        }
+        return new ArrayList<>(days.values());
+    }
+
+    private static boolean inRange(LocalDate date, LocalDate from, LocalDate to) {
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    /**
+     * 分组统计键
+     */
+    private record CountKey(LocalDate date, Integer status, Integer priority) {
+    }
+
+    /**
+     * 一次请求涉及的重复任务，按请求覆盖的整月区间查询一次，各月份的加载共用
+     */
+    private final class RecurringSeries {
+
+        private final Long userId;
+        private final LocalDate from;
+        private final LocalDate to;
+        private List<Task> tasks;
+        private Map<Long, Set<LocalDate>> completed;
+
+        private RecurringSeries(Long userId, LocalDate from, LocalDate to) {
+            this.userId = userId;
+            this.from = from;
+            this.to = to;
+        }
+
+        private List<Task> tasks() {
+            if (tasks == null) {
+                tasks = taskRepository.findRecurringForCalendar(userId, from, to);
+            }
+            return tasks;
+        }
+
+        /**
+         * 展开截止日期落在区间内的实例，实例的截止日期保持系列起点处开始到截止的间隔
+         */
+        private List<TaskCalendarItem> expand(LocalDate start, LocalDate end) {
+            List<TaskCalendarItem> items = new ArrayList<>();
+            for (Task task : tasks()) {
+                long span = dueSpan(task);
+                List<LocalDate> dates = RecurrenceRule.parse(task.getRecurrenceRule()).occurrences(
+                        task.getStartDate(), start.minusDays(span), end.minusDays(span), MAX_OCCURRENCES_PER_SERIES);
+                for (LocalDate date : dates) {
+                    boolean done = completed().getOrDefault(task.getId(), Set.of()).contains(date);
+                    items.add(new TaskCalendarItem(task.getId(), task.getDream().getId(),
+                            task.getParentTask() != null ? task.getParentTask().getId() : null, task.getTitle(),
+                            done ? COMPLETED : task.getStatus(), task.getPriority(), date.plusDays(span), date));
+                }
+            }
+            return items;
+        }
+
+        private Map<Long, Set<LocalDate>> completed() {
+            if (completed == null) {
+                LongSummaryStatistics spans = tasks().stream().mapToLong(RecurringSeries::dueSpan).summaryStatistics();
+                completed = new HashMap<>();
+                taskOccurrenceRepository.findByTaskIdsAndDateBetween(
+                                tasks().stream().map(Task::getId).collect(Collectors.toList()),
+                                from.minusDays(Math.max(0, spans.getMax())), to.minusDays(Math.min(0, spans.getMin())))
+                        .forEach(record -> completed.computeIfAbsent(record.getTask().getId(), id -> new HashSet<>())
+                                .add(record.getOccurrenceDate()));
+            }
+            return completed;
+        }
+
+        private static long dueSpan(Task task) {
+            return task.getDueDate() != null ? ChronoUnit.DAYS.between(task.getStartDate(), task.getDueDate()) : 0;
+        }
+    }
+}
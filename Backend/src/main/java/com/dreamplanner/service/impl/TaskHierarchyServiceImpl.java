@@ -0,0 +1,238 @@
+package com.dreamplanner.service.impl;
+
+import com.dreamplanner.dto.TaskTreeDTO;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.TaskClosure;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.exception.ResourceNotFoundException;
+import com.dreamplanner.repository.TaskClosureRepository;
+import com.dreamplanner.repository.TaskClosureRepository.TaskDepth;
+import com.dreamplanner.service.TaskHierarchyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 任务层级服务实现类
+ * 闭包表随任务的创建、移动、删除同步维护，读取整棵树只需一条查询；
+ * 汇总数按深度从深到浅遍历一次节点，把每个节点的计数累加到父节点
+ *
+ * @author DreamPlanner
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskHierarchyServiceImpl implements TaskHierarchyService {
+
+    private final TaskClosureRepository taskClosureRepository;
+
+    /**
+     * 登记新建的任务
+     * 父任务同批新建时直接使用内存中已生成的祖先行，其余父任务的祖先行一次查询取出
+     *
+     * @param tasks 新建的任务
+     */
+    @Override
+    @Transactional
+    public void onTasksCreated(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Map<Long, Task> created = new HashMap<>();
+        for (Task task : tasks) {
+            created.put(task.getId(), task);
+        }
+        Set<Long> existingParentIds = tasks.stream()
+                .map(Task::getParentTask)
+                .filter(parent -> parent != null && !created.containsKey(parent.getId()))
+                .map(Task::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<TaskClosure>> ancestors = new HashMap<>();
+        if (!existingParentIds.isEmpty()) {
+            ancestors.putAll(taskClosureRepository.findByDescendantIdIn(existingParentIds).stream()
+                    .collect(Collectors.groupingBy(TaskClosure::getDescendantId)));
+        }
+
+        List<TaskClosure> rows = new ArrayList<>();
+        for (Task task : tasks) {
+            closureOf(task, created, ancestors);
+            rows.addAll(ancestors.get(task.getId()));
+        }
+        taskClosureRepository.saveAll(rows);
+        log.debug("登记新建任务的层级, 任务数: {}, 闭包行数: {}", tasks.size(), rows.size());
+    }
+
+    /**
+     * 移动任务子树：先断开与原祖先的关系，再与新父任务的祖先逐一组合
+     *
+     * @param taskId      任务ID
+     * @param newParentId 新的父任务ID
+     */
+    @Override
+    @Transactional
+    public void onTaskMoved(Long taskId, Long newParentId) {
+        log.info("移动任务子树, taskId: {}, newParentId: {}", taskId, newParentId);
+        if (newParentId != null && taskClosureRepository.existsByAncestorIdAndDescendantId(taskId, newParentId)) {
+            throw new BusinessException("不能将任务移动到其自身或子任务下");
+        }
+        taskClosureRepository.detachSubtree(taskId);
+        if (newParentId != null) {
+            taskClosureRepository.attachSubtree(taskId, newParentId);
+        }
+    }
+
+    /**
+     * 删除子树的闭包行，删除前先取出子树内的任务ID
+     *
+     * @param taskIds 被删除的任务ID
+     * @return 子树内的全部任务ID
+     */
+    @Override
+    @Transactional
+    public List<Long> onTasksDeleted(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> subtreeIds = new LinkedHashSet<>(taskIds);
+        subtreeIds.addAll(taskClosureRepository.findSubtreeIds(taskIds));
+        taskClosureRepository.deleteSubtrees(taskIds);
+        return new ArrayList<>(subtreeIds);
+    }
+
+    /**
+     * 删除梦想下全部任务的闭包行
+     *
+     * @param dreamId 梦想ID
+     */
+    @Override
+    @Transactional
+    public void onDreamDeleted(Long dreamId) {
+        taskClosureRepository.deleteByDreamId(dreamId);
+    }
+
+    /**
+     * 获取梦想下的完整任务树
+     *
+     * @param dreamId 梦想ID
+     * @return 根任务列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskTreeDTO> getDreamTaskTree(Long dreamId) {
+        log.info("获取梦想任务树, dreamId: {}", dreamId);
+        return buildTree(taskClosureRepository.findDreamTasksWithDepth(dreamId));
+    }
+
+    /**
+     * 获取以指定任务为根的子树
+     *
+     * @param taskId 任务ID
+     * @return 根节点
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskTreeDTO getSubtree(Long taskId) {
+        log.info("获取任务子树, taskId: {}", taskId);
+        List<TaskDepth> rows = taskClosureRepository.findSubtree(taskId);
+        return buildTree(rows).stream()
+                .filter(node -> node.getId().equals(taskId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("任务", "id", taskId));
+    }
+
+    /**
+     * 任务自身一行，加上父任务的每个祖先行深度加一；结果按任务ID记入ancestors，同批的子任务可直接复用
+     */
+    private static List<TaskClosure> closureOf(Task task, Map<Long, Task> created,
+                                               Map<Long, List<TaskClosure>> ancestors) {
+        List<TaskClosure> cached = ancestors.get(task.getId());
+        if (cached != null) {
+            return cached;
+        }
+        List<TaskClosure> rows = new ArrayList<>();
+        rows.add(new TaskClosure(task.getId(), task.getId(), 0));
+        Task parent = task.getParentTask();
+        if (parent != null) {
+            List<TaskClosure> parentRows = created.containsKey(parent.getId())
+                    ? closureOf(created.get(parent.getId()), created, ancestors)
+                    : ancestors.getOrDefault(parent.getId(), List.of());
+            for (TaskClosure parentRow : parentRows) {
+                rows.add(new TaskClosure(parentRow.getAncestorId(), task.getId(), parentRow.getDepth() + 1));
+            }
+        }
+        ancestors.put(task.getId(), rows);
+        return rows;
+    }
+
+    /**
+     * 组装任务树：父任务不在结果中的节点作为根，汇总数按深度倒序一次累加
+     */
+    private static List<TaskTreeDTO> buildTree(List<TaskDepth> rows) {
+        Map<Long, TaskTreeDTO> nodes = new LinkedHashMap<>();
+        rows.stream()
+                .sorted(Comparator.comparing((TaskDepth row) -> row.getTask().getId()))
+                .forEach(row -> nodes.put(row.getTask().getId(), toNode(row)));
+
+        List<TaskTreeDTO> roots = new ArrayList<>();
+        for (TaskTreeDTO node : nodes.values()) {
+            TaskTreeDTO parent = node.getParentTaskId() != null ? nodes.get(node.getParentTaskId()) : null;
+            if (parent != null) {
+                parent.getChildren().add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+
+        // 缺少闭包行的任务（如迁移前的脏数据）按父链在内存中补算深度
+        for (TaskTreeDTO node : nodes.values()) {
+            resolveDepth(node, nodes);
+        }
+        List<TaskTreeDTO> deepestFirst = new ArrayList<>(nodes.values());
+        deepestFirst.sort(Comparator.comparing(TaskTreeDTO::getDepth).reversed());
+        for (TaskTreeDTO node : deepestFirst) {
+            TaskTreeDTO parent = node.getParentTaskId() != null ? nodes.get(node.getParentTaskId()) : null;
+            if (parent != null) {
+                parent.setTotalDescendants(parent.getTotalDescendants() + node.getTotalDescendants() + 1);
+                parent.setCompletedDescendants(parent.getCompletedDescendants() + node.getCompletedDescendants()
+                        + (Integer.valueOf(2).equals(node.getStatus()) ? 1 : 0));
+            }
+        }
+        return roots;
+    }
+
+    private static int resolveDepth(TaskTreeDTO node, Map<Long, TaskTreeDTO> nodes) {
+        if (node.getDepth() == null) {
+            TaskTreeDTO parent = node.getParentTaskId() != null ? nodes.get(node.getParentTaskId()) : null;
+            node.setDepth(parent != null ? resolveDepth(parent, nodes) + 1 : 0);
+        }
+        return node.getDepth();
+    }
+
+    private static TaskTreeDTO toNode(TaskDepth row) {
+        Task task = row.getTask();
+        return TaskTreeDTO.builder()
+                .id(task.getId())
+                .dreamId(task.getDream().getId())
+                .parentTaskId(task.getParentTask() != null ? task.getParentTask().getId() : null)
+                .title(task.getTitle())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .startDate(task.getStartDate())
+                .dueDate(task.getDueDate())
+                .depth(row.getDepth())
+                .children(new ArrayList<>())
+                .build();
+    }
+}
@@ -1,24 +1,57 @@
 package com.dreamplanner.service.impl;
 
+import com.dreamplanner.activity.ActivityType;
 import com.dreamplanner.dto.TaskDTO;
 import com.dreamplanner.entity.Dream;
 import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.TaskOccurrence;
 import com.dreamplanner.entity.User;
+import com.dreamplanner.event.TaskChangedEvent;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.exception.ResourceNotFoundException;
+import com.dreamplanner.recurrence.RecurrenceRule;
+import com.dreamplanner.reminder.TaskReminder;
 import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.TaskOccurrenceRepository;
 import com.dreamplanner.repository.TaskRepository;
 import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.search.SearchBackend;
+import com.dreamplanner.search.SearchHighlighter;
+import com.dreamplanner.search.SearchHit;
+import com.dreamplanner.service.ActivityService;
+import com.dreamplanner.service.TaskHierarchyService;
 import com.dreamplanner.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -31,9 +64,35 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TaskServiceImpl implements TaskService {
 
+    /**
+     * 未完成的任务状态：待开始、进行中、已延期
+     */
+    private static final List<Integer> OPEN_STATUSES = List.of(0, 1, 3);
+
+    /**
+     * 批量删除的任务数上限
+     */
+    private static final int MAX_BATCH_DELETE = 500;
+
+    /**
+     * 批量更新状态的任务数上限
+     */
+    private static final int MAX_BATCH_UPDATE = 500;
+
+    /**
+     * 单个重复任务在一次查询中最多展开的实例数
+     */
+    private static final int MAX_OCCURRENCES_PER_TASK = 366;
+
     private final TaskRepository taskRepository;
+    private final TaskOccurrenceRepository taskOccurrenceRepository;
     private final DreamRepository dreamRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskHierarchyService taskHierarchyService;
+    private final SearchBackend searchBackend;
+    private final SearchHighlighter searchHighlighter;
+    private final ActivityService activityService;
 
     /**
      * 根据任务ID获取任务
@@ -173,8 +232,19 @@ public class TaskServiceImpl implements TaskService {
             // 计算当前日期和7天后的日期
             LocalDate today = LocalDate.now();
             LocalDate endDate = today.plusDays(7); // 7天后的日期
-            
-            return taskRepository.findTodayTasks(userId, today, endDate, pageable)
+
+            // 普通任务在数据库中筛选排序，只取到本页末尾为止的部分，与重复任务的实例合并排序后截取本页
+            List<Task> occurrences = expandOccurrences(userId, today, endDate, true);
+            Pageable head = pageable.isUnpaged() ? Pageable.unpaged()
+                    : PageRequest.of(0, (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE));
+            Page<Task> candidates = taskRepository.findTodayTasks(userId, OPEN_STATUSES, today, endDate, head);
+
+            List<Task> tasks = new ArrayList<>(candidates.getContent());
+            // 重复任务每个系列只列出窗口内第一次未完成的实例
+            tasks.addAll(occurrences);
+            tasks.sort(todayTaskOrder(today));
+
+            return toPage(tasks, pageable, candidates.getTotalElements() + occurrences.size())
                     .map(task -> {
                         TaskDTO dto = convertToDTO(task);
                         
@@ -197,6 +267,7 @@ public class TaskServiceImpl implements TaskService {
 
     /**
      * 获取用户本周任务
+     * 开始日期或截止日期落在区间内的未完成任务，按开始日期（无开始日期时取截止日期）升序
      *
      * @param userId    用户ID
      * @param startDate 开始日期
@@ -209,8 +280,21 @@ public class TaskServiceImpl implements TaskService {
     public Page<TaskDTO> getWeekTasks(Long userId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
         log.info("获取用户本周任务, userId: {}, startDate: {}, endDate: {}, page: {}, size: {}", 
                 userId, startDate, endDate, pageable.getPageNumber(), pageable.getPageSize());
-        return taskRepository.findWeekTasks(userId, startDate, endDate, pageable)
-                .map(this::convertToDTO);
+
+        // 开始日期、截止日期各走一次索引范围扫描，合并去重后加上重复任务在区间内的实例，按日期排序
+        Map<Long, Task> tasks = new LinkedHashMap<>();
+        taskRepository.findByStatusesAndStartDateBetween(userId, OPEN_STATUSES, startDate, endDate)
+                .forEach(task -> tasks.put(task.getId(), task));
+        taskRepository.findByStatusesAndDueDateBetween(userId, OPEN_STATUSES, startDate, endDate)
+                .forEach(task -> tasks.putIfAbsent(task.getId(), task));
+
+        List<Task> sorted = tasks.values().stream()
+                .filter(task -> task.getRecurrenceRule() == null)
+                .collect(Collectors.toCollection(ArrayList::new));
+        sorted.addAll(expandOccurrences(userId, startDate, endDate, false));
+        sorted.sort(Comparator.comparing(TaskServiceImpl::firstDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getId));
+        return toPage(sorted, pageable).map(this::convertToDTO);
     }
 
     /**
@@ -229,19 +313,9 @@ public class TaskServiceImpl implements TaskService {
         
         try {
             LocalDate dueDate = LocalDate.now().plusDays(days);
-            return taskRepository.findUpcomingTasks(userId, dueDate, pageable)
-                    .map(task -> {
-                        TaskDTO dto = convertToDTO(task);
-                        
-                        // 检查是否已过期
-                        if (task.getDueDate() != null && task.getDueDate().isBefore(LocalDate.now())) {
-                            dto.setIsOverdue(true);
-                        } else {
-                            dto.setIsOverdue(false);
-                        }
-                        
-                        return dto;
-                    });
+            // 逾期标记已落库，无需按当前日期重新计算
+            return taskRepository.findUpcomingTasks(userId, OPEN_STATUSES, dueDate, pageable)
+                    .map(this::convertToDTO);
         } catch (Exception e) {
             log.error("获取即将到期任务失败, userId: {}", userId, e);
             return Page.empty(pageable);
@@ -304,9 +378,14 @@ public class TaskServiceImpl implements TaskService {
                 .reminderTime(taskDTO.getReminderTime())
                 .parentTask(parentTask)
                 .build();
+        applyRecurrence(task, taskDTO.getRecurrenceRule());
+        refreshOverdue(task);
         
         // 保存任务
         Task savedTask = taskRepository.save(task);
+        taskHierarchyService.onTasksCreated(List.of(savedTask));
+        syncCompletionActivity(user.getId(), Collections.singletonList(null), List.of(savedTask));
+        publishChanged(savedTask);
         
         // 更新梦想的完成率和状态
         if (dream != null) {
@@ -377,12 +456,15 @@ public class TaskServiceImpl implements TaskService {
                 (task.getParentTask() == null || !task.getParentTask().getId().equals(taskDTO.getParentTaskId()))) {
             Task parentTask = taskRepository.findById(taskDTO.getParentTaskId())
                     .orElseThrow(() -> new RuntimeException("父任务不存在: " + taskDTO.getParentTaskId()));
+            taskHierarchyService.onTaskMoved(id, parentTask.getId());
             task.setParentTask(parentTask);
         } else if (taskDTO.getParentTaskId() == null && task.getParentTask() != null) {
+            taskHierarchyService.onTaskMoved(id, null);
             task.setParentTask(null);
         }
         
         // 更新任务属性
+        LocalDateTime previousCompletedAt = completedAtOf(task);
         task.setTitle(taskDTO.getTitle());
         task.setDescription(taskDTO.getDescription());
         task.setStatus(taskDTO.getStatus());
@@ -390,6 +472,8 @@ public class TaskServiceImpl implements TaskService {
         task.setStartDate(taskDTO.getStartDate());
         task.setDueDate(taskDTO.getDueDate());
         task.setReminderTime(taskDTO.getReminderTime());
+        applyRecurrence(task, taskDTO.getRecurrenceRule());
+        refreshOverdue(task);
         
         // 如果状态变成已完成，设置完成时间
         if (taskDTO.getStatus() == 2 && task.getCompletedAt() == null) {
@@ -400,6 +484,8 @@ public class TaskServiceImpl implements TaskService {
         
         // 保存任务
         Task updatedTask = taskRepository.save(task);
+        publishChanged(updatedTask);
+        syncCompletionActivity(task.getUser().getId(), Collections.singletonList(previousCompletedAt), List.of(task));
         
         // 返回DTO
         return convertToDTO(updatedTask);
@@ -423,9 +509,11 @@ public class TaskServiceImpl implements TaskService {
         
         // 保存任务原来的状态，用于判断是否需要更新梦想完成率
         Integer oldStatus = task.getStatus();
+        LocalDateTime previousCompletedAt = completedAtOf(task);
         
         // 更新状态
         task.setStatus(status);
+        refreshOverdue(task);
         
         // 如果状态为已完成，设置完成时间
         if (status == 2 && task.getCompletedAt() == null) {
@@ -436,6 +524,8 @@ public class TaskServiceImpl implements TaskService {
         
         // 保存任务
         Task updatedTask = taskRepository.save(task);
+        publishChanged(updatedTask);
+        syncCompletionActivity(task.getUser().getId(), Collections.singletonList(previousCompletedAt), List.of(task));
         
         // 如果任务状态发生变化，更新对应梦想的完成率和状态
         if (!oldStatus.equals(status)) {
@@ -486,7 +576,7 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * 删除任务
+     * 删除任务，子任务随之删除
      *
      * @param id 任务ID
      */
@@ -494,72 +584,197 @@ public class TaskServiceImpl implements TaskService {
     @Transactional
     public void deleteTask(Long id) {
         log.info("删除任务, id: {}", id);
-        
-        // 获取任务以获得关联的梦想ID
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("任务不存在: " + id));
-        
-        // 保存梦想引用，以便在删除任务后更新完成率
-        Long dreamId = null;
-        if (task.getDream() != null) {
-            dreamId = task.getDream().getId();
+        deleteSubtrees(List.of(id), task.getUser().getId(),
+                task.getDream() != null ? List.of(task.getDream()) : List.of());
+    }
+
+    /**
+     * 标记或撤销重复任务某次实例的完成
+     * 完成时写入一条例外记录，撤销时删除该记录，实例恢复为按规则展开的状态；系列本身的状态不变
+     *
+     * @param id             重复任务ID
+     * @param occurrenceDate 实例日期
+     * @param completed      是否完成
+     * @return 该次实例的任务DTO
+     */
+    @Override
+    @Transactional
+    public TaskDTO setOccurrenceCompleted(Long id, LocalDate occurrenceDate, boolean completed) {
+        log.info("更新重复任务实例完成状态, id: {}, occurrenceDate: {}, completed: {}", id, occurrenceDate, completed);
+
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("任务不存在: " + id));
+        if (task.getRecurrenceRule() == null) {
+            throw new BusinessException("任务不是重复任务: " + id);
         }
-        
-        // 删除任务
-        taskRepository.deleteById(id);
-        
-        // 如果有关联的梦想，更新其完成率和状态
-        if (dreamId != null) {
-            log.info("删除任务后，更新梦想[{}]的完成率和状态", dreamId);
-            
-            // 获取梦想
-            Dream dream = dreamRepository.findById(dreamId)
-                    .orElse(null);
-            
-            if (dream != null) {
-                // 获取梦想下剩余的所有任务
-                List<Task> dreamTasks = taskRepository.findByDreamId(dreamId);
-                
-                // 计算已完成任务数量和任务总数
-                long totalTasks = dreamTasks.size();
-                long completedTasks = dreamTasks.stream()
-                        .filter(t -> t.getStatus() == 2)
-                        .count();
-                
-                // 计算新的完成率
-                BigDecimal completionRate = BigDecimal.ZERO;
-                if (totalTasks > 0) {
-                    completionRate = BigDecimal.valueOf(completedTasks)
-                            .multiply(BigDecimal.valueOf(100))
-                            .divide(BigDecimal.valueOf(totalTasks), 0, RoundingMode.HALF_UP);
-                }
-                
-                // 更新梦想的完成率
-                dream.setCompletionRate(completionRate);
-                
-                // 检查梦想状态是否需要更新
-                if (totalTasks > 0 && completedTasks == totalTasks) {
-                    // 如果剩余任务全部完成，将梦想状态设置为已完成
-                    log.info("梦想[{}]的所有剩余任务都已完成，更新状态为已完成", dreamId);
-                    dream.setStatus(2); // 已完成
-                } else if (dream.getStatus() == 2 && completedTasks < totalTasks) {
-                    // 如果梦想为已完成但剩余任务有未完成的，修改为进行中
-                    log.info("梦想[{}]有未完成任务，更新状态为进行中", dreamId);
-                    dream.setStatus(1); // 进行中
-                } else if (totalTasks == 0) {
-                    // 如果没有任务了，则保持当前状态
-                    log.info("梦想[{}]没有任务，保持当前状态", dreamId);
-                }
-                
-                dreamRepository.save(dream);
-                
-                log.info("更新梦想[{}]完成率为: {}%, 状态为: {}", dreamId, completionRate, dream.getStatus());
+        if (!RecurrenceRule.parse(task.getRecurrenceRule()).isOccurrence(task.getStartDate(), occurrenceDate)) {
+            throw new BusinessException("该日期不是任务的一次实例: " + occurrenceDate);
+        }
+
+        Task occurrence = occurrenceOf(task, occurrenceDate);
+        Long userId = task.getUser().getId();
+        TaskOccurrence record = taskOccurrenceRepository.findByTaskIdAndOccurrenceDate(id, occurrenceDate)
+                .orElse(null);
+        if (completed) {
+            if (record == null) {
+                record = taskOccurrenceRepository.save(TaskOccurrence.builder()
+                        .task(task)
+                        .occurrenceDate(occurrenceDate)
+                        .completedAt(LocalDateTime.now())
+                        .build());
+                activityService.recordActivity(userId, ActivityType.TASK_COMPLETED, record.getCompletedAt().toLocalDate());
+            }
+            occurrence.setStatus(2);
+            occurrence.setCompletedAt(record.getCompletedAt());
+        } else if (record != null) {
+            taskOccurrenceRepository.delete(record);
+            activityService.onTaskCompletionRevoked(userId, record.getCompletedAt().toLocalDate());
+        }
+        // 日历按实例展示完成状态
+        publishChanged(task);
+        return convertToDTO(occurrence);
+    }
+
+    /**
+     * 批量创建任务
+     * 梦想和父任务各一次查询校验归属，任务ID按块分配，插入走JDBC批量
+     *
+     * @param taskDTOs 任务DTO列表
+     * @return 创建的任务DTO列表
+     */
+    @Override
+    @Transactional
+    public List<TaskDTO> createTasks(List<TaskDTO> taskDTOs) {
+        User user = requireCurrentUser();
+        log.info("批量创建任务, userId: {}, 数量: {}", user.getId(), taskDTOs.size());
+
+        for (TaskDTO taskDTO : taskDTOs) {
+            if (!user.getId().equals(taskDTO.getUserId())) {
+                throw new BusinessException("不能为其他用户创建任务", HttpStatus.FORBIDDEN);
+            }
+        }
+        Map<Long, Dream> dreams = findOwned(dreamRepository.findAllById(
+                taskDTOs.stream().map(TaskDTO::getDreamId).collect(Collectors.toSet())),
+                Dream::getId, dream -> dream.getUser().getId(), user, "梦想");
+        Set<Long> parentIds = taskDTOs.stream()
+                .map(TaskDTO::getParentTaskId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Task> parents = parentIds.isEmpty() ? Map.of() : findOwned(taskRepository.findAllById(parentIds),
+                Task::getId, task -> task.getUser().getId(), user, "父任务");
+        requireAll(dreams.keySet(), taskDTOs.stream().map(TaskDTO::getDreamId).collect(Collectors.toSet()), "梦想");
+        requireAll(parents.keySet(), parentIds, "父任务");
+
+        List<Task> tasks = taskDTOs.stream()
+                .map(taskDTO -> Task.builder()
+                        .dream(dreams.get(taskDTO.getDreamId()))
+                        .user(user)
+                        .title(taskDTO.getTitle())
+                        .description(taskDTO.getDescription())
+                        .status(taskDTO.getStatus())
+                        .priority(taskDTO.getPriority())
+                        .startDate(taskDTO.getStartDate())
+                        .dueDate(taskDTO.getDueDate())
+                        .completedAt(taskDTO.getCompletedAt())
+                        .reminderTime(taskDTO.getReminderTime())
+                        .parentTask(taskDTO.getParentTaskId() != null ? parents.get(taskDTO.getParentTaskId()) : null)
+                        .build())
+                .collect(Collectors.toList());
+        for (int i = 0; i < tasks.size(); i++) {
+            applyRecurrence(tasks.get(i), taskDTOs.get(i).getRecurrenceRule());
+            refreshOverdue(tasks.get(i));
+        }
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        taskHierarchyService.onTasksCreated(savedTasks);
+        savedTasks.forEach(this::publishChanged);
+        syncCompletionActivity(user.getId(), Collections.nCopies(savedTasks.size(), null), savedTasks);
+
+        refreshDreamProgress(dreams.values());
+        return savedTasks.stream().map(this::convertToDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * 批量更新任务状态
+     *
+     * @param ids    任务ID列表
+     * @param status 状态
+     * @return 更新后的任务DTO列表
+     */
+    @Override
+    @Transactional
+    public List<TaskDTO> updateTasksStatus(List<Long> ids, Integer status) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_UPDATE) {
+            throw new BusinessException("单次更新的任务数量应为1到" + MAX_BATCH_UPDATE + "个");
+        }
+        List<Task> tasks = findOwnedTasks(ids);
+        log.info("批量更新任务状态, 数量: {}, status: {}", tasks.size(), status);
+
+        Map<Long, Dream> changedDreams = new LinkedHashMap<>();
+        List<LocalDateTime> previousCompletedAt = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            previousCompletedAt.add(completedAtOf(task));
+            if (!status.equals(task.getStatus())) {
+                changedDreams.putIfAbsent(task.getDream().getId(), task.getDream());
+            }
+            task.setStatus(status);
+            refreshOverdue(task);
+            if (status == 2 && task.getCompletedAt() == null) {
+                task.setCompletedAt(LocalDate.now().atStartOfDay());
+            } else if (status != 2) {
+                task.setCompletedAt(null);
             }
+            publishChanged(task);
         }
+        if (!tasks.isEmpty()) {
+            syncCompletionActivity(tasks.get(0).getUser().getId(), previousCompletedAt, tasks);
+        }
+
+        refreshDreamProgress(changedDreams.values());
+        return convertToDTOsWithChildren(tasks);
+    }
+
+    /**
+     * 批量删除任务
+     *
+     * @param ids 任务ID列表
+     */
+    @Override
+    @Transactional
+    public void deleteTasks(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_DELETE) {
+            throw new BusinessException("单次删除的任务数量应为1到" + MAX_BATCH_DELETE + "个");
+        }
+        List<Task> tasks = findOwnedTasks(ids);
+        log.info("批量删除任务, 数量: {}", tasks.size());
+
+        Map<Long, Dream> dreams = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            dreams.putIfAbsent(task.getDream().getId(), task.getDream());
+        }
+        deleteSubtrees(ids, tasks.get(0).getUser().getId(), dreams.values());
+    }
+
+    /**
+     * 按闭包表取出整棵子树一次删除，deleteById/deleteAll会逐个任务加载子任务集合再级联删除；
+     * 子树中的每个任务各发布一次删除事件，提醒和日历缓存不会遗漏子任务
+     *
+     * @param rootIds 要删除的子树根任务ID
+     * @param userId  任务所属用户ID
+     * @param dreams  涉及的梦想，删除后刷新完成率
+     */
+    private void deleteSubtrees(List<Long> rootIds, Long userId, Collection<Dream> dreams) {
+        List<Long> subtreeIds = taskHierarchyService.onTasksDeleted(rootIds);
+        taskRepository.detachFromParents(subtreeIds);
+        taskRepository.deleteByIdIn(subtreeIds);
+        subtreeIds.forEach(taskId -> eventPublisher.publishEvent(TaskChangedEvent.deleted(taskId, userId)));
+        refreshDreamProgress(dreams);
     }
 
     /**
      * 搜索任务
+     * 搜索后端按相关度返回一页命中ID，再一次查询加载任务，结果带标题和描述的高亮片段
      *
      * @param userId   用户ID
      * @param keyword  关键词
@@ -571,8 +786,26 @@ public class TaskServiceImpl implements TaskService {
     public Page<TaskDTO> searchTasks(Long userId, String keyword, Pageable pageable) {
         log.info("搜索任务, userId: {}, keyword: {}, page: {}, size: {}", 
                 userId, keyword, pageable.getPageNumber(), pageable.getPageSize());
-        return taskRepository.searchByKeyword(userId, keyword, pageable)
-                .map(this::convertToDTO);
+        Page<SearchHit> hits = searchBackend.searchTasks(userId, keyword, pageable);
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), hits.getPageable(), hits.getTotalElements());
+        }
+        Map<Long, Task> tasks = taskRepository.findByIdIn(hits.map(SearchHit::getId).getContent()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        // 命中与加载之间被删除的任务直接跳过
+        List<TaskDTO> content = hits.stream()
+                .map(hit -> tasks.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .map(task -> {
+                    TaskDTO dto = convertToDTO(task);
+                    Map<String, String> fields = new LinkedHashMap<>();
+                    fields.put("title", task.getTitle());
+                    fields.put("description", task.getDescription());
+                    dto.setHighlights(searchHighlighter.highlight(keyword, fields));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, hits.getPageable(), hits.getTotalElements());
     }
 
     /**
@@ -590,6 +823,260 @@ public class TaskServiceImpl implements TaskService {
         return task != null && task.getUser().getId().equals(userId);
     }
 
+    /**
+     * 获取当前登录用户，批量接口据此校验归属
+     */
+    private User requireCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new BusinessException("用户未登录", HttpStatus.UNAUTHORIZED);
+        }
+        return userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new BusinessException("用户未登录", HttpStatus.UNAUTHORIZED));
+    }
+
+    /**
+     * 一次查询取出全部任务并校验都属于当前用户
+     */
+    private List<Task> findOwnedTasks(List<Long> ids) {
+        User user = requireCurrentUser();
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, Task> tasks = findOwned(taskRepository.findAllById(distinctIds),
+                Task::getId, task -> task.getUser().getId(), user, "任务");
+        requireAll(tasks.keySet(), distinctIds, "任务");
+        return distinctIds.stream().map(tasks::get).collect(Collectors.toList());
+    }
+
+    private static <T> Map<Long, T> findOwned(List<T> entities, Function<T, Long> idOf, Function<T, Long> ownerOf,
+                                              User user, String resourceName) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        for (T entity : entities) {
+            if (!user.getId().equals(ownerOf.apply(entity))) {
+                throw new BusinessException(resourceName + "不属于当前用户: " + idOf.apply(entity), HttpStatus.FORBIDDEN);
+            }
+            byId.put(idOf.apply(entity), entity);
+        }
+        return byId;
+    }
+
+    private static void requireAll(Set<Long> found, Set<Long> requested, String resourceName) {
+        for (Long id : requested) {
+            if (!found.contains(id)) {
+                throw new ResourceNotFoundException(resourceName, "id", id);
+            }
+        }
+    }
+
+    /**
+     * 按梦想一次统计任务数，重新计算完成率和状态：任务全部完成时标记梦想已完成，
+     * 已完成的梦想出现未完成任务时改回进行中
+     */
+    private void refreshDreamProgress(Collection<Dream> dreams) {
+        if (dreams.isEmpty()) {
+            return;
+        }
+        Map<Long, TaskRepository.DreamTaskCount> counts = taskRepository.countByDreamIds(
+                        dreams.stream().map(Dream::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(TaskRepository.DreamTaskCount::getDreamId, Function.identity()));
+        for (Dream dream : dreams) {
+            TaskRepository.DreamTaskCount count = counts.get(dream.getId());
+            long totalTasks = count != null ? count.getTotal() : 0;
+            long completedTasks = count != null && count.getCompleted() != null ? count.getCompleted() : 0;
+
+            BigDecimal completionRate = BigDecimal.ZERO;
+            if (totalTasks > 0) {
+                completionRate = BigDecimal.valueOf(completedTasks)
+                        .multiply(BigDecimal.valueOf(100))
+                        .divide(BigDecimal.valueOf(totalTasks), 0, RoundingMode.HALF_UP);
+            }
+            dream.setCompletionRate(completionRate);
+            if (totalTasks > 0 && completedTasks == totalTasks) {
+                dream.setStatus(2); // 已完成
+            } else if (dream.getStatus() == 2 && completedTasks < totalTasks) {
+                dream.setStatus(1); // 进行中
+            }
+            log.info("更新梦想[{}]完成率为: {}%, 状态为: {}", dream.getId(), completionRate, dream.getStatus());
+        }
+    }
+
+    /**
+     * 发布任务变更事件，提醒调度和日历缓存在事务提交后更新
+     */
+    private void publishChanged(Task task) {
+        eventPublisher.publishEvent(new TaskChangedEvent(task.getId(), task.getUser().getId(),
+                new TaskReminder(task.getId(), task.getUser().getId(), task.getTitle(), task.getReminderTime(),
+                        task.getStatus(), task.getRecurrenceRule(), task.getStartDate())));
+    }
+
+    /**
+     * 完成时间变化后同步用户的完成任务位图，同一天只记录或检查一次
+     *
+     * @param userId   任务所属用户ID
+     * @param previous 各任务变化前的完成时间，未完成为null
+     * @param tasks    完成时间可能变化的任务，与previous一一对应
+     */
+    private void syncCompletionActivity(Long userId, List<LocalDateTime> previous, List<Task> tasks) {
+        Set<LocalDate> completed = new LinkedHashSet<>();
+        Set<LocalDate> revoked = new LinkedHashSet<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            LocalDate before = previous.get(i) != null ? previous.get(i).toLocalDate() : null;
+            LocalDateTime completedAt = completedAtOf(tasks.get(i));
+            LocalDate after = completedAt != null ? completedAt.toLocalDate() : null;
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            if (after != null) {
+                completed.add(after);
+            }
+            if (before != null) {
+                revoked.add(before);
+            }
+        }
+        completed.forEach(date -> activityService.recordActivity(userId, ActivityType.TASK_COMPLETED, date));
+        revoked.removeAll(completed);
+        revoked.forEach(date -> activityService.onTaskCompletionRevoked(userId, date));
+    }
+
+    /**
+     * @return 已完成任务的完成时间，未完成时为null
+     */
+    private static LocalDateTime completedAtOf(Task task) {
+        return Integer.valueOf(2).equals(task.getStatus()) ? task.getCompletedAt() : null;
+    }
+
+    /**
+     * 按当天日期重新计算逾期标记，之后随时间变为逾期的任务由每日逾期检测标记。
+     * 重复任务按实例展开，系列本身不标记逾期
+     */
+    private static void refreshOverdue(Task task) {
+        task.setOverdue(task.getRecurrenceRule() == null
+                && task.getDueDate() != null
+                && task.getDueDate().isBefore(LocalDate.now())
+                && OPEN_STATUSES.contains(task.getStatus()));
+    }
+
+    /**
+     * 校验并规范化重复规则，同时计算系列结束日期；规则为空时任务成为普通任务
+     */
+    private static void applyRecurrence(Task task, String recurrenceRule) {
+        if (recurrenceRule == null || recurrenceRule.isBlank()) {
+            task.setRecurrenceRule(null);
+            task.setRecurrenceEnd(null);
+            return;
+        }
+        if (task.getStartDate() == null) {
+            throw new BusinessException("重复任务需要设置开始日期作为系列起点");
+        }
+        RecurrenceRule rule = RecurrenceRule.parse(recurrenceRule);
+        LocalDate seriesEnd = rule.seriesEnd(task.getStartDate());
+        if (seriesEnd == null) {
+            throw new BusinessException("重复规则在开始日期之后没有任何实例");
+        }
+        task.setRecurrenceRule(rule.format());
+        task.setRecurrenceEnd(seriesEnd);
+    }
+
+    /**
+     * 展开日期窗口内重复任务的未完成实例，系列和已完成的例外记录各一次查询，与实例数无关
+     *
+     * @param firstOnly 每个系列只取第一次未完成的实例
+     */
+    private List<Task> expandOccurrences(Long userId, LocalDate from, LocalDate to, boolean firstOnly) {
+        List<Task> series = taskRepository.findRecurringInWindow(userId, OPEN_STATUSES, from, to);
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Set<LocalDate>> completed = new HashMap<>();
+        taskOccurrenceRepository.findByTaskIdsAndDateBetween(
+                        series.stream().map(Task::getId).collect(Collectors.toList()), from, to)
+                .forEach(record -> completed.computeIfAbsent(record.getTask().getId(), id -> new HashSet<>())
+                        .add(record.getOccurrenceDate()));
+
+        List<Task> occurrences = new ArrayList<>();
+        for (Task task : series) {
+            Set<LocalDate> done = completed.getOrDefault(task.getId(), Set.of());
+            List<LocalDate> dates = RecurrenceRule.parse(task.getRecurrenceRule())
+                    .occurrences(task.getStartDate(), from, to, MAX_OCCURRENCES_PER_TASK);
+            for (LocalDate date : dates) {
+                if (!done.contains(date)) {
+                    occurrences.add(occurrenceOf(task, date));
+                    if (firstOnly) {
+                        break;
+                    }
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * 重复任务在某天的实例副本，只用于展示，不受持久化上下文管理。
+     * 开始日期为实例日期，截止日期保持系列起点处开始到截止的间隔，提醒时间取实例当天的同一时刻
+     */
+    private static Task occurrenceOf(Task series, LocalDate date) {
+        LocalDate dueDate = series.getDueDate() != null
+                ? date.plusDays(ChronoUnit.DAYS.between(series.getStartDate(), series.getDueDate()))
+                : date;
+        return Task.builder()
+                .id(series.getId())
+                .dream(series.getDream())
+                .user(series.getUser())
+                .title(series.getTitle())
+                .description(series.getDescription())
+                .status(series.getStatus())
+                .priority(series.getPriority())
+                .startDate(date)
+                .dueDate(dueDate)
+                .reminderTime(series.getReminderTime() != null
+                        ? date.atTime(series.getReminderTime().toLocalTime()) : null)
+                .recurrenceRule(series.getRecurrenceRule())
+                .recurrenceEnd(series.getRecurrenceEnd())
+                .occurrenceDate(date)
+                .parentTask(series.getParentTask())
+                .subtasks(series.getSubtasks())
+                .createdAt(series.getCreatedAt())
+                .updatedAt(series.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * 今日任务排序：今天截止、今天开始、其余；再按优先级、有截止日期优先、截止日期升序
+     */
+    private static Comparator<Task> todayTaskOrder(LocalDate today) {
+        return Comparator.<Task>comparingInt(task -> today.equals(task.getDueDate()) ? 0
+                        : today.equals(task.getStartDate()) ? 1 : 2)
+                .thenComparing(Task::getPriority, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getId);
+    }
+
+    private static LocalDate firstDate(Task task) {
+        return task.getStartDate() != null ? task.getStartDate() : task.getDueDate();
+    }
+
+    /**
+     * 对已排序的列表做内存分页
+     */
+    private static <T> Page<T> toPage(List<T> items, Pageable pageable) {
+        return toPage(items, pageable, items.size());
+    }
+
+    /**
+     * 对已排序的列表做内存分页，列表只包含到本页末尾为止的部分
+     *
+     * @param total 完整结果的总条数
+     */
+    private static <T> Page<T> toPage(List<T> items, Pageable pageable, long total) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(items, pageable, total);
+        }
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return new PageImpl<>(items.subList(from, to), pageable, total);
+    }
+
     /**
      * 将任务实体转换为DTO
      *
@@ -597,10 +1084,36 @@ public class TaskServiceImpl implements TaskService {
      * @return 任务DTO
      */
     private TaskDTO convertToDTO(Task task) {
+        return convertToDTO(task, task.getChildTasks());
+    }
+
+    /**
+     * 批量转换任务，所有任务的子任务一次查询取出，不逐个初始化子任务集合
+     *
+     * @param tasks 任务实体
+     * @return 任务DTO，顺序与参数一致
+     */
+    private List<TaskDTO> convertToDTOsWithChildren(List<Task> tasks) {
+        Map<Long, List<Task>> children = taskRepository.findByParentTaskIdIn(
+                        tasks.stream().map(Task::getId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.groupingBy(child -> child.getParentTask().getId()));
+        return tasks.stream()
+                .map(task -> convertToDTO(task, children.getOrDefault(task.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 将任务实体转换为DTO
+     *
+     * @param task     任务实体
+     * @param children 直接子任务
+     * @return 任务DTO
+     */
+    private TaskDTO convertToDTO(Task task, Collection<Task> children) {
         // 获取子任务
         List<TaskDTO> childTasks = null;
-        if (task.getChildTasks() != null && !task.getChildTasks().isEmpty()) {
-            childTasks = task.getChildTasks().stream()
+        if (children != null && !children.isEmpty()) {
+            childTasks = children.stream()
                     .map(this::convertChildToDTO)
                     .collect(Collectors.toList());
         }
@@ -619,12 +1132,14 @@ public class TaskServiceImpl implements TaskService {
                 .dueDate(task.getDueDate())
                 .completedAt(task.getCompletedAt())
                 .reminderTime(task.getReminderTime())
+                .recurrenceRule(task.getRecurrenceRule())
+                .occurrenceDate(task.getOccurrenceDate())
                 .parentTaskId(task.getParentTask() != null ? task.getParentTask().getId() : null)
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .childTasks(childTasks)
                 .isTodayTask(false)
-                .isOverdue(task.getDueDate() != null && task.getDueDate().isBefore(LocalDate.now()) && task.getStatus() != 2)
+                .isOverdue(task.isOverdue())
                 .build();
     }
     
@@ -652,7 +1167,7 @@ public class TaskServiceImpl implements TaskService {
                 .createdAt(childTask.getCreatedAt())
                 .updatedAt(childTask.getUpdatedAt())
                 .isTodayTask(false)
-                .isOverdue(childTask.getDueDate() != null && childTask.getDueDate().isBefore(LocalDate.now()) && childTask.getStatus() != 2)
+                .isOverdue(childTask.isOverdue())
                 .build();
     }
 } 
\ No newline at end of file
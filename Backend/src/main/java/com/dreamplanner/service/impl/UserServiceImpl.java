@@ -3,12 +3,14 @@ package com.dreamplanner.service.impl;
 import com.dreamplanner.dto.UserDTO;
 import com.dreamplanner.entity.Follow;
 import com.dreamplanner.entity.User;
+import com.dreamplanner.event.NotificationEvent;
 import com.dreamplanner.exception.ResourceNotFoundException;
 import com.dreamplanner.repository.FollowRepository;
 import com.dreamplanner.repository.UserRepository;
 import com.dreamplanner.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +30,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final FollowRepository followRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDTO getUserById(Long id) {
@@ -43,6 +46,12 @@ public class UserServiceImpl implements UserService {
         return convertToDTO(user);
     }
 
+    @Override
+    public Long getUserIdByUsername(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("用户不存在"));
+    }
+
     @Override
     @Transactional
     public UserDTO createUser(UserDTO userDTO) {
@@ -177,6 +186,7 @@ public class UserServiceImpl implements UserService {
                 .build();
         
         followRepository.save(follow);
+        eventPublisher.publishEvent(NotificationEvent.followed(followerId, followedId));
         log.info("用户关注成功: {} -> {}", follower.getUsername(), followed.getUsername());
     }
 
@@ -188,6 +198,7 @@ public class UserServiceImpl implements UserService {
         }
         
         followRepository.deleteByFollowerIdAndFollowedId(followerId, followedId);
+        eventPublisher.publishEvent(NotificationEvent.unfollowed(followerId, followedId));
         log.info("取消关注成功: {} -> {}", followerId, followedId);
     }
 
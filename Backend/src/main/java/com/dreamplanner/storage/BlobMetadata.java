@@ -0,0 +1,40 @@
+package com.dreamplanner.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 存储对象元数据
+ *
+ * @author DreamPlanner
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlobMetadata {
+
+    /**
+     * 存储键（type/date/filename）
+     */
+    private String key;
+
+    /**
+     * 对象大小（字节）
+     */
+    private long size;
+
+    /**
+     * 内容类型，本地存储不记录时为空
+     */
+    private String contentType;
+
+    /**
+     * 最后修改时间
+     */
+    private Instant lastModified;
+}
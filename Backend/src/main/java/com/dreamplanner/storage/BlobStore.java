@@ -0,0 +1,116 @@
+package com.dreamplanner.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * 文件存储接口
+ * 上传文件统一按存储键（type/date/filename）读写，具体实现可以是本地磁盘或S3兼容的对象存储，
+ * 多个应用节点共享同一个对象存储时即可水平扩展
+ *
+ * @author DreamPlanner
+ */
+public interface BlobStore {
+
+    /**
+     * 流式写入对象
+     *
+     * @param key         存储键
+     * @param content     内容，由调用方负责关闭
+     * @param size        内容长度，未知时为-1
+     * @param contentType 内容类型
+     */
+    void put(String key, InputStream content, long size, String contentType) throws IOException;
+
+    /**
+     * 将本地临时文件写入存储，调用成功后临时文件归存储所有，调用方不应再使用
+     *
+     * @param key         存储键
+     * @param file        本地临时文件
+     * @param contentType 内容类型
+     */
+    void putFile(String key, Path file, String contentType) throws IOException;
+
+    /**
+     * 查询对象元数据
+     *
+     * @param key 存储键
+     * @return 元数据，对象不存在时为空
+     */
+    Optional<BlobMetadata> stat(String key) throws IOException;
+
+    /**
+     * 打开对象的输入流
+     *
+     * @param key 存储键
+     * @return 输入流，由调用方负责关闭
+     * @throws java.nio.file.NoSuchFileException 对象不存在
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * 打开对象中的一段，用于响应Range请求
+     *
+     * @param key    存储键
+     * @param offset 起始字节偏移
+     * @param length 读取长度
+     * @return 输入流，由调用方负责关闭
+     * @throws java.nio.file.NoSuchFileException 对象不存在
+     */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    /**
+     * 删除对象
+     *
+     * @param key 存储键
+     * @return 对象存在并被删除时返回true
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * 生成可直接下载的预签名地址，客户端重定向后由存储服务直接返回内容
+     *
+     * @param key 存储键
+     * @return 预签名地址，不支持时为空
+     */
+    Optional<URI> presignedDownloadUrl(String key);
+
+    /**
+     * 创建分段上传
+     *
+     * @param key         存储键
+     * @param contentType 内容类型
+     * @return 分段上传ID
+     */
+    String createMultipartUpload(String key, String contentType) throws IOException;
+
+    /**
+     * 上传一个分段
+     *
+     * @param key         存储键
+     * @param multipartId 分段上传ID
+     * @param partNumber  分段序号，从1开始
+     * @param content     分段内容
+     * @param size        分段长度
+     */
+    void uploadPart(String key, String multipartId, int partNumber, InputStream content, long size) throws IOException;
+
+    /**
+     * 按分段序号合并所有分段，完成上传
+     *
+     * @param key         存储键
+     * @param multipartId 分段上传ID
+     */
+    void completeMultipartUpload(String key, String multipartId) throws IOException;
+
+    /**
+     * 取消分段上传并清理已上传的分段
+     *
+     * @param key         存储键
+     * @param multipartId 分段上传ID
+     */
+    void abortMultipartUpload(String key, String multipartId) throws IOException;
+}
@@ -0,0 +1,192 @@
+package com.dreamplanner.storage;
+
+import com.google.common.io.ByteStreams;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 本地磁盘存储
+ * 存储键直接映射为上传目录下的相对路径，分段上传的分段暂存在.multipart目录
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private static final String MULTIPART_DIR = ".multipart";
+    private static final Pattern MULTIPART_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    private final Path root;
+
+    public LocalBlobStore(@Value("${file.upload.dir:uploads}") String uploadDir) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        log.info("使用本地文件存储, 目录: {}", root);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Files.copy(content, target);
+    }
+
+    @Override
+    public void putFile(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        move(file, target);
+    }
+
+    @Override
+    public Optional<BlobMetadata> stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return Optional.of(BlobMetadata.builder()
+                    .key(key)
+                    .size(attributes.size())
+                    .lastModified(attributes.lastModifiedTime().toInstant())
+                    .build());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(resolve(key), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return ByteStreams.limit(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Optional<URI> presignedDownloadUrl(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) throws IOException {
+        String multipartId = UUID.randomUUID().toString().replace("-", "");
+        Files.createDirectories(multipartPath(multipartId));
+        return multipartId;
+    }
+
+    @Override
+    public void uploadPart(String key, String multipartId, int partNumber, InputStream content, long size) throws IOException {
+        Path dir = multipartPath(multipartId);
+        if (!Files.isDirectory(dir)) {
+            throw new NoSuchFileException(multipartId);
+        }
+        Files.copy(content, dir.resolve(String.format("%05d.part", partNumber)), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String multipartId) throws IOException {
+        Path dir = multipartPath(multipartId);
+        List<Path> parts = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.part")) {
+            stream.forEach(parts::add);
+        }
+        parts.sort(null);
+
+        // 在分段目录中合并，完成后整体移动到目标位置，读取方不会看到不完整的文件
+        Path merged = dir.resolve("merged");
+        try (FileChannel out = FileChannel.open(merged, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+        putFile(key, merged, null);
+        abortMultipartUpload(key, multipartId);
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String multipartId) throws IOException {
+        Path dir = multipartPath(multipartId);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * 存储根目录，供只适用于本地存储的维护任务使用
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("非法的存储键: " + key);
+        }
+        return path;
+    }
+
+    private Path multipartPath(String multipartId) {
+        if (!MULTIPART_ID_PATTERN.matcher(multipartId).matches()) {
+            throw new IllegalArgumentException("非法的分段上传ID: " + multipartId);
+        }
+        return root.resolve(MULTIPART_DIR).resolve(multipartId);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+}
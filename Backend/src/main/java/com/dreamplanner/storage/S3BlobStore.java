@@ -0,0 +1,267 @@
+package com.dreamplanner.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * S3兼容对象存储
+ * 可对接AWS S3、MinIO等，自定义endpoint时通常需要开启path-style访问；
+ * 大于分段大小或长度未知的内容自动使用分段上传，读取时可返回预签名地址由客户端直接下载
+ *
+ * @author DreamPlanner
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "s3")
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    private final S3Client client;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final int partSize;
+    private final boolean redirectDownloads;
+    private final Duration presignTtl;
+
+    public S3BlobStore(@Value("${file.storage.s3.endpoint:}") String endpoint,
+                       @Value("${file.storage.s3.region:us-east-1}") String region,
+                       @Value("${file.storage.s3.bucket}") String bucket,
+                       @Value("${file.storage.s3.access-key:}") String accessKey,
+                       @Value("${file.storage.s3.secret-key:}") String secretKey,
+                       @Value("${file.storage.s3.path-style-access:true}") boolean pathStyleAccess,
+                       @Value("${file.storage.s3.part-size:8MB}") DataSize partSize,
+                       @Value("${file.storage.s3.redirect-downloads:true}") boolean redirectDownloads,
+                       @Value("${file.storage.s3.presign-ttl:15m}") Duration presignTtl) {
+        AwsCredentialsProvider credentials = StringUtils.hasText(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.create();
+        S3Configuration serviceConfiguration = S3Configuration.builder()
+                .pathStyleAccessEnabled(pathStyleAccess)
+                .build();
+
+        var clientBuilder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration);
+        var presignerBuilder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration);
+        if (StringUtils.hasText(endpoint)) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+            presignerBuilder.endpointOverride(URI.create(endpoint));
+        }
+        this.client = clientBuilder.build();
+        this.presigner = presignerBuilder.build();
+        this.bucket = bucket;
+        // S3要求除最后一段外每段不小于5MB
+        this.partSize = (int) Math.max(partSize.toBytes(), DataSize.ofMegabytes(5).toBytes());
+        this.redirectDownloads = redirectDownloads;
+        this.presignTtl = presignTtl;
+        log.info("使用S3对象存储, endpoint: {}, bucket: {}", StringUtils.hasText(endpoint) ? endpoint : "默认", bucket);
+    }
+
+    @PreDestroy
+    public void close() {
+        presigner.close();
+        client.close();
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        try {
+            if (size >= 0 && size <= partSize) {
+                client.putObject(r -> r.bucket(bucket).key(key).contentType(contentType).contentLength(size),
+                        RequestBody.fromInputStream(content, size));
+                return;
+            }
+            // 长度未知或超过分段大小时，先读满一个分段，不足一段时仍使用普通上传
+            byte[] buffer = new byte[partSize];
+            int firstRead = content.readNBytes(buffer, 0, partSize);
+            if (firstRead < partSize) {
+                client.putObject(r -> r.bucket(bucket).key(key).contentType(contentType).contentLength((long) firstRead),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, firstRead), firstRead));
+                return;
+            }
+            String multipartId = createMultipartUpload(key, contentType);
+            try {
+                int partNumber = 1;
+                int read = firstRead;
+                while (read > 0) {
+                    uploadPart(key, multipartId, partNumber++, new ByteArrayInputStream(buffer, 0, read), read);
+                    read = content.readNBytes(buffer, 0, partSize);
+                }
+                completeMultipartUpload(key, multipartId);
+            } catch (IOException | RuntimeException e) {
+                abortMultipartUpload(key, multipartId);
+                throw e;
+            }
+        } catch (SdkException e) {
+            throw storageError("写入对象失败: " + key, e);
+        }
+    }
+
+    @Override
+    public void putFile(String key, Path file, String contentType) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            put(key, in, Files.size(file), contentType);
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public Optional<BlobMetadata> stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = client.headObject(r -> r.bucket(bucket).key(key));
+            return Optional.of(BlobMetadata.builder()
+                    .key(key)
+                    .size(head.contentLength())
+                    .contentType(head.contentType())
+                    .lastModified(head.lastModified())
+                    .build());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw storageError("查询对象失败: " + key, e);
+        } catch (SdkException e) {
+            throw storageError("查询对象失败: " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return client.getObject(r -> r.bucket(bucket).key(key));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException e) {
+            throw storageError("读取对象失败: " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        String range = "bytes=" + offset + "-" + (offset + length - 1);
+        try {
+            return client.getObject(r -> r.bucket(bucket).key(key).range(range));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException e) {
+            throw storageError("读取对象失败: " + key + " " + range, e);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        // S3删除不存在的对象也会成功，先查询以返回准确结果
+        if (stat(key).isEmpty()) {
+            return false;
+        }
+        try {
+            client.deleteObject(r -> r.bucket(bucket).key(key));
+            return true;
+        } catch (SdkException e) {
+            throw storageError("删除对象失败: " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<URI> presignedDownloadUrl(String key) {
+        if (!redirectDownloads) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(presigner.presignGetObject(r -> r.signatureDuration(presignTtl)
+                    .getObjectRequest(g -> g.bucket(bucket).key(key))).url().toURI());
+        } catch (URISyntaxException | SdkException e) {
+            log.warn("生成预签名地址失败: {}, 原因: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) throws IOException {
+        try {
+            return client.createMultipartUpload(r -> r.bucket(bucket).key(key).contentType(contentType)).uploadId();
+        } catch (SdkException e) {
+            throw storageError("创建分段上传失败: " + key, e);
+        }
+    }
+
+    @Override
+    public void uploadPart(String key, String multipartId, int partNumber, InputStream content, long size) throws IOException {
+        try {
+            client.uploadPart(r -> r.bucket(bucket).key(key).uploadId(multipartId)
+                            .partNumber(partNumber).contentLength(size),
+                    RequestBody.fromInputStream(content, size));
+        } catch (SdkException e) {
+            throw storageError("上传分段失败: " + key + "#" + partNumber, e);
+        }
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String multipartId) throws IOException {
+        try {
+            // 从服务端列出已上传的分段，分段可以由不同节点上传
+            List<CompletedPart> parts = new ArrayList<>();
+            client.listPartsPaginator(r -> r.bucket(bucket).key(key).uploadId(multipartId))
+                    .parts()
+                    .forEach(part -> parts.add(CompletedPart.builder()
+                            .partNumber(part.partNumber())
+                            .eTag(part.eTag())
+                            .build()));
+            parts.sort(Comparator.comparingInt(CompletedPart::partNumber));
+            client.completeMultipartUpload(r -> r.bucket(bucket).key(key).uploadId(multipartId)
+                    .multipartUpload(m -> m.parts(parts)));
+        } catch (SdkException e) {
+            throw storageError("完成分段上传失败: " + key, e);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String multipartId) throws IOException {
+        try {
+            client.abortMultipartUpload(r -> r.bucket(bucket).key(key).uploadId(multipartId));
+        } catch (SdkException e) {
+            throw storageError("取消分段上传失败: " + key, e);
+        }
+    }
+
+    private IOException storageError(String message, SdkException e) {
+        log.error("{}, 原因: {}", message, e.getMessage());
+        return new IOException(message, e);
+    }
+}
@@ -0,0 +1,103 @@
+package com.dreamplanner.util;
+
+/**
+ * 基于开放寻址的long集合
+ * 直接存储原始long值，每个元素约占12~16字节，远小于HashSet&lt;Long&gt;
+ *
+ * @author DreamPlanner
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] table;
+    private boolean containsZero;
+    private int size;
+    private int threshold;
+
+    public LongHashSet() {
+        this(1024);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        table = new long[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     * @return 元素原先不存在时返回true
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            if (added) {
+                containsZero = true;
+                size++;
+            }
+            return added;
+        }
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size > threshold) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * 判断元素是否存在
+     *
+     * @param value 元素
+     * @return 是否存在
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] old = table;
+        table = new long[old.length << 1];
+        threshold = (int) (table.length * LOAD_FACTOR);
+        int mask = table.length - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int index = mix(value) & mask;
+                while (table[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
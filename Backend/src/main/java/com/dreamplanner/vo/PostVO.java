@@ -5,6 +5,7 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 帖子视图对象
@@ -92,6 +93,11 @@ public class PostVO {
      */
     private Boolean authorFollowed;
     
+    /**
+     * 搜索命中的高亮片段，键为title/content，仅搜索接口返回
+     */
+    private Map<String, String> highlights;
+    
     /**
      * 创建时间
      */
@@ -0,0 +1,3 @@
+-- 梦想进度时间线按(created_at, id)倒序键集分页，打卡统计按创建日期分组，
+-- 两者都是该索引上的一次范围扫描；显式包含id使翻页条件和排序都能在索引内完成
+ALTER TABLE `progress` ADD INDEX `idx_dream_created_at` (`dream_id`, `created_at`, `id`);
@@ -0,0 +1,29 @@
+-- 用户活跃度位图：每个用户每类活动（1-打卡，2-完成任务）每年一行，
+-- days第i位（小端序，第i / 8字节的第i % 8位）表示该年第i + 1天是否有活动
+CREATE TABLE `user_activity` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `type` tinyint NOT NULL COMMENT '活动类型：1-打卡，2-完成任务',
+  `activity_year` smallint NOT NULL COMMENT '年份',
+  `days` binary(46) NOT NULL COMMENT '366位活动位图',
+  `updated_at` datetime NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_user_activity_type_year` (`user_id`, `type`, `activity_year`) USING BTREE,
+  CONSTRAINT `fk_user_activity_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '用户活跃度位图表' ROW_FORMAT = DYNAMIC;
+
+-- 由历史数据回填：每个活动日生成只有一位为1的46字节掩码，按用户和年份BIT_OR合并
+INSERT INTO `user_activity` (`user_id`, `type`, `activity_year`, `days`, `updated_at`)
+SELECT d.user_id, d.type, YEAR(d.day),
+       BIT_OR(UNHEX(CONCAT(REPEAT('00', (DAYOFYEAR(d.day) - 1) DIV 8),
+                           LPAD(HEX(1 << ((DAYOFYEAR(d.day) - 1) % 8)), 2, '0'),
+                           REPEAT('00', 45 - (DAYOFYEAR(d.day) - 1) DIV 8)))),
+       NOW()
+FROM (
+    SELECT DISTINCT user_id, 1 AS type, DATE(created_at) AS day FROM `progress`
+    UNION
+    SELECT DISTINCT user_id, 2, DATE(completed_at) FROM `task` WHERE status = 2 AND completed_at IS NOT NULL
+    UNION
+    SELECT DISTINCT t.user_id, 2, DATE(o.completed_at) FROM `task_occurrence` o JOIN `task` t ON t.id = o.task_id
+) d
+GROUP BY d.user_id, d.type, YEAR(d.day);
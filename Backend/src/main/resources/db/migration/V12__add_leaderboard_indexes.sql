@@ -0,0 +1,4 @@
+-- 本周活跃榜重建时按时间范围统计全部用户的打卡次数和完成任务数，
+-- 两条分组查询都只按时间（任务再加状态）过滤，没有用户或梦想前缀可用
+ALTER TABLE `progress` ADD INDEX `idx_created_at` (`created_at`);
+ALTER TABLE `task` ADD INDEX `idx_status_completed_at` (`status`, `completed_at`);
@@ -0,0 +1,26 @@
+-- 通知收件箱：同一接收者未读的同类通知按目标聚合成一行，标记已读后再有新行为时另起一行
+CREATE TABLE `notification` (
+  `id` bigint NOT NULL COMMENT '主键ID，由notification_seq按块分配',
+  `recipient_id` bigint NOT NULL COMMENT '接收用户ID',
+  `type` tinyint NOT NULL COMMENT '通知类型：1-点赞，2-评论，3-回复，4-关注',
+  `target_id` bigint NOT NULL COMMENT '聚合目标：点赞、评论、回复为动态ID，关注为0',
+  `actor_count` int NOT NULL COMMENT '聚合的发起用户数',
+  `last_actor_id` bigint NOT NULL COMMENT '最近一个发起用户ID',
+  `content` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '最近一条评论内容摘要',
+  `is_read` tinyint(1) NOT NULL DEFAULT 0 COMMENT '是否已读',
+  `created_at` datetime NOT NULL COMMENT '创建时间',
+  `updated_at` datetime NOT NULL COMMENT '最近一次聚合时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  -- 收件箱按(updated_at, id)倒序键集分页
+  INDEX `idx_recipient_updated_at` (`recipient_id`, `updated_at`, `id`) USING BTREE,
+  -- 未读计数和投递时查找可聚合的未读行
+  INDEX `idx_recipient_read_type_target` (`recipient_id`, `is_read`, `type`, `target_id`) USING BTREE,
+  CONSTRAINT `fk_notification_recipient` FOREIGN KEY (`recipient_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '通知表' ROW_FORMAT = DYNAMIC;
+
+-- 通知ID由应用按块分配（每次取50个），投递时的插入可以走JDBC批量，做法同task_seq
+CREATE TABLE `notification_seq` (
+  `next_val` bigint NOT NULL COMMENT '下一个可分配的通知ID'
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '通知ID分配表' ROW_FORMAT = DYNAMIC;
+
+INSERT INTO `notification_seq` (`next_val`) VALUES (1);
@@ -0,0 +1,13 @@
+-- 聚合通知的不同发起用户，actor_count由这里的行数得出；取消点赞、取消关注时删除对应行
+CREATE TABLE `notification_actor` (
+  `notification_id` bigint NOT NULL COMMENT '通知ID',
+  `actor_id` bigint NOT NULL COMMENT '发起用户ID',
+  PRIMARY KEY (`notification_id`, `actor_id`) USING BTREE,
+  CONSTRAINT `fk_notification_actor_notification` FOREIGN KEY (`notification_id`) REFERENCES `notification` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '通知发起用户表' ROW_FORMAT = DYNAMIC;
+
+-- 已有的未读通知只记录了最近一个发起用户，以此补齐；聚合人数以补齐后的行数为准
+INSERT INTO `notification_actor` (`notification_id`, `actor_id`)
+SELECT `id`, `last_actor_id` FROM `notification` WHERE `is_read` = 0;
+
+UPDATE `notification` SET `actor_count` = 1 WHERE `is_read` = 0;
@@ -0,0 +1,2 @@
+-- 提醒调度按日期窗口找出仍在进行、设置了提醒的重复任务，不限用户；普通任务的recurrence_end为NULL，不进入扫描范围
+ALTER TABLE `task` ADD INDEX `idx_recurrence_end` (`recurrence_end`) USING BTREE;
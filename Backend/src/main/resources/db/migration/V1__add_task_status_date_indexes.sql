@@ -0,0 +1,5 @@
+-- 今日/本周/即将到期任务查询只读取未完成任务，按(user_id, status, 日期)建立复合索引，
+-- 使查询可以对每个状态做一次索引范围扫描，而不是扫描用户的全部历史任务
+ALTER TABLE `task`
+    ADD INDEX `idx_user_status_due_date` (`user_id`, `status`, `due_date`),
+    ADD INDEX `idx_user_status_start_date` (`user_id`, `status`, `start_date`);
@@ -0,0 +1,13 @@
+-- 定时任务租约：多节点部署时保证同一定时任务只在一个节点上运行，并保存处理水位
+CREATE TABLE `scheduler_lease` (
+  `name` varchar(64) NOT NULL COMMENT '租约名称',
+  `owner` varchar(128) NULL DEFAULT NULL COMMENT '持有租约的节点',
+  `expires_at` datetime(3) NOT NULL COMMENT '租约过期时间',
+  `watermark` datetime(3) NULL DEFAULT NULL COMMENT '已处理到的时间点',
+  PRIMARY KEY (`name`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '定时任务租约表' ROW_FORMAT = DYNAMIC;
+
+-- 提醒调度按提醒时间分段加载，并按更新时间增量拾取任务变更
+ALTER TABLE `task`
+    ADD INDEX `idx_reminder_time` (`reminder_time`),
+    ADD INDEX `idx_updated_at` (`updated_at`);
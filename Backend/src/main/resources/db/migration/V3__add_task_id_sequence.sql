@@ -0,0 +1,7 @@
+-- 任务ID改为由应用按块分配（每次取50个），插入可以走JDBC批量；MySQL没有序列，使用单行表模拟
+-- 初始值为现有最大ID + 1，部署时所有节点需同时升级，避免旧版本继续使用自增ID与已分配的块冲突
+CREATE TABLE `task_seq` (
+  `next_val` bigint NOT NULL COMMENT '下一个可分配的任务ID'
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '任务ID分配表' ROW_FORMAT = DYNAMIC;
+
+INSERT INTO `task_seq` (`next_val`) SELECT COALESCE(MAX(`id`), 0) + 1 FROM `task`;
@@ -0,0 +1,19 @@
+-- 任务层级闭包表：每个任务与它自身及所有祖先各有一行，depth为祖先到该任务的层数（自身为0）
+-- 整棵子树、祖先链都可以一条语句取出，不再按层逐级查询子任务
+CREATE TABLE `task_closure` (
+  `ancestor_id` bigint NOT NULL COMMENT '祖先任务ID',
+  `descendant_id` bigint NOT NULL COMMENT '后代任务ID',
+  `depth` int NOT NULL COMMENT '祖先到后代的层数',
+  PRIMARY KEY (`ancestor_id`, `descendant_id`) USING BTREE,
+  INDEX `idx_descendant_id` (`descendant_id`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '任务层级闭包表' ROW_FORMAT = DYNAMIC;
+
+-- 按现有parent_task_id回填
+INSERT INTO `task_closure` (`ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE `tree` (`ancestor_id`, `descendant_id`, `depth`) AS (
+    SELECT `id`, `id`, 0 FROM `task`
+    UNION ALL
+    SELECT `tree`.`ancestor_id`, `t`.`id`, `tree`.`depth` + 1
+    FROM `tree` JOIN `task` `t` ON `t`.`parent_task_id` = `tree`.`descendant_id`
+)
+SELECT `ancestor_id`, `descendant_id`, `depth` FROM `tree`;
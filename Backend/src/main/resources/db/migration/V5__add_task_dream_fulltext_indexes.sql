@@ -0,0 +1,5 @@
+-- 任务、梦想关键词搜索改用全文索引，ngram分词器把中文按ngram_token_size（默认2）切成连续片段，
+-- 代替LIKE '%关键词%'的全表扫描，并提供相关度排序。短于ngram_token_size的关键词由应用回退到LIKE
+ALTER TABLE `task` ADD FULLTEXT INDEX `ft_task_title_description` (`title`, `description`) WITH PARSER ngram;
+
+ALTER TABLE `dream` ADD FULLTEXT INDEX `ft_dream_title_description` (`title`, `description`) WITH PARSER ngram;
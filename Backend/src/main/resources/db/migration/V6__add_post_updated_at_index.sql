@@ -0,0 +1,2 @@
+-- 动态搜索索引按更新时间增量拾取其他节点的动态变更
+ALTER TABLE `post` ADD INDEX `idx_updated_at` (`updated_at`);
@@ -0,0 +1,3 @@
+-- 日历按截止日期分组统计用户全部状态的任务，(user_id, due_date, status, priority)覆盖统计查询，
+-- 一次索引范围扫描即可完成，不需要按状态拆成多段，也不回表
+ALTER TABLE `task` ADD INDEX `idx_user_due_date_status_priority` (`user_id`, `due_date`, `status`, `priority`);
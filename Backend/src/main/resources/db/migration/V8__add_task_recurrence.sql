@@ -0,0 +1,17 @@
+-- 重复任务：任务行只保存规则和系列结束日期，实例在查询时按日期窗口展开；
+-- 普通任务的recurrence_end为NULL，按(user_id, recurrence_end)范围扫描只会读到仍在进行的系列
+ALTER TABLE `task`
+    ADD COLUMN `recurrence_rule` varchar(255) NULL DEFAULT NULL COMMENT '重复规则（RRULE子集）' AFTER `reminder_time`,
+    ADD COLUMN `recurrence_end` date NULL DEFAULT NULL COMMENT '系列最后一次实例的日期，无限重复为9999-12-31' AFTER `recurrence_rule`,
+    ADD INDEX `idx_user_recurrence_end` (`user_id`, `recurrence_end`);
+
+-- 重复任务实例的例外：只记录已完成的实例
+CREATE TABLE `task_occurrence` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `task_id` bigint NOT NULL COMMENT '重复任务ID',
+  `occurrence_date` date NOT NULL COMMENT '实例日期',
+  `completed_at` datetime NOT NULL COMMENT '完成时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_task_occurrence_date` (`task_id`, `occurrence_date`) USING BTREE,
+  CONSTRAINT `fk_task_occurrence_task` FOREIGN KEY (`task_id`) REFERENCES `task` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '重复任务实例例外表' ROW_FORMAT = DYNAMIC;
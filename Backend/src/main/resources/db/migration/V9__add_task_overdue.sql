@@ -0,0 +1,9 @@
+-- 逾期标记：读取时直接使用该列，不再按当前日期逐条计算；
+-- 每日逾期检测按(status, due_date)范围扫描上次检测之后到期的任务，不扫描全表
+ALTER TABLE `task`
+    ADD COLUMN `overdue` tinyint(1) NOT NULL DEFAULT 0 COMMENT '是否已逾期' AFTER `reminder_time`,
+    ADD INDEX `idx_status_due_date` (`status`, `due_date`);
+
+-- 回填已经逾期的任务
+UPDATE `task` SET `overdue` = 1
+WHERE `status` IN (0, 1, 3) AND `due_date` < CURDATE() AND `recurrence_rule` IS NULL;
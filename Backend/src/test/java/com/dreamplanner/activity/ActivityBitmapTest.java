@@ -0,0 +1,101 @@
+package com.dreamplanner.activity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 活跃度位图的读写与连续天数
+ *
+ * @author DreamPlanner
+ */
+class ActivityBitmapTest {
+
+    @Test
+    void bytesUseLittleEndianBitOrder() {
+        ActivityBitmap bitmap = ActivityBitmap.empty(2024);
+        assertTrue(bitmap.set(LocalDate.of(2024, 1, 1)));
+        assertTrue(bitmap.set(LocalDate.of(2024, 1, 10)));
+        assertTrue(bitmap.set(LocalDate.of(2024, 12, 31)));
+        assertFalse(bitmap.set(LocalDate.of(2024, 1, 10)));
+
+        byte[] bytes = bitmap.toBytes();
+        assertEquals(ActivityBitmap.BYTES, bytes.length);
+        // 第0位、第9位、第365位
+        assertEquals(0x01, bytes[0]);
+        assertEquals(0x02, bytes[1]);
+        assertEquals(0x20, bytes[45]);
+
+        ActivityBitmap loaded = ActivityBitmap.of(2024, bytes);
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), LocalDate.of(2024, 12, 31)),
+                loaded.activeDates());
+        assertTrue(loaded.clear(LocalDate.of(2024, 1, 10)));
+        assertEquals(2, loaded.activeDays());
+        assertArrayEquals(new byte[ActivityBitmap.BYTES], ActivityBitmap.empty(2024).toBytes());
+    }
+
+    @Test
+    void longestRunWithinYear() {
+        ActivityBitmap bitmap = bitmap(2025, LocalDate.of(2025, 3, 1), 4);
+        setDays(bitmap, LocalDate.of(2025, 5, 30), 70);
+        setDays(bitmap, LocalDate.of(2025, 12, 20), 3);
+        assertEquals(70, bitmap.longestRun());
+        assertEquals(0, bitmap.leadingRun());
+        assertEquals(3, bitmap.runEndingAt(LocalDate.of(2025, 12, 22)));
+    }
+
+    @Test
+    void longestStreakJoinsAdjacentYears() {
+        SortedMap<Integer, ActivityBitmap> bitmaps = new TreeMap<>();
+        bitmaps.put(2023, bitmap(2023, LocalDate.of(2023, 12, 25), 7));
+        bitmaps.put(2024, bitmap(2024, LocalDate.of(2024, 1, 1), 10));
+        assertEquals(17, ActivityBitmap.longestStreak(bitmaps));
+
+        // 中间缺一年时不连续
+        SortedMap<Integer, ActivityBitmap> gap = new TreeMap<>();
+        gap.put(2022, bitmap(2022, LocalDate.of(2022, 12, 25), 7));
+        gap.put(2024, bitmap(2024, LocalDate.of(2024, 1, 1), 5));
+        assertEquals(7, ActivityBitmap.longestStreak(gap));
+    }
+
+    @Test
+    void longestStreakSpansFullYear() {
+        SortedMap<Integer, ActivityBitmap> bitmaps = new TreeMap<>();
+        bitmaps.put(2023, bitmap(2023, LocalDate.of(2023, 12, 30), 2));
+        bitmaps.put(2024, bitmap(2024, LocalDate.of(2024, 1, 1), 366));
+        bitmaps.put(2025, bitmap(2025, LocalDate.of(2025, 1, 1), 3));
+        assertEquals(2 + 366 + 3, ActivityBitmap.longestStreak(bitmaps));
+    }
+
+    @Test
+    void currentStreakCrossesYearAndToleratesEmptyToday() {
+        SortedMap<Integer, ActivityBitmap> bitmaps = new TreeMap<>();
+        bitmaps.put(2024, bitmap(2024, LocalDate.of(2024, 12, 28), 4));
+        bitmaps.put(2025, bitmap(2025, LocalDate.of(2025, 1, 1), 3));
+        assertEquals(7, ActivityBitmap.currentStreak(bitmaps, LocalDate.of(2025, 1, 3)));
+        // 今天还没有活动时截至昨天
+        assertEquals(7, ActivityBitmap.currentStreak(bitmaps, LocalDate.of(2025, 1, 4)));
+        assertEquals(0, ActivityBitmap.currentStreak(bitmaps, LocalDate.of(2025, 1, 5)));
+        assertEquals(0, ActivityBitmap.currentStreak(new TreeMap<>(), LocalDate.of(2025, 1, 5)));
+    }
+
+    private static ActivityBitmap bitmap(int year, LocalDate first, int days) {
+        ActivityBitmap bitmap = ActivityBitmap.empty(year);
+        setDays(bitmap, first, days);
+        return bitmap;
+    }
+
+    private static void setDays(ActivityBitmap bitmap, LocalDate first, int days) {
+        for (int i = 0; i < days; i++) {
+            bitmap.set(first.plusDays(i));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.dreamplanner.cache;
+
+import com.dreamplanner.storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 图片缓存：单个文件上限、总容量淘汰、删除后失效以及指标注册
+ *
+ * @author DreamPlanner
+ */
+class ImageCacheTest {
+
+    private static final int ENTRY = 1024;
+
+    @TempDir
+    Path uploadDir;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(uploadDir.toString());
+    }
+
+    @Test
+    void onlySmallFilesAreCacheable() {
+        ImageCache cache = newCache(true, DataSize.ofKilobytes(64));
+        assertTrue(cache.isCacheable(ENTRY));
+        assertFalse(cache.isCacheable(ENTRY + 1));
+        assertFalse(newCache(false, DataSize.ofKilobytes(64)).isCacheable(1));
+    }
+
+    @Test
+    void evictsWhenTotalSizeExceeded() throws IOException {
+        ImageCache cache = newCache(true, DataSize.ofKilobytes(4));
+        for (int i = 0; i < 8; i++) {
+            load(cache, "avatar/20240101/" + i + ".png", bytes(ENTRY, i));
+        }
+
+        Map<String, Object> stats = cache.getStats();
+        assertTrue((Long) stats.get("usedBytes") <= DataSize.ofKilobytes(4).toBytes());
+        assertTrue((Long) stats.get("evictionCount") > 0);
+        assertEquals((long) (Long) stats.get("entries") * ENTRY, stats.get("usedBytes"));
+    }
+
+    @Test
+    void invalidateReleasesEntryAfterDelete() throws IOException {
+        ImageCache cache = newCache(true, DataSize.ofKilobytes(64));
+        String key = "avatar/20240101/a.png";
+        load(cache, key, bytes(ENTRY, 1));
+        assertNotNull(cache.getIfPresent(key));
+
+        blobStore.delete(key);
+        cache.invalidate(key);
+
+        assertNull(cache.getIfPresent(key));
+        assertEquals(0L, cache.getStats().get("usedBytes"));
+
+        // 同名文件重新上传后读到的是新内容
+        byte[] replaced = bytes(ENTRY, 2);
+        ImageCache.CachedImage image = load(cache, key, replaced);
+        try (InputStream in = image.openStream()) {
+            assertArrayEquals(replaced, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void bindsCacheMetrics() throws IOException {
+        ImageCache cache = newCache(true, DataSize.ofKilobytes(64));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        String key = "avatar/20240101/a.png";
+        load(cache, key, bytes(ENTRY, 1));
+        cache.getIfPresent(key);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "image").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "image").gauge().value());
+        assertEquals(ENTRY, registry.get("image.cache.used").gauge().value());
+    }
+
+    private ImageCache newCache(boolean enabled, DataSize maxSize) {
+        return new ImageCache(enabled, maxSize, DataSize.ofBytes(ENTRY), Duration.ofMinutes(10));
+    }
+
+    private ImageCache.CachedImage load(ImageCache cache, String key, byte[] data) throws IOException {
+        blobStore.put(key, new ByteArrayInputStream(data), data.length, "image/png");
+        return cache.load(key, blobStore, data.length, "image/png");
+    }
+
+    private static byte[] bytes(int size, int seed) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + seed);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,91 @@
+package com.dreamplanner.cache;
+
+import com.dreamplanner.calendar.TaskCalendarCount;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 任务日历缓存：按月加载缺失区间、月份上限、并发请求和加载期间的失效
+ *
+ * @author DreamPlanner
+ */
+class TaskCalendarCacheTest {
+
+    private static final Long USER = 1L;
+    private static final YearMonth FIRST = YearMonth.of(2024, 1);
+
+    private final TaskCalendarCache cache = new TaskCalendarCache(100, Duration.ofMinutes(5));
+    private final List<String> loads = new ArrayList<>();
+
+    @Test
+    void loadsOnlyMissingMonths() {
+        assertEquals(3, cache.getCounts(USER, FIRST, FIRST.plusMonths(2), loader()).size());
+        assertEquals(5, cache.getCounts(USER, FIRST, FIRST.plusMonths(4), loader()).size());
+        assertEquals(List.of("2024-01-01~2024-03-31", "2024-04-01~2024-05-31"), loads);
+    }
+
+    @Test
+    void dropsOtherMonthsWhenCapExceeded() {
+        YearMonth last = FIRST.plusMonths(TaskCalendarCache.MAX_MONTHS_PER_USER - 1);
+        cache.getCounts(USER, FIRST, last, loader());
+        cache.getCounts(USER, last.plusMonths(1), last.plusMonths(1), loader());
+        loads.clear();
+
+        cache.getCounts(USER, FIRST, FIRST, loader());
+        cache.getCounts(USER, last.plusMonths(1), last.plusMonths(1), loader());
+        assertEquals(List.of("2024-01-01~2024-01-31"), loads);
+    }
+
+    @Test
+    void concurrentRequestExceedingCapKeepsRowsOfAssemblingRequest() {
+        YearMonth last = FIRST.plusMonths(TaskCalendarCache.MAX_MONTHS_PER_USER - 1);
+        cache.getCounts(USER, FIRST, last.minusMonths(1), loader());
+
+        // 本请求加载最后一个月期间，另一个请求加载的月份使缓存超出上限
+        BiFunction<LocalDate, LocalDate, List<TaskCalendarCount>> racing = (from, to) -> {
+            cache.getCounts(USER, last.plusMonths(1), last.plusMonths(2), loader());
+            return loader().apply(from, to);
+        };
+        List<TaskCalendarCount> rows = cache.getCounts(USER, FIRST, last, racing);
+
+        assertEquals(TaskCalendarCache.MAX_MONTHS_PER_USER, rows.size());
+        assertEquals(FIRST.atDay(1), rows.get(0).date());
+        assertEquals(last.atDay(1), rows.get(rows.size() - 1).date());
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotOverwritten() {
+        BiFunction<LocalDate, LocalDate, List<TaskCalendarCount>> invalidating = (from, to) -> {
+            List<TaskCalendarCount> stale = loader().apply(from, to);
+            cache.invalidate(USER);
+            return stale;
+        };
+        cache.getCounts(USER, FIRST, FIRST, invalidating);
+        loads.clear();
+
+        cache.getCounts(USER, FIRST, FIRST, loader());
+        assertEquals(List.of("2024-01-01~2024-01-31"), loads);
+    }
+
+    /**
+     * 每个月返回一行，日期为当月第一天
+     */
+    private BiFunction<LocalDate, LocalDate, List<TaskCalendarCount>> loader() {
+        return (from, to) -> {
+            loads.add(from + "~" + to);
+            List<TaskCalendarCount> rows = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusMonths(1)) {
+                rows.add(new TaskCalendarCount(date, 0, 1, 1L));
+            }
+            return rows;
+        };
+    }
+}
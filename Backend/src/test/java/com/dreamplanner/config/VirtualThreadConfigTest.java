@@ -0,0 +1,53 @@
+package com.dreamplanner.config;
+
+import com.dreamplanner.concurrent.DbAdmissionLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 数据库准入限流按物理连接池大小分别创建
+ *
+ * @author DreamPlanner
+ */
+class VirtualThreadConfigTest {
+
+    @Test
+    void limitsEachPoolToItsOwnSize() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (HikariDataSource primary = pool(10); HikariDataSource replica = pool(20)) {
+            DataSource limitedPrimary = VirtualThreadConfig.limitAdmission(primary, "primary", environment, registry);
+            DataSource limitedReplica = VirtualThreadConfig.limitAdmission(replica, "replica", environment, registry);
+
+            assertEquals(10, assertInstanceOf(DbAdmissionLimiter.class, limitedPrimary).getMaxPermits());
+            assertEquals(20, assertInstanceOf(DbAdmissionLimiter.class, limitedReplica).getMaxPermits());
+            assertEquals(20.0, registry.get("db.admission.available").tag("pool", "replica").gauge().value());
+            assertNotNull(registry.get("db.admission.wait").tag("pool", "primary").timer());
+        }
+    }
+
+    @Test
+    void leavesPoolUntouchedWhenDisabled() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", "true")
+                .withProperty("concurrency.db-admission.enabled", "false");
+        try (HikariDataSource primary = pool(10)) {
+            assertSame(primary, VirtualThreadConfig.limitAdmission(primary, "primary", environment, null));
+        }
+    }
+
+    private static HikariDataSource pool(int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(size);
+        return pool;
+    }
+}
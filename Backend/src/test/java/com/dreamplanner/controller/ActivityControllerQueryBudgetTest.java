@@ -0,0 +1,43 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 活跃度接口查询预算，预算包含JWT过滤器加载当前用户的1条查询
+ *
+ * @author DreamPlanner
+ */
+class ActivityControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getHeatmap() throws Exception {
+        checkIn();
+        assertQueryBudget(2, get("/activity/user/" + data.alice().getId() + "/heatmap"));
+    }
+
+    @Test
+    void getStreaks() throws Exception {
+        // 全部年份的位图一次查询，连续天数在内存中按位计算
+        checkIn();
+        assertQueryBudget(2, get("/activity/user/" + data.alice().getId() + "/streaks").param("type", "CHECK_IN"));
+    }
+
+    @Test
+    void getTaskCompletionStreaks() throws Exception {
+        assertQueryBudget(2, get("/activity/user/" + data.alice().getId() + "/streaks")
+                .param("type", "TASK_COMPLETED"));
+    }
+
+    private void checkIn() throws Exception {
+        assertQueryBudget(7, json(post("/progress"), Map.of(
+                "userId", data.alice().getId(),
+                "dreamId", data.swim().getId(),
+                "description", "今天游了五百米")));
+    }
+}
@@ -0,0 +1,43 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.entity.User;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import com.dreamplanner.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 管理端点访问控制：health匿名可访问，其余端点只对管理员开放
+ *
+ * @author DreamPlanner
+ */
+@TestPropertySource(properties = "security.admin-usernames=bob")
+class ActuatorSecurityTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void metricsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(as(get("/actuator/metrics"), data.alice())).andExpect(status().isForbidden());
+        mockMvc.perform(as(get("/actuator/nplusone"), data.alice())).andExpect(status().isForbidden());
+        mockMvc.perform(as(get("/actuator/metrics"), data.bob())).andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder as(MockHttpServletRequestBuilder request, User user) {
+        return request.header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + jwtUtil.generateToken(user.getId(), user.getUsername()));
+    }
+}
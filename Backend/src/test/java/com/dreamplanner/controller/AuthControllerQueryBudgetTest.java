@@ -0,0 +1,46 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import com.dreamplanner.support.query.QueryBudgetFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 认证接口查询预算，均为匿名访问
+ *
+ * @author DreamPlanner
+ */
+class AuthControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void login() throws Exception {
+        // 按用户名加载用户
+        assertQueryBudget(2, json(post("/auth/login"),
+                Map.of("username", "alice", "password", QueryBudgetFixtures.PASSWORD)), null);
+    }
+
+    @Test
+    void register() throws Exception {
+        // 用户名、邮箱、手机号唯一性检查各1条 + 插入
+        assertQueryBudget(5, json(post("/auth/register"), Map.of(
+                "username", "erin",
+                "password", "secret123",
+                "nickname", "艾琳",
+                "email", "erin@example.com",
+                "phone", "13800000005")), null);
+    }
+
+    @Test
+    void checkUsername() throws Exception {
+        assertQueryBudget(1, get("/auth/check-username?username=erin"), null);
+    }
+
+    @Test
+    void logout() throws Exception {
+        assertQueryBudget(0, post("/auth/logout"), null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * 梦想接口查询预算
+ * 预算包含JWT过滤器加载当前用户的1条查询；标签、资源按批加载，
+ * 完成率计算仍按梦想逐个查询任务，列表接口每个梦想额外一条语句
+ *
+ * @author DreamPlanner
+ */
+class DreamControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getDreamById() throws Exception {
+        assertQueryBudget(6, get("/dreams/" + data.swim().getId()));
+    }
+
+    @Test
+    void getDreamsByUserId() throws Exception {
+        assertQueryBudget(7, get("/dreams/user/" + data.alice().getId()));
+    }
+
+    @Test
+    void getDreamsByUserIdPageable() throws Exception {
+        assertQueryBudget(7, get("/dreams/user/" + data.alice().getId() + "/pageable?page=0&size=10"));
+    }
+
+    @Test
+    void getDreamsByCategory() throws Exception {
+        assertQueryBudget(6, get("/dreams/user/" + data.alice().getId() + "/category/健康"));
+    }
+
+    @Test
+    void getDreamsByStatus() throws Exception {
+        assertQueryBudget(7, get("/dreams/user/" + data.alice().getId() + "/status/1"));
+    }
+
+    @Test
+    void getUserDreamStats() throws Exception {
+        // 聚合统计，不应随梦想数增长
+        assertQueryBudget(5, get("/dreams/user/" + data.alice().getId() + "/stats"));
+    }
+
+    @Test
+    void createDream() throws Exception {
+        assertQueryBudget(5, json(post("/dreams"), Map.of(
+                "userId", data.alice().getId(),
+                "title", "学会弹吉他",
+                "category", "兴趣",
+                "priority", 3,
+                "status", 0,
+                "isPublic", 1)));
+    }
+
+    @Test
+    void updateDream() throws Exception {
+        assertQueryBudget(7, json(put("/dreams/" + data.swim().getId()), Map.of(
+                "userId", data.alice().getId(),
+                "title", "学会自由泳",
+                "status", 1)));
+    }
+
+    @Test
+    void deleteDream() throws Exception {
+        // 级联删除三个任务，每个任务及其进度逐条删除；闭包行按梦想一条语句清理
+        assertQueryBudget(16, delete("/dreams/" + data.reading().getId()));
+    }
+
+    @Test
+    void getPublicDreams() throws Exception {
+        assertQueryBudget(7, get("/dreams/public?page=0&size=10"));
+    }
+
+    @Test
+    void searchDreams() throws Exception {
+        // 先按相关度取一页命中ID，再一次加载梦想
+        assertQueryBudget(7, get("/dreams/search?userId=" + data.alice().getId() + "&keyword=游泳&page=0&size=10"));
+    }
+}
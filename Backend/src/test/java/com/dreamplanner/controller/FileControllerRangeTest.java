@@ -0,0 +1,97 @@
+package com.dreamplanner.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 未缓存的文件流式返回时按Range请求头只读取请求的一段
+ *
+ * @author DreamPlanner
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FileControllerRangeTest {
+
+    private static final Path UPLOAD_DIR = createUploadDir();
+    private static final String URL = "/files/common/20250520/clip.png";
+    private static final byte[] DATA = writeFile();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.dir", UPLOAD_DIR::toString);
+        registry.add("file.cache.enabled", () -> "false");
+    }
+
+    @Test
+    void returnsWholeFileWithoutRange() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(DATA));
+    }
+
+    @Test
+    void returnsRequestedRange() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=100-299"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-299/" + DATA.length))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 200))
+                .andExpect(content().bytes(Arrays.copyOfRange(DATA, 100, 300)));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-50"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(DATA, DATA.length - 50, DATA.length)));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=" + DATA.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + DATA.length));
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-9,20-29"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    private static byte[] writeFile() {
+        byte[] data = new byte[4096];
+        new Random(4096).nextBytes(data);
+        try {
+            Path file = UPLOAD_DIR.resolve("common/20250520/clip.png");
+            Files.createDirectories(file.getParent());
+            Files.write(file, data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return data;
+    }
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("range-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 首页接口查询预算
+ *
+ * @author DreamPlanner
+ */
+class HomeControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getHomePageData() throws Exception {
+        // 用户信息、梦想统计、今日任务、推荐动态几部分聚合，是移动端打开频率最高的接口
+        assertQueryBudget(21, get("/home/" + data.alice().getId()));
+    }
+}
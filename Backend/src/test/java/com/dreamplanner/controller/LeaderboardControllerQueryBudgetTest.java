@@ -0,0 +1,60 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.leaderboard.LeaderboardStore;
+import com.dreamplanner.leaderboard.LeaderboardType;
+import com.dreamplanner.leaderboard.UserScore;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 排行榜接口查询预算，预算包含JWT过滤器加载当前用户的1条查询
+ * 名次和分数来自内存榜单，只有本段用户的昵称和头像需要查询
+ *
+ * @author DreamPlanner
+ */
+class LeaderboardControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private LeaderboardStore leaderboardStore;
+
+    @BeforeEach
+    void seedBoards() {
+        leaderboardStore.replace(LeaderboardType.COMPLETED_DREAMS, Map.of("", List.of(
+                new UserScore(data.alice().getId(), 3L),
+                new UserScore(data.bob().getId(), 5L),
+                new UserScore(data.carol().getId(), 1L),
+                new UserScore(data.dave().getId(), 2L))));
+        leaderboardStore.replace(LeaderboardType.WEEKLY_ACTIVE, Map.of("健康", List.of(
+                new UserScore(data.alice().getId(), 4L),
+                new UserScore(data.bob().getId(), 2L))));
+    }
+
+    @Test
+    void getTop() throws Exception {
+        assertQueryBudget(2, get("/leaderboards").param("type", "COMPLETED_DREAMS").param("limit", "3"));
+    }
+
+    @Test
+    void getTopOfCategory() throws Exception {
+        assertQueryBudget(2, get("/leaderboards").param("type", "WEEKLY_ACTIVE").param("category", "健康"));
+    }
+
+    @Test
+    void getEmptyBoard() throws Exception {
+        // 没有用户的榜不查询用户资料
+        assertQueryBudget(1, get("/leaderboards").param("type", "WEEKLY_ACTIVE").param("category", "学习"));
+    }
+
+    @Test
+    void getAround() throws Exception {
+        assertQueryBudget(2, get("/leaderboards/users/" + data.alice().getId())
+                .param("type", "COMPLETED_DREAMS").param("radius", "1"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.entity.Comment;
+import com.dreamplanner.entity.Notification;
+import com.dreamplanner.event.NotificationEvent;
+import com.dreamplanner.notification.NotificationType;
+import com.dreamplanner.repository.CommentRepository;
+import com.dreamplanner.repository.NotificationRepository;
+import com.dreamplanner.service.NotificationService;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 通知接口查询预算，预算包含JWT过滤器加载当前用户的1条查询
+ * 测试中不启动投递线程，通知由用例直接投递
+ *
+ * @author DreamPlanner
+ */
+class NotificationControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void deliverNotifications() {
+        Long aliceComment = commentRepository.findAll().stream()
+                .filter(comment -> "太厉害了".equals(comment.getContent()))
+                .map(Comment::getId)
+                .findFirst()
+                .orElseThrow();
+        Long postId = data.aliceSwimPost().getId();
+        notificationService.deliver(List.of(
+                NotificationEvent.liked(data.bob().getId(), data.alice().getId(), postId),
+                NotificationEvent.liked(data.carol().getId(), data.alice().getId(), postId),
+                NotificationEvent.liked(data.alice().getId(), data.alice().getId(), postId),
+                NotificationEvent.followed(data.dave().getId(), data.alice().getId()),
+                NotificationEvent.commented(data.bob().getId(), data.bob().getId(), data.bobFirstPost().getId(),
+                        aliceComment, "谢谢")));
+    }
+
+    @Test
+    void deliverAggregatesPerRecipientAndTarget() {
+        // 同一批的两个点赞合并成一条，给自己点赞不通知；作者回复自己动态下的评论只通知被回复者
+        notificationService.deliver(List.of(
+                NotificationEvent.liked(data.dave().getId(), data.alice().getId(), data.aliceSwimPost().getId()),
+                NotificationEvent.liked(data.carol().getId(), data.alice().getId(), data.aliceSwimPost().getId())));
+        Map<Integer, Notification> byType = notificationRepository.findAll().stream()
+                .collect(Collectors.toMap(Notification::getType, notification -> notification));
+        assertEquals(3, byType.size());
+        assertEquals(3, byType.get(NotificationType.LIKE.getCode()).getActorCount());
+        assertEquals(data.carol().getId(), byType.get(NotificationType.LIKE.getCode()).getLastActorId());
+        assertEquals(data.alice().getId(), byType.get(NotificationType.REPLY.getCode()).getRecipientId());
+        assertEquals("谢谢", byType.get(NotificationType.REPLY.getCode()).getContent());
+        assertEquals(1, byType.get(NotificationType.FOLLOW.getCode()).getActorCount());
+    }
+
+    @Test
+    void actorCountTracksDistinctActors() {
+        Long postId = data.aliceSwimPost().getId();
+        // 取消后再次点赞不重复计数
+        notificationService.deliver(List.of(NotificationEvent.unliked(data.bob().getId(), data.alice().getId(), postId)));
+        notificationService.deliver(List.of(NotificationEvent.liked(data.bob().getId(), data.alice().getId(), postId)));
+        notificationService.deliver(List.of(NotificationEvent.liked(data.carol().getId(), data.alice().getId(), postId)));
+        assertEquals(2, like().getActorCount());
+        assertEquals(data.carol().getId(), like().getLastActorId());
+
+        // 撤回最近一人时改为剩下的人，全部撤回后删除通知
+        notificationService.deliver(List.of(NotificationEvent.unliked(data.carol().getId(), data.alice().getId(), postId)));
+        assertEquals(1, like().getActorCount());
+        assertEquals(data.bob().getId(), like().getLastActorId());
+        notificationService.deliver(List.of(
+                NotificationEvent.unliked(data.bob().getId(), data.alice().getId(), postId),
+                NotificationEvent.unfollowed(data.dave().getId(), data.alice().getId())));
+        assertEquals(List.of(NotificationType.REPLY.getCode()),
+                notificationRepository.findAll().stream().map(Notification::getType).toList());
+    }
+
+    @Test
+    void readNotificationStopsAggregating() throws Exception {
+        assertQueryBudget(3, post("/notifications/read-all"));
+        notificationService.deliver(List.of(
+                NotificationEvent.liked(data.dave().getId(), data.alice().getId(), data.aliceSwimPost().getId())));
+        List<Notification> likes = notificationRepository.findAll().stream()
+                .filter(notification -> notification.getType() == NotificationType.LIKE.getCode())
+                .toList();
+        assertEquals(2, likes.size());
+        assertTrue(likes.stream().anyMatch(notification -> !notification.isRead() && notification.getActorCount() == 1));
+        assertFalse(likes.stream().allMatch(Notification::isRead));
+    }
+
+    private Notification like() {
+        return notificationRepository.findAll().stream()
+                .filter(notification -> notification.getType() == NotificationType.LIKE.getCode())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void getInbox() throws Exception {
+        // 收件箱一页和最近发起用户的资料各一条查询，另有1条查询当前用户
+        assertQueryBudget(4, get("/notifications").param("size", "2"));
+    }
+
+    @Test
+    void getUnreadCount() throws Exception {
+        assertQueryBudget(3, get("/notifications/unread-count"));
+    }
+
+    @Test
+    void markRead() throws Exception {
+        Long id = notificationRepository.findAll().get(0).getId();
+        assertQueryBudget(3, post("/notifications/" + id + "/read"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * 社区动态接口查询预算
+ * PostController出错时仍返回HTTP 200，基类会同时检查响应体中的code；
+ * 创建动态的请求体是Post实体，user字段是反向引用无法通过JSON传入，因此不在此覆盖
+ *
+ * @author DreamPlanner
+ */
+class PostControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getPosts() throws Exception {
+        // 六条动态：分页列表、当前用户、整页点赞状态、对本页作者的关注状态各一条，梦想批量加载一条，
+        // 当前用户以外的两位作者各一条
+        assertQueryBudget(8, get("/posts?page=0&pageSize=20&currentUserId=" + data.alice().getId()));
+    }
+
+    @Test
+    void getFollowingPosts() throws Exception {
+        assertQueryBudget(14, get("/posts?page=0&pageSize=20&category=following&currentUserId="
+                + data.alice().getId()));
+    }
+
+    @Test
+    void searchPosts() throws Exception {
+        // 命中两条动态：帖子连同作者、梦想一次加载，整页的点赞状态和对本页作者的关注状态各一条
+        assertQueryBudget(5, get("/posts/search?keyword=第一次&size=10&currentUserId=" + data.alice().getId()));
+    }
+
+    @Test
+    void searchPostsByCategory() throws Exception {
+        // 未传currentUserId时从登录态取用户，其余与不带分类的搜索相同，语句数不随命中条数增长
+        assertQueryBudget(5, get("/posts/search?keyword=第一次&category=健康"));
+    }
+
+    @Test
+    void getPostDetail() throws Exception {
+        assertQueryBudget(9, get("/posts/" + data.bobFirstPost().getId()));
+    }
+
+    @Test
+    void updatePost() throws Exception {
+        assertQueryBudget(15, json(put("/posts/" + data.aliceSwimPost().getId()), Map.of(
+                "title", "第一次下水，有点紧张",
+                "content", "教练说放松就好",
+                "status", 1)));
+    }
+
+    @Test
+    void deletePost() throws Exception {
+        assertQueryBudget(10, delete("/posts/" + data.aliceSwimPost().getId()));
+    }
+
+    @Test
+    void likePost() throws Exception {
+        assertQueryBudget(22, post("/posts/" + data.bobRestPost().getId() + "/like"));
+    }
+
+    @Test
+    void unlikePost() throws Exception {
+        assertQueryBudget(23, delete("/posts/" + data.bobFirstPost().getId() + "/like"));
+    }
+
+    @Test
+    void getComments() throws Exception {
+        // 四条评论，其中一条是回复：评论作者、回复、点赞数逐条加载
+        assertQueryBudget(28, get("/posts/" + data.bobFirstPost().getId() + "/comments?page=0&size=20"));
+    }
+
+    @Test
+    void createComment() throws Exception {
+        assertQueryBudget(14, json(post("/posts/" + data.bobFirstPost().getId() + "/comments"), Map.of(
+                "postId", data.bobFirstPost().getId(),
+                "content", "下次一起")));
+    }
+}
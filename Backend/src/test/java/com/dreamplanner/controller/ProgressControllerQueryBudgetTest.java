@@ -0,0 +1,87 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.progress.ProgressCursor;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 进度接口查询预算，预算包含JWT过滤器加载当前用户的1条查询
+ *
+ * @author DreamPlanner
+ */
+class ProgressControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getProgressByTaskId() throws Exception {
+        assertQueryBudget(3, get("/progress/task/" + data.parentTask().getId()));
+    }
+
+    @Test
+    void getProgressByDreamId() throws Exception {
+        assertQueryBudget(3, get("/progress/dream/" + data.swim().getId()));
+    }
+
+    @Test
+    void getProgressTimeline() throws Exception {
+        assertQueryBudget(3, get("/progress/dream/" + data.swim().getId() + "/timeline").param("size", "1"));
+    }
+
+    @Test
+    void getProgressTimelineAfterCursor() throws Exception {
+        String cursor = new ProgressCursor(LocalDateTime.now().plusDays(1), Long.MAX_VALUE).encode();
+        assertQueryBudget(3, get("/progress/dream/" + data.swim().getId() + "/timeline")
+                .param("cursor", cursor)
+                .param("size", "1"));
+    }
+
+    @Test
+    void getDailyActivity() throws Exception {
+        // 区间统计和当前连续天数各一次分组查询
+        assertQueryBudget(3, get("/progress/dream/" + data.swim().getId() + "/activity/daily"));
+    }
+
+    @Test
+    void getWeeklyActivity() throws Exception {
+        assertQueryBudget(3, get("/progress/dream/" + data.swim().getId() + "/activity/weekly"));
+    }
+
+    @Test
+    void getProgressByUserId() throws Exception {
+        assertQueryBudget(3, get("/progress/user/" + data.alice().getId()));
+    }
+
+    @Test
+    void addProgress() throws Exception {
+        // 当年还没有打卡位图，锁定查询后插入一行
+        assertQueryBudget(7, json(post("/progress"), Map.of(
+                "userId", data.alice().getId(),
+                "dreamId", data.swim().getId(),
+                "description", "能连续游二十五米")));
+    }
+
+    @Test
+    void addTaskProgress() throws Exception {
+        assertQueryBudget(7, json(post("/progress/task-progress"), Map.of(
+                "userId", data.alice().getId(),
+                "dreamId", data.swim().getId(),
+                "taskId", data.parentTask().getId(),
+                "description", "换气节奏稳定")));
+    }
+
+    @Test
+    void addProgressSameDayOnlyLocksBitmap() throws Exception {
+        Map<String, Object> progress = Map.of(
+                "userId", data.alice().getId(),
+                "dreamId", data.swim().getId(),
+                "description", "能连续游二十五米");
+        assertQueryBudget(7, json(post("/progress"), progress));
+        // 当天已经置位，只有锁定查询，没有更新
+        assertQueryBudget(6, json(post("/progress"), progress));
+    }
+}
@@ -0,0 +1,424 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.calendar.TaskCalendarItem;
+import com.dreamplanner.dto.TaskCalendarDTO;
+import com.dreamplanner.dto.TaskCalendarDayDTO;
+import com.dreamplanner.dto.TaskDTO;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.TaskOccurrence;
+import com.dreamplanner.event.TaskChangedEvent;
+import com.dreamplanner.recurrence.RecurrenceRule;
+import com.dreamplanner.repository.TaskOccurrenceRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.service.TaskCalendarService;
+import com.dreamplanner.service.TaskHierarchyService;
+import com.dreamplanner.service.TaskService;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * 任务接口查询预算
+ * 预算包含JWT过滤器加载当前用户的1条查询；列表接口通过实体图带出梦想、子任务按批加载，
+ * 语句数为"用户 + 任务(含梦想) + 子任务批量"，与任务条数无关
+ *
+ * @author DreamPlanner
+ */
+@RecordApplicationEvents
+class TaskControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskHierarchyService taskHierarchyService;
+
+    @Autowired
+    private TaskOccurrenceRepository taskOccurrenceRepository;
+
+    @Autowired
+    private TaskCalendarService taskCalendarService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void getTaskById() throws Exception {
+        assertQueryBudget(5, get("/tasks/" + data.parentTask().getId()));
+    }
+
+    @Test
+    void getTasksByDreamId() throws Exception {
+        assertQueryBudget(4, get("/tasks/dream/" + data.swim().getId()));
+    }
+
+    @Test
+    void getTasksByDreamIdPageable() throws Exception {
+        assertQueryBudget(4, get("/tasks/dream/" + data.swim().getId() + "/pageable?page=0&size=10"));
+    }
+
+    @Test
+    void getTasksByUserId() throws Exception {
+        // 八个任务分属两个梦想
+        assertQueryBudget(4, get("/tasks/user/" + data.alice().getId()));
+    }
+
+    @Test
+    void getTasksByUserIdPageable() throws Exception {
+        assertQueryBudget(4, get("/tasks/user/" + data.alice().getId() + "/pageable?page=0&size=10"));
+    }
+
+    @Test
+    void getTasksByUserIdPageableDoesNotGrowWithPageSize() throws Exception {
+        // 再加40个任务（其中一半带子任务），语句数应与只有八个任务时相同
+        List<Task> extra = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Task parent = new Task();
+            parent.setDream(data.reading());
+            parent.setUser(data.alice());
+            parent.setTitle("阅读计划" + i);
+            parent.setStatus(0);
+            extra.add(parent);
+
+            Task child = new Task();
+            child.setDream(data.reading());
+            child.setUser(data.alice());
+            child.setTitle("阅读计划" + i + "-第一章");
+            child.setStatus(0);
+            child.setParentTask(parent);
+            extra.add(child);
+        }
+        taskRepository.saveAll(extra);
+
+        assertQueryBudget(4, get("/tasks/user/" + data.alice().getId() + "/pageable?page=0&size=50"));
+    }
+
+    @Test
+    void getTasksByDreamIdAndStatus() throws Exception {
+        assertQueryBudget(4, get("/tasks/dream/" + data.swim().getId() + "/status/1"));
+    }
+
+    @Test
+    void getTasksByUserIdAndStatus() throws Exception {
+        assertQueryBudget(4, get("/tasks/user/" + data.alice().getId() + "/status/1"));
+    }
+
+    @Test
+    void getTodayTasks() throws Exception {
+        // 另有一条查询找出仍在进行的重复任务，没有重复任务时不再查例外记录
+        assertQueryBudget(5, get("/tasks/user/" + data.alice().getId() + "/today?page=0&size=10"));
+    }
+
+    @Test
+    void getTodayTasksDoesNotGrowWithRecurringTasks() throws Exception {
+        // 重复任务及其已完成实例各一条查询，与系列数、实例数无关
+        saveRecurringTasks(5);
+        assertQueryBudget(6, get("/tasks/user/" + data.alice().getId() + "/today?page=0&size=20"));
+    }
+
+    @Test
+    void getTodayTasksPagesMatchFullList() {
+        // 普通任务在数据库中分页，与重复任务实例合并后逐页取出的顺序和总数与一次取出一致
+        saveRecurringTasks(2);
+        Long userId = data.alice().getId();
+        Page<TaskDTO> all = taskService.getTodayTasks(userId, PageRequest.of(0, 100));
+        assertTrue(all.getTotalElements() > 2);
+
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < all.getTotalElements(); page++) {
+            Page<TaskDTO> single = taskService.getTodayTasks(userId, PageRequest.of(page, 1));
+            assertEquals(all.getTotalElements(), single.getTotalElements());
+            paged.add(single.getContent().get(0).getId());
+        }
+        assertEquals(all.getContent().stream().map(TaskDTO::getId).toList(), paged);
+    }
+
+    @Test
+    void getUpcomingTasks() throws Exception {
+        assertQueryBudget(4, get("/tasks/user/" + data.alice().getId() + "/upcoming?days=7&page=0&size=10"));
+    }
+
+    @Test
+    void getWeekTasks() throws Exception {
+        LocalDate today = LocalDate.now();
+        assertQueryBudget(5, get("/tasks/user/" + data.alice().getId() + "/week?startDate=" + today
+                + "&endDate=" + today.plusDays(6) + "&page=0&size=10"));
+    }
+
+    @Test
+    void getWeekTasksDoesNotGrowWithOccurrences() throws Exception {
+        // 五个每日重复的任务在一周内展开为三十个未完成的实例
+        saveRecurringTasks(5);
+        LocalDate today = LocalDate.now();
+        assertQueryBudget(6, get("/tasks/user/" + data.alice().getId() + "/week?startDate=" + today
+                + "&endDate=" + today.plusDays(6) + "&page=0&size=50"));
+    }
+
+    @Test
+    void completeOccurrence() throws Exception {
+        // 归属校验、查询例外记录、插入例外记录，锁定并插入完成任务位图，再加载梦想和子任务用于返回
+        Long id = saveRecurringTasks(1).get(0);
+        assertQueryBudget(8, put("/tasks/" + id + "/occurrences/" + LocalDate.now().plusDays(1) + "/completion"));
+    }
+
+    @Test
+    void getChildTasks() throws Exception {
+        assertQueryBudget(4, get("/tasks/parent/" + data.parentTask().getId()));
+    }
+
+    @Test
+    void createTask() throws Exception {
+        // 任务ID按块分配，用完一块时多一条取号语句；另有一条闭包表插入
+        assertQueryBudget(9, json(post("/tasks"), Map.of(
+                "dreamId", data.swim().getId(),
+                "userId", data.alice().getId(),
+                "title", "学习仰泳",
+                "status", 0,
+                "priority", 2)));
+    }
+
+    @Test
+    void updateTask() throws Exception {
+        assertQueryBudget(6, json(put("/tasks/" + data.parentTask().getId()), Map.of(
+                "dreamId", data.swim().getId(),
+                "userId", data.alice().getId(),
+                "title", "练习侧身换气",
+                "status", 1)));
+    }
+
+    @Test
+    void moveTask() throws Exception {
+        // 环路检查、断开原祖先、挂到新父任务下各一条语句
+        assertQueryBudget(10, json(put("/tasks/" + data.pendingTask().getId()), Map.of(
+                "dreamId", data.swim().getId(),
+                "userId", data.alice().getId(),
+                "parentTaskId", data.parentTask().getId(),
+                "title", "学习蛙泳",
+                "status", 0)));
+    }
+
+    @Test
+    void updateTaskStatus() throws Exception {
+        // 更新状态后重新计算梦想完成率；当年还没有完成任务位图，锁定查询后插入一行
+        assertQueryBudget(10, put("/tasks/" + data.pendingTask().getId() + "/status/2"));
+    }
+
+    @Test
+    void deleteTask() throws Exception {
+        // 子树的闭包行一条语句删除
+        assertQueryBudget(9, delete("/tasks/" + data.pendingTask().getId()));
+    }
+
+    @Test
+    void deleteTaskRemovesSubtree() throws Exception {
+        // 与批量删除走同一条闭包表路径，子树中每个任务都发布删除事件
+        List<Long> chain = saveTaskChain(data.parentTask(), 6);
+        assertQueryBudget(10, delete("/tasks/" + chain.get(0)));
+        assertTrue(taskRepository.findAllById(chain).isEmpty());
+        assertEquals(Set.copyOf(chain), events.stream(TaskChangedEvent.class)
+                .map(TaskChangedEvent::taskId)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void createTasksDoesNotGrowWithBatchSize() throws Exception {
+        // 用户、梦想各一次查询，任务插入、闭包表插入和梦想更新各为一个JDBC批次
+        List<Map<String, Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(Map.of(
+                    "dreamId", (i % 2 == 0 ? data.swim() : data.reading()).getId(),
+                    "userId", data.alice().getId(),
+                    "title", "拆解任务" + i,
+                    "status", 0,
+                    "priority", 3));
+        }
+        assertQueryBudget(9, json(post("/tasks/batch"), Map.of("tasks", tasks)));
+    }
+
+    @Test
+    void updateTasksStatusDoesNotGrowWithBatchSize() throws Exception {
+        // 同一天完成的任务只更新一次位图
+        List<Long> ids = saveReadingTasks(20);
+        assertQueryBudget(10, json(put("/tasks/batch/status"), Map.of("ids", ids, "status", 2)));
+    }
+
+    @Test
+    void deleteTasksDoesNotGrowWithBatchSize() throws Exception {
+        List<Long> ids = saveReadingTasks(20);
+        String idList = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        assertQueryBudget(9, delete("/tasks/batch?ids=" + idList));
+    }
+
+    @Test
+    void deleteTasksDoesNotGrowWithSubtreeDepth() throws Exception {
+        // 删除六层子任务链的第一层，其下五层按闭包表一次删除；梦想完成率随之变化，多一条更新
+        List<Long> chain = saveTaskChain(data.parentTask(), 6);
+        assertQueryBudget(10, delete("/tasks/batch?ids=" + chain.get(0)));
+        assertTrue(taskRepository.findAllById(chain).isEmpty());
+    }
+
+    @Test
+    void getDreamTaskTree() throws Exception {
+        assertQueryBudget(2, get("/tasks/dream/" + data.swim().getId() + "/tree"));
+    }
+
+    @Test
+    void getDreamTaskTreeDoesNotGrowWithDepth() throws Exception {
+        // 在"练习换气"下再挂六层子任务，整棵树仍是一条查询
+        saveTaskChain(data.parentTask(), 6);
+        assertQueryBudget(2, get("/tasks/dream/" + data.swim().getId() + "/tree"));
+    }
+
+    @Test
+    void getSubtreeDoesNotGrowWithDepth() throws Exception {
+        saveTaskChain(data.parentTask(), 6);
+        assertQueryBudget(2, get("/tasks/" + data.parentTask().getId() + "/subtree"));
+    }
+
+    @Test
+    void searchTasks() throws Exception {
+        // 先按相关度取一页命中ID，再一次加载任务
+        assertQueryBudget(5, get("/tasks/search?userId=" + data.alice().getId() + "&keyword=阅读&page=0&size=10"));
+    }
+
+    @Test
+    void getCalendar() throws Exception {
+        // 区间跨越的月份合并为一次分组统计和一次任务摘要查询，重复任务整个请求查询一次
+        assertQueryBudget(4, get(calendarUrl(true)));
+    }
+
+    @Test
+    void getCalendarServedFromCache() throws Exception {
+        assertQueryBudget(4, get(calendarUrl(true)));
+        // 月份已缓存，只剩JWT过滤器加载当前用户
+        assertQueryBudget(1, get(calendarUrl(true)));
+    }
+
+    @Test
+    void getCalendarReloadsAfterTaskWrite() throws Exception {
+        assertQueryBudget(3, get(calendarUrl(false)));
+        assertQueryBudget(10, put("/tasks/" + data.pendingTask().getId() + "/status/2"));
+        assertQueryBudget(3, get(calendarUrl(false)));
+    }
+
+    @Test
+    void getCalendarExpandsRecurringTasks() throws Exception {
+        List<Long> ids = saveRecurringTasks(2);
+        // 系列和已完成的例外记录各多一条查询，与实例数无关
+        assertQueryBudget(5, get(calendarUrl(true)));
+
+        LocalDate today = LocalDate.now();
+        TaskCalendarDTO calendar = taskCalendarService.getCalendar(data.alice().getId(), today.minusDays(10),
+                today.plusDays(20), true);
+        // 从三天前到区间结束每天一次实例，昨天和今天的实例已完成
+        List<TaskCalendarItem> occurrences = calendar.getTasks().stream()
+                .filter(item -> ids.contains(item.id()))
+                .toList();
+        assertEquals(2 * 24, occurrences.size());
+        assertTrue(occurrences.stream().allMatch(item -> item.dueDate().equals(item.occurrenceDate())));
+        assertTrue(occurrences.stream().allMatch(item -> item.status() == (
+                item.dueDate().equals(today) || item.dueDate().equals(today.minusDays(1)) ? 2 : 1)));
+
+        // 按天统计与任务摘要一致
+        Map<LocalDate, Map<Integer, Long>> expected = calendar.getTasks().stream()
+                .collect(Collectors.groupingBy(TaskCalendarItem::dueDate,
+                        Collectors.groupingBy(TaskCalendarItem::status, Collectors.counting())));
+        assertEquals(expected, calendar.getDays().stream()
+                .collect(Collectors.toMap(TaskCalendarDayDTO::getDate, TaskCalendarDayDTO::getByStatus)));
+    }
+
+    private String calendarUrl(boolean includeTasks) {
+        LocalDate today = LocalDate.now();
+        return "/tasks/user/" + data.alice().getId() + "/calendar?from=" + today.minusDays(10)
+                + "&to=" + today.plusDays(20) + "&includeTasks=" + includeTasks;
+    }
+
+    /**
+     * 保存若干个从三天前开始每日重复的任务，每个任务的昨天和今天两次实例已完成
+     */
+    private List<Long> saveRecurringTasks(int count) {
+        LocalDate today = LocalDate.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setDream(data.swim());
+            task.setUser(data.alice());
+            task.setTitle("每日练习" + i);
+            task.setStatus(1);
+            task.setPriority(3);
+            task.setStartDate(today.minusDays(3));
+            task.setRecurrenceRule("FREQ=DAILY");
+            task.setRecurrenceEnd(RecurrenceRule.UNBOUNDED);
+            tasks.add(task);
+        }
+        List<Task> saved = taskRepository.saveAll(tasks);
+        taskHierarchyService.onTasksCreated(saved);
+        List<TaskOccurrence> completed = new ArrayList<>();
+        for (Task task : saved) {
+            completed.add(TaskOccurrence.builder().task(task).occurrenceDate(today.minusDays(1))
+                    .completedAt(LocalDateTime.now()).build());
+            completed.add(TaskOccurrence.builder().task(task).occurrenceDate(today)
+                    .completedAt(LocalDateTime.now()).build());
+        }
+        taskOccurrenceRepository.saveAll(completed);
+        return saved.stream().map(Task::getId).collect(Collectors.toList());
+    }
+
+    private List<Long> saveReadingTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setDream(data.reading());
+            task.setUser(data.alice());
+            task.setTitle("阅读计划" + i);
+            task.setStatus(0);
+            tasks.add(task);
+        }
+        List<Task> saved = taskRepository.saveAll(tasks);
+        taskHierarchyService.onTasksCreated(saved);
+        return saved.stream().map(Task::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * 在指定任务下逐层挂一条子任务链
+     */
+    private List<Long> saveTaskChain(Task root, int depth) {
+        List<Task> chain = new ArrayList<>();
+        Task parent = root;
+        for (int i = 0; i < depth; i++) {
+            Task task = new Task();
+            task.setDream(data.swim());
+            task.setUser(data.alice());
+            task.setTitle("分解步骤" + i);
+            task.setStatus(i % 2 == 0 ? 2 : 0);
+            task.setParentTask(parent);
+            chain.add(task);
+            parent = task;
+        }
+        List<Task> saved = taskRepository.saveAll(chain);
+        taskHierarchyService.onTasksCreated(saved);
+        return saved.stream().map(Task::getId).collect(Collectors.toList());
+    }
+}
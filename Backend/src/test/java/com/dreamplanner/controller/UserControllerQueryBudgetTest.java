@@ -0,0 +1,96 @@
+package com.dreamplanner.controller;
+
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * 用户接口查询预算
+ * 预算包含JWT过滤器加载当前用户的1条查询；UserDTO带有梦想数、任务数、粉丝数、关注数四项统计
+ *
+ * @author DreamPlanner
+ */
+class UserControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getUserById() throws Exception {
+        assertQueryBudget(8, get("/users/" + data.alice().getId()));
+    }
+
+    @Test
+    void getUserByUsername() throws Exception {
+        assertQueryBudget(8, get("/users/username/alice"));
+    }
+
+    @Test
+    void createUser() throws Exception {
+        assertQueryBudget(11, json(post("/users"), Map.of(
+                "username", "frank",
+                "password", "secret123",
+                "nickname", "弗兰克",
+                "email", "frank@example.com",
+                "phone", "13800000006")));
+    }
+
+    @Test
+    void updateUser() throws Exception {
+        assertQueryBudget(9, json(put("/users/" + data.alice().getId()), Map.of("nickname", "小爱")));
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        // 四个用户各四项统计
+        assertQueryBudget(23, get("/users?page=0&size=10"));
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        assertQueryBudget(4, delete("/users/" + data.dave().getId()), data.dave());
+    }
+
+    @Test
+    void isUsernameAvailable() throws Exception {
+        assertQueryBudget(2, get("/users/check/username/frank"));
+    }
+
+    @Test
+    void isEmailAvailable() throws Exception {
+        assertQueryBudget(2, get("/users/check/email/frank@example.com"));
+    }
+
+    @Test
+    void isPhoneAvailable() throws Exception {
+        assertQueryBudget(2, get("/users/check/phone/13800000006"));
+    }
+
+    @Test
+    void followUser() throws Exception {
+        assertQueryBudget(6, post("/users/" + data.alice().getId() + "/follow/" + data.dave().getId()));
+    }
+
+    @Test
+    void unfollowUser() throws Exception {
+        assertQueryBudget(4, delete("/users/" + data.alice().getId() + "/unfollow/" + data.bob().getId()));
+    }
+
+    @Test
+    void isFollowing() throws Exception {
+        assertQueryBudget(3, get("/users/" + data.alice().getId() + "/is-following/" + data.bob().getId()));
+    }
+
+    @Test
+    void getFollowings() throws Exception {
+        assertQueryBudget(13, get("/users/" + data.alice().getId() + "/followings?page=0&size=10"));
+    }
+
+    @Test
+    void getFollowers() throws Exception {
+        assertQueryBudget(13, get("/users/" + data.alice().getId() + "/followers?page=0&size=10"));
+    }
+}
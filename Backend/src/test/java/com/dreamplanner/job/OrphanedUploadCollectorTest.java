@@ -0,0 +1,94 @@
+package com.dreamplanner.job;
+
+import com.dreamplanner.entity.Resource;
+import com.dreamplanner.repository.ResourceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 孤立上传文件回收：只被资源引用的文件也要保留
+ *
+ * @author DreamPlanner
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrphanedUploadCollectorTest {
+
+    private static final Path UPLOAD_DIR = createUploadDir();
+
+    @Autowired
+    private OrphanedUploadCollector collector;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.dir", UPLOAD_DIR::toString);
+        registry.add("file.gc.enabled", () -> "true");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        resourceRepository.deleteAll();
+    }
+
+    @Test
+    void keepsFilesReferencedOnlyByResources() throws IOException {
+        Path image = oldFile("common/20250520/cover.jpg");
+        Path document = oldFile("common/20250520/guide.pdf");
+        Path orphan = oldFile("common/20250520/orphan.jpg");
+
+        Resource resource = new Resource();
+        resource.setTitle("入门指南");
+        resource.setStatus(1);
+        resource.setUrl("http://10.0.2.2:8080/api/files/common/20250520/guide.pdf");
+        resource.setImageUrl("http://10.0.2.2:8080/api/files/common/20250520/cover.jpg");
+        resourceRepository.save(resource);
+
+        collector.collect();
+
+        assertTrue(Files.exists(image));
+        assertTrue(Files.exists(document));
+        assertFalse(Files.exists(orphan));
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        assertTrue(Files.exists(UPLOAD_DIR.resolve(OrphanedUploadCollector.QUARANTINE_DIR)
+                .resolve(today).resolve("common/20250520/orphan.jpg")));
+    }
+
+    /**
+     * 创建一个修改时间早于宽限期的文件
+     */
+    private static Path oldFile(String relativePath) throws IOException {
+        Path file = UPLOAD_DIR.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, relativePath);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(30, ChronoUnit.DAYS)));
+        return file;
+    }
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("uploads");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.dreamplanner.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 带跨度的跳表排行
+ *
+ * @author DreamPlanner
+ */
+class RankedSetTest {
+
+    @Test
+    void ordersByScoreThenUserId() {
+        RankedSet set = new RankedSet();
+        set.put(3, 10);
+        set.put(1, 10);
+        set.put(2, 20);
+        assertEquals(List.of(new RankedSet.Entry(1, 2, 20), new RankedSet.Entry(2, 1, 10), new RankedSet.Entry(3, 3, 10)),
+                set.range(1, 10));
+        assertEquals(new RankedSet.Entry(3, 3, 10), set.get(3));
+    }
+
+    @Test
+    void nonPositiveScoreRemovesUser() {
+        RankedSet set = new RankedSet();
+        set.put(1, 5);
+        set.put(2, 3);
+        set.put(1, 0);
+        assertNull(set.get(1));
+        assertEquals(1, set.size());
+        assertEquals(new RankedSet.Entry(1, 2, 3), set.get(2));
+        set.remove(2);
+        assertEquals(0, set.size());
+        assertTrue(set.range(1, 10).isEmpty());
+    }
+
+    @Test
+    void rangeOutsideBoardIsEmpty() {
+        RankedSet set = new RankedSet();
+        set.put(1, 5);
+        assertTrue(set.range(2, 10).isEmpty());
+        assertTrue(set.range(0, 10).isEmpty());
+        assertTrue(set.range(1, 0).isEmpty());
+    }
+
+    @Test
+    void matchesSortedListUnderRandomUpdates() {
+        // 随机更新分数后，排名、按排名定位都应与全量排序的结果一致
+        Random random = new Random(7);
+        RankedSet set = new RankedSet();
+        Map<Long, Long> scores = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long userId = random.nextInt(2_000);
+            long score = random.nextInt(10) == 0 ? 0 : random.nextInt(300);
+            set.put(userId, score);
+            if (score > 0) {
+                scores.put(userId, score);
+            } else {
+                scores.remove(userId);
+            }
+
+            if (i % 1_000 == 999) {
+                List<RankedSet.Entry> expected = sorted(scores);
+                assertEquals(expected.size(), set.size());
+                assertEquals(expected, set.range(1, expected.size() + 10));
+                for (int probe = 0; probe < 50 && !expected.isEmpty(); probe++) {
+                    RankedSet.Entry entry = expected.get(random.nextInt(expected.size()));
+                    assertEquals(entry, set.get(entry.userId()));
+                    int count = 1 + random.nextInt(20);
+                    assertEquals(expected.subList(entry.rank() - 1, Math.min(expected.size(), entry.rank() - 1 + count)),
+                            set.range(entry.rank(), count));
+                }
+            }
+        }
+    }
+
+    private static List<RankedSet.Entry> sorted(Map<Long, Long> scores) {
+        List<Map.Entry<Long, Long>> users = new ArrayList<>(scores.entrySet());
+        users.sort(Comparator.<Map.Entry<Long, Long>>comparingLong(Map.Entry::getValue).reversed()
+                .thenComparingLong(Map.Entry::getKey));
+        List<RankedSet.Entry> entries = new ArrayList<>();
+        for (Map.Entry<Long, Long> user : users) {
+            entries.add(new RankedSet.Entry(entries.size() + 1, user.getKey(), user.getValue()));
+        }
+        return entries;
+    }
+}
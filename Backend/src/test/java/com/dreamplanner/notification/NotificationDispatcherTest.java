@@ -0,0 +1,171 @@
+package com.dreamplanner.notification;
+
+import com.dreamplanner.dto.NotificationPageDTO;
+import com.dreamplanner.dto.NotificationUnreadDTO;
+import com.dreamplanner.event.NotificationEvent;
+import com.dreamplanner.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 通知批量投递：排队、按batch-size分批、超过max-pending丢弃、停机写完剩余事件
+ *
+ * @author DreamPlanner
+ */
+class NotificationDispatcherTest {
+
+    private final RecordingNotificationService service = new RecordingNotificationService();
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        service.release.countDown();
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void queuesUntilFlushAndDeliversRestOnStop() {
+        dispatcher = start(100, 100);
+        List<NotificationEvent> events = events(3);
+        events.forEach(dispatcher::onNotification);
+        assertTrue(service.batches.isEmpty());
+
+        dispatcher.stop();
+        assertFalse(dispatcher.isRunning());
+        assertEquals(List.of(events), service.batches);
+    }
+
+    @Test
+    void flushesInBatchesOnceBatchSizeIsReached() throws InterruptedException {
+        service.blockFirstBatch();
+        dispatcher = start(2, 100);
+        List<NotificationEvent> events = events(7);
+
+        // 攒够两条立即投递，第一批投递期间到达的事件留在队列中
+        dispatcher.onNotification(events.get(0));
+        dispatcher.onNotification(events.get(1));
+        assertTrue(service.firstBatchStarted.await(5, TimeUnit.SECONDS));
+        events.subList(2, 7).forEach(dispatcher::onNotification);
+        service.release.countDown();
+
+        dispatcher.stop();
+        assertEquals(List.of(events.subList(0, 2), events.subList(2, 4), events.subList(4, 6), events.subList(6, 7)),
+                service.batches);
+    }
+
+    @Test
+    void dropsEventsBeyondMaxPending() {
+        dispatcher = start(100, 3);
+        List<NotificationEvent> events = events(5);
+        events.forEach(dispatcher::onNotification);
+
+        dispatcher.stop();
+        assertEquals(List.of(events.subList(0, 3)), service.batches);
+    }
+
+    @Test
+    void failedBatchDoesNotBlockLaterOnes() {
+        service.failFirstBatch = true;
+        dispatcher = start(1, 100);
+        List<NotificationEvent> events = events(2);
+        events.forEach(dispatcher::onNotification);
+
+        dispatcher.stop();
+        assertEquals(List.of(events.subList(1, 2)), service.batches);
+    }
+
+    @Test
+    void ignoresEventsWhenStopped() {
+        dispatcher = start(100, 100);
+        dispatcher.stop();
+        dispatcher.onNotification(events(1).get(0));
+
+        dispatcher.stop();
+        assertTrue(service.batches.isEmpty());
+    }
+
+    private NotificationDispatcher start(int batchSize, int maxPending) {
+        NotificationDispatcher instance = new NotificationDispatcher(service);
+        // 周期投递不在用例时长内触发，只由攒够一批或停机触发
+        ReflectionTestUtils.setField(instance, "flushInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(instance, "batchSize", batchSize);
+        ReflectionTestUtils.setField(instance, "maxPending", maxPending);
+        instance.start();
+        return instance;
+    }
+
+    private static List<NotificationEvent> events(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> NotificationEvent.liked((long) i, 100L, 1000L + i))
+                .toList();
+    }
+
+    /**
+     * 记录每批投递的事件，可以让第一批阻塞或失败
+     */
+    private static final class RecordingNotificationService implements NotificationService {
+
+        private final List<List<NotificationEvent>> batches = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blockFirstBatch;
+        private volatile boolean failFirstBatch;
+
+        void blockFirstBatch() {
+            blockFirstBatch = true;
+        }
+
+        @Override
+        public void deliver(List<NotificationEvent> events) {
+            if (failFirstBatch) {
+                failFirstBatch = false;
+                throw new IllegalStateException("投递失败");
+            }
+            batches.add(new ArrayList<>(events));
+            if (blockFirstBatch) {
+                blockFirstBatch = false;
+                firstBatchStarted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public NotificationPageDTO getInbox(String cursor, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NotificationUnreadDTO getUnreadCount() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void markRead(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int markAllRead() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.dreamplanner.overdue;
+
+import com.dreamplanner.entity.Dream;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.User;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 逾期检测：从水位扫描到当天，只标记新逾期的普通任务，先按用户发送摘要再标记，最后推进水位
+ *
+ * @author DreamPlanner
+ */
+class OverdueTaskJobTest extends AbstractQueryBudgetTest {
+
+    private static final String LEASE_NAME = "task-overdue";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private final RecordingNotifier notifier = new RecordingNotifier();
+    private OverdueTaskJob job;
+
+    @BeforeEach
+    void setUp() {
+        // 测试库由实体建表，租约表只在迁移脚本中
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduler_lease (name VARCHAR(64) NOT NULL PRIMARY KEY, "
+                + "owner VARCHAR(128), expires_at TIMESTAMP(3) NOT NULL, watermark TIMESTAMP(3))");
+        jdbcTemplate.update("DELETE FROM scheduler_lease");
+        job = new OverdueTaskJob(taskRepository, notifier, jdbcTemplate);
+        // 每页两条，覆盖键集分页
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "catchUpDays", 7);
+        ReflectionTestUtils.setField(job, "leaseDuration", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void marksNewlyOverdueTasksSinceWatermark() {
+        saveWatermark(today.minusDays(5));
+        Task first = save(data.alice(), "新逾期一", 1, today.minusDays(3), false, null);
+        Task second = save(data.alice(), "新逾期二", 0, today.minusDays(1), false, null);
+        Task bobs = save(data.bob(), "鲍勃的逾期", 3, today.minusDays(1), false, null);
+        Task alreadyMarked = save(data.alice(), "已标记", 1, today.minusDays(2), true, null);
+        Task completed = save(data.alice(), "已完成", 2, today.minusDays(2), false, null);
+        Task beforeWatermark = save(data.alice(), "水位之前", 1, today.minusDays(30), false, null);
+        Task series = save(data.alice(), "每日练习", 1, today.minusDays(1), false, "FREQ=DAILY");
+        Task dueToday = save(data.bob(), "今天截止", 1, today, false, null);
+        Long threeBody = titled("阅读《三体》").getId();
+
+        job.detect(today);
+
+        // 每个用户一条摘要，按截止日期排序
+        assertEquals(1, notifier.calls.size());
+        List<OverdueDigest> digests = notifier.calls.get(0);
+        assertEquals(List.of(data.alice().getId(), data.bob().getId()),
+                digests.stream().map(OverdueDigest::userId).toList());
+        assertEquals(List.of(first.getId(), threeBody, second.getId()), taskIds(digests.get(0)));
+        assertEquals(List.of(bobs.getId()), taskIds(digests.get(1)));
+        assertTrue(digests.stream().allMatch(digest -> digest.date().equals(today)));
+
+        // 发送摘要时任务尚未标记
+        assertEquals(Set.of(false), notifier.overdueWhenSent);
+
+        for (Task task : List.of(first, second, bobs, alreadyMarked)) {
+            assertTrue(overdue(task), task.getTitle());
+        }
+        assertTrue(overdue(taskRepository.findById(threeBody).orElseThrow()));
+        for (Task task : List.of(completed, beforeWatermark, series, dueToday)) {
+            assertFalse(overdue(task), task.getTitle());
+        }
+        assertEquals(today.atStartOfDay(), watermark());
+    }
+
+    @Test
+    void nextRunOnlyScansPastWatermark() {
+        saveWatermark(today.minusDays(1));
+        Task dueYesterday = save(data.bob(), "昨天截止", 1, today.minusDays(1), false, null);
+        Task dueToday = save(data.bob(), "今天截止", 1, today, false, null);
+
+        job.detect(today);
+        job.detect(today);
+        job.detect(today.plusDays(1));
+
+        // 同一天重复执行不再扫描；第二天只补上今天截止的任务
+        assertEquals(2, notifier.calls.size());
+        List<Long> firstRun = notifier.calls.get(0).stream().flatMap(digest -> taskIds(digest).stream()).toList();
+        List<OverdueTask> secondRun = notifier.calls.get(1).stream()
+                .flatMap(digest -> digest.tasks().stream()).toList();
+        assertTrue(firstRun.contains(dueYesterday.getId()));
+        assertTrue(secondRun.stream().anyMatch(task -> task.taskId().equals(dueToday.getId())));
+        assertTrue(secondRun.stream().allMatch(task -> task.dueDate().equals(today)));
+        assertTrue(overdue(dueToday));
+        assertEquals(today.plusDays(1).atStartOfDay(), watermark());
+    }
+
+    @Test
+    void failedDigestLeavesTasksForNextRun() {
+        saveWatermark(today.minusDays(2));
+        Task task = save(data.bob(), "昨天截止", 1, today.minusDays(1), false, null);
+        notifier.failing = true;
+
+        job.run();
+
+        assertFalse(overdue(task));
+        assertEquals(today.minusDays(2).atStartOfDay(), watermark());
+
+        notifier.failing = false;
+        job.detect(today);
+        assertTrue(overdue(task));
+        assertEquals(today.atStartOfDay(), watermark());
+    }
+
+    private Task save(User user, String title, int status, LocalDate dueDate, boolean overdue, String rule) {
+        Dream dream = user.getId().equals(data.alice().getId()) ? data.reading() : data.marathon();
+        Task task = new Task();
+        task.setDream(dream);
+        task.setUser(user);
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setPriority(2);
+        task.setStartDate(dueDate.minusDays(3));
+        task.setDueDate(dueDate);
+        task.setOverdue(overdue);
+        task.setRecurrenceRule(rule);
+        return taskRepository.save(task);
+    }
+
+    private Task titled(String title) {
+        return taskRepository.findAll().stream()
+                .filter(task -> title.equals(task.getTitle()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private boolean overdue(Task task) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT overdue FROM task WHERE id = ?",
+                Boolean.class, task.getId()));
+    }
+
+    private void saveWatermark(LocalDate date) {
+        jdbcTemplate.update("INSERT INTO scheduler_lease (name, owner, expires_at, watermark) VALUES (?, NULL, ?, ?)",
+                LEASE_NAME, Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)),
+                Timestamp.valueOf(date.atStartOfDay()));
+    }
+
+    private LocalDateTime watermark() {
+        return jdbcTemplate.queryForObject("SELECT watermark FROM scheduler_lease WHERE name = ?",
+                Timestamp.class, LEASE_NAME).toLocalDateTime();
+    }
+
+    private static List<Long> taskIds(OverdueDigest digest) {
+        return digest.tasks().stream().map(OverdueTask::taskId).collect(Collectors.toList());
+    }
+
+    /**
+     * 记录每次发送的摘要，以及发送时这些任务在库中的逾期标记
+     */
+    private class RecordingNotifier implements OverdueDigestNotifier {
+
+        private final List<List<OverdueDigest>> calls = new ArrayList<>();
+        private final Set<Boolean> overdueWhenSent = new HashSet<>();
+        private boolean failing;
+
+        @Override
+        public void notify(List<OverdueDigest> digests) {
+            if (failing) {
+                throw new IllegalStateException("摘要发送失败");
+            }
+            calls.add(digests);
+            digests.stream()
+                    .flatMap(digest -> digest.tasks().stream())
+                    .forEach(task -> overdueWhenSent.add(jdbcTemplate.queryForObject(
+                            "SELECT overdue FROM task WHERE id = ?", Boolean.class, task.taskId())));
+        }
+    }
+}
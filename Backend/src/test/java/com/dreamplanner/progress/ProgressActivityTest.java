@@ -0,0 +1,83 @@
+package com.dreamplanner.progress;
+
+import com.dreamplanner.dto.ProgressActivityBucketDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 打卡统计的按周汇总与连续天数
+ *
+ * @author DreamPlanner
+ */
+class ProgressActivityTest {
+
+    /**
+     * 2024-01-01是周一
+     */
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void weeklyIncludesEmptyWeeks() {
+        List<ProgressDayCount> days = List.of(
+                day(MONDAY, 2), day(MONDAY.plusDays(6), 1), day(MONDAY.plusDays(14), 3));
+        List<ProgressActivityBucketDTO> weeks = ProgressActivity.weekly(days, MONDAY, MONDAY.plusDays(20));
+        assertEquals(3, weeks.size());
+        assertEquals(3, weeks.get(0).getCheckIns());
+        assertEquals(2, weeks.get(0).getActiveDays());
+        assertEquals(0, weeks.get(1).getCheckIns());
+        assertEquals(MONDAY.plusDays(13), weeks.get(1).getEnd());
+        assertEquals(3, weeks.get(2).getCheckIns());
+        assertEquals(1, weeks.get(2).getActiveDays());
+    }
+
+    @Test
+    void longestStreakCountsConsecutiveDays() {
+        List<ProgressDayCount> days = List.of(
+                day(MONDAY, 1), day(MONDAY.plusDays(1), 1), day(MONDAY.plusDays(3), 1),
+                day(MONDAY.plusDays(4), 4), day(MONDAY.plusDays(5), 1), day(MONDAY.plusDays(9), 1));
+        assertEquals(3, ProgressActivity.longestStreak(days));
+        assertEquals(0, ProgressActivity.longestStreak(List.of()));
+    }
+
+    @Test
+    void currentStreakEndsYesterdayWhenTodayIsEmpty() {
+        LocalDate today = MONDAY.plusDays(10);
+        List<ProgressDayCount> days = List.of(day(today.minusDays(3), 1), day(today.minusDays(2), 1),
+                day(today.minusDays(1), 2));
+        assertEquals(3, ProgressActivity.currentStreak(today, 30, loader(days, new ArrayList<>())));
+        assertEquals(0, ProgressActivity.currentStreak(today.plusDays(1), 30, loader(days, new ArrayList<>())));
+    }
+
+    @Test
+    void currentStreakLoadsEarlierWindows() {
+        LocalDate today = MONDAY.plusDays(100);
+        List<ProgressDayCount> days = new ArrayList<>();
+        for (int i = 24; i >= 0; i--) {
+            days.add(day(today.minusDays(i), 1));
+        }
+        List<LocalDate> windows = new ArrayList<>();
+        assertEquals(25, ProgressActivity.currentStreak(today, 10, loader(days, windows)));
+        // [today-9, today]、[today-19, today-10]、[today-29, today-20]
+        assertEquals(List.of(today, today.minusDays(10), today.minusDays(20)), windows);
+    }
+
+    private static BiFunction<LocalDate, LocalDate, List<ProgressDayCount>> loader(List<ProgressDayCount> days,
+                                                                               List<LocalDate> windows) {
+        return (from, to) -> {
+            windows.add(to);
+            return days.stream()
+                    .filter(day -> !day.date().isBefore(from) && !day.date().isAfter(to))
+                    .toList();
+        };
+    }
+
+    private static ProgressDayCount day(LocalDate date, long count) {
+        return new ProgressDayCount(date, count);
+    }
+}
@@ -0,0 +1,123 @@
+package com.dreamplanner.recurrence;
+
+import com.dreamplanner.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 重复规则解析与展开
+ *
+ * @author DreamPlanner
+ */
+class RecurrenceRuleTest {
+
+    /**
+     * 2024-01-03是周三
+     */
+    private static final LocalDate START = LocalDate.of(2024, 1, 3);
+
+    @Test
+    void parseNormalizesRule() {
+        assertEquals("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=10",
+                RecurrenceRule.parse("rrule:freq=weekly;byday=fr,mo,we;interval=1;count=10").format());
+        assertEquals("FREQ=DAILY;INTERVAL=2;UNTIL=20240201",
+                RecurrenceRule.parse("FREQ=DAILY;INTERVAL=2;UNTIL=20240201T235959Z").format());
+    }
+
+    @Test
+    void parseRejectsUnsupportedParts() {
+        assertThrows(BusinessException.class, () -> RecurrenceRule.parse("FREQ=YEARLY"));
+        assertThrows(BusinessException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+        assertThrows(BusinessException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYDAY=MO"));
+        assertThrows(BusinessException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=1MO"));
+        assertThrows(BusinessException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=3;UNTIL=20240201"));
+        assertThrows(BusinessException.class, () -> RecurrenceRule.parse("FREQ=DAILY;INTERVAL=0"));
+        assertThrows(BusinessException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYHOUR=8"));
+    }
+
+    @Test
+    void dailyWithIntervalJumpsToWindow() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3");
+        // 起点后第363天、第366天
+        assertEquals(List.of(LocalDate.of(2024, 12, 31), LocalDate.of(2025, 1, 3)),
+                rule.occurrences(START, LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 5), 100));
+    }
+
+    @Test
+    void weeklyByDaySkipsDaysBeforeStart() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE,FR");
+        assertEquals(List.of(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 8)),
+                rule.occurrences(START, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 9), 100));
+    }
+
+    @Test
+    void weeklyWithoutByDayUsesStartDay() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2");
+        assertEquals(List.of(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 17), LocalDate.of(2024, 1, 31)),
+                rule.occurrences(START, START, LocalDate.of(2024, 2, 6), 100));
+    }
+
+    @Test
+    void monthlySkipsMonthsWithoutTheDay() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY");
+        LocalDate start = LocalDate.of(2024, 1, 31);
+        assertEquals(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 3, 31), LocalDate.of(2024, 5, 31)),
+                rule.occurrences(start, start, LocalDate.of(2024, 6, 29), 100));
+    }
+
+    @Test
+    void countLimitsSeriesAndSeriesEnd() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=TU,TH;COUNT=3");
+        // 周三起点：1月4日(四)、9日(二)、11日(四)
+        assertEquals(LocalDate.of(2024, 1, 11), rule.seriesEnd(START));
+        assertEquals(List.of(LocalDate.of(2024, 1, 9), LocalDate.of(2024, 1, 11)),
+                rule.occurrences(START, LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 31), 100));
+        assertFalse(rule.isOccurrence(START, LocalDate.of(2024, 1, 16)));
+    }
+
+    @Test
+    void untilAndUnboundedSeriesEnd() {
+        assertEquals(LocalDate.of(2024, 2, 1), RecurrenceRule.parse("FREQ=DAILY;UNTIL=20240201").seriesEnd(START));
+        assertNull(RecurrenceRule.parse("FREQ=DAILY;UNTIL=20231231").seriesEnd(START));
+        assertEquals(RecurrenceRule.UNBOUNDED, RecurrenceRule.parse("FREQ=DAILY").seriesEnd(START));
+    }
+
+    @Test
+    void windowExpansionMatchesExpansionFromStart() {
+        // 直接跳到窗口所在周期的结果，应与从起点逐个生成再截取窗口一致
+        String[] rules = {"FREQ=DAILY;INTERVAL=5", "FREQ=WEEKLY;INTERVAL=3;BYDAY=SU,TU", "FREQ=MONTHLY;INTERVAL=2"};
+        LocalDate start = LocalDate.of(2024, 3, 30);
+        for (String text : rules) {
+            RecurrenceRule rule = RecurrenceRule.parse(text);
+            List<LocalDate> all = rule.occurrences(start, start, LocalDate.of(2027, 1, 1), 10_000);
+            for (LocalDate from = start.minusDays(3); from.isBefore(LocalDate.of(2026, 6, 1)); from = from.plusDays(17)) {
+                LocalDate to = from.plusDays(40);
+                List<LocalDate> expected = new ArrayList<>();
+                for (LocalDate date : all) {
+                    if (!date.isBefore(from) && !date.isAfter(to)) {
+                        expected.add(date);
+                    }
+                }
+                assertEquals(expected, rule.occurrences(start, from, to, 10_000), text + " " + from);
+                for (LocalDate date : expected) {
+                    assertTrue(rule.isOccurrence(start, date));
+                }
+            }
+        }
+    }
+
+    @Test
+    void limitStopsExpansion() {
+        assertEquals(List.of(START, START.plusDays(1)),
+                RecurrenceRule.parse("FREQ=DAILY").occurrences(START, START, START.plusDays(30), 2));
+    }
+}
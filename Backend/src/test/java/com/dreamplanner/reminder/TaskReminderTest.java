@@ -0,0 +1,56 @@
+package com.dreamplanner.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 提醒快照：重复任务按实例展开提醒时间，发送前按实例校验
+ *
+ * @author DreamPlanner
+ */
+class TaskReminderTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void plainReminderInsideRange() {
+        TaskReminder reminder = reminder(START.atTime(9, 0), null);
+        assertEquals(List.of(reminder),
+                reminder.occurrencesBetween(START.atStartOfDay(), START.plusDays(1).atStartOfDay(), 1));
+        assertTrue(reminder.occurrencesBetween(START.atTime(9, 1), START.plusDays(1).atStartOfDay(), 1).isEmpty());
+        assertTrue(reminder.remindsAt(START.atTime(9, 0)));
+        assertFalse(reminder.remindsAt(START.plusDays(1).atTime(9, 0)));
+    }
+
+    @Test
+    void recurringReminderExpandsPerOccurrence() {
+        TaskReminder series = reminder(START.atTime(9, 0), "FREQ=WEEKLY;BYDAY=MO,WE");
+
+        // 窗口起点当天的实例已过提醒时间时取下一次实例
+        List<TaskReminder> next = series.occurrencesBetween(START.atTime(10, 0), START.plusDays(7).atStartOfDay(), 1);
+        assertEquals(List.of(START.plusDays(2).atTime(9, 0)), next.stream().map(TaskReminder::reminderTime).toList());
+
+        List<TaskReminder> week = series.occurrencesBetween(START.atStartOfDay(), START.plusDays(7).atStartOfDay(), 10);
+        assertEquals(List.of(START.atTime(9, 0), START.plusDays(2).atTime(9, 0)),
+                week.stream().map(TaskReminder::reminderTime).toList());
+    }
+
+    @Test
+    void recurringReminderValidatesOccurrence() {
+        TaskReminder series = reminder(START.atTime(9, 0), "FREQ=DAILY;INTERVAL=2");
+        assertTrue(series.remindsAt(START.plusDays(4).atTime(9, 0)));
+        assertFalse(series.remindsAt(START.plusDays(3).atTime(9, 0)));
+        assertFalse(series.remindsAt(START.plusDays(4).atTime(10, 0)));
+    }
+
+    private static TaskReminder reminder(LocalDateTime time, String rule) {
+        return new TaskReminder(1L, 2L, "晨跑", time, 1, rule, START);
+    }
+}
@@ -0,0 +1,65 @@
+package com.dreamplanner.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分层时间轮
+ *
+ * @author DreamPlanner
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void dueEntryIsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 10_500);
+        assertNull(wheel.schedule("due", 10_900));
+        assertNull(wheel.schedule("past", 5_000));
+    }
+
+    @Test
+    void entriesFireInTheirTickAcrossLevels() {
+        // 每层8格，第三层才能容纳的到期时间也要在正确的tick触发
+        long start = 1_000_003;
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 8, start);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long i = 0; i < 5_000; i++) {
+            long deadline = start + TICK + (long) (random.nextDouble() * 600_000);
+            TimingWheel.Timeout<Long> timeout = wheel.schedule(i, deadline);
+            if (i % 10 == 0) {
+                timeout.cancel();
+            } else {
+                deadlines.put(i, deadline);
+            }
+        }
+
+        List<String> errors = new ArrayList<>();
+        long now = start;
+        while (now < start + 700_000) {
+            now += random.nextInt(5_000);
+            long current = now;
+            wheel.advance(current, id -> {
+                Long deadline = deadlines.remove(id);
+                if (deadline == null) {
+                    errors.add("重复或已取消的定时项触发: " + id);
+                } else if (deadline >= current + TICK || deadline < current - 5_000 - TICK) {
+                    errors.add("定时项 " + id + " 到期 " + deadline + "，触发于 " + current);
+                }
+            });
+        }
+        assertTrue(errors.isEmpty(), () -> String.join("\n", errors));
+        assertEquals(0, deadlines.size(), "未触发的定时项: " + deadlines.keySet());
+    }
+}
@@ -0,0 +1,136 @@
+package com.dreamplanner.repository;
+
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import com.dreamplanner.support.query.RecordedStatements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 今日/本周/即将到期及日历任务查询在H2上的执行计划
+ * 记录仓库方法实际发出的SQL及绑定参数，用H2的EXPLAIN重放，断言任务表走预期的复合索引而不是全表扫描，
+ * 用于发现查询条件改动后索引完全失效的回归。
+ * 这里只验证H2的计划，不代表MySQL的选择：两者的优化器不同，MySQL会按统计信息在索引之间取舍，
+ * IN列表和OR条件是否展开为多段范围扫描也不一定相同，上线前需在MySQL上对同样的SQL执行EXPLAIN确认
+ *
+ * @author DreamPlanner
+ */
+class TaskQueryPlanTest extends AbstractQueryBudgetTest {
+
+    private static final List<Integer> OPEN_STATUSES = List.of(0, 1, 3);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    /**
+     * 补充一批多年前已完成的任务，模拟长期用户的历史数据
+     */
+    @BeforeEach
+    void addCompletedHistory() {
+        List<Task> history = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Task task = new Task();
+            task.setDream(data.reading());
+            task.setUser(data.alice());
+            task.setTitle("已完成的阅读任务" + i);
+            task.setStatus(2);
+            task.setStartDate(today.minusDays(800 - i));
+            task.setDueDate(today.minusDays(790 - i));
+            history.add(task);
+        }
+        taskRepository.saveAll(history);
+    }
+
+    @Test
+    void dueDateRangeUsesStatusDueDateIndex() {
+        assertIndexRange("idx_user_status_due_date", () -> taskRepository
+                .findByStatusesAndDueDateBetween(data.alice().getId(), OPEN_STATUSES, today, today.plusDays(7)));
+    }
+
+    @Test
+    void startDateRangeUsesStatusStartDateIndex() {
+        assertIndexRange("idx_user_status_start_date", () -> taskRepository
+                .findByStatusesAndStartDateBetween(data.alice().getId(), OPEN_STATUSES, today, today.plusDays(6)));
+    }
+
+    @Test
+    void todayTasksUseUserStatusIndex() {
+        // 日期条件是多个区间的OR，至少按(user_id, status)前缀定位，不扫描其他用户的任务
+        assertIndexRange("idx_user_status_", () -> taskRepository
+                .findTodayTasks(data.alice().getId(), OPEN_STATUSES, today, today.plusDays(7), PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void upcomingTasksUseStatusDueDateIndex() {
+        // 分页查询会同时发出数据查询和计数查询，两条都应走索引
+        assertIndexRange("idx_user_status_due_date", () -> taskRepository
+                .findUpcomingTasks(data.alice().getId(), OPEN_STATUSES, today.plusDays(7), PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void calendarUsesDueDateCoveringIndex() {
+        assertIndexRange("idx_user_due_date_status_priority", () -> taskRepository
+                .countCalendar(data.alice().getId(), today.withDayOfMonth(1), today.plusMonths(2)));
+    }
+
+    @Test
+    void newlyOverdueUsesStatusDueDateIndex() {
+        // 逾期检测不限用户，按状态逐个扫描上次检测之后到期的任务
+        assertIndexRange("idx_status_due_date", () -> taskRepository
+                .findNewlyOverdue(1, today, today.minusDays(7), 0L, PageRequest.of(0, 500)));
+    }
+
+    /**
+     * 执行查询，对其中每条SELECT做EXPLAIN，断言使用了指定索引且没有全表扫描
+     */
+    private void assertIndexRange(String index, Runnable query) {
+        recorder.start();
+        RecordedStatements statements;
+        try {
+            query.run();
+        } finally {
+            statements = recorder.stop();
+        }
+
+        int explained = 0;
+        for (int i = 0; i < statements.count(); i++) {
+            String sql = statements.getStatements().get(i);
+            if (!sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                continue;
+            }
+            String plan = explain(sql, statements.getParameters(i));
+            String normalized = plan.toLowerCase(Locale.ROOT);
+            if (!normalized.contains(index) || normalized.contains("tablescan")) {
+                throw new AssertionError(String.format("期望使用索引 %s 且无全表扫描%nSQL: %s%n执行计划:%n%s",
+                        index, sql, plan));
+            }
+            explained++;
+        }
+        if (explained == 0) {
+            throw new AssertionError("未记录到任何查询语句\n" + statements);
+        }
+    }
+
+    private String explain(String sql, List<Object> parameters) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters.toArray());
+        return rows.stream()
+                .flatMap(row -> row.values().stream())
+                .map(String::valueOf)
+                .collect(Collectors.joining("\n"));
+    }
+}
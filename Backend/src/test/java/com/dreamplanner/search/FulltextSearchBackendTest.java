@@ -0,0 +1,51 @@
+package com.dreamplanner.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 全文索引查询串，以及短词的LIKE条件
+ *
+ * @author DreamPlanner
+ */
+class FulltextSearchBackendTest {
+
+    @Test
+    void everyTermBecomesRequiredPhrase() {
+        assertEquals("+\"学习\" +\"蛙泳\"", FulltextSearchBackend.toBooleanQuery(SearchTerms.split(" 学习  蛙\"泳 学习")));
+    }
+
+    @Test
+    void shortTermsUseLikeAlongsideMatch() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = FulltextSearchBackend.whereClause(SearchTerms.split("蛙泳 学 5%"), 2, params);
+
+        assertEquals("t.user_id = :userId AND MATCH(t.title, t.description) AGAINST (:query IN BOOLEAN MODE)"
+                + " AND (t.title LIKE :term0 ESCAPE '!' OR t.description LIKE :term0 ESCAPE '!')", where);
+        assertEquals("+\"蛙泳\" +\"5%\"", params.getValue("query"));
+        assertEquals("%学%", params.getValue("term0"));
+    }
+
+    @Test
+    void allShortTermsUseLikeOnly() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = FulltextSearchBackend.whereClause(SearchTerms.split("学 %"), 2, params);
+
+        assertEquals("t.user_id = :userId"
+                + " AND (t.title LIKE :term0 ESCAPE '!' OR t.description LIKE :term0 ESCAPE '!')"
+                + " AND (t.title LIKE :term1 ESCAPE '!' OR t.description LIKE :term1 ESCAPE '!')", where);
+        assertFalse(params.hasValue("query"));
+        assertEquals("%!%%", params.getValue("term1"));
+    }
+
+    @Test
+    void termsAreLimited() {
+        assertEquals(SearchTerms.MAX_TERMS, SearchTerms.split("a b c d e f g").size());
+        assertEquals(List.of(), SearchTerms.split(null));
+    }
+}
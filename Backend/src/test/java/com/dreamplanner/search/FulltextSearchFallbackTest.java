@@ -0,0 +1,73 @@
+package com.dreamplanner.search;
+
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.support.query.AbstractQueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 全文索引后端的短词回退：每个短词分别匹配标题或描述，不要求整个关键词连续出现
+ * 测试库没有全文索引，这里只覆盖全部是短词、不需要MATCH的情况
+ *
+ * @author DreamPlanner
+ */
+class FulltextSearchFallbackTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private FulltextSearchBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = new FulltextSearchBackend(taskRepository, dreamRepository, jdbcTemplate, 2);
+    }
+
+    @Test
+    void everyShortTermMustMatch() {
+        Long alice = data.alice().getId();
+        assertEquals(List.of("办游泳卡"), taskTitles(backend.searchTasks(alice, "卡 泳", PageRequest.of(0, 10))));
+        assertEquals(List.of("学习蛙泳"), taskTitles(backend.searchTasks(alice, "泳 学", PageRequest.of(0, 10))));
+        assertEquals(List.of(), taskTitles(backend.searchTasks(alice, "泳 书", PageRequest.of(0, 10))));
+        assertEquals(List.of(data.swim().getId()),
+                backend.searchDreams(alice, "泳 会", PageRequest.of(0, 10)).map(SearchHit::getId).getContent());
+    }
+
+    @Test
+    void pagesNewestFirst() {
+        Long alice = data.alice().getId();
+        Page<SearchHit> first = backend.searchTasks(alice, "习", PageRequest.of(0, 2));
+        Page<SearchHit> second = backend.searchTasks(alice, "习", PageRequest.of(1, 2));
+
+        List<Long> all = taskRepository.findAll().stream()
+                .filter(task -> task.getUser().getId().equals(alice) && task.getTitle().contains("习"))
+                .map(Task::getId)
+                .sorted((a, b) -> Long.compare(b, a))
+                .toList();
+        assertEquals(all.size(), first.getTotalElements());
+        assertEquals(all.subList(0, 2), first.map(SearchHit::getId).getContent());
+        assertEquals(all.subList(2, Math.min(4, all.size())), second.map(SearchHit::getId).getContent());
+    }
+
+    private List<String> taskTitles(Page<SearchHit> hits) {
+        return hits.stream()
+                .map(hit -> taskRepository.findById(hit.getId()).orElseThrow().getTitle())
+                .toList();
+    }
+}
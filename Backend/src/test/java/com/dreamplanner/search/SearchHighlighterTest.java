@@ -0,0 +1,51 @@
+package com.dreamplanner.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 搜索结果高亮
+ *
+ * @author DreamPlanner
+ */
+class SearchHighlighterTest {
+
+    private final SearchHighlighter highlighter = new SearchHighlighter(10, "<em>", "</em>");
+
+    @Test
+    void onlyMatchedFieldsAreReturned() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", "学习蛙泳");
+        fields.put("description", null);
+        assertEquals(Map.of("title", "学习<em>蛙泳</em>"), highlighter.highlight("蛙泳", fields));
+    }
+
+    @Test
+    void noMatchReturnsNull() {
+        assertNull(highlighter.highlight("自由泳", Map.of("title", "学习蛙泳")));
+        assertNull(highlighter.highlight("  ", Map.of("title", "学习蛙泳")));
+    }
+
+    @Test
+    void fragmentIsCutAroundFirstMatch() {
+        String text = "abcdefghij蛙泳klmnopqrst";
+        assertEquals("…ij<em>蛙泳</em>klmnop…", highlighter.highlight("蛙泳", Map.of("d", text)).get("d"));
+    }
+
+    @Test
+    void everyTermIsMarkedIgnoringCase() {
+        assertEquals("<em>Java</em>从<em>入门</em>到放弃",
+                highlighter.highlight("java 入门", Map.of("t", "Java从入门到放弃")).get("t"));
+    }
+
+    @Test
+    void textIsHtmlEscaped() {
+        assertEquals("&lt;b&gt;<em>蛙泳</em>&lt;/b&gt;",
+                highlighter.highlight("蛙泳", Map.of("t", "<b>蛙泳</b>")).get("t"));
+    }
+}
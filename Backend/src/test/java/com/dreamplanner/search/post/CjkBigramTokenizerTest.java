@@ -0,0 +1,50 @@
+package com.dreamplanner.search.post;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 中日韩二元分词
+ *
+ * @author DreamPlanner
+ */
+class CjkBigramTokenizerTest {
+
+    @Test
+    void indexTokensContainBigramsAndUnigrams() {
+        assertEquals(List.of("学", "学习", "习", "习英", "英", "英语", "语"),
+                CjkBigramTokenizer.indexTokens("学习英语"));
+    }
+
+    @Test
+    void queryTokensUseBigramsOnly() {
+        assertEquals(List.of("学习", "习英", "英语"), CjkBigramTokenizer.queryTokens("学习英语"));
+    }
+
+    @Test
+    void isolatedCharacterIsKeptAsUnigram() {
+        assertEquals(List.of("跑"), CjkBigramTokenizer.queryTokens("跑"));
+        assertEquals(List.of("跑", "步"), CjkBigramTokenizer.queryTokens("跑 步 跑"));
+    }
+
+    @Test
+    void latinWordsAreLowercasedAndSplitFromCjk() {
+        assertEquals(List.of("java", "入门", "2024"), CjkBigramTokenizer.queryTokens("Java入门, 2024!"));
+    }
+
+    @Test
+    void longWordsAreTruncated() {
+        String word = "a".repeat(CjkBigramTokenizer.MAX_WORD_LENGTH + 10);
+        assertEquals(List.of("a".repeat(CjkBigramTokenizer.MAX_WORD_LENGTH)), CjkBigramTokenizer.queryTokens(word));
+    }
+
+    @Test
+    void blankTextHasNoTokens() {
+        assertTrue(CjkBigramTokenizer.indexTokens(null).isEmpty());
+        assertTrue(CjkBigramTokenizer.queryTokens(" ，。 ").isEmpty());
+    }
+}
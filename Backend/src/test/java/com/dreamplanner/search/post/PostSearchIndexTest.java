@@ -0,0 +1,106 @@
+package com.dreamplanner.search.post;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 动态倒排索引：BM25排序、过滤、游标翻页，以及快照写入、加载后结果不变
+ *
+ * @author DreamPlanner
+ */
+class PostSearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private final PostSearchIndex index = new PostSearchIndex();
+
+    @Test
+    void titleMatchRanksAboveContentMatch() {
+        index.index(PostDocument.of(1, 10, "健康", "今天休息", "明天继续跑步"));
+        index.index(PostDocument.of(2, 10, "健康", "跑步打卡", "五公里"));
+        index.index(PostDocument.of(3, 11, null, "读书笔记", "百年孤独"));
+        assertEquals(List.of(2L, 1L), ids(index.search("跑步", null, null, null, 10)));
+    }
+
+    @Test
+    void filtersByCategoryAndAuthor() {
+        index.index(PostDocument.of(1, 10, "健康", "跑步打卡", "第一天"));
+        index.index(PostDocument.of(2, 11, "健康", "跑步打卡", "第二天"));
+        index.index(PostDocument.of(3, 10, "学习", "跑步机上背单词", ""));
+        assertEquals(List.of(2L, 1L), ids(index.search("跑步", "健康", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("跑步", "健康", 10L, null, 10)));
+        assertTrue(index.search("跑步", "兴趣", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void cursorContinuesAfterLastHit() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(PostDocument.of(id, 10, null, "跑步打卡", "第" + id + "天"));
+        }
+        List<PostSearchIndex.Hit> first = index.search("跑步", null, null, null, 2);
+        PostSearchIndex.Hit cursor = PostSearchCursor.decode(PostSearchCursor.encode(first.get(1)));
+        List<PostSearchIndex.Hit> second = index.search("跑步", null, null, cursor, 2);
+        assertEquals(List.of(5L, 4L), ids(first));
+        assertEquals(List.of(3L, 2L), ids(second));
+    }
+
+    @Test
+    void updateAndRemoveReplacePreviousVersion() {
+        index.index(PostDocument.of(1, 10, null, "跑步打卡", ""));
+        index.index(PostDocument.of(1, 10, null, "游泳打卡", ""));
+        index.index(PostDocument.of(2, 10, null, "跑步打卡", ""));
+        index.remove(2);
+        assertTrue(index.search("跑步", null, null, null, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("游泳", null, null, null, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void snapshotKeepsResultsAndMergesLaterChanges() throws IOException {
+        index.index(PostDocument.of(1, 10, "健康", "跑步打卡", "五公里"));
+        index.index(PostDocument.of(2, 11, "健康", "游泳打卡", "一千米"));
+        index.index(PostDocument.of(3, 12, null, "跑步机", "下雨天"));
+        List<PostSearchIndex.Hit> before = index.search("跑步 打卡", null, null, null, 10);
+
+        index.snapshot(directory, 1000L);
+        assertEquals(0, index.pendingChanges());
+        assertEquals(before, index.search("跑步 打卡", null, null, null, 10));
+
+        // 基础段上的修改和删除，再合并一次
+        index.index(PostDocument.of(2, 11, "健康", "跑步打卡", "十公里"));
+        index.remove(3);
+        index.index(PostDocument.of(4, 10, "学习", "读书打卡", ""));
+        List<PostSearchIndex.Hit> changed = index.search("跑步 打卡", null, null, null, 10);
+        assertEquals(List.of(2L, 1L, 4L), ids(changed));
+        index.snapshot(directory, 2000L);
+        assertEquals(changed, index.search("跑步 打卡", null, null, null, 10));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+
+        PostSearchIndex reloaded = new PostSearchIndex();
+        assertEquals(2000L, reloaded.load(directory));
+        assertEquals(changed, reloaded.search("跑步 打卡", null, null, null, 10));
+        assertEquals(List.of(1L), ids(reloaded.search("跑步", "健康", 10L, null, 10)));
+    }
+
+    @Test
+    void loadWithoutSegmentReturnsMinusOne() {
+        assertEquals(-1, new PostSearchIndex().load(directory.resolve("missing")));
+    }
+
+    private static List<Long> ids(List<PostSearchIndex.Hit> hits) {
+        return hits.stream().map(PostSearchIndex.Hit::postId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,242 @@
+package com.dreamplanner.service.impl;
+
+import com.dreamplanner.dto.ChunkUploadDTO;
+import com.dreamplanner.exception.BusinessException;
+import com.dreamplanner.exception.ResourceNotFoundException;
+import com.dreamplanner.storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分片上传：乱序写入、断点续传、大小限制、过期清理、会话归属和会话结束后到达的分片
+ *
+ * @author DreamPlanner
+ */
+class ChunkedUploadServiceImplTest {
+
+    private static final long OWNER = 1L;
+    private static final long OTHER = 2L;
+    private static final int CHUNK = 1024;
+
+    @TempDir
+    Path uploadDir;
+
+    private ChunkedUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = newService();
+    }
+
+    @Test
+    void assemblesChunksWrittenOutOfOrder() throws IOException {
+        byte[] data = randomBytes(CHUNK * 2 + 100);
+        ChunkUploadDTO session = initiate(data.length);
+        assertEquals(3, session.getTotalChunks());
+
+        write(session.getUploadId(), data, 2);
+        write(session.getUploadId(), data, 0);
+        ChunkUploadDTO status = write(session.getUploadId(), data, 1);
+        assertEquals(List.of(0, 1, 2), status.getReceivedChunks());
+        assertEquals(data.length, status.getReceivedBytes());
+        assertTrue(status.getCompleted());
+
+        Map<String, String> result = service.complete(OWNER, session.getUploadId());
+        Path stored = Files.list(uploadDir.resolve("video")).findFirst().orElseThrow()
+                .resolve(result.get("filename"));
+        assertArrayEquals(data, Files.readAllBytes(stored));
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(OWNER, session.getUploadId()));
+    }
+
+    @Test
+    void resumesAfterRestart() throws IOException {
+        byte[] data = randomBytes(CHUNK * 3);
+        ChunkUploadDTO session = initiate(data.length);
+        write(session.getUploadId(), data, 0);
+        write(session.getUploadId(), data, 2);
+
+        // 新实例从落盘的元数据恢复会话，从第一个缺失的分片继续
+        ChunkedUploadServiceImpl restarted = newService();
+        ChunkUploadDTO status = restarted.getStatus(OWNER, session.getUploadId());
+        assertEquals(List.of(0, 2), status.getReceivedChunks());
+        assertEquals(CHUNK, status.getNextOffset());
+        assertThrows(BusinessException.class, () -> restarted.complete(OWNER, session.getUploadId()));
+
+        restarted.writeChunk(OWNER, session.getUploadId(), CHUNK, chunk(data, 1), CHUNK, checksum(data, 1));
+        assertEquals(data.length, restarted.getStatus(OWNER, session.getUploadId()).getNextOffset());
+        restarted.complete(OWNER, session.getUploadId());
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(BusinessException.class,
+                () -> service.initiate(OWNER, "video", "a.mp4", "video/mp4", DataSize.ofMegabytes(3).toBytes(), CHUNK));
+        assertThrows(BusinessException.class,
+                () -> service.initiate(OWNER, "video", "a.mp4", "video/mp4", CHUNK, CHUNK * 64));
+        assertThrows(BusinessException.class,
+                () -> service.initiate(OWNER, "video", "a.txt", "text/plain", CHUNK, CHUNK));
+
+        byte[] data = randomBytes(CHUNK * 2);
+        String uploadId = initiate(data.length).getUploadId();
+        // 偏移量不在分片边界、声明长度不符、实际数据超长、校验值不符
+        assertThrows(BusinessException.class,
+                () -> service.writeChunk(OWNER, uploadId, 10, chunk(data, 0), CHUNK, null));
+        assertThrows(BusinessException.class,
+                () -> service.writeChunk(OWNER, uploadId, 0, chunk(data, 0), CHUNK - 1, null));
+        assertThrows(BusinessException.class,
+                () -> service.writeChunk(OWNER, uploadId, 0, new ByteArrayInputStream(data), -1, null));
+        assertThrows(BusinessException.class,
+                () -> service.writeChunk(OWNER, uploadId, 0, chunk(data, 0), CHUNK, "00000000"));
+        assertTrue(service.getStatus(OWNER, uploadId).getReceivedChunks().isEmpty());
+    }
+
+    @Test
+    void failedRewriteRequiresChunkAgain() {
+        byte[] data = randomBytes(CHUNK * 2);
+        String uploadId = initiate(data.length).getUploadId();
+        write(uploadId, data, 0);
+        assertThrows(BusinessException.class,
+                () -> service.writeChunk(OWNER, uploadId, 0, chunk(data, 0), CHUNK, "00000000"));
+        assertEquals(0, service.getStatus(OWNER, uploadId).getNextOffset());
+    }
+
+    @Test
+    void purgesExpiredSessions() {
+        String uploadId = initiate(CHUNK).getUploadId();
+        ReflectionTestUtils.setField(service, "sessionTtlHours", -1L);
+        write(uploadId, randomBytes(CHUNK), 0);
+
+        service.purgeExpiredSessions();
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(OWNER, uploadId));
+        assertFalse(Files.exists(uploadDir.resolve(".chunks").resolve(uploadId + ".part")));
+        assertFalse(Files.exists(uploadDir.resolve(".chunks").resolve(uploadId + ".meta")));
+    }
+
+    @Test
+    void sessionBelongsToItsCreator() {
+        byte[] data = randomBytes(CHUNK);
+        String uploadId = initiate(data.length).getUploadId();
+
+        assertForbidden(() -> service.writeChunk(OTHER, uploadId, 0, chunk(data, 0), CHUNK, null));
+        assertForbidden(() -> service.getStatus(OTHER, uploadId));
+        assertForbidden(() -> service.complete(OTHER, uploadId));
+        assertForbidden(() -> service.abort(OTHER, uploadId));
+
+        write(uploadId, data, 0);
+        service.complete(OWNER, uploadId);
+    }
+
+    @Test
+    void discardsChunkFinishingAfterAbort() {
+        byte[] data = randomBytes(CHUNK * 2);
+        String uploadId = initiate(data.length).getUploadId();
+
+        // 分片读到一半时会话被取消
+        InputStream aborting = new FilterInputStream(chunk(data, 0)) {
+            private boolean aborted;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (!aborted) {
+                    aborted = true;
+                    service.abort(OWNER, uploadId);
+                }
+                return super.read(b, off, len);
+            }
+        };
+        assertThrows(RuntimeException.class, () -> service.writeChunk(OWNER, uploadId, 0, aborting, CHUNK, null));
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(OWNER, uploadId));
+        assertFalse(Files.exists(uploadDir.resolve(".chunks").resolve(uploadId + ".meta")));
+    }
+
+    @Test
+    void completeWaitsForChunkInFlight() {
+        byte[] data = randomBytes(CHUNK);
+        String uploadId = initiate(data.length).getUploadId();
+        write(uploadId, data, 0);
+
+        // 重传的分片写入期间不能完成上传
+        BusinessException[] conflict = new BusinessException[1];
+        InputStream completing = new FilterInputStream(chunk(data, 0)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (conflict[0] == null) {
+                    conflict[0] = assertThrows(BusinessException.class, () -> service.complete(OWNER, uploadId));
+                }
+                return super.read(b, off, len);
+            }
+        };
+        service.writeChunk(OWNER, uploadId, 0, completing, CHUNK, checksum(data, 0));
+        assertEquals(HttpStatus.CONFLICT, conflict[0].getStatus());
+
+        service.complete(OWNER, uploadId);
+        assertThrows(ResourceNotFoundException.class, () -> service.abort(OWNER, uploadId));
+    }
+
+    private ChunkedUploadServiceImpl newService() throws IOException {
+        ChunkedUploadServiceImpl instance = new ChunkedUploadServiceImpl(new LocalBlobStore(uploadDir.toString()));
+        ReflectionTestUtils.setField(instance, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(instance, "fileAccessUrl", "http://localhost/files");
+        ReflectionTestUtils.setField(instance, "defaultChunkSize", DataSize.ofBytes(CHUNK));
+        ReflectionTestUtils.setField(instance, "maxChunkSize", DataSize.ofKilobytes(16));
+        ReflectionTestUtils.setField(instance, "maxFileSize", DataSize.ofMegabytes(2));
+        ReflectionTestUtils.setField(instance, "sessionTtlHours", 24L);
+        instance.init();
+        return instance;
+    }
+
+    private ChunkUploadDTO initiate(long totalSize) {
+        return service.initiate(OWNER, "video", "clip.mp4", "video/mp4", totalSize, CHUNK);
+    }
+
+    private ChunkUploadDTO write(String uploadId, byte[] data, int index) {
+        long length = Math.min(CHUNK, data.length - (long) index * CHUNK);
+        return service.writeChunk(OWNER, uploadId, (long) index * CHUNK, chunk(data, index), length,
+                checksum(data, index));
+    }
+
+    private static InputStream chunk(byte[] data, int index) {
+        int offset = index * CHUNK;
+        return new ByteArrayInputStream(data, offset, Math.min(CHUNK, data.length - offset));
+    }
+
+    private static String checksum(byte[] data, int index) {
+        int offset = index * CHUNK;
+        CRC32C crc = new CRC32C();
+        crc.update(data, offset, Math.min(CHUNK, data.length - offset));
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static void assertForbidden(Runnable action) {
+        BusinessException e = assertThrows(BusinessException.class, action::run);
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatus());
+    }
+}
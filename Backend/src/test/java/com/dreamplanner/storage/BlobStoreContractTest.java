@@ -0,0 +1,141 @@
+package com.dreamplanner.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 各存储实现共同遵守的读写约定：写入、读取、Range读取、删除和分段上传
+ *
+ * @author DreamPlanner
+ */
+abstract class BlobStoreContractTest {
+
+    protected static final String KEY = "avatar/20240101/a.png";
+
+    @TempDir
+    Path tempDir;
+
+    protected BlobStore store;
+
+    /**
+     * 创建待测存储
+     */
+    protected abstract BlobStore newStore() throws IOException;
+
+    @BeforeEach
+    void setUpStore() throws IOException {
+        store = newStore();
+    }
+
+    @Test
+    void putThenGet() throws IOException {
+        byte[] data = randomBytes(3000);
+        store.put(KEY, new ByteArrayInputStream(data), data.length, "image/png");
+
+        assertArrayEquals(data, read(store.open(KEY)));
+        BlobMetadata metadata = store.stat(KEY).orElseThrow();
+        assertEquals(KEY, metadata.getKey());
+        assertEquals(data.length, metadata.getSize());
+    }
+
+    @Test
+    void putWithUnknownSize() throws IOException {
+        byte[] data = randomBytes(1000);
+        store.put(KEY, new ByteArrayInputStream(data), -1, "image/png");
+        assertArrayEquals(data, read(store.open(KEY)));
+    }
+
+    @Test
+    void putFileTakesOwnershipOfTempFile() throws IOException {
+        byte[] data = randomBytes(2000);
+        Path file = Files.write(tempDir.resolve("upload.tmp"), data);
+
+        store.putFile(KEY, file, "image/png");
+
+        assertFalse(Files.exists(file));
+        assertArrayEquals(data, read(store.open(KEY)));
+    }
+
+    @Test
+    void readsRange() throws IOException {
+        byte[] data = randomBytes(5000);
+        store.put(KEY, new ByteArrayInputStream(data), data.length, "image/png");
+
+        assertArrayEquals(Arrays.copyOfRange(data, 100, 350), read(store.open(KEY, 100, 250)));
+        assertArrayEquals(Arrays.copyOfRange(data, 4990, 5000), read(store.open(KEY, 4990, 10)));
+        assertArrayEquals(Arrays.copyOfRange(data, 0, 1), read(store.open(KEY, 0, 1)));
+    }
+
+    @Test
+    void deleteReportsWhetherObjectExisted() throws IOException {
+        byte[] data = randomBytes(100);
+        store.put(KEY, new ByteArrayInputStream(data), data.length, "image/png");
+
+        assertTrue(store.delete(KEY));
+        assertFalse(store.delete(KEY));
+        assertTrue(store.stat(KEY).isEmpty());
+    }
+
+    @Test
+    void missingObject() throws IOException {
+        assertTrue(store.stat(KEY).isEmpty());
+        assertThrows(NoSuchFileException.class, () -> read(store.open(KEY)));
+        assertThrows(NoSuchFileException.class, () -> read(store.open(KEY, 0, 10)));
+    }
+
+    @Test
+    void multipartUploadMergesPartsInOrder() throws IOException {
+        byte[] data = randomBytes(3000);
+        String multipartId = store.createMultipartUpload(KEY, "video/mp4");
+        uploadPart(multipartId, 3, data, 2000, 3000);
+        uploadPart(multipartId, 1, data, 0, 1000);
+        uploadPart(multipartId, 2, data, 1000, 2000);
+
+        store.completeMultipartUpload(KEY, multipartId);
+
+        assertArrayEquals(data, read(store.open(KEY)));
+    }
+
+    @Test
+    void abortedMultipartUploadLeavesNoObject() throws IOException {
+        byte[] data = randomBytes(1000);
+        String multipartId = store.createMultipartUpload(KEY, "video/mp4");
+        uploadPart(multipartId, 1, data, 0, 1000);
+
+        store.abortMultipartUpload(KEY, multipartId);
+
+        assertTrue(store.stat(KEY).isEmpty());
+    }
+
+    private void uploadPart(String multipartId, int partNumber, byte[] data, int from, int to) throws IOException {
+        store.uploadPart(KEY, multipartId, partNumber, new ByteArrayInputStream(data, from, to - from), to - from);
+    }
+
+    protected static byte[] read(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    protected static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,245 @@
+package com.dreamplanner.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 测试用的进程内S3服务
+ * 只实现S3BlobStore用到的path-style接口：对象的增删查、Range读取和分段上传，不校验签名
+ *
+ * @author DreamPlanner
+ */
+class FakeS3Server implements AutoCloseable {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private final HttpServer server;
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    FakeS3Server() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    URI endpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    /**
+     * 未完成的分段上传数
+     */
+    int pendingUploads() {
+        return uploads.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String key = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String uploadId = query.get("uploadId");
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    byte[] body = body(exchange);
+                    if (uploadId != null) {
+                        uploads.get(uploadId).put(Integer.parseInt(query.get("partNumber")), body);
+                    } else {
+                        objects.put(key, new StoredObject(body,
+                                exchange.getRequestHeaders().getFirst("Content-Type"), Instant.now()));
+                    }
+                    exchange.getResponseHeaders().set("ETag", etag(body));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "POST" -> {
+                    body(exchange);
+                    if (query.containsKey("uploads")) {
+                        String id = UUID.randomUUID().toString();
+                        uploads.put(id, new TreeMap<>());
+                        xml(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + id
+                                + "</UploadId></InitiateMultipartUploadResult>");
+                    } else {
+                        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+                        for (byte[] part : uploads.remove(uploadId).values()) {
+                            merged.writeBytes(part);
+                        }
+                        objects.put(key, new StoredObject(merged.toByteArray(), null, Instant.now()));
+                        xml(exchange, 200, "<CompleteMultipartUploadResult><Key>" + key
+                                + "</Key></CompleteMultipartUploadResult>");
+                    }
+                }
+                case "HEAD" -> {
+                    StoredObject object = objects.get(key);
+                    if (object == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    headers(exchange, object);
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.content.length));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> {
+                    if (uploadId != null) {
+                        listParts(exchange, uploadId);
+                        return;
+                    }
+                    StoredObject object = objects.get(key);
+                    if (object == null) {
+                        xml(exchange, 404, "<Error><Code>NoSuchKey</Code><Message>" + key + "</Message></Error>");
+                        return;
+                    }
+                    get(exchange, object);
+                }
+                case "DELETE" -> {
+                    if (uploadId != null) {
+                        uploads.remove(uploadId);
+                    } else {
+                        objects.remove(key);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private void get(HttpExchange exchange, StoredObject object) throws IOException {
+        headers(exchange, object);
+        byte[] content = object.content;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int status = 200;
+        if (range != null) {
+            Matcher matcher = RANGE_PATTERN.matcher(range);
+            if (!matcher.matches()) {
+                xml(exchange, 416, "<Error><Code>InvalidRange</Code></Error>");
+                return;
+            }
+            int start = Integer.parseInt(matcher.group(1));
+            int end = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+            content = Arrays.copyOfRange(content, start, end + 1);
+            status = 206;
+        }
+        exchange.sendResponseHeaders(status, content.length == 0 ? -1 : content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+
+    private void listParts(HttpExchange exchange, String uploadId) throws IOException {
+        StringBuilder xml = new StringBuilder("<ListPartsResult><UploadId>").append(uploadId)
+                .append("</UploadId><IsTruncated>false</IsTruncated>");
+        uploads.get(uploadId).forEach((number, part) -> xml.append("<Part><PartNumber>").append(number)
+                .append("</PartNumber><ETag>").append(etag(part)).append("</ETag><Size>").append(part.length)
+                .append("</Size></Part>"));
+        xml(exchange, 200, xml.append("</ListPartsResult>").toString());
+    }
+
+    private static void headers(HttpExchange exchange, StoredObject object) {
+        if (object.contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", object.contentType);
+        }
+        exchange.getResponseHeaders().set("ETag", etag(object.content));
+        exchange.getResponseHeaders().set("Last-Modified",
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(object.lastModified.atOffset(ZoneOffset.UTC)));
+    }
+
+    private static void xml(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * 读取请求体，SDK对流式请求体使用aws-chunked编码时按块解码
+     */
+    private static byte[] body(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream in = exchange.getRequestBody()) {
+            raw = in.readAllBytes();
+        }
+        String sha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (sha256 == null || !sha256.startsWith("STREAMING-")) {
+            return raw;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+        while (true) {
+            int lineEnd = indexOf(raw, position);
+            String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0], 16);
+            if (size == 0) {
+                return decoded.toByteArray();
+            }
+            decoded.write(raw, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalStateException("aws-chunked编码不完整");
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            params.put(name, eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * 与S3一致使用内容的MD5作为ETag，SDK写入后会据此校验
+     */
+    private static String etag(byte[] content) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredObject(byte[] content, String contentType, Instant lastModified) {
+    }
+}
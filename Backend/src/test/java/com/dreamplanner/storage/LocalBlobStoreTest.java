@@ -0,0 +1,33 @@
+package com.dreamplanner.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本地磁盘存储：通用读写约定，不提供预签名地址，存储键不能越出上传目录
+ *
+ * @author DreamPlanner
+ */
+class LocalBlobStoreTest extends BlobStoreContractTest {
+
+    @Override
+    protected BlobStore newStore() {
+        return new LocalBlobStore(tempDir.resolve("uploads").toString());
+    }
+
+    @Test
+    void noPresignedUrl() {
+        assertTrue(store.presignedDownloadUrl(KEY).isEmpty());
+    }
+
+    @Test
+    void rejectsKeysOutsideRoot() {
+        assertThrows(IllegalArgumentException.class, () -> store.open("../outside.png"));
+        assertFalse(Files.exists(tempDir.resolve("outside.png")));
+    }
+}
@@ -0,0 +1,82 @@
+package com.dreamplanner.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * S3对象存储：对接进程内的S3服务验证通用读写约定、预签名下载和超过分段大小时的自动分段上传
+ *
+ * @author DreamPlanner
+ */
+class S3BlobStoreTest extends BlobStoreContractTest {
+
+    private FakeS3Server server;
+    private S3BlobStore s3;
+
+    @Override
+    protected BlobStore newStore() throws IOException {
+        server = new FakeS3Server();
+        s3 = newStore(true);
+        return s3;
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3.close();
+        server.close();
+    }
+
+    @Test
+    void presignedUrlServesObject() throws Exception {
+        byte[] data = randomBytes(2000);
+        store.put(KEY, new ByteArrayInputStream(data), data.length, "image/png");
+
+        URI url = store.presignedDownloadUrl(KEY).orElseThrow();
+        assertEquals(server.endpoint().getPort(), url.getPort());
+        assertTrue(url.getPath().endsWith("/bucket/" + KEY));
+        assertTrue(url.getQuery().contains("X-Amz-Signature="));
+
+        // 客户端重定向后直接从存储服务下载
+        HttpResponse<byte[]> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(url).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(data, response.body());
+    }
+
+    @Test
+    void noPresignedUrlWhenRedirectDisabled() {
+        S3BlobStore direct = newStore(false);
+        try {
+            assertTrue(direct.presignedDownloadUrl(KEY).isEmpty());
+        } finally {
+            direct.close();
+        }
+    }
+
+    @Test
+    void largeContentUsesMultipartUpload() throws IOException {
+        byte[] data = randomBytes((int) DataSize.ofMegabytes(5).toBytes() * 2 + 100);
+        store.put(KEY, new ByteArrayInputStream(data), -1, "video/mp4");
+
+        assertArrayEquals(data, read(store.open(KEY)));
+        assertEquals(0, server.pendingUploads());
+    }
+
+    private S3BlobStore newStore(boolean redirectDownloads) {
+        return new S3BlobStore(server.endpoint().toString(), "us-east-1", "bucket", "test", "test", true,
+                DataSize.ofMegabytes(5), redirectDownloads, Duration.ofMinutes(5));
+    }
+}
@@ -0,0 +1,127 @@
+package com.dreamplanner.support.query;
+
+import com.dreamplanner.entity.User;
+import com.dreamplanner.util.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * 查询预算测试基类
+ * 子类通过assertQueryBudget声明"某个请求最多执行多少条SQL"，新增的N+1查询会让用例失败并打印全部语句。
+ * 用例不加@Transactional，请求在自己的事务和OSIV会话中执行，与线上行为一致；数据在每个用例前重置
+ *
+ * @author DreamPlanner
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryBudgetConfiguration.class)
+public abstract class AbstractQueryBudgetTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    protected SqlStatementRecorder recorder;
+
+    @Autowired
+    private QueryBudgetFixtures fixtures;
+
+    protected QueryBudgetFixtures.Data data;
+
+    @BeforeEach
+    void resetFixtures() {
+        data = fixtures.reset();
+    }
+
+    /**
+     * 以指定用户身份执行请求，断言请求成功且SQL语句数不超过预算
+     * JWT过滤器加载用户的那一条查询也计入预算
+     *
+     * @param budget  语句数上限
+     * @param request 请求
+     * @param user    当前登录用户，为null时匿名访问
+     * @return 记录到的语句，便于进一步断言语句类型
+     */
+    protected RecordedStatements assertQueryBudget(int budget, MockHttpServletRequestBuilder request, User user)
+            throws Exception {
+        if (user != null) {
+            request.header(HttpHeaders.AUTHORIZATION,
+                    "Bearer " + jwtUtil.generateToken(user.getId(), user.getUsername()));
+        }
+        String description = describe(request);
+
+        recorder.start();
+        MockHttpServletResponse response;
+        RecordedStatements statements;
+        try {
+            response = mockMvc.perform(request).andReturn().getResponse();
+        } finally {
+            statements = recorder.stop();
+        }
+
+        assertSuccessful(description, response, statements);
+        statements.assertAtMost(budget, description);
+        return statements;
+    }
+
+    /**
+     * 以alice身份执行请求
+     */
+    protected RecordedStatements assertQueryBudget(int budget, MockHttpServletRequestBuilder request)
+            throws Exception {
+        return assertQueryBudget(budget, request, data.alice());
+    }
+
+    /**
+     * 将对象序列化为JSON请求体
+     */
+    protected MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body)
+            throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+    }
+
+    /**
+     * 失败的请求往往提前返回，语句数偏少会让预算断言失去意义，因此先确认请求本身成功
+     */
+    private void assertSuccessful(String description, MockHttpServletResponse response,
+                                  RecordedStatements statements) throws Exception {
+        String body = response.getContentAsString();
+        if (response.getStatus() >= 400) {
+            throw new AssertionError(String.format("%s 返回HTTP %d: %s%n%s",
+                    description, response.getStatus(), body, statements));
+        }
+        if (body.isEmpty()) {
+            return;
+        }
+        JsonNode node = objectMapper.readTree(body);
+        if (node.isObject() && node.hasNonNull("code") && node.get("code").asInt() != 200) {
+            throw new AssertionError(String.format("%s 返回业务错误: %s%n%s", description, body, statements));
+        }
+    }
+
+    private static String describe(MockHttpServletRequestBuilder request) {
+        MockHttpServletRequest built = request.buildRequest(new MockServletContext());
+        String query = built.getQueryString();
+        return built.getMethod() + " " + built.getRequestURI() + (query != null ? "?" + query : "");
+    }
+}
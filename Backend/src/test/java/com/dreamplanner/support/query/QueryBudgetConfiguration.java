@@ -0,0 +1,47 @@
+package com.dreamplanner.support.query;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * 查询预算测试配置
+ * 用datasource-proxy包装应用数据源，使每条经过JDBC执行的语句都能被SqlStatementRecorder看到
+ *
+ * @author DreamPlanner
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryBudgetConfiguration {
+
+    @Bean
+    public SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(
+            ObjectProvider<SqlStatementRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name("query-budget")
+                            .listener(recorder.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryBudgetFixtures queryBudgetFixtures() {
+        return new QueryBudgetFixtures();
+    }
+}
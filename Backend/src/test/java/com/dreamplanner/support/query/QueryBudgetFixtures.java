@@ -0,0 +1,272 @@
+package com.dreamplanner.support.query;
+
+import com.dreamplanner.cache.TaskCalendarCache;
+import com.dreamplanner.entity.Comment;
+import com.dreamplanner.entity.Dream;
+import com.dreamplanner.entity.Follow;
+import com.dreamplanner.entity.Like;
+import com.dreamplanner.entity.Post;
+import com.dreamplanner.entity.Progress;
+import com.dreamplanner.entity.Task;
+import com.dreamplanner.entity.User;
+import com.dreamplanner.repository.CommentRepository;
+import com.dreamplanner.repository.DreamRepository;
+import com.dreamplanner.repository.FollowRepository;
+import com.dreamplanner.repository.LikeRepository;
+import com.dreamplanner.repository.PostRepository;
+import com.dreamplanner.repository.ProgressRepository;
+import com.dreamplanner.repository.TaskRepository;
+import com.dreamplanner.repository.UserRepository;
+import com.dreamplanner.search.post.PostDocument;
+import com.dreamplanner.search.post.PostSearchIndex;
+import com.dreamplanner.service.TaskHierarchyService;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 查询预算测试数据
+ * 每个用例前清空全部表并写入同一份小规模数据，规模刚好能让列表接口触发关联加载，
+ * 这样N+1问题会直接体现在语句数上
+ *
+ * @author DreamPlanner
+ */
+public class QueryBudgetFixtures {
+
+    /**
+     * 所有用户的明文密码
+     */
+    public static final String PASSWORD = "password";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private DreamRepository dreamRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskHierarchyService taskHierarchyService;
+
+    @Autowired
+    private TaskCalendarCache taskCalendarCache;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    /**
+     * 清空数据库并重新写入测试数据
+     *
+     * @return 写入的数据
+     */
+    public Data reset() {
+        truncateAll();
+        // 主键从1重新开始，二级缓存中上一个用例的条目会与新数据的ID冲突
+        entityManagerFactory.getCache().evictAll();
+        taskCalendarCache.invalidateAll();
+        return new TransactionTemplate(transactionManager).execute(status -> seed());
+    }
+
+    private void truncateAll() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'public' AND table_type = 'BASE TABLE'",
+                String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            for (String table : tables) {
+                jdbcTemplate.execute("TRUNCATE TABLE \"" + table + "\" RESTART IDENTITY");
+            }
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+
+    private Data seed() {
+        LocalDate today = LocalDate.now();
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        User alice = userRepository.save(user("alice", "爱丽丝", "13800000001", encodedPassword));
+        User bob = userRepository.save(user("bob", "鲍勃", "13800000002", encodedPassword));
+        User carol = userRepository.save(user("carol", "卡罗尔", "13800000003", encodedPassword));
+        User dave = userRepository.save(user("dave", "戴夫", "13800000004", encodedPassword));
+
+        followRepository.save(follow(alice, bob));
+        followRepository.save(follow(alice, carol));
+        followRepository.save(follow(bob, alice));
+        followRepository.save(follow(dave, alice));
+
+        Dream swim = dreamRepository.save(dream(alice, "学会游泳", "健康", 1));
+        Dream reading = dreamRepository.save(dream(alice, "一年读完二十本书", "学习", 0));
+        Dream marathon = dreamRepository.save(dream(bob, "跑完一次马拉松", "健康", 1));
+
+        Task parent = taskRepository.save(task(swim, alice, "练习换气", 1, today.minusDays(1), today.plusDays(2), null));
+        taskRepository.save(task(swim, alice, "办游泳卡", 2, today.minusDays(10), today.minusDays(9), null));
+        Task pending = taskRepository.save(task(swim, alice, "学习蛙泳", 0, today.plusDays(1), today.plusDays(5), null));
+        taskRepository.save(task(swim, alice, "岸上练习", 1, today, today.plusDays(1), parent));
+        taskRepository.save(task(swim, alice, "水中练习", 0, null, null, parent));
+        taskRepository.save(task(reading, alice, "阅读《百年孤独》", 1, today.minusDays(5), today, null));
+        taskRepository.save(task(reading, alice, "阅读《活着》", 0, today.plusDays(10), today.plusDays(20), null));
+        taskRepository.save(task(reading, alice, "阅读《三体》", 3, today.minusDays(20), today.minusDays(2), null));
+        taskRepository.save(task(marathon, bob, "每周跑步三次", 1, today.minusDays(3), today.plusDays(4), null));
+        taskRepository.save(task(marathon, bob, "完成半程马拉松", 0, today.plusDays(30), today.plusDays(60), null));
+        taskHierarchyService.onTasksCreated(taskRepository.findAll());
+
+        Post bobFirst = postRepository.save(post(bob, marathon, "第一次跑完十公里"));
+        Post bobSecond = postRepository.save(post(bob, marathon, "配速提升了"));
+        Post bobRest = postRepository.save(post(bob, null, "今天休息"));
+        postRepository.save(post(carol, null, "新的开始"));
+        postRepository.save(post(carol, null, "坚持第七天"));
+        Post aliceSwim = postRepository.save(post(alice, swim, "第一次下水"));
+        postSearchIndex.clear();
+        postRepository.findAll().forEach(post -> postSearchIndex.index(PostDocument.of(post)));
+
+        Comment aliceComment = commentRepository.save(comment(bobFirst, alice, "太厉害了", null));
+        commentRepository.save(comment(bobFirst, carol, "加油", null));
+        commentRepository.save(comment(bobFirst, dave, "一起跑吧", null));
+        commentRepository.save(comment(bobFirst, bob, "谢谢", aliceComment.getId()));
+
+        likeRepository.save(like(alice, bobFirst));
+        likeRepository.save(like(alice, bobSecond));
+        likeRepository.save(like(carol, bobFirst));
+
+        progressRepository.save(progress(alice, swim, parent, "第一次能在水里憋气十秒"));
+        progressRepository.save(progress(alice, swim, parent, "换气动作基本正确"));
+        progressRepository.save(progress(alice, swim, null, "办好了游泳卡"));
+
+        bobFirst.setCommentCount(4);
+        bobFirst.setLikeCount(2);
+        bobSecond.setLikeCount(1);
+
+        return new Data(alice, bob, carol, dave, swim, reading, marathon, parent, pending, bobFirst, bobRest, aliceSwim);
+    }
+
+    private static User user(String username, String nickname, String phone, String encodedPassword) {
+        User user = new User();
+        user.setUsername(username);
+        user.setNickname(nickname);
+        user.setPassword(encodedPassword);
+        user.setEmail(username + "@example.com");
+        user.setPhone(phone);
+        user.setStatus(1);
+        return user;
+    }
+
+    private static Follow follow(User follower, User followed) {
+        Follow follow = new Follow();
+        follow.setFollower(follower);
+        follow.setFollowed(followed);
+        return follow;
+    }
+
+    private static Dream dream(User user, String title, String category, int isPublic) {
+        Dream dream = new Dream();
+        dream.setUser(user);
+        dream.setTitle(title);
+        dream.setDescription(title);
+        dream.setCategory(category);
+        dream.setPriority(2);
+        dream.setStatus(1);
+        dream.setCompletionRate(BigDecimal.ZERO);
+        dream.setDeadline(LocalDate.now().plusMonths(6));
+        dream.setIsPublic(isPublic);
+        return dream;
+    }
+
+    private static Task task(Dream dream, User user, String title, int status,
+                             LocalDate startDate, LocalDate dueDate, Task parentTask) {
+        Task task = new Task();
+        task.setDream(dream);
+        task.setUser(user);
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setPriority(2);
+        task.setStartDate(startDate);
+        task.setDueDate(dueDate);
+        task.setParentTask(parentTask);
+        return task;
+    }
+
+    private static Post post(User user, Dream dream, String title) {
+        Post post = new Post();
+        post.setUser(user);
+        post.setDream(dream);
+        post.setTitle(title);
+        post.setContent(title);
+        post.setStatus(1);
+        post.setViewCount(0);
+        post.setLikeCount(0);
+        post.setCommentCount(0);
+        return post;
+    }
+
+    private static Comment comment(Post post, User user, String content, Long parentId) {
+        Comment comment = new Comment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setContent(content);
+        comment.setParentId(parentId);
+        comment.setStatus(1);
+        return comment;
+    }
+
+    private static Like like(User user, Post post) {
+        Like like = new Like();
+        like.setUser(user);
+        like.setPost(post);
+        return like;
+    }
+
+    private static Progress progress(User user, Dream dream, Task task, String description) {
+        Progress progress = new Progress();
+        progress.setUser(user);
+        progress.setDream(dream);
+        progress.setTask(task);
+        progress.setDescription(description);
+        return progress;
+    }
+
+    /**
+     * 测试数据中各用例会直接引用的实体
+     */
+    public record Data(User alice, User bob, User carol, User dave,
+                       Dream swim, Dream reading, Dream marathon,
+                       Task parentTask, Task pendingTask,
+                       Post bobFirstPost, Post bobRestPost, Post aliceSwimPost) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.dreamplanner.support.query;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 一次记录期间执行的SQL语句
+ *
+ * @author DreamPlanner
+ */
+public class RecordedStatements {
+
+    private final List<String> statements;
+
+    private final List<List<Object>> parameters;
+
+    RecordedStatements(List<String> statements, List<List<Object>> parameters) {
+        this.statements = List.copyOf(statements);
+        this.parameters = List.copyOf(parameters);
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    public int countSelects() {
+        return countStartingWith("select");
+    }
+
+    public int countInserts() {
+        return countStartingWith("insert");
+    }
+
+    public int countUpdates() {
+        return countStartingWith("update");
+    }
+
+    public int countDeletes() {
+        return countStartingWith("delete");
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * 第index条语句绑定的参数，按占位符顺序排列，可能包含null
+     */
+    public List<Object> getParameters(int index) {
+        return parameters.get(index);
+    }
+
+    /**
+     * 断言语句总数不超过预算，失败时列出实际执行的全部语句，便于定位新增的查询
+     *
+     * @param budget      语句数上限
+     * @param description 被测操作的描述，如"GET /posts"
+     */
+    public void assertAtMost(int budget, String description) {
+        if (count() > budget) {
+            throw new AssertionError(String.format("%s 执行了 %d 条SQL，超出预算 %d 条%n%s",
+                    description, count(), budget, this));
+        }
+    }
+
+    private int countStartingWith(String keyword) {
+        int count = 0;
+        for (String statement : statements) {
+            if (statement.stripLeading().toLowerCase(Locale.ROOT).startsWith(keyword)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < statements.size(); i++) {
+            builder.append(String.format("  %2d. %s%n", i + 1, statements.get(i)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.dreamplanner.support.query;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL语句记录器
+ * 挂在数据源代理上，只记录当前线程在start()和stop()之间执行的语句；
+ * MockMvc在测试线程中同步处理请求，因此一次记录恰好覆盖一个请求内的全部语句。
+ * 同时记录每条语句绑定的参数（批量执行时取第一组），供EXPLAIN类测试原样重放
+ *
+ * @author DreamPlanner
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+
+    private final ThreadLocal<List<List<Object>>> parameters = new ThreadLocal<>();
+
+    /**
+     * 开始记录当前线程的语句
+     */
+    public void start() {
+        recording.set(new ArrayList<>());
+        parameters.set(new ArrayList<>());
+    }
+
+    /**
+     * 停止记录并返回期间执行的语句
+     */
+    public RecordedStatements stop() {
+        List<String> statements = recording.get();
+        List<List<Object>> statementParameters = parameters.get();
+        recording.remove();
+        parameters.remove();
+        if (statements == null) {
+            throw new IllegalStateException("未调用start()开始记录");
+        }
+        return new RecordedStatements(statements, statementParameters);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> statements = recording.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            statements.add(queryInfo.getQuery());
+            parameters.get().add(boundParameters(queryInfo));
+        }
+    }
+
+    /**
+     * 按参数下标取出绑定值，setNull记为null
+     */
+    private static List<Object> boundParameters(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ParameterSetOperation> operations = queryInfo.getParametersList().get(0);
+        Object[] values = new Object[operations.size()];
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            if (!(args[0] instanceof Integer index) || index < 1 || index > values.length) {
+                continue;
+            }
+            values[index - 1] = "setNull".equals(operation.getMethod().getName()) ? null : args[1];
+        }
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,58 @@
+package com.dreamplanner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 开放寻址long集合的增删查与扩容
+ *
+ * @author DreamPlanner
+ */
+class LongHashSetTest {
+
+    @Test
+    void addReportsDuplicates() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(-42));
+        assertEquals(2, set.size());
+        assertTrue(set.contains(42));
+        assertTrue(set.contains(-42));
+        assertFalse(set.contains(43));
+    }
+
+    @Test
+    void zeroIsStoredOutsideTheTable() {
+        // 0是空槽标记，单独记录
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        LongHashSet set = new LongHashSet(16);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong();
+            assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long value : expected) {
+            assertTrue(set.contains(value));
+        }
+        assertFalse(set.contains(random.nextLong()));
+    }
+}